@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.amazondashbutton.internal.capturing;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.core.PcapHandle;
+import org.pcap4j.core.PcapNativeException;
+import org.pcap4j.core.Pcaps;
+import org.pcap4j.util.MacAddress;
+
+/**
+ * Tests for {@link PacketCapturingDispatcher}, replaying the packets of a pcap file instead of capturing them from a
+ * network interface. The file contains ARP requests of button A, an ARP reply and DHCP requests of button B and an ARP
+ * request of button C, which is never registered.
+ *
+ */
+public class PacketCapturingDispatcherTest {
+
+    private static final String BUTTON_A = "ac:63:be:00:00:01";
+    private static final String BUTTON_B = "ac:63:be:00:00:02";
+
+    private static final long PACKET_INTERVAL = 5000;
+
+    private File pcapFile;
+
+    private PcapFileCapturingService packetCapturingService;
+
+    private PacketCapturingDispatcher dispatcher;
+
+    private final List<String> presses = Collections.synchronizedList(new ArrayList<String>());
+
+    @Before
+    public void setUp() throws IOException {
+        pcapFile = File.createTempFile("dashbuttons", ".pcap");
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("dashbuttons.pcap");
+                OutputStream out = new FileOutputStream(pcapFile)) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        packetCapturingService = new PcapFileCapturingService();
+        dispatcher = new PacketCapturingDispatcher(packetCapturingService);
+    }
+
+    @After
+    public void tearDown() {
+        pcapFile.delete();
+    }
+
+    @Test
+    public void pressesAreDispatchedBySourceMacAddressAndDebounced() throws Exception {
+        assumeTrue("libpcap is not available", isPcapAvailable());
+        final CountDownLatch buttonsRegistered = new CountDownLatch(1);
+
+        // The first packet of the file is sent by button A, hold the capturing until button B is registered as well
+        assertTrue(dispatcher.register(BUTTON_A, PACKET_INTERVAL, new PacketCapturingHandler() {
+            @Override
+            public void packetCaptured(MacAddress sourceMacAddress) {
+                presses.add(sourceMacAddress.toString());
+                try {
+                    buttonsRegistered.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+        assertTrue(dispatcher.register(BUTTON_B, PACKET_INTERVAL, new RecordingHandler()));
+        buttonsRegistered.countDown();
+
+        packetCapturingService.awaitEndOfFile();
+
+        assertEquals(Arrays.asList(BUTTON_A, BUTTON_B), presses);
+    }
+
+    @Test
+    public void packetsOfUnregisteredButtonsAreIgnored() throws Exception {
+        assumeTrue("libpcap is not available", isPcapAvailable());
+        assertTrue(dispatcher.register(BUTTON_B, PACKET_INTERVAL, new RecordingHandler()));
+
+        packetCapturingService.awaitEndOfFile();
+
+        assertEquals(Arrays.asList(BUTTON_B), presses);
+    }
+
+    @Test
+    public void invalidMacAddressIsRejected() {
+        assertFalse(dispatcher.register("no mac address", PACKET_INTERVAL, new RecordingHandler()));
+        assertEquals(0, packetCapturingService.handlesOpened);
+    }
+
+    @Test
+    public void filterContainsAllMacAddresses() {
+        assertEquals("(arp or port bootps)", PacketCapturingService.buildFilter(Collections.<String> emptyList()));
+        assertEquals("(arp or port bootps) and (ether src " + BUTTON_A + " or ether src " + BUTTON_B + ")",
+                PacketCapturingService.buildFilter(Arrays.asList(BUTTON_A, BUTTON_B)));
+    }
+
+    private static boolean isPcapAvailable() {
+        try {
+            return Pcaps.libVersion() != null;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private class RecordingHandler implements PacketCapturingHandler {
+        @Override
+        public void packetCaptured(MacAddress sourceMacAddress) {
+            presses.add(sourceMacAddress.toString());
+        }
+    }
+
+    /**
+     * Uses the pcap file as the stand-in network interface
+     */
+    private class PcapFileCapturingService extends PacketCapturingService {
+        private volatile PcapHandle handle;
+        private int handlesOpened = 0;
+
+        private PcapFileCapturingService() {
+            super(null);
+        }
+
+        @Override
+        protected PcapHandle openHandle() throws PcapNativeException {
+            handlesOpened++;
+            handle = Pcaps.openOffline(pcapFile.getAbsolutePath());
+            return handle;
+        }
+
+        @Override
+        protected String getName() {
+            return pcapFile.getName();
+        }
+
+        private void awaitEndOfFile() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (handle == null || handle.isOpen()) {
+                assertTrue("The pcap file has not been read completely", System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -16,8 +16,8 @@ import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.types.Command;
+import org.openhab.binding.amazondashbutton.internal.capturing.PacketCapturingDispatcher;
 import org.openhab.binding.amazondashbutton.internal.capturing.PacketCapturingHandler;
-import org.openhab.binding.amazondashbutton.internal.capturing.PacketCapturingService;
 import org.openhab.binding.amazondashbutton.internal.config.AmazonDashButtonConfig;
 import org.openhab.binding.amazondashbutton.internal.pcap.PcapNetworkInterfaceListener;
 import org.openhab.binding.amazondashbutton.internal.pcap.PcapNetworkInterfaceService;
@@ -33,10 +33,13 @@ import org.slf4j.LoggerFactory;
  *
  * @author Oliver Libutzki - Initial contribution
  */
-public class AmazonDashButtonHandler extends BaseThingHandler implements PcapNetworkInterfaceListener {
-    private PacketCapturingService packetCapturingService;
+public class AmazonDashButtonHandler extends BaseThingHandler
+        implements PcapNetworkInterfaceListener, PacketCapturingHandler {
+    private PcapNetworkInterfaceWrapper pcapNetworkInterface;
 
-    private long lastCommandHandled = 0;
+    private PacketCapturingDispatcher packetCapturingDispatcher;
+
+    private String macAddress;
 
     public AmazonDashButtonHandler(Thing thing) {
         super(thing);
@@ -66,20 +69,11 @@ public class AmazonDashButtonHandler extends BaseThingHandler implements PcapNet
                     return;
                 }
 
-                packetCapturingService = new PacketCapturingService(pcapNetworkInterface);
-                boolean capturingStarted = packetCapturingService.startCapturing(new PacketCapturingHandler() {
-
-                    @Override
-                    public void packetCaptured(MacAddress macAddress) {
-                        long now = System.currentTimeMillis();
-                        if (lastCommandHandled + packetInterval < now) {
-                            ChannelUID pressChannel = new ChannelUID(getThing().getUID(), PRESS);
-                            triggerChannel(pressChannel);
-                            lastCommandHandled = now;
-                        }
-                    }
-                }, macAddress);
-                if (capturingStarted) {
+                AmazonDashButtonHandler.this.pcapNetworkInterface = pcapNetworkInterface;
+                AmazonDashButtonHandler.this.macAddress = macAddress;
+                packetCapturingDispatcher = PacketCapturingDispatcher.register(pcapNetworkInterface, macAddress,
+                        packetInterval, AmazonDashButtonHandler.this);
+                if (packetCapturingDispatcher != null) {
                     updateStatus(ThingStatus.ONLINE);
                 } else {
                     updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
@@ -90,22 +84,27 @@ public class AmazonDashButtonHandler extends BaseThingHandler implements PcapNet
 
     }
 
+    @Override
+    public void packetCaptured(MacAddress sourceMacAddress) {
+        // The dispatcher already ignores the packets within the packet interval
+        ChannelUID pressChannel = new ChannelUID(getThing().getUID(), PRESS);
+        triggerChannel(pressChannel);
+    }
+
     @Override
     public void dispose() {
         super.dispose();
-        if (packetCapturingService != null) {
-            packetCapturingService.stopCapturing();
-            packetCapturingService = null;
+        if (packetCapturingDispatcher != null) {
+            packetCapturingDispatcher.unregister(macAddress, this);
+            packetCapturingDispatcher = null;
         }
         PcapNetworkInterfaceService.instance().unregisterListener(this);
     }
 
     @Override
     public void onPcapNetworkInterfaceAdded(PcapNetworkInterfaceWrapper newNetworkInterface) {
-        if (packetCapturingService != null) {
-            final PcapNetworkInterfaceWrapper trackedPcapNetworkInterface = packetCapturingService
-                    .getPcapNetworkInterface();
-            if (trackedPcapNetworkInterface.equals(newNetworkInterface)) {
+        if (packetCapturingDispatcher != null) {
+            if (pcapNetworkInterface.equals(newNetworkInterface)) {
                 updateStatus(ThingStatus.ONLINE);
             }
         }
@@ -113,10 +112,8 @@ public class AmazonDashButtonHandler extends BaseThingHandler implements PcapNet
 
     @Override
     public void onPcapNetworkInterfaceRemoved(PcapNetworkInterfaceWrapper removedNetworkInterface) {
-        if (packetCapturingService != null) {
-            final PcapNetworkInterfaceWrapper trackedPcapNetworkInterface = packetCapturingService
-                    .getPcapNetworkInterface();
-            if (trackedPcapNetworkInterface.equals(removedNetworkInterface)) {
+        if (packetCapturingDispatcher != null) {
+            if (pcapNetworkInterface.equals(removedNetworkInterface)) {
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
                         "The networkinterface " + removedNetworkInterface.getName() + " is not present anymore.");
             }
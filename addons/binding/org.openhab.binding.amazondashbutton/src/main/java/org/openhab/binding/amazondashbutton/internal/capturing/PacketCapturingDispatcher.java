@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.amazondashbutton.internal.capturing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.amazondashbutton.internal.pcap.PcapNetworkInterfaceWrapper;
+import org.pcap4j.util.MacAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PacketCapturingDispatcher} shares a single {@link PacketCapturingService} between all buttons of a
+ * network interface. The BPF filter of the capturing is restricted to the MAC addresses of the registered buttons and
+ * rebuilt whenever a button is registered or unregistered. Captured packets are dispatched by their source MAC address
+ * to the {@link PacketCapturingHandler} of the button, ignoring further packets of the same button within its packet
+ * interval.
+ *
+ */
+public class PacketCapturingDispatcher implements PacketCapturingHandler {
+
+    private static final Map<PcapNetworkInterfaceWrapper, PacketCapturingDispatcher> DISPATCHERS = new HashMap<>();
+
+    private final Logger logger = LoggerFactory.getLogger(PacketCapturingDispatcher.class);
+
+    private final PacketCapturingService packetCapturingService;
+
+    private final Map<MacAddress, Registration> registrations = new ConcurrentHashMap<>();
+
+    private boolean capturing = false;
+
+    PacketCapturingDispatcher(PacketCapturingService packetCapturingService) {
+        this.packetCapturingService = packetCapturingService;
+    }
+
+    /**
+     * Registers a button at the dispatcher of the given network interface, creating the dispatcher if needed. The
+     * lookup and the registration are done under one lock, so the dispatcher can't be dropped by the
+     * {@link #unregister(String, PacketCapturingHandler)} of the last button in between.
+     *
+     * @param pcapNetworkInterface The network interface
+     * @param macAddress The MAC address of the button
+     * @param packetInterval The time (in ms) further packets of the button are ignored after a packet has been
+     *            dispatched
+     * @param packetCapturingHandler The handler to be called if the button has been pressed
+     * @return Returns the dispatcher, if the button is captured, otherwise returns null
+     */
+    public static PacketCapturingDispatcher register(PcapNetworkInterfaceWrapper pcapNetworkInterface,
+            String macAddress, long packetInterval, PacketCapturingHandler packetCapturingHandler) {
+        synchronized (DISPATCHERS) {
+            PacketCapturingDispatcher dispatcher = DISPATCHERS.get(pcapNetworkInterface);
+            if (dispatcher == null) {
+                dispatcher = new PacketCapturingDispatcher(new PacketCapturingService(pcapNetworkInterface));
+                DISPATCHERS.put(pcapNetworkInterface, dispatcher);
+            }
+            if (dispatcher.register(macAddress, packetInterval, packetCapturingHandler)) {
+                return dispatcher;
+            }
+            if (dispatcher.registrations.isEmpty()) {
+                DISPATCHERS.remove(pcapNetworkInterface);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Registers a button. The capturing is started with the first registered button.
+     *
+     * @param macAddress The MAC address of the button
+     * @param packetInterval The time (in ms) further packets of the button are ignored after a packet has been
+     *            dispatched
+     * @param packetCapturingHandler The handler to be called if the button has been pressed
+     * @return Returns true, if the button is captured, otherwise returns false
+     */
+    synchronized boolean register(String macAddress, long packetInterval,
+            PacketCapturingHandler packetCapturingHandler) {
+        final MacAddress address;
+        try {
+            address = MacAddress.getByName(macAddress);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid MAC address {}.", macAddress);
+            return false;
+        }
+
+        registrations.put(address, new Registration(packetInterval, packetCapturingHandler));
+        if (capturing) {
+            return packetCapturingService.updateMacAddresses(getMacAddresses());
+        }
+        capturing = packetCapturingService.startCapturing(this, getMacAddresses());
+        if (!capturing) {
+            registrations.remove(address);
+        }
+        return capturing;
+    }
+
+    /**
+     * Unregisters a button. The capturing is stopped once the last button has been unregistered.
+     *
+     * @param macAddress The MAC address of the button
+     * @param packetCapturingHandler The handler which has been registered for the button
+     */
+    public void unregister(String macAddress, PacketCapturingHandler packetCapturingHandler) {
+        final MacAddress address;
+        try {
+            address = MacAddress.getByName(macAddress);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+
+        // same lock order as register(), a button registered meanwhile keeps the dispatcher
+        synchronized (DISPATCHERS) {
+            synchronized (this) {
+                final Registration registration = registrations.get(address);
+                if (registration == null || registration.packetCapturingHandler != packetCapturingHandler) {
+                    return;
+                }
+                registrations.remove(address);
+
+                if (!capturing) {
+                    return;
+                }
+                if (registrations.isEmpty()) {
+                    DISPATCHERS.remove(packetCapturingService.getPcapNetworkInterface(), this);
+                    packetCapturingService.stopCapturing();
+                    capturing = false;
+                } else {
+                    packetCapturingService.updateMacAddresses(getMacAddresses());
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatches the captured packet to the handler of the button with the given MAC address.
+     */
+    @Override
+    public void packetCaptured(MacAddress sourceMacAddress) {
+        final Registration registration = registrations.get(sourceMacAddress);
+        if (registration != null && registration.accept(System.currentTimeMillis())) {
+            registration.packetCapturingHandler.packetCaptured(sourceMacAddress);
+        }
+    }
+
+    private List<String> getMacAddresses() {
+        final List<String> macAddresses = new ArrayList<>(registrations.size());
+        for (MacAddress macAddress : registrations.keySet()) {
+            macAddresses.add(macAddress.toString());
+        }
+        return macAddresses;
+    }
+
+    /**
+     * The handler of a registered button and the time its last packet has been dispatched.
+     */
+    private static class Registration {
+        private final long packetInterval;
+        private final PacketCapturingHandler packetCapturingHandler;
+        private long lastPacketDispatched = 0;
+
+        private Registration(long packetInterval, PacketCapturingHandler packetCapturingHandler) {
+            this.packetInterval = packetInterval;
+            this.packetCapturingHandler = packetCapturingHandler;
+        }
+
+        private synchronized boolean accept(long now) {
+            if (lastPacketDispatched + packetInterval < now) {
+                lastPacketDispatched = now;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.amazondashbutton.internal.capturing;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -17,6 +19,7 @@ import org.pcap4j.core.BpfProgram.BpfCompileMode;
 import org.pcap4j.core.NotOpenException;
 import org.pcap4j.core.PacketListener;
 import org.pcap4j.core.PcapHandle;
+import org.pcap4j.core.PcapNativeException;
 import org.pcap4j.core.PcapNetworkInterface.PromiscuousMode;
 import org.pcap4j.packet.ArpPacket;
 import org.pcap4j.packet.EthernetPacket;
@@ -43,20 +46,20 @@ public class PacketCapturingService {
 
     private final PcapNetworkInterfaceWrapper pcapNetworkInterface;
 
-    private PcapHandle pcapHandle;
+    private volatile PcapHandle pcapHandle;
 
     public PacketCapturingService(PcapNetworkInterfaceWrapper pcapNetworkInterface) {
         this.pcapNetworkInterface = pcapNetworkInterface;
     }
 
     /**
-     * Calls {@link #startCapturing(PacketCapturingHandler, String)} with a null MAC address.
+     * Calls {@link #startCapturing(PacketCapturingHandler, Collection)} without MAC addresses.
      *
      * @param packetCapturingHandler The handler to be called every time packet is captured
      * @return Returns true, if the capturing has been started successfully, otherwise returns false
      */
     public boolean startCapturing(final PacketCapturingHandler packetCapturingHandler) {
-        return startCapturing(packetCapturingHandler, null);
+        return startCapturing(packetCapturingHandler, Collections.<String> emptySet());
     }
 
     /**
@@ -75,6 +78,23 @@ public class PacketCapturingService {
      */
 
     public boolean startCapturing(final PacketCapturingHandler packetCapturingHandler, final String macAddress) {
+        return startCapturing(packetCapturingHandler,
+                macAddress == null ? Collections.<String> emptySet() : Collections.singleton(macAddress));
+    }
+
+    /**
+     * Starts the capturing of packets sent by any of the given MAC addresses in a dedicated thread, so this method
+     * returns immediately. Every time a packet is captured, the
+     * {@link PacketCapturingHandler#packetCaptured(MacAddress)} of the given {@link PacketCapturingHandler} is called.
+     *
+     * @param packetCapturingHandler The handler to be called every time a packet is captured
+     * @param macAddresses The source MAC addresses of the captured packets, might be empty in order to deactivate this
+     *            filter criteria
+     * @return Returns true, if the capturing has been started successfully, otherwise returns false
+     * @throws IllegalStateException Thrown if {@link PcapHandle#isOpen()} of {@link #pcapHandle} returns true
+     */
+    public boolean startCapturing(final PacketCapturingHandler packetCapturingHandler,
+            final Collection<String> macAddresses) {
         if (pcapHandle != null) {
             if (pcapHandle.isOpen()) {
                 throw new IllegalStateException("There is an open pcap handle.");
@@ -83,23 +103,20 @@ public class PacketCapturingService {
             }
         }
         try {
-            pcapHandle = pcapNetworkInterface.openLive(SNAPLEN, PromiscuousMode.PROMISCUOUS, READ_TIMEOUT);
-            StringBuilder filterBuilder = new StringBuilder("(arp or port bootps)");
-            if (macAddress != null) {
-                filterBuilder.append(" and ether src " + macAddress);
-            }
-            pcapHandle.setFilter(filterBuilder.toString(), BpfCompileMode.OPTIMIZE);
+            pcapHandle = openHandle();
+            pcapHandle.setFilter(buildFilter(macAddresses), BpfCompileMode.OPTIMIZE);
         } catch (Exception e) {
-            logger.error("Capturing packets on device {} failed.", pcapNetworkInterface.getName(), e);
+            logger.error("Capturing packets on device {} failed.", getName(), e);
             return false;
         }
+        final PcapHandle handle = pcapHandle;
         ExecutorService executorService = Executors.newSingleThreadExecutor();
         executorService.submit(new Callable<Void>() {
 
             @Override
             public Void call() throws Exception {
                 try {
-                    pcapHandle.loop(-1, new PacketListener() {
+                    handle.loop(-1, new PacketListener() {
 
                         @Override
                         public void gotPacket(Packet packet) {
@@ -114,24 +131,93 @@ public class PacketCapturingService {
                         }
                     });
                 } finally {
-                    if (pcapHandle != null && pcapHandle.isOpen()) {
-                        pcapHandle.close();
+                    if (handle.isOpen()) {
+                        handle.close();
+                    }
+                    if (pcapHandle == handle) {
                         pcapHandle = null;
                     }
                 }
                 return null;
             }
         });
-        if (macAddress == null) {
-            logger.debug("Started capturing ARP and BOOTP requests for network device {}.",
-                    pcapNetworkInterface.getName());
+        // The executor terminates once the capturing loop has been left
+        executorService.shutdown();
+        if (macAddresses.isEmpty()) {
+            logger.debug("Started capturing ARP and BOOTP requests for network device {}.", getName());
         } else {
-            logger.debug("Started capturing ARP  and BOOTP requests for network device {} and MAC address {}.",
-                    pcapNetworkInterface.getName(), macAddress);
+            logger.debug("Started capturing ARP  and BOOTP requests for network device {} and MAC addresses {}.",
+                    getName(), macAddresses);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the MAC addresses the running capturing is restricted to by recompiling the BPF filter of the open
+     * {@link PcapHandle}.
+     *
+     * @param macAddresses The source MAC addresses of the captured packets, might be empty in order to deactivate this
+     *            filter criteria
+     * @return Returns true, if the filter has been replaced successfully, otherwise returns false
+     */
+    public boolean updateMacAddresses(final Collection<String> macAddresses) {
+        final PcapHandle handle = pcapHandle;
+        if (handle == null || !handle.isOpen()) {
+            return false;
+        }
+        try {
+            handle.setFilter(buildFilter(macAddresses), BpfCompileMode.OPTIMIZE);
+        } catch (Exception e) {
+            logger.error("Updating the filter on device {} failed.", getName(), e);
+            return false;
         }
+        logger.debug("Capturing ARP and BOOTP requests for network device {} and MAC addresses {}.", getName(),
+                macAddresses);
         return true;
     }
 
+    /**
+     * Opens the {@link PcapHandle} packets are captured from.
+     *
+     * @return The opened handle
+     * @throws PcapNativeException Thrown if the handle cannot be opened
+     */
+    protected PcapHandle openHandle() throws PcapNativeException {
+        return pcapNetworkInterface.openLive(SNAPLEN, PromiscuousMode.PROMISCUOUS, READ_TIMEOUT);
+    }
+
+    /**
+     * Returns the name of the device packets are captured from.
+     *
+     * @return The name of the device
+     */
+    protected String getName() {
+        return pcapNetworkInterface.getName();
+    }
+
+    /**
+     * Builds the BPF filter for ARP and BOOTP requests sent by any of the given MAC addresses.
+     *
+     * @param macAddresses The source MAC addresses, might be empty in order to deactivate this filter criteria
+     * @return The BPF filter expression
+     */
+    static String buildFilter(final Collection<String> macAddresses) {
+        final StringBuilder filterBuilder = new StringBuilder("(arp or port bootps)");
+        if (!macAddresses.isEmpty()) {
+            filterBuilder.append(" and (");
+            boolean first = true;
+            for (String macAddress : macAddresses) {
+                if (!first) {
+                    filterBuilder.append(" or ");
+                }
+                filterBuilder.append("ether src ").append(macAddress);
+                first = false;
+            }
+            filterBuilder.append(')');
+        }
+        return filterBuilder.toString();
+    }
+
     /**
      * Checks if the given {@link Packet} should be captured.
      *
@@ -163,8 +249,7 @@ public class PacketCapturingService {
             if (pcapHandle.isOpen()) {
                 try {
                     pcapHandle.breakLoop();
-                    logger.debug("Stopped capturing ARP and BOOTP requests for network device {}.",
-                            pcapNetworkInterface.getName());
+                    logger.debug("Stopped capturing ARP and BOOTP requests for network device {}.", getName());
                 } catch (NotOpenException e) {
                     // Just ignore
                 }
@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.atlona.internal.net;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single selector thread shared by all {@link SocketChannelSession}s. The reactor waits for any registered channel
+ * to become readable (or writable if a session has pending output) and lets the owning session process the IO. The
+ * responses are dispatched to the session listeners on the shared, bounded {@link #THREADPOOL_NAME} thread pool.
+ *
+ * The selector thread is started when the first session registers and stops once the last session has been
+ * unregistered. If the selector fails, the sessions registered with it are told so and the next session that registers
+ * starts a new selector thread.
+ */
+final class SocketChannelReactor {
+    private final Logger logger = LoggerFactory.getLogger(SocketChannelReactor.class);
+
+    /**
+     * The name of the thread pool the responses are dispatched on
+     */
+    static final String THREADPOOL_NAME = "atlona";
+
+    /**
+     * The shared instance
+     */
+    private static final SocketChannelReactor INSTANCE = new SocketChannelReactor();
+
+    /**
+     * The running selector loop - will be null if no session is registered
+     */
+    private SelectorLoop loop;
+
+    private SocketChannelReactor() {
+    }
+
+    /**
+     * Returns the reactor shared by all sessions
+     *
+     * @return the non-null reactor
+     */
+    static SocketChannelReactor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the executor the session responses are dispatched on
+     *
+     * @return a non-null executor
+     */
+    ExecutorService getDispatcher() {
+        return ThreadPoolManager.getPool(THREADPOOL_NAME);
+    }
+
+    /**
+     * Registers the connected channel of the session for reading. The channel will be switched to non-blocking mode.
+     *
+     * @param channel a non-null, connected channel
+     * @param session the non-null session owning the channel
+     * @throws IOException if the channel could not be switched to non-blocking mode or the selector could not be opened
+     */
+    synchronized void register(final SocketChannel channel, final SocketChannelSession session) throws IOException {
+        channel.configureBlocking(false);
+
+        if (loop == null) {
+            loop = new SelectorLoop();
+            loop.start();
+        }
+        loop.sessions.add(session);
+
+        final Selector selector = loop.selector;
+        loop.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    channel.register(selector, SelectionKey.OP_READ, session);
+                } catch (ClosedChannelException e) {
+                    // session was disconnected before the registration took place
+                }
+            }
+        });
+    }
+
+    /**
+     * Unregisters a session. The session's channel is expected to be closed, which removes it from the selector. Stops
+     * the selector thread if this was the last session.
+     *
+     * @param session the non-null session to unregister
+     */
+    synchronized void unregister(SocketChannelSession session) {
+        if (loop != null && loop.sessions.remove(session) && loop.sessions.isEmpty()) {
+            loop.stop();
+            loop = null;
+        }
+    }
+
+    /**
+     * Called by a selector loop that has ended. If the loop ended because of an error, it's dropped so the next
+     * registration starts a new one and the sessions registered with it are notified.
+     *
+     * @param stopped the non-null loop that has ended
+     * @param e the error that ended the loop
+     */
+    private void loopStopped(SelectorLoop stopped, IOException e) {
+        final Set<SocketChannelSession> orphaned;
+        synchronized (this) {
+            if (loop == stopped) {
+                loop = null;
+            }
+            orphaned = new HashSet<SocketChannelSession>(stopped.sessions);
+            stopped.sessions.clear();
+        }
+        for (SocketChannelSession session : orphaned) {
+            session.reactorStopped(e);
+        }
+    }
+
+    /**
+     * Changes the interest set of the channel of a session. The change is applied on the selector thread.
+     *
+     * @param channel a non-null channel
+     * @param ops the {@link SelectionKey} operations to add
+     * @param enable true to add the operations, false to remove them
+     */
+    void setInterest(final SocketChannel channel, final int ops, final boolean enable) {
+        final SelectorLoop current;
+        synchronized (this) {
+            current = loop;
+        }
+        if (current == null) {
+            return;
+        }
+
+        final Selector selector = current.selector;
+        current.execute(new Runnable() {
+            @Override
+            public void run() {
+                final SelectionKey key = channel.keyFor(selector);
+                if (key != null && key.isValid()) {
+                    key.interestOps(enable ? key.interestOps() | ops : key.interestOps() & ~ops);
+                }
+            }
+        });
+    }
+
+    /**
+     * The selector and the thread running it. A new loop is created whenever the first session registers after all
+     * sessions had been unregistered.
+     */
+    private class SelectorLoop implements Runnable {
+        /**
+         * Changes to the selector that must be applied from the selector thread
+         */
+        private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<Runnable>();
+
+        /**
+         * The sessions registered with this loop - guarded by the reactor
+         */
+        private final Set<SocketChannelSession> sessions = new HashSet<SocketChannelSession>();
+
+        private final Selector selector;
+
+        private final Thread thread;
+
+        private SelectorLoop() throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "Atlona socket reactor");
+            thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void stop() {
+            thread.interrupt();
+            selector.wakeup();
+        }
+
+        /**
+         * Queues a task for the selector thread and wakes up the selector
+         *
+         * @param task a non-null task
+         */
+        private void execute(Runnable task) {
+            pendingTasks.add(task);
+            selector.wakeup();
+        }
+
+        /**
+         * Runs the selector loop until {@link #stop()} is called. Each ready key is handed to its
+         * {@link SocketChannelSession}.
+         */
+        @Override
+        public void run() {
+            IOException error = new IOException("socket reactor stopped");
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Runnable task;
+                    while ((task = pendingTasks.poll()) != null) {
+                        task.run();
+                    }
+
+                    selector.select();
+
+                    final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        final SelectionKey key = keys.next();
+                        keys.remove();
+
+                        final SocketChannelSession session = (SocketChannelSession) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                session.processRead(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                session.processWrite(key);
+                            }
+                        } catch (CancelledKeyException e) {
+                            // session was disconnected by another thread
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Socket reactor stopped: {}", e.getMessage(), e);
+                error = e;
+            } catch (RuntimeException e) {
+                logger.warn("Socket reactor stopped: {}", e.getMessage(), e);
+                error = new IOException("socket reactor stopped", e);
+            } finally {
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    logger.debug("Exception closing the selector: {}", e.getMessage(), e);
+                }
+                loopStopped(this, error);
+            }
+        }
+    }
+}
@@ -11,14 +11,16 @@ package org.openhab.binding.atlona.internal.net;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -28,13 +30,34 @@ import org.slf4j.LoggerFactory;
 /**
  * Represents a restartable socket connection to the underlying telnet session. Commands can be sent via
  * {@link #sendCommand(String)} and responses will be received on any {@link SocketSessionListener}. This implementation
- * of {@link SocketSession} communicates using a {@link SocketChannel} connection.
+ * of {@link SocketSession} communicates using a non-blocking {@link SocketChannel} connection.
+ *
+ * The session does not own any threads: the channel is registered with the shared {@link SocketChannelReactor}, which
+ * calls back {@link #processRead(SelectionKey)} whenever data is available. The data is framed into responses right in
+ * the {@link #_readBuffer} and the responses are dispatched to the listeners on the reactor's bounded thread pool, one
+ * response at a time per session.
  *
  * @author Tim Roberts
  */
 public class SocketChannelSession implements SocketSession {
     private final Logger logger = LoggerFactory.getLogger(SocketChannelSession.class);
 
+    /**
+     * The maximum number of responses that are queued before reading from the socket is suspended
+     */
+    private static final int MAX_RESPONSES = 50;
+
+    /**
+     * The initial size of the {@link #_readBuffer}
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The special prompts that are treated as responses for purposes of logging in
+     */
+    private static final byte[][] PROMPTS = { "Login: ".getBytes(StandardCharsets.US_ASCII),
+            "Password: ".getBytes(StandardCharsets.US_ASCII) };
+
     /**
      * The host/ip address to connect to
      */
@@ -45,23 +68,48 @@ public class SocketChannelSession implements SocketSession {
      */
     private final int _port;
 
+    /**
+     * The reactor the {@link #_socketChannel} is registered with
+     */
+    private final SocketChannelReactor _reactor = SocketChannelReactor.getInstance();
+
     /**
      * The actual socket being used. Will be null if not connected
      */
     private final AtomicReference<SocketChannel> _socketChannel = new AtomicReference<SocketChannel>();
 
     /**
-     * The {@link ResponseReader} that will be used to read from {@link #_readBuffer}
+     * The buffer the responses are framed in. Only accessed from the reactor thread.
+     */
+    private ByteBuffer _readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Holds the bytes of a single response while it's converted into a string. Only accessed from the reactor thread.
+     */
+    private byte[] _responseBytes = new byte[BUFFER_SIZE];
+
+    /**
+     * The commands that could not be written to the socket yet
+     */
+    private final Queue<ByteBuffer> _pendingWrites = new ConcurrentLinkedQueue<ByteBuffer>();
+
+    /**
+     * The responses read from the {@link #_socketChannel}. Reading is suspended once {@link #MAX_RESPONSES} are queued.
      */
-    private final ResponseReader _responseReader = new ResponseReader();
+    private final BlockingQueue<Object> _responses = new LinkedBlockingQueue<Object>();
 
     /**
-     * The responses read from the {@link #_responseReader}
+     * Whether reading has been suspended because {@link #_responses} is full
      */
-    private final BlockingQueue<Object> _responses = new ArrayBlockingQueue<Object>(50);
+    private final AtomicBoolean _readSuspended = new AtomicBoolean(false);
 
     /**
-     * The dispatcher of responses from {@link #_responses}
+     * Whether a {@link Dispatcher} has been submitted and not yet finished
+     */
+    private final AtomicBoolean _dispatching = new AtomicBoolean(false);
+
+    /**
+     * The {@link Dispatcher} submitted to the reactor's thread pool
      */
     private final Dispatcher _dispatcher = new Dispatcher();
 
@@ -94,6 +142,7 @@ public class SocketChannelSession implements SocketSession {
             throw new IllegalArgumentException("listener cannot be null");
         }
         _listeners.add(listener);
+        scheduleDispatch();
     }
 
     @Override
@@ -114,19 +163,20 @@ public class SocketChannelSession implements SocketSession {
         channel.configureBlocking(true);
 
         logger.debug("Connecting to {}:{}", _host, _port);
-        channel.connect(new InetSocketAddress(_host, _port));
-
-        logger.debug("Waiting for connect");
-        while (!channel.finishConnect()) {
-            try {
-                Thread.sleep(250);
-            } catch (InterruptedException e) {
-            }
+        try {
+            channel.connect(new InetSocketAddress(_host, _port));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
         }
 
+        _responses.clear();
+        _pendingWrites.clear();
+        _readBuffer.clear();
+        _readSuspended.set(false);
+
         _socketChannel.set(channel);
-        new Thread(_dispatcher).start();
-        new Thread(_responseReader).start();
+        _reactor.register(channel, this);
     }
 
     @Override
@@ -135,12 +185,14 @@ public class SocketChannelSession implements SocketSession {
             logger.debug("Disconnecting from {}:{}", _host, _port);
 
             final SocketChannel channel = _socketChannel.getAndSet(null);
-            channel.close();
-
-            _dispatcher.stopRunning();
-            _responseReader.stopRunning();
+            try {
+                channel.close();
+            } finally {
+                _reactor.unregister(this);
 
-            _responses.clear();
+                _pendingWrites.clear();
+                _responses.clear();
+            }
         }
     }
 
@@ -167,213 +219,258 @@ public class SocketChannelSession implements SocketSession {
             logger.debug("Cannot send command '{}' - socket channel was closed", command);
         } else {
             logger.debug("Sending Command: '{}'", command);
-            channel.write(toSend);
+            _pendingWrites.add(toSend);
+            if (!flushWrites(channel)) {
+                _reactor.setInterest(channel, SelectionKey.OP_WRITE, true);
+            }
         }
     }
 
     /**
-     * This is the runnable that will read from the socket and add messages to the responses queue (to be processed by
-     * the dispatcher)
+     * Writes as much of the {@link #_pendingWrites} as the socket accepts without blocking.
      *
-     * @author Tim Roberts
+     * @param channel the non-null channel to write to
+     * @return true if all pending commands have been written
+     * @throws IOException if an exception occurred writing to the channel
+     */
+    private boolean flushWrites(SocketChannel channel) throws IOException {
+        synchronized (_pendingWrites) {
+            ByteBuffer buffer;
+            while ((buffer = _pendingWrites.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+                _pendingWrites.poll();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Called by the {@link SocketChannelReactor} when the channel can accept more data
      *
+     * @param key the non-null selection key of the {@link #_socketChannel}
      */
-    private class ResponseReader implements Runnable {
+    void processWrite(SelectionKey key) {
+        try {
+            if (flushWrites((SocketChannel) key.channel())) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            key.cancel();
+            queueResponse(e);
+        }
+    }
 
-        /**
-         * Whether the reader is currently running
-         */
-        private final AtomicBoolean _isRunning = new AtomicBoolean(false);
+    /**
+     * Called by the {@link SocketChannelReactor} when data is available on the channel. A 'response' is anything that
+     * ends with a carriage-return/newline combo. Additionally, the special "Login: " and "Password: " prompts are
+     * treated as responses for purposes of logging in.
+     *
+     * @param key the non-null selection key of the {@link #_socketChannel}
+     */
+    void processRead(SelectionKey key) {
+        try {
+            final int bytesRead = ((SocketChannel) key.channel()).read(_readBuffer);
+            if (bytesRead == -1) {
+                key.cancel();
+                queueResponse(new IOException("server closed connection"));
+                return;
+            }
+        } catch (IOException e) {
+            key.cancel();
+            queueResponse(e);
+            return;
+        }
 
-        /**
-         * Locking to allow proper shutdown of the reader
-         */
-        private final CountDownLatch _running = new CountDownLatch(1);
+        _readBuffer.flip();
 
-        /**
-         * Stops the reader. Will wait 5 seconds for the runnable to stop
-         */
-        public void stopRunning() {
-            if (_isRunning.getAndSet(false)) {
-                try {
-                    if (!_running.await(5, TimeUnit.SECONDS)) {
-                        logger.warn("Waited too long for response reader to finish");
-                    }
-                } catch (InterruptedException e) {
-                    // Do nothing
+        int start = _readBuffer.position();
+        final int limit = _readBuffer.limit();
+        for (int i = start; i < limit; i++) {
+            final byte b = _readBuffer.get(i);
+            int end = -1;
+            if (b == '\n') {
+                if (i > start && _readBuffer.get(i - 1) == '\r') {
+                    end = i + 1;
                 }
+            } else if (b == ' ' && endsWithPrompt(start, i + 1)) {
+                end = i + 1;
             }
-        }
 
-        /**
-         * Runs the logic to read from the socket until {@link #_isRunning} is false. A 'response' is anything that ends
-         * with a carriage-return/newline combo. Additionally, the special "Login: " and "Password: " prompts are
-         * treated as responses for purposes of logging in.
-         */
-        @Override
-        public void run() {
-            final StringBuilder sb = new StringBuilder(100);
-            final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
-
-            _isRunning.set(true);
-            _responses.clear();
-
-            while (_isRunning.get()) {
-                try {
-                    // if reader is null, sleep and try again
-                    if (readBuffer == null) {
-                        Thread.sleep(250);
-                        continue;
-                    }
+            if (end != -1) {
+                // the terminating "\r\n" (or ": " of the prompts) is not part of the response
+                queueResponse(decode(start, end - start - 2));
+                start = end;
+            }
+        }
 
-                    final SocketChannel channel = _socketChannel.get();
-                    if (channel == null) {
-                        // socket was closed
-                        _isRunning.set(false);
-                        break;
-                    }
+        _readBuffer.position(start);
+        _readBuffer.compact();
 
-                    int bytesRead = channel.read(readBuffer);
-                    if (bytesRead == -1) {
-                        _responses.put(new IOException("server closed connection"));
-                        _isRunning.set(false);
-                        break;
-                    } else if (bytesRead == 0) {
-                        readBuffer.clear();
-                        continue;
-                    }
+        if (!_readBuffer.hasRemaining()) {
+            // a single response doesn't fit - grow the buffer
+            final ByteBuffer larger = ByteBuffer.allocateDirect(_readBuffer.capacity() * 2);
+            _readBuffer.flip();
+            larger.put(_readBuffer);
+            _readBuffer = larger;
+        }
 
-                    readBuffer.flip();
-                    while (readBuffer.hasRemaining()) {
-                        final char ch = (char) readBuffer.get();
-                        sb.append(ch);
-                        if (ch == '\n' || ch == ' ') {
-                            final String str = sb.toString();
-                            if (str.endsWith("\r\n") || str.endsWith("Login: ") || str.endsWith("Password: ")) {
-                                sb.setLength(0);
-                                final String response = str.substring(0, str.length() - 2);
-                                _responses.put(response);
-                            }
-                        }
-                    }
+        if (_responses.size() >= MAX_RESPONSES && _readSuspended.compareAndSet(false, true)) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
 
-                    readBuffer.flip();
-
-                } catch (InterruptedException e) {
-                    // Do nothing - probably shutting down
-                } catch (AsynchronousCloseException e) {
-                    // socket was definitely closed by another thread
-                } catch (IOException e) {
-                    try {
-                        _isRunning.set(false);
-                        _responses.put(e);
-                    } catch (InterruptedException e1) {
-                        // Do nothing - probably shutting down
-                    }
-                }
+            // the dispatcher may have drained the queue before reading was suspended - it won't resume reading then
+            if (_responses.size() < MAX_RESPONSES / 2 && _readSuspended.compareAndSet(true, false)) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
             }
-
-            _running.countDown();
         }
     }
 
     /**
-     * The dispatcher runnable is responsible for reading the response queue and dispatching it to the current callable.
-     * Since the dispatcher is ONLY started when a callable is set, responses may pile up in the queue and be dispatched
-     * when a callable is set. Unlike the socket reader, this can be assigned to another thread (no state outside of the
-     * class).
+     * Called by the {@link SocketChannelReactor} when its selector failed. The channel won't be read anymore, so the
+     * error is dispatched to the listeners like any other read error.
      *
-     * @author Tim Roberts
+     * @param e the non-null error
      */
-    private class Dispatcher implements Runnable {
+    void reactorStopped(IOException e) {
+        queueResponse(e);
+    }
 
-        /**
-         * Whether the dispatcher is running or not
-         */
-        private final AtomicBoolean _isRunning = new AtomicBoolean(false);
+    /**
+     * Checks whether the response between start and end in the {@link #_readBuffer} ends with one of the
+     * {@link #PROMPTS}.
+     *
+     * @param start the start of the response
+     * @param end the end (exclusive) of the response
+     * @return true if the response ends with a prompt
+     */
+    private boolean endsWithPrompt(int start, int end) {
+        for (byte[] prompt : PROMPTS) {
+            if (end - start < prompt.length) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < prompt.length && matches; i++) {
+                matches = _readBuffer.get(end - prompt.length + i) == prompt[i];
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        /**
-         * Locking to allow proper shutdown of the reader
-         */
-        private final CountDownLatch _running = new CountDownLatch(1);
+    /**
+     * Converts part of the {@link #_readBuffer} into a response string
+     *
+     * @param offset the start of the response
+     * @param length the length of the response
+     * @return the non-null response
+     */
+    private String decode(int offset, int length) {
+        if (_responseBytes.length < length) {
+            _responseBytes = new byte[Math.max(length, _responseBytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            _responseBytes[i] = _readBuffer.get(offset + i);
+        }
+        return new String(_responseBytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
 
-        /**
-         * Whether the dispatcher is currently processing a message
-         */
-        private final AtomicReference<Thread> _processingThread = new AtomicReference<Thread>();
+    /**
+     * Queues a response (or exception) for the {@link #_dispatcher}
+     *
+     * @param response a non-null response or {@link Exception}
+     */
+    private void queueResponse(Object response) {
+        _responses.add(response);
+        scheduleDispatch();
+    }
 
-        /**
-         * Stops the reader. Will wait 5 seconds for the runnable to stop (should stop within 1 second based on the poll
-         * timeout below)
-         */
-        public void stopRunning() {
-            if (_isRunning.getAndSet(false)) {
-                // only wait if stopRunning didn't get called as part of processing a message
-                // (which would happen if we are processing an exception that forced a session close)
-                final Thread processingThread = _processingThread.get();
-                if (processingThread != null && Thread.currentThread() != processingThread) {
-                    try {
-                        if (!_running.await(5, TimeUnit.SECONDS)) {
-                            logger.warn("Waited too long for dispatcher to finish");
-                        }
-                    } catch (InterruptedException e) {
-                        // do nothing
-                    }
-                }
+    /**
+     * Submits the {@link #_dispatcher} if there are listeners, responses to dispatch and no dispatcher is running
+     * already
+     */
+    private void scheduleDispatch() {
+        if (!_listeners.isEmpty() && !_responses.isEmpty() && _dispatching.compareAndSet(false, true)) {
+            try {
+                _reactor.getDispatcher().execute(_dispatcher);
+            } catch (RejectedExecutionException e) {
+                _dispatching.set(false);
+                logger.debug("Dispatcher rejected: {}", e.getMessage(), e);
             }
         }
+    }
 
+    /**
+     * The dispatcher runnable is responsible for reading the response queue and dispatching it to the current
+     * listeners. Since the dispatcher is ONLY submitted when a listener is set, responses may pile up in the queue and
+     * be dispatched when a listener is added. The dispatcher runs on the reactor's thread pool and ends once the queue
+     * is empty.
+     *
+     * @author Tim Roberts
+     */
+    private class Dispatcher implements Runnable {
         /**
-         * Runs the logic to dispatch any responses to the current listeners until {@link #_isRunning} is false.
+         * Runs the logic to dispatch any queued responses to the current listeners
          */
         @Override
         public void run() {
-            _processingThread.set(Thread.currentThread());
-
-            _isRunning.set(true);
-            while (_isRunning.get()) {
-                try {
-
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
                     // if no listeners, we don't want to start dispatching yet.
                     if (_listeners.size() == 0) {
-                        Thread.sleep(250);
-                        continue;
+                        break;
                     }
 
-                    final Object response = _responses.poll(1, TimeUnit.SECONDS);
-
-                    if (response != null) {
-                        if (response instanceof String) {
-                            try {
-                                logger.debug("Dispatching response: {}", response);
-                                final SocketSessionListener[] listeners = _listeners
-                                        .toArray(new SocketSessionListener[0]);
-                                for (SocketSessionListener listener : listeners) {
-                                    listener.responseReceived((String) response);
-                                }
-                            } catch (Exception e) {
-                                logger.warn("Exception occurred processing the response '{}': {}", response, e);
-                            }
-                        } else if (response instanceof Exception) {
-                            logger.debug("Dispatching exception: {}", response);
-                            final SocketSessionListener[] listeners = _listeners.toArray(new SocketSessionListener[0]);
+                    final Object response = _responses.poll();
+                    if (response == null) {
+                        break;
+                    }
+
+                    resumeReading();
+
+                    if (response instanceof String) {
+                        try {
+                            logger.debug("Dispatching response: {}", response);
+                            final SocketSessionListener[] listeners = _listeners
+                                    .toArray(new SocketSessionListener[0]);
                             for (SocketSessionListener listener : listeners) {
-                                listener.responseException((Exception) response);
+                                listener.responseReceived((String) response);
                             }
-                        } else {
-                            logger.warn("Unknown response class: {}", response);
+                        } catch (Exception e) {
+                            logger.warn("Exception occurred processing the response '{}': {}", response, e);
+                        }
+                    } else if (response instanceof Exception) {
+                        logger.debug("Dispatching exception: {}", response);
+                        final SocketSessionListener[] listeners = _listeners.toArray(new SocketSessionListener[0]);
+                        for (SocketSessionListener listener : listeners) {
+                            listener.responseException((Exception) response);
                         }
+                    } else {
+                        logger.warn("Unknown response class: {}", response);
                     }
-                } catch (InterruptedException e) {
-                    // Do nothing
-                } catch (Exception e) {
-                    logger.debug("Uncaught exception {}", e.getMessage(), e);
-                    break;
                 }
+            } catch (Exception e) {
+                logger.debug("Uncaught exception {}", e.getMessage(), e);
+            } finally {
+                _dispatching.set(false);
+                resumeReading();
+            }
+
+            // a response may have been queued after our last poll
+            scheduleDispatch();
+        }
+
+        /**
+         * Resumes reading from the socket if it had been suspended because the response queue was full
+         */
+        private void resumeReading() {
+            final SocketChannel channel = _socketChannel.get();
+            if (channel != null && _responses.size() < MAX_RESPONSES / 2 && _readSuspended.compareAndSet(true, false)) {
+                _reactor.setInterest(channel, SelectionKey.OP_READ, true);
             }
-            _isRunning.set(false);
-            _processingThread.set(null);
-            _running.countDown();
         }
     }
 }
@@ -11,9 +11,7 @@ package org.openhab.binding.avmfritz.handler;
 import static org.openhab.binding.avmfritz.BindingConstants.*;
 
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
@@ -27,6 +25,7 @@ import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.avmfritz.BindingConstants;
 import org.openhab.binding.avmfritz.config.AvmFritzConfiguration;
@@ -61,13 +60,9 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
      */
     private Map<String, DeviceModel> deviceList;
     /**
-     * Job which will do the FRITZ!Box polling
+     * Poller of the FRITZ!Box, shared with other handlers of the same box
      */
-    private DeviceListPolling pollingRunnable;
-    /**
-     * Schedule for polling
-     */
-    private ScheduledFuture<?> pollingJob;
+    private DeviceListPolling polling;
 
     /**
      * Constructor
@@ -77,8 +72,7 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
      */
     public BoxHandler(Bridge bridge) {
         super(bridge);
-        this.deviceList = new TreeMap<String, DeviceModel>();
-        this.pollingRunnable = new DeviceListPolling(this);
+        this.deviceList = new ConcurrentHashMap<String, DeviceModel>();
     }
 
     /**
@@ -108,9 +102,22 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
     @Override
     public void dispose() {
         logger.debug("Handler disposed.");
-        if (pollingJob != null && !pollingJob.isCancelled()) {
-            pollingJob.cancel(true);
-            pollingJob = null;
+        stopPolling();
+    }
+
+    /**
+     * Updates a thing added to the bridge with the last data received from the box.
+     */
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        for (DeviceModel model : this.deviceList.values()) {
+            if (childThing.getUID().equals(this.getThingUID(model))) {
+                try {
+                    this.updateThingFromDevice(childThing, model);
+                } catch (Exception e) {
+                    logger.error("{}", e.getLocalizedMessage(), e);
+                }
+            }
         }
     }
 
@@ -209,9 +216,9 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
      */
     private synchronized void onUpdate() {
         if (this.getThing() != null) {
-            if (pollingJob == null || pollingJob.isCancelled()) {
+            if (polling == null) {
                 logger.debug("start polling job at intervall {}", refreshInterval);
-                pollingJob = scheduler.scheduleWithFixedDelay(pollingRunnable, 1, refreshInterval, TimeUnit.SECONDS);
+                polling = DeviceListPolling.register(this, refreshInterval);
             } else {
                 logger.debug("pollingJob active");
             }
@@ -220,6 +227,25 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
         }
     }
 
+    /**
+     * Stop the polling.
+     */
+    private synchronized void stopPolling() {
+        if (polling != null) {
+            polling.unregister(this);
+            polling = null;
+        }
+    }
+
+    /**
+     * Provides the poller of the FRITZ!Box.
+     *
+     * @return The poller or null, if the bridge is not polling
+     */
+    synchronized DeviceListPolling getPolling() {
+        return polling;
+    }
+
     /**
      * Just logging - nothing to do.
      */
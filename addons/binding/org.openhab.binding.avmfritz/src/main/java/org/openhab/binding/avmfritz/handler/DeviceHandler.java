@@ -10,9 +10,6 @@ package org.openhab.binding.avmfritz.handler;
 
 import static org.openhab.binding.avmfritz.BindingConstants.*;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -62,17 +59,12 @@ public class DeviceHandler extends BaseThingHandler implements IFritzHandler {
      */
     protected FritzahaWebInterface connection;
     /**
-     * Job which will do the FRITZ!Box polling
-     */
-    private DeviceListPolling pollingRunnable;
-    /**
-     * Schedule for polling
+     * Poller of the PL546E in standalone mode
      */
-    private ScheduledFuture<?> pollingJob;
+    private DeviceListPolling polling;
 
     public DeviceHandler(Thing thing) {
         super(thing);
-        this.pollingRunnable = new DeviceListPolling(this);
     }
 
     /**
@@ -106,9 +98,11 @@ public class DeviceHandler extends BaseThingHandler implements IFritzHandler {
     public void dispose() {
         if (this.getThing().getThingTypeUID().equals(PL546E_STANDALONE_THING_TYPE)) {
             logger.debug("Handler disposed.");
-            if (pollingJob != null && !pollingJob.isCancelled()) {
-                pollingJob.cancel(true);
-                pollingJob = null;
+            synchronized (this) {
+                if (polling != null) {
+                    polling.unregister(this);
+                    polling = null;
+                }
             }
         }
     }
@@ -118,9 +112,9 @@ public class DeviceHandler extends BaseThingHandler implements IFritzHandler {
      */
     private synchronized void onUpdate() {
         if (this.getThing() != null) {
-            if (pollingJob == null || pollingJob.isCancelled()) {
+            if (polling == null) {
                 logger.debug("start polling job at intervall {}", refreshInterval);
-                pollingJob = scheduler.scheduleWithFixedDelay(pollingRunnable, 1, refreshInterval, TimeUnit.SECONDS);
+                polling = DeviceListPolling.register(this, refreshInterval);
             } else {
                 logger.debug("pollingJob active");
             }
@@ -139,13 +133,18 @@ public class DeviceHandler extends BaseThingHandler implements IFritzHandler {
         if (channelUID.getId().equals(CHANNEL_SWITCH)) {
             logger.debug("update {} with {}", channelUID, command);
             FritzahaWebInterface fritzBox = null;
+            DeviceListPolling devicePolling = null;
             if (!thing.getThingTypeUID().equals(PL546E_STANDALONE_THING_TYPE)) {
                 Bridge bridge = this.getBridge();
                 if (bridge != null && bridge.getHandler() instanceof BoxHandler) {
                     fritzBox = ((BoxHandler) bridge.getHandler()).getWebInterface();
+                    devicePolling = ((BoxHandler) bridge.getHandler()).getPolling();
                 }
             } else {
                 fritzBox = this.getWebInterface();
+                synchronized (this) {
+                    devicePolling = this.polling;
+                }
             }
             if (fritzBox != null && this.getThing().getConfiguration().get(THING_AIN) != null) {
                 if (command instanceof OnOffType) {
@@ -153,6 +152,10 @@ public class DeviceHandler extends BaseThingHandler implements IFritzHandler {
                             this.getThing().getConfiguration().get(THING_AIN).toString(),
                             command.equals(OnOffType.ON) ? true : false);
                     fritzBox.asyncGet(callback);
+                    // poll the new state at the regular interval
+                    if (devicePolling != null) {
+                        devicePolling.resetBackoff();
+                    }
                 }
             }
         } else {
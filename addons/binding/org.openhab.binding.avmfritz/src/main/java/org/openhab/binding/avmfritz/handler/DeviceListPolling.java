@@ -8,30 +8,172 @@
  */
 package org.openhab.binding.avmfritz.handler;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.DevicelistModel;
+import org.openhab.binding.avmfritz.internal.hardware.FritzahaWebInterface;
 import org.openhab.binding.avmfritz.internal.hardware.callbacks.FritzAhaUpdateXmlCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Polling worker class.
+ * Polling worker class. There is one poller per FRITZ!Box, shared by all handlers talking to the same box.
+ *
+ * Every device of a response is compared to the device with the same identifier of the previous response, only
+ * changed devices are passed to the handlers. While nothing changes, the polling interval is doubled up to
+ * {@link #MAX_BACKOFF_FACTOR} times the configured interval.
  */
 public class DeviceListPolling implements Runnable {
+    /**
+     * Name of the thread pool the polling is scheduled on
+     */
+    public static final String THREADPOOL_NAME = "avmfritz";
+    /**
+     * Maximum factor the configured polling interval is stretched by while nothing changes
+     */
+    public static final int MAX_BACKOFF_FACTOR = 4;
+    /**
+     * Pollers by URL of the FRITZ!Box
+     */
+    private static final Map<String, DeviceListPolling> POLLERS = new HashMap<String, DeviceListPolling>();
     /**
      * Logger
      */
     private final Logger logger = LoggerFactory.getLogger(getClass());
     /**
-     * Handler for delegation to callbacks.
+     * Key of this poller in {@link #POLLERS}
+     */
+    private final String key;
+    /**
+     * Handlers for delegation to callbacks, the first one provides the web interface.
+     */
+    private final List<IFritzHandler> handlers = new CopyOnWriteArrayList<IFritzHandler>();
+    /**
+     * Devices of the last response by identifier
+     */
+    private final Map<String, DeviceModel> devices = new HashMap<String, DeviceModel>();
+    /**
+     * Polling intervals requested by the handlers in seconds
+     */
+    private final Map<IFritzHandler, Long> intervals = new HashMap<IFritzHandler, Long>();
+    /**
+     * Shortest polling interval of all handlers in seconds
+     */
+    private long refreshInterval;
+    /**
+     * Current polling interval in seconds
+     */
+    private long currentInterval;
+    /**
+     * Schedule for polling
      */
-    private IFritzHandler handler;
+    private ScheduledFuture<?> pollingJob;
 
     /**
      * Constructor.
      *
-     * @param handler
+     * @param key URL of the FRITZ!Box
+     * @param refreshInterval polling interval in seconds
+     */
+    private DeviceListPolling(String key, long refreshInterval) {
+        this.key = key;
+        this.refreshInterval = refreshInterval;
+        this.currentInterval = refreshInterval;
+    }
+
+    /**
+     * Registers a handler at the poller of its FRITZ!Box and starts polling, if it is the first handler of the box.
+     *
+     * @param handler handler to be updated
+     * @param refreshInterval polling interval in seconds, the shortest interval of all handlers of the box is used
+     * @return the poller
+     */
+    public static DeviceListPolling register(IFritzHandler handler, long refreshInterval) {
+        String key = handler.getWebInterface().getURL("");
+        DeviceListPolling poller;
+        synchronized (POLLERS) {
+            poller = POLLERS.get(key);
+            if (poller == null) {
+                poller = new DeviceListPolling(key, refreshInterval);
+                POLLERS.put(key, poller);
+            }
+            poller.handlers.add(handler);
+        }
+        poller.start(handler, refreshInterval);
+        return poller;
+    }
+
+    /**
+     * Unregisters a handler and stops polling, if it was the last handler of the box. Otherwise the polling interval
+     * is adapted to the remaining handlers.
+     *
+     * @param handler handler not to be updated anymore
      */
-    public DeviceListPolling(IFritzHandler handler) {
-        this.handler = handler;
+    public void unregister(IFritzHandler handler) {
+        boolean last;
+        synchronized (POLLERS) {
+            handlers.remove(handler);
+            last = handlers.isEmpty();
+            if (last) {
+                POLLERS.remove(key);
+            }
+        }
+        synchronized (this) {
+            intervals.remove(handler);
+            if (!last) {
+                refreshInterval = shortestInterval(refreshInterval);
+                // the next poll is scheduled with the new interval
+                currentInterval = refreshInterval;
+                return;
+            }
+            if (pollingJob != null) {
+                pollingJob.cancel(true);
+                pollingJob = null;
+            }
+        }
+    }
+
+    private synchronized void start(IFritzHandler handler, long interval) {
+        // a new handler gets all devices with the next response
+        devices.clear();
+        intervals.put(handler, interval);
+        refreshInterval = shortestInterval(interval);
+        currentInterval = refreshInterval;
+        reschedule(1);
+    }
+
+    private long shortestInterval(long defaultInterval) {
+        long shortest = Long.MAX_VALUE;
+        for (Long interval : intervals.values()) {
+            shortest = Math.min(shortest, interval);
+        }
+        return shortest != Long.MAX_VALUE ? shortest : defaultInterval;
+    }
+
+    /**
+     * Polls again after the configured interval, e.g. after a command has been sent.
+     */
+    public synchronized void resetBackoff() {
+        if (currentInterval != refreshInterval) {
+            currentInterval = refreshInterval;
+            reschedule(refreshInterval);
+        }
+    }
+
+    private synchronized void reschedule(long delay) {
+        if (pollingJob != null) {
+            pollingJob.cancel(false);
+        }
+        pollingJob = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME).schedule(this, delay, TimeUnit.SECONDS);
     }
 
     /**
@@ -39,10 +181,63 @@ public class DeviceListPolling implements Runnable {
      */
     @Override
     public void run() {
-        if (handler.getWebInterface() != null) {
-            logger.debug("polling fritzbox {}", handler.getWebInterface().getConfig());
-            FritzAhaUpdateXmlCallback callback = new FritzAhaUpdateXmlCallback(handler.getWebInterface(), this.handler);
-            handler.getWebInterface().asyncGet(callback);
+        synchronized (this) {
+            if (handlers.isEmpty()) {
+                return;
+            }
+            // the next poll is scheduled before the response arrives, as before with a fixed delay
+            pollingJob = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME).schedule(this, currentInterval,
+                    TimeUnit.SECONDS);
+        }
+
+        FritzahaWebInterface webInterface = getWebInterface();
+        if (webInterface != null) {
+            logger.debug("polling fritzbox {}", webInterface.getConfig());
+            FritzAhaUpdateXmlCallback callback = new FritzAhaUpdateXmlCallback(webInterface, this);
+            webInterface.asyncGet(callback);
+        }
+    }
+
+    private FritzahaWebInterface getWebInterface() {
+        for (IFritzHandler handler : handlers) {
+            if (handler.getWebInterface() != null) {
+                return handler.getWebInterface();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Called from {@link FritzAhaUpdateXmlCallback} with the devices of a response.
+     *
+     * @param model device list of the response
+     */
+    public void devicesReceived(DevicelistModel model) {
+        int changed = 0;
+        for (DeviceModel device : model.getDevicelist()) {
+            synchronized (this) {
+                DeviceModel previous = devices.put(device.getIdentifier(), device);
+                if (device.equals(previous)) {
+                    continue;
+                }
+            }
+            changed++;
+            for (IFritzHandler handler : handlers) {
+                handler.addDeviceList(device);
+            }
+        }
+        for (IFritzHandler handler : handlers) {
+            handler.setStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, "FritzBox online");
+        }
+
+        synchronized (this) {
+            if (changed > 0) {
+                currentInterval = refreshInterval;
+            } else {
+                currentInterval = Math.min(currentInterval * 2, refreshInterval * MAX_BACKOFF_FACTOR);
+            }
         }
+        logger.debug("{} of {} devices changed, polling {} again in {} s", changed, model.getDevicelist().size(), key,
+                currentInterval);
     }
 }
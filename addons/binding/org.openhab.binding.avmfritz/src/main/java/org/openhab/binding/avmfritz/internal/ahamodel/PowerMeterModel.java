@@ -13,6 +13,8 @@ import java.math.BigDecimal;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -47,6 +49,23 @@ public class PowerMeterModel {
         this.energy = energy;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PowerMeterModel)) {
+            return false;
+        }
+        PowerMeterModel other = (PowerMeterModel) obj;
+        return new EqualsBuilder().append(power, other.power).append(energy, other.energy).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(power).append(energy).toHashCode();
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).append("power", this.getPower()).append("energy", this.getEnergy()).toString();
@@ -10,16 +10,13 @@ package org.openhab.binding.avmfritz.internal.hardware.callbacks;
 
 import java.io.StringReader;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
-import org.eclipse.smarthome.core.thing.ThingStatus;
-import org.eclipse.smarthome.core.thing.ThingStatusDetail;
-import org.openhab.binding.avmfritz.handler.IFritzHandler;
-import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
+import org.openhab.binding.avmfritz.handler.DeviceListPolling;
 import org.openhab.binding.avmfritz.internal.ahamodel.DevicelistModel;
 import org.openhab.binding.avmfritz.internal.hardware.FritzahaWebInterface;
+import org.openhab.binding.avmfritz.internal.util.JAXBUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,19 +34,19 @@ public class FritzAhaUpdateXmlCallback extends FritzAhaReauthCallback {
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     /**
-     * Handler to update
+     * Poller passing the devices to the handlers
      */
-    private IFritzHandler handler;
+    private DeviceListPolling poller;
 
     /**
      * Constructor
      *
      * @param webIface Webinterface to FRITZ!Box
-     * @param handler Bridge handler taht will update things.
+     * @param poller Poller of the FRITZ!Box that will update the handlers.
      */
-    public FritzAhaUpdateXmlCallback(FritzahaWebInterface webIface, IFritzHandler handler) {
+    public FritzAhaUpdateXmlCallback(FritzahaWebInterface webIface, DeviceListPolling poller) {
         super(WEBSERVICE_PATH, "switchcmd=getdevicelistinfos", webIface, Method.GET, 1);
-        this.handler = handler;
+        this.poller = poller;
     }
 
     /**
@@ -61,15 +58,11 @@ public class FritzAhaUpdateXmlCallback extends FritzAhaReauthCallback {
         if (this.isValidRequest()) {
             logger.trace("Received State response {}", response);
             try {
-                JAXBContext jaxbContext = JAXBContext.newInstance(DevicelistModel.class);
-                Unmarshaller jaxbUM = jaxbContext.createUnmarshaller();
+                Unmarshaller jaxbUM = JAXBUtils.createDevicelistUnmarshaller();
 
                 DevicelistModel model = (DevicelistModel) jaxbUM.unmarshal(new StringReader(response));
                 if (model != null) {
-                    for (DeviceModel device : model.getDevicelist()) {
-                        handler.addDeviceList(device);
-                    }
-                    handler.setStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, "FritzBox online");
+                    poller.devicesReceived(model);
                 } else {
                     logger.warn("no model in response");
                 }
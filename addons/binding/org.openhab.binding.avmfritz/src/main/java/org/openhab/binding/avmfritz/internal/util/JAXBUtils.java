@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.avmfritz.internal.util;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+
+import org.openhab.binding.avmfritz.internal.ahamodel.DevicelistModel;
+
+/**
+ * Holds the {@link JAXBContext} for the device list responses of the AHA webservice. Creating the context is
+ * expensive, so it is created once and shared. Unmarshallers are not thread safe and are created per response.
+ *
+ */
+public class JAXBUtils {
+
+    private static JAXBContext jaxbContext;
+
+    private JAXBUtils() {
+    }
+
+    /**
+     * Creates an unmarshaller for {@link DevicelistModel} responses.
+     *
+     * @return new unmarshaller from the shared context
+     * @throws JAXBException if the context can not be created
+     */
+    public static Unmarshaller createDevicelistUnmarshaller() throws JAXBException {
+        return getContext().createUnmarshaller();
+    }
+
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(DevicelistModel.class);
+        }
+        return jaxbContext;
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.dscalarm.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openhab.binding.dscalarm.internal.DSCAlarmMessage.DSCAlarmMessageInfoType;
+import org.openhab.binding.dscalarm.internal.DSCAlarmMessage.DSCAlarmMessageType;
+
+/**
+ * Replays lines captured from an Envisalink TPI session through {@link DSCAlarmMessage}.
+ *
+ */
+public class DSCAlarmMessageReplayTest {
+
+    /**
+     * Login, status report and a night of zone activity, as read from the TPI connection (without CR/LF).
+     * Columns: line, code, message type, partition, zone
+     */
+    private static final Object[][] ENVISALINK_SESSION = {
+            { "5053CD", DSCAlarmCode.LoginResponse, DSCAlarmMessageType.PANEL_EVENT, 0, 0 },
+            { "5051CB", DSCAlarmCode.LoginResponse, DSCAlarmMessageType.PANEL_EVENT, 0, 0 },
+            { "50000126", DSCAlarmCode.CommandAcknowledge, DSCAlarmMessageType.PANEL_EVENT, 0, 0 },
+            { "51081FF", DSCAlarmCode.KeypadLEDState, DSCAlarmMessageType.KEYPAD_EVENT, 0, 0 },
+            { "51100F7", DSCAlarmCode.KeypadLEDFlashState, DSCAlarmMessageType.KEYPAD_EVENT, 0, 0 },
+            { "6501CC", DSCAlarmCode.PartitionReady, DSCAlarmMessageType.PARTITION_EVENT, 1, 0 },
+            { "8401CD", DSCAlarmCode.TroubleLEDOn, DSCAlarmMessageType.PANEL_EVENT, 1, 0 },
+            { "60900130", DSCAlarmCode.ZoneOpen, DSCAlarmMessageType.ZONE_EVENT, 0, 1 },
+            { "60901232", DSCAlarmCode.ZoneOpen, DSCAlarmMessageType.ZONE_EVENT, 0, 12 },
+            { "61000128", DSCAlarmCode.ZoneRestored, DSCAlarmMessageType.ZONE_EVENT, 0, 1 },
+            { "60906439", DSCAlarmCode.ZoneOpen, DSCAlarmMessageType.ZONE_EVENT, 0, 64 },
+            { "6100122A", DSCAlarmCode.ZoneRestored, DSCAlarmMessageType.ZONE_EVENT, 0, 12 },
+            { "65210FE", DSCAlarmCode.PartitionArmed, DSCAlarmMessageType.PARTITION_EVENT, 1, 0 },
+            { "700100028A", DSCAlarmCode.UserClosing, DSCAlarmMessageType.PARTITION_EVENT, 1, 0 },
+            { "60110055D", DSCAlarmCode.ZoneAlarm, DSCAlarmMessageType.ZONE_EVENT, 1, 5 },
+            { "6731D1", DSCAlarmCode.PartitionBusy, DSCAlarmMessageType.PARTITION_EVENT, 1, 0 },
+            { "6551D1", DSCAlarmCode.PartitionDisarmed, DSCAlarmMessageType.PARTITION_EVENT, 1, 0 },
+            { "750100028F", DSCAlarmCode.UserOpening, DSCAlarmMessageType.PARTITION_EVENT, 1, 0 },
+            { "50202029", DSCAlarmCode.SystemError, DSCAlarmMessageType.PANEL_EVENT, 0, 0 },
+            { "550183010241795", DSCAlarmCode.TimeDateBroadcast, DSCAlarmMessageType.PANEL_EVENT, 0, 0 },
+            { "18:30:15 60900332", DSCAlarmCode.ZoneOpen, DSCAlarmMessageType.ZONE_EVENT, 0, 3 }, };
+
+    @Test
+    public void replaysEnvisalinkSession() {
+        for (Object[] line : ENVISALINK_SESSION) {
+            DSCAlarmMessage message = new DSCAlarmMessage((String) line[0]);
+
+            assertThat((String) line[0], message.getDSCAlarmCode(), is(line[1]));
+            assertThat((String) line[0], message.getDSCAlarmMessageType(), is(line[2]));
+            assertThat((String) line[0], message.getPartitionId(), is(line[3]));
+            assertThat((String) line[0], message.getZoneId(), is(line[4]));
+            assertThat((String) line[0], message.getMessageInfo(DSCAlarmMessageInfoType.CODE),
+                    is(((DSCAlarmCode) line[1]).getCode()));
+        }
+    }
+
+    @Test
+    public void extractsMessageInformation() {
+        DSCAlarmMessage zoneOpen = new DSCAlarmMessage("60901232");
+        assertThat(zoneOpen.getMessageInfo(DSCAlarmMessageInfoType.MESSAGE), is("609012"));
+        assertThat(zoneOpen.getMessageInfo(DSCAlarmMessageInfoType.DATA), is("012"));
+        assertThat(zoneOpen.getMessageInfo(DSCAlarmMessageInfoType.ZONE), is("012"));
+        assertThat(zoneOpen.getMessageInfo(DSCAlarmMessageInfoType.PARTITION), is("0"));
+        assertThat(zoneOpen.getMessageInfo(DSCAlarmMessageInfoType.TIME_STAMP), is(""));
+
+        DSCAlarmMessage zoneAlarm = new DSCAlarmMessage("60110055D");
+        assertThat(zoneAlarm.getMessageInfo(DSCAlarmMessageInfoType.PARTITION), is("1"));
+        assertThat(zoneAlarm.getMessageInfo(DSCAlarmMessageInfoType.ZONE), is("005"));
+
+        DSCAlarmMessage ledState = new DSCAlarmMessage("51081FF");
+        assertThat(ledState.getMessageInfo(DSCAlarmMessageInfoType.DATA), is("81"));
+
+        DSCAlarmMessage timeStamped = new DSCAlarmMessage("18:30:15 60900332");
+        assertThat(timeStamped.getMessageInfo(DSCAlarmMessageInfoType.TIME_STAMP), is("18:30:15"));
+        assertThat(timeStamped.getMessageInfo(DSCAlarmMessageInfoType.MESSAGE), is("609003"));
+    }
+
+    @Test
+    public void describesPartitionAndUserEvents() {
+        DSCAlarmMessage armed = new DSCAlarmMessage("65210FE");
+        assertThat(armed.getMessageInfo(DSCAlarmMessageInfoType.MODE), is("0"));
+        assertThat(armed.getMessageInfo(DSCAlarmMessageInfoType.NAME), is("Partition Armed (Away)"));
+
+        DSCAlarmMessage closing = new DSCAlarmMessage("700100028A");
+        assertThat(closing.getMessageInfo(DSCAlarmMessageInfoType.DESCRIPTION),
+                is("700: Partition 1 has been armed by user 0002."));
+
+        DSCAlarmMessage systemError = new DSCAlarmMessage("50202029");
+        assertThat(systemError.getMessageInfo(DSCAlarmMessageInfoType.ERROR), is("API Command Syntax Error"));
+    }
+
+    @Test
+    public void handlesInvalidMessages() {
+        DSCAlarmMessage tooShort = new DSCAlarmMessage("50");
+        assertThat(tooShort.getDSCAlarmCode(), is(DSCAlarmCode.UnknownCode));
+        assertThat(tooShort.getMessageInfo(DSCAlarmMessageInfoType.CODE), is("-1"));
+
+        DSCAlarmMessage noCode = new DSCAlarmMessage("50C7");
+        assertThat(noCode.getDSCAlarmCode(), is(DSCAlarmCode.UnknownCode));
+        assertThat(noCode.getMessageInfo(DSCAlarmMessageInfoType.DATA), is(""));
+
+        DSCAlarmMessage unknownCode = new DSCAlarmMessage("99900");
+        assertThat(unknownCode.getDSCAlarmCode(), is(DSCAlarmCode.UnknownCode));
+        assertThat(unknownCode.getMessageInfo(DSCAlarmMessageInfoType.CODE), is("999"));
+
+        DSCAlarmMessage badZone = new DSCAlarmMessage("6090A100");
+        assertThat(badZone.getDSCAlarmCode(), is(DSCAlarmCode.ZoneOpen));
+        assertThat(badZone.getZoneId(), is(-1));
+    }
+
+    @Test
+    public void looksUpNumericCodes() {
+        for (DSCAlarmCode dscAlarmCode : DSCAlarmCode.values()) {
+            if (dscAlarmCode != DSCAlarmCode.UnknownCode) {
+                assertThat(DSCAlarmCode.getDSCAlarmCodeValue(Integer.parseInt(dscAlarmCode.getCode())),
+                        is(dscAlarmCode));
+            }
+        }
+        assertThat(DSCAlarmCode.getDSCAlarmCodeValue(-1), is(DSCAlarmCode.UnknownCode));
+        assertThat(DSCAlarmCode.getDSCAlarmCodeValue(999), is(DSCAlarmCode.UnknownCode));
+    }
+}
@@ -10,23 +10,25 @@ package org.openhab.binding.dscalarm.handler;
 
 import static org.openhab.binding.dscalarm.DSCAlarmBindingConstants.BRIDGE_RESET;
 
-import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
-import org.openhab.binding.dscalarm.config.DSCAlarmPartitionConfiguration;
-import org.openhab.binding.dscalarm.config.DSCAlarmZoneConfiguration;
 import org.openhab.binding.dscalarm.internal.DSCAlarmCode;
 import org.openhab.binding.dscalarm.internal.DSCAlarmEvent;
 import org.openhab.binding.dscalarm.internal.DSCAlarmMessage;
@@ -55,13 +57,16 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
     private DSCAlarmDiscoveryService dscAlarmDiscoveryService = null;
 
     /** The Panel Thing handler for the bridge. */
-    private DSCAlarmBaseThingHandler panelThingHandler = null;
+    private volatile DSCAlarmBaseThingHandler panelThingHandler = null;
+
+    /** The Thing handlers of the bridge, by Thing type, partition and zone. */
+    private final Map<Integer, DSCAlarmBaseThingHandler> thingHandlers = new ConcurrentHashMap<>();
 
     /** Connection status for the bridge. */
     private boolean connected = false;
 
     /** Determines if things have changed. */
-    private boolean thingsHaveChanged = false;
+    private volatile boolean thingsHaveChanged = false;
 
     /** Determines if all things have been initialized. */
     private boolean allThingsInitialized = false;
@@ -349,11 +354,16 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
             thingCount = things.size();
         }
 
+        Set<DSCAlarmBaseThingHandler> handlers = new HashSet<>();
+
         for (Thing thing : things) {
 
             DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) thing.getHandler();
 
             if (handler != null) {
+                handlers.add(handler);
+                thingHandlers.put(getThingHandlerKey(handler), handler);
+
                 logger.debug("***Checking '{}' - Status: {}, Initialized: {}", thing.getUID(), thing.getStatus(),
                         handler.isThingHandlerInitialized());
 
@@ -377,6 +387,65 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
             }
         }
 
+        // Remove the handlers of removed things and the former keys of reconfigured things
+        Iterator<Map.Entry<Integer, DSCAlarmBaseThingHandler>> iterator = thingHandlers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, DSCAlarmBaseThingHandler> entry = iterator.next();
+            if (!handlers.contains(entry.getValue())
+                    || entry.getKey().intValue() != getThingHandlerKey(entry.getValue())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof DSCAlarmBaseThingHandler) {
+            DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) childHandler;
+            thingHandlers.put(getThingHandlerKey(handler), handler);
+            logger.debug("childHandlerInitialized(): Thing Handler Added - {}", childThing.getUID());
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof DSCAlarmBaseThingHandler) {
+            DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) childHandler;
+            thingHandlers.remove(getThingHandlerKey(handler), handler);
+            if (handler == panelThingHandler) {
+                panelThingHandler = null;
+            }
+            logger.debug("childHandlerDisposed(): Thing Handler Removed - {}", childThing.getUID());
+        }
+    }
+
+    private int getThingHandlerKey(DSCAlarmBaseThingHandler handler) {
+        return getThingHandlerKey(handler.getDSCAlarmThingType(), handler.getPartitionNumber(),
+                handler.getZoneNumber());
+    }
+
+    /**
+     * Get the key of a Thing handler. Panel and keypad are identified by their type, partitions by their partition
+     * number and zones by their zone number, as the zone messages don't always contain the partition.
+     *
+     * @param dscAlarmThingType
+     * @param partitionId
+     * @param zoneId
+     * @return key
+     */
+    private int getThingHandlerKey(DSCAlarmThingType dscAlarmThingType, int partitionId, int zoneId) {
+        if (dscAlarmThingType == null) {
+            return -1;
+        }
+
+        switch (dscAlarmThingType) {
+            case PARTITION:
+                return (dscAlarmThingType.ordinal() << 20) | (partitionId << 10);
+            case ZONE:
+                return (dscAlarmThingType.ordinal() << 20) | zoneId;
+            default:
+                return dscAlarmThingType.ordinal() << 20;
+        }
     }
 
     /**
@@ -388,75 +457,31 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
      * @return thing
      */
     public Thing findThing(DSCAlarmThingType dscAlarmThingType, int partitionId, int zoneId) {
-
-        List<Thing> things = getThing().getThings();
+        DSCAlarmBaseThingHandler handler = thingHandlers
+                .get(getThingHandlerKey(dscAlarmThingType, partitionId, zoneId));
 
         Thing thing = null;
 
-        for (Thing t : things) {
-
-            try {
-                Configuration config = t.getConfiguration();
-                DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) t.getHandler();
-
-                if (handler != null) {
-                    DSCAlarmThingType handlerDSCAlarmThingType = handler.getDSCAlarmThingType();
-
-                    if (handlerDSCAlarmThingType != null) {
-                        if (handlerDSCAlarmThingType.equals(dscAlarmThingType)) {
-                            switch (handlerDSCAlarmThingType) {
-                                case PANEL:
-                                case KEYPAD:
-                                    thing = t;
-                                    logger.debug("findThing(): Thing Found - {}, {}, {}", t, handler,
-                                            handlerDSCAlarmThingType);
-                                    return thing;
-                                case PARTITION:
-                                    BigDecimal partitionNumber = (BigDecimal) config
-                                            .get(DSCAlarmPartitionConfiguration.PARTITION_NUMBER);
-                                    if (partitionId == partitionNumber.intValue()) {
-                                        thing = t;
-                                        logger.debug("findThing(): Thing Found - {}, {}, {}", t, handler,
-                                                handlerDSCAlarmThingType);
-                                        return thing;
-                                    }
-                                    break;
-                                case ZONE:
-                                    BigDecimal zoneNumber = (BigDecimal) config
-                                            .get(DSCAlarmZoneConfiguration.ZONE_NUMBER);
-                                    if (zoneId == zoneNumber.intValue()) {
-                                        thing = t;
-                                        logger.debug("findThing(): Thing Found - {}, {}, {}", t, handler,
-                                                handlerDSCAlarmThingType);
-                                        return thing;
-                                    }
-                                    break;
-                                default:
-                                    break;
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                logger.debug("findThing(): Error Seaching Thing - {} ", e.getMessage(), e);
-            }
+        if (handler != null) {
+            thing = handler.getThing();
+            logger.debug("findThing(): Thing Found - {}, {}, {}", thing, handler, dscAlarmThingType);
         }
 
         return thing;
     }
 
     /**
-     * Handles an incoming message from the DSC Alarm System.
+     * Handles an incoming message from the DSC Alarm System. The messages are handled by the thread reading them from
+     * the connection, one after the other, without holding a lock.
      *
      * @param incomingMessage
      */
-    public synchronized void handleIncomingMessage(String incomingMessage) {
+    public void handleIncomingMessage(String incomingMessage) {
         if (incomingMessage != null && !incomingMessage.isEmpty()) {
             DSCAlarmMessage dscAlarmMessage = new DSCAlarmMessage(incomingMessage);
             DSCAlarmMessageType dscAlarmMessageType = dscAlarmMessage.getDSCAlarmMessageType();
 
-            logger.debug("handleIncomingMessage(): Message received: {} - {}", incomingMessage,
-                    dscAlarmMessage.toString());
+            logger.debug("handleIncomingMessage(): Message received: {} - {}", incomingMessage, dscAlarmMessage);
 
             DSCAlarmEvent event = new DSCAlarmEvent(this);
             event.dscAlarmEventMessage(dscAlarmMessage);
@@ -464,8 +489,7 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
             int partitionId = 0;
             int zoneId = 0;
 
-            DSCAlarmCode dscAlarmCode = DSCAlarmCode
-                    .getDSCAlarmCodeValue(dscAlarmMessage.getMessageInfo(DSCAlarmMessageInfoType.CODE));
+            DSCAlarmCode dscAlarmCode = dscAlarmMessage.getDSCAlarmCode();
 
             if (dscAlarmCode == DSCAlarmCode.LoginResponse) {
                 String dscAlarmMessageData = dscAlarmMessage.getMessageInfo(DSCAlarmMessageInfoType.DATA);
@@ -489,12 +513,11 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
                     break;
                 case PARTITION_EVENT:
                     dscAlarmThingType = DSCAlarmThingType.PARTITION;
-                    partitionId = Integer
-                            .parseInt(event.getDSCAlarmMessage().getMessageInfo(DSCAlarmMessageInfoType.PARTITION));
+                    partitionId = dscAlarmMessage.getPartitionId();
                     break;
                 case ZONE_EVENT:
                     dscAlarmThingType = DSCAlarmThingType.ZONE;
-                    zoneId = Integer.parseInt(event.getDSCAlarmMessage().getMessageInfo(DSCAlarmMessageInfoType.ZONE));
+                    zoneId = dscAlarmMessage.getZoneId();
                     break;
                 case KEYPAD_EVENT:
                     dscAlarmThingType = DSCAlarmThingType.KEYPAD;
@@ -503,6 +526,11 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
                     break;
             }
 
+            if (partitionId < 0 || zoneId < 0) {
+                logger.debug("handleIncomingMessage(): Invalid Partition or Zone - {}", incomingMessage);
+                return;
+            }
+
             if (dscAlarmThingType != null) {
 
                 Thing thing = findThing(dscAlarmThingType, partitionId, zoneId);
@@ -233,7 +233,7 @@ public class IT100BridgeHandler extends DSCAlarmBaseBridgeHandler implements Ser
      * @param serialPortEvent
      */
     @Override
-    public synchronized void serialEvent(SerialPortEvent serialPortEvent) {
+    public void serialEvent(SerialPortEvent serialPortEvent) {
         if (serialPortEvent.getEventType() == SerialPortEvent.DATA_AVAILABLE) {
             try {
                 String messageLine = serialInput.readLine();
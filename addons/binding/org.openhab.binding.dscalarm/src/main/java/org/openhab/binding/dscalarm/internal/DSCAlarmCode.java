@@ -190,7 +190,21 @@ public enum DSCAlarmCode {
     /**
      * Lookup map to get a DSCAlarmCode value from its string code.
      */
-    private static Map<String, DSCAlarmCode> codeToDSCAlarmCodeValue;
+    private static final Map<String, DSCAlarmCode> codeToDSCAlarmCodeValue = new HashMap<>();
+
+    /**
+     * Lookup table to get a DSCAlarmCode value from its numeric code.
+     */
+    private static final DSCAlarmCode[] numericCodeToDSCAlarmCodeValue = new DSCAlarmCode[1000];
+
+    static {
+        for (DSCAlarmCode s : values()) {
+            codeToDSCAlarmCodeValue.put(s.code, s);
+            if (s != UnknownCode) {
+                numericCodeToDSCAlarmCodeValue[Integer.parseInt(s.code)] = s;
+            }
+        }
+    }
 
     /**
      * Constructor
@@ -203,16 +217,6 @@ public enum DSCAlarmCode {
         this.description = description;
     }
 
-    /**
-     * Initialize the lookup map that gets a DSCAlarmCode value from a string code.
-     */
-    private static void initMapping() {
-        codeToDSCAlarmCodeValue = new HashMap<>();
-        for (DSCAlarmCode s : values()) {
-            codeToDSCAlarmCodeValue.put(s.code, s);
-        }
-    }
-
     /**
      * The DSC Alarm command/message code string (example '005').
      */
@@ -242,13 +246,28 @@ public enum DSCAlarmCode {
      * @return enum value
      */
     public static DSCAlarmCode getDSCAlarmCodeValue(String code) {
-        DSCAlarmCode dscAlarmCode;
+        DSCAlarmCode dscAlarmCode = codeToDSCAlarmCodeValue.get(code);
 
-        if (codeToDSCAlarmCodeValue == null) {
-            initMapping();
+        if (dscAlarmCode == null) {
+            dscAlarmCode = UnknownCode;
         }
 
-        dscAlarmCode = codeToDSCAlarmCodeValue.get(code);
+        return dscAlarmCode;
+    }
+
+    /**
+     * Lookup function to return the DSCAlarmCode value based on the numeric code. Returns 'UnknownCode' if the code
+     * is not found.
+     *
+     * @param code
+     * @return enum value
+     */
+    public static DSCAlarmCode getDSCAlarmCodeValue(int code) {
+        DSCAlarmCode dscAlarmCode = null;
+
+        if (code >= 0 && code < numericCodeToDSCAlarmCodeValue.length) {
+            dscAlarmCode = numericCodeToDSCAlarmCodeValue[code];
+        }
 
         if (dscAlarmCode == null) {
             dscAlarmCode = UnknownCode;
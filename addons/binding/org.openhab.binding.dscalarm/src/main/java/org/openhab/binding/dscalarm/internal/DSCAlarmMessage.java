@@ -20,7 +20,7 @@ import org.slf4j.LoggerFactory;
  */
 public class DSCAlarmMessage {
 
-    private final Logger logger = LoggerFactory.getLogger(DSCAlarmMessage.class);
+    private static final Logger logger = LoggerFactory.getLogger(DSCAlarmMessage.class);
 
     private static final EnumMap<DSCAlarmCode, MessageParameters> dscAlarmMessageParameters = new EnumMap<>(
             DSCAlarmCode.class);
@@ -48,15 +48,22 @@ public class DSCAlarmMessage {
 
     private DSCAlarmMessageType messageType = DSCAlarmMessageType.PANEL_EVENT;
 
-    private String message = "";
+    /** The message as received, the information is extracted from it when requested. */
+    private final String receivedMessage;
+
+    /** Bounds of code and data within the received message, without time stamp and checksum. */
+    private int start = 0;
+    private int end = 0;
+    private boolean valid = false;
+
+    private DSCAlarmCode dscAlarmCode = DSCAlarmCode.UnknownCode;
+    private boolean hasPartition = false;
+    private boolean hasZone = false;
+    private int partitionId = 0;
+    private int zoneId = 0;
+
     private String name = "";
     private String description = "";
-    private String codeReceived = "";
-    private String timeStamp = "";
-    private String partition = "0";
-    private String zone = "0";
-    private String data = "";
-    private String mode = "";
     private String user = "";
     private String error = "";
 
@@ -67,200 +74,228 @@ public class DSCAlarmMessage {
      *            - the message received
      */
     public DSCAlarmMessage(String message) {
-        this.message = message;
+        this.receivedMessage = message;
         processDSCAlarmMessage();
     }
 
     /**
-     * Processes the incoming DSC Alarm message and extracts the information.
+     * Processes the incoming DSC Alarm message and extracts the information. Code, partition and zone are read
+     * directly from the characters of the message, strings are only created for the information requested later.
      */
     private void processDSCAlarmMessage() {
-        DSCAlarmCode dscAlarmCode;
+        String message = receivedMessage;
 
         if (message.length() > 3) {
-            try {
-                if (message.length() >= 8 && message.charAt(2) == ':' && message.charAt(5) == ':') {
-                    timeStamp = message.substring(0, 8);
-                    message = message.substring(9, message.length() - 2);
-                } else {
-                    message = message.substring(0, message.length() - 2);
-                }
-
-                codeReceived = message.substring(0, 3);
-
-                if (message.length() >= 4) {
-                    data = message.substring(3);
-                }
-            } catch (Exception e) {
-                logger.error("processDSCAlarmMessage(): Error processing message ({}) - {}", message, e);
-                return;
+            if (message.length() >= 8 && message.charAt(2) == ':' && message.charAt(5) == ':') {
+                start = 9;
             }
+            end = message.length() - 2;
 
-            dscAlarmCode = DSCAlarmCode.getDSCAlarmCodeValue(codeReceived);
-
-            if (dscAlarmCode != null) {
-
+            if (end - start < 3) {
+                logger.error("processDSCAlarmMessage(): Error processing message ({}) - Message too short", message);
+                start = 0;
+                end = 0;
                 name = dscAlarmCode.getName();
                 description = dscAlarmCode.getDescription();
+                return;
+            }
+            valid = true;
 
-                MessageParameters messageParms = dscAlarmMessageParameters.get(dscAlarmCode);
+            dscAlarmCode = DSCAlarmCode.getDSCAlarmCodeValue(parseNumber(start, start + 3));
 
-                if (messageParms != null) {
-                    boolean hasPartition = messageParms.hasPartition();
-                    boolean hasZone = messageParms.hasZone();
+            name = dscAlarmCode.getName();
+            description = dscAlarmCode.getDescription();
 
-                    if (hasPartition) {
-                        partition = message.substring(3, 4);
-                    }
+            MessageParameters messageParms = dscAlarmMessageParameters.get(dscAlarmCode);
 
-                    if (hasZone) {
-                        if (hasPartition) {
-                            zone = message.substring(4);
-                        } else {
-                            zone = message.substring(3);
-                        }
-                    }
+            if (messageParms != null) {
+                hasPartition = messageParms.hasPartition();
+                hasZone = messageParms.hasZone();
 
-                    messageType = messageParms.getType();
+                if (hasPartition) {
+                    partitionId = parseNumber(start + 3, start + 4);
+                }
 
+                if (hasZone) {
+                    zoneId = parseNumber(getZoneStart(), end);
                 }
 
-                switch (dscAlarmCode) {
-                    case SystemError: /* 502 */
-                        int systemErrorCode = 0;
-                        systemErrorCode = Integer.parseInt(data);
-                        switch (systemErrorCode) {
-                            case 1:
-                                error = "Receive Buffer Overrun";
-                                break;
-                            case 2:
-                                error = "Receive Buffer Overflow";
-                                break;
-                            case 3:
-                                error = "Transmit Buffer Overflow";
-                                break;
-                            case 10:
-                                error = "Keybus Transmit Buffer Overrun";
-                                break;
-                            case 11:
-                                error = "Keybus Transmit Time Timeout";
-                                break;
-                            case 12:
-                                error = "Keybus Transmit Mode Timeout";
-                                break;
-                            case 13:
-                                error = "Keybus Transmit Keystring Timeout";
-                                break;
-                            case 14:
-                                error = "Keybus Interface Not Functioning";
-                                break;
-                            case 15:
-                                error = "Keybus Busy - Attempting to Disarm or Arm with user code";
-                                break;
-                            case 16:
-                                error = "Keybus Busy – Lockout";
-                                break;
-                            case 17:
-                                error = "Keybus Busy – Installers Mode";
-                                break;
-                            case 18:
-                                error = "Keybus Busy - General Busy";
-                                break;
-                            case 20:
-                                error = "API Command Syntax Error";
-                                break;
-                            case 21:
-                                error = "API Command Partition Error - Requested Partition is out of bounds";
-                                break;
-                            case 22:
-                                error = "API Command Not Supported";
-                                break;
-                            case 23:
-                                error = "API System Not Armed - Sent in response to a disarm command";
-                                break;
-                            case 24:
-                                error = "API System Not Ready to Arm - System is either not-secure, in exit-delay, or already armed";
-                                break;
-                            case 25:
-                                error = "API Command Invalid Length";
-                                break;
-                            case 26:
-                                error = "API User Code not Required";
-                                break;
-                            case 27:
-                                error = "API Invalid Characters in Command - No alpha characters are allowed except for checksum";
-                                break;
-                            case 28:
-                                error = "API Virtual Keypad is Disabled";
-                                break;
-                            case 29:
-                                error = "API Not Valid Parameter";
-                                break;
-                            case 30:
-                                error = "API Keypad Does Not Come Out of Blank Mode";
+                messageType = messageParms.getType();
+            }
+
+            switch (dscAlarmCode) {
+                case SystemError: /* 502 */
+                    int systemErrorCode = parseNumber(start + 3, end);
+                    switch (systemErrorCode) {
+                        case 1:
+                            error = "Receive Buffer Overrun";
+                            break;
+                        case 2:
+                            error = "Receive Buffer Overflow";
+                            break;
+                        case 3:
+                            error = "Transmit Buffer Overflow";
+                            break;
+                        case 10:
+                            error = "Keybus Transmit Buffer Overrun";
+                            break;
+                        case 11:
+                            error = "Keybus Transmit Time Timeout";
+                            break;
+                        case 12:
+                            error = "Keybus Transmit Mode Timeout";
+                            break;
+                        case 13:
+                            error = "Keybus Transmit Keystring Timeout";
+                            break;
+                        case 14:
+                            error = "Keybus Interface Not Functioning";
+                            break;
+                        case 15:
+                            error = "Keybus Busy - Attempting to Disarm or Arm with user code";
+                            break;
+                        case 16:
+                            error = "Keybus Busy – Lockout";
+                            break;
+                        case 17:
+                            error = "Keybus Busy – Installers Mode";
+                            break;
+                        case 18:
+                            error = "Keybus Busy - General Busy";
+                            break;
+                        case 20:
+                            error = "API Command Syntax Error";
+                            break;
+                        case 21:
+                            error = "API Command Partition Error - Requested Partition is out of bounds";
+                            break;
+                        case 22:
+                            error = "API Command Not Supported";
+                            break;
+                        case 23:
+                            error = "API System Not Armed - Sent in response to a disarm command";
+                            break;
+                        case 24:
+                            error = "API System Not Ready to Arm - System is either not-secure, in exit-delay, or already armed";
+                            break;
+                        case 25:
+                            error = "API Command Invalid Length";
+                            break;
+                        case 26:
+                            error = "API User Code not Required";
+                            break;
+                        case 27:
+                            error = "API Invalid Characters in Command - No alpha characters are allowed except for checksum";
+                            break;
+                        case 28:
+                            error = "API Virtual Keypad is Disabled";
+                            break;
+                        case 29:
+                            error = "API Not Valid Parameter";
+                            break;
+                        case 30:
+                            error = "API Keypad Does Not Come Out of Blank Mode";
+                            break;
+                        case 31:
+                            error = "API IT-100 is Already in Thermostat Menu";
+                            break;
+                        case 32:
+                            error = "API IT-100 is NOT in Thermostat Menu";
+                            break;
+                        case 33:
+                            error = "API No Response From Thermostat or Escort Module";
+                            break;
+                        case 0:
+                        default:
+                            error = "No Error";
+                            break;
+                    }
+                    break;
+
+                case PartitionArmed: /* 652 */
+                    if (end - start == 5) {
+                        switch (message.charAt(start + 4)) {
+                            case '0':
+                                name += " (Away)";
                                 break;
-                            case 31:
-                                error = "API IT-100 is Already in Thermostat Menu";
+                            case '1':
+                                name += " (Stay)";
                                 break;
-                            case 32:
-                                error = "API IT-100 is NOT in Thermostat Menu";
+                            case '2':
+                                name += " (ZEA)";
                                 break;
-                            case 33:
-                                error = "API No Response From Thermostat or Escort Module";
+                            case '3':
+                                name += " (ZES)";
                                 break;
-                            case 0:
                             default:
-                                error = "No Error";
                                 break;
                         }
-                        break;
-
-                    case PartitionArmed: /* 652 */
-                        mode = message.substring(4);
-                        if (mode.equals("0")) {
-                            name += " (Away)";
-                        } else if (mode.equals("1")) {
-                            name += " (Stay)";
-                        } else if (mode.equals("2")) {
-                            name += " (ZEA)";
-                        } else if (mode.equals("3")) {
-                            name += " (ZES)";
-                        }
-                        messageType = DSCAlarmMessageType.PARTITION_EVENT;
-                        break;
-                    case UserClosing: /* 700 */
-                        user = message.substring(4);
-                        name = name.concat(": " + user);
-                        description = codeReceived + ": Partition " + String.valueOf(partition)
-                                + " has been armed by user " + user + ".";
-                        messageType = DSCAlarmMessageType.PARTITION_EVENT;
-                        break;
-                    case UserOpening: /* 750 */
-                        user = message.substring(4);
-                        name = name.concat(": " + user);
-                        description = codeReceived + ": Partition " + String.valueOf(partition)
-                                + " has been disarmed by user " + user + ".";
-                        messageType = DSCAlarmMessageType.PARTITION_EVENT;
-                        break;
-
-                    default:
-                        break;
-                }
-
-                logger.debug(
-                        "parseAPIMessage(): Message Received ({}) - Code: {}, Name: {}, Description: {}, Data: {}\r\n",
-                        message, codeReceived, name, description, data);
+                    }
+                    messageType = DSCAlarmMessageType.PARTITION_EVENT;
+                    break;
+                case UserClosing: /* 700 */
+                    user = getPart(start + 4, end);
+                    name = name.concat(": " + user);
+                    description = dscAlarmCode.getCode() + ": Partition " + getPart(start + 3, start + 4)
+                            + " has been armed by user " + user + ".";
+                    messageType = DSCAlarmMessageType.PARTITION_EVENT;
+                    break;
+                case UserOpening: /* 750 */
+                    user = getPart(start + 4, end);
+                    name = name.concat(": " + user);
+                    description = dscAlarmCode.getCode() + ": Partition " + getPart(start + 3, start + 4)
+                            + " has been disarmed by user " + user + ".";
+                    messageType = DSCAlarmMessageType.PARTITION_EVENT;
+                    break;
+
+                default:
+                    break;
             }
+
+            logger.debug("parseAPIMessage(): Message Received - {}", this);
         } else {
-            codeReceived = "-1";
-            data = "";
-            dscAlarmCode = DSCAlarmCode.getDSCAlarmCodeValue(codeReceived);
             name = dscAlarmCode.getName();
             description = dscAlarmCode.getDescription();
             logger.debug("parseAPIMessage(): Invalid Message Received");
         }
     }
 
+    private int getZoneStart() {
+        return hasPartition ? start + 4 : start + 3;
+    }
+
+    /**
+     * Parses the decimal number between the given positions of the received message.
+     *
+     * @return the number, or -1 if the characters are not a number
+     */
+    private int parseNumber(int from, int to) {
+        if (from >= to || to > receivedMessage.length()) {
+            return -1;
+        }
+
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            char c = receivedMessage.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * Returns the part between the given positions of the received message, or an empty string if the message is
+     * too short.
+     */
+    private String getPart(int from, int to) {
+        if (from >= to || to > receivedMessage.length()) {
+            return "";
+        }
+        return receivedMessage.substring(from, to);
+    }
+
     /**
      * Returns the DSCAlarm Message Type.
      *
@@ -270,6 +305,33 @@ public class DSCAlarmMessage {
         return messageType;
     }
 
+    /**
+     * Returns the DSCAlarm Code of the message.
+     *
+     * @return dscAlarmCode
+     */
+    public DSCAlarmCode getDSCAlarmCode() {
+        return dscAlarmCode;
+    }
+
+    /**
+     * Returns the partition of the message.
+     *
+     * @return the partition, 0 if the message has no partition, or -1 if the partition is not a number
+     */
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    /**
+     * Returns the zone of the message.
+     *
+     * @return the zone, 0 if the message has no zone, or -1 if the zone is not a number
+     */
+    public int getZoneId() {
+        return zoneId;
+    }
+
     /**
      * Returns Information from A DSC Alarm Message
      *
@@ -282,7 +344,7 @@ public class DSCAlarmMessage {
 
         switch (dscAlarmMessageInfoType) {
             case MESSAGE:
-                info = message;
+                info = valid ? receivedMessage.substring(start, end) : receivedMessage;
                 break;
             case NAME:
                 info = name;
@@ -291,25 +353,29 @@ public class DSCAlarmMessage {
                 info = description;
                 break;
             case CODE:
-                info = codeReceived;
+                if (!valid || dscAlarmCode != DSCAlarmCode.UnknownCode) {
+                    info = dscAlarmCode.getCode();
+                } else {
+                    info = receivedMessage.substring(start, start + 3);
+                }
                 break;
             case TIME_STAMP:
-                info = timeStamp;
+                info = start > 0 ? receivedMessage.substring(0, 8) : "";
                 break;
             case PARTITION:
-                info = partition;
+                info = hasPartition ? getPart(start + 3, start + 4) : "0";
                 break;
             case ZONE:
-                info = zone;
+                info = hasZone ? getPart(getZoneStart(), end) : "0";
                 break;
             case DATA:
-                info = data;
+                info = valid ? receivedMessage.substring(start + 3, end) : "";
                 break;
             case MODE:
-                info = mode;
+                info = dscAlarmCode == DSCAlarmCode.PartitionArmed ? getPart(start + 4, end) : "";
                 break;
             case USER:
-                info = timeStamp;
+                info = getMessageInfo(DSCAlarmMessageInfoType.TIME_STAMP);
                 break;
             case ERROR:
                 info = error;
@@ -328,6 +394,13 @@ public class DSCAlarmMessage {
      */
     @Override
     public String toString() {
+        String codeReceived = getMessageInfo(DSCAlarmMessageInfoType.CODE);
+        String timeStamp = getMessageInfo(DSCAlarmMessageInfoType.TIME_STAMP);
+        String partition = getMessageInfo(DSCAlarmMessageInfoType.PARTITION);
+        String zone = getMessageInfo(DSCAlarmMessageInfoType.ZONE);
+        String data = getMessageInfo(DSCAlarmMessageInfoType.DATA);
+        String mode = getMessageInfo(DSCAlarmMessageInfoType.MODE);
+
         StringBuilder sb = new StringBuilder();
 
         sb.append("Code: \"");
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.junit.Test;
+
+/**
+ * Tests the run time and queue wait time the {@link ExecEngine} reports for an execution.
+ *
+ */
+public class ExecEngineTest {
+
+    private static class ResultListener implements ExecListener {
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile ExecResult result;
+
+        @Override
+        public void executionStarted() {
+        }
+
+        @Override
+        public void outputReceived(String line) {
+        }
+
+        @Override
+        public void executionFinished(ExecResult result) {
+            this.result = result;
+            finished.countDown();
+        }
+
+        @Override
+        public void executionFailed(Exception e) {
+            finished.countDown();
+        }
+
+        ExecResult await() throws InterruptedException {
+            assertTrue("execution did not finish", finished.await(10, TimeUnit.SECONDS));
+            assertNotNull("execution failed", result);
+            return result;
+        }
+    }
+
+    private ResultListener execute(String key, String commandLine) {
+        ResultListener listener = new ResultListener();
+        assertNotNull(ExecEngine.getInstance().execute(key, commandLine, 0, false, listener));
+        return listener;
+    }
+
+    @Test
+    public void reportsTheRunTimeOfTheProcess() throws InterruptedException {
+        ExecResult result = execute("runtime", "sleep 0.5").await();
+
+        assertThat(result.getExitValue(), is(0));
+        assertTrue("run time " + result.getRunTime(), result.getRunTime() >= 450);
+        assertTrue("queue wait time " + result.getQueueWaitTime(), result.getQueueWaitTime() < 450);
+    }
+
+    @Test
+    public void reportsTheTimeSpentWaitingForAFreeThread() throws InterruptedException {
+        int threads = ((ThreadPoolExecutor) ThreadPoolManager.getPool(ExecEngine.THREADPOOL_NAME))
+                .getMaximumPoolSize();
+
+        List<ResultListener> busy = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            busy.add(execute("busy" + i, "sleep 1"));
+        }
+        ResultListener queued = execute("queued", "true");
+
+        for (ResultListener listener : busy) {
+            assertTrue(listener.await().getQueueWaitTime() < 900);
+        }
+        ExecResult result = queued.await();
+        assertTrue("queue wait time " + result.getQueueWaitTime(), result.getQueueWaitTime() >= 900);
+        assertTrue("run time " + result.getRunTime(), result.getRunTime() < 900);
+    }
+
+}
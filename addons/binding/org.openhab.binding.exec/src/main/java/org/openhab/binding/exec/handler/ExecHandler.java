@@ -10,12 +10,10 @@ package org.openhab.binding.exec.handler;
 
 import static org.openhab.binding.exec.ExecBindingConstants.*;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.IllegalFormatException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
@@ -35,6 +33,9 @@ import org.eclipse.smarthome.core.transform.TransformationHelper;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
+import org.openhab.binding.exec.internal.ExecEngine;
+import org.openhab.binding.exec.internal.ExecListener;
+import org.openhab.binding.exec.internal.ExecResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,14 +55,14 @@ public class ExecHandler extends BaseThingHandler {
     public static final String COMMAND = "command";
     public static final String TRANSFORM = "transform";
     public static final String AUTORUN = "autorun";
+    public static final String STREAMING = "streaming";
 
     // RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code>
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
 
     private ScheduledFuture<?> executionJob;
     private String lastInput;
-
-    private static Runtime rt = Runtime.getRuntime();
+    private volatile ExecEngine.Execution currentExecution;
 
     public ExecHandler(Thing thing) {
         super(thing);
@@ -116,126 +117,119 @@ public class ExecHandler extends BaseThingHandler {
             executionJob.cancel(true);
             executionJob = null;
         }
+        ExecEngine.Execution execution = currentExecution;
+        if (execution != null) {
+            execution.cancel();
+            currentExecution = null;
+        }
     }
 
     protected Runnable periodicExecutionRunnable = new Runnable() {
 
         @Override
         public void run() {
+            execute();
+        }
 
-            String commandLine = (String) getConfig().get(COMMAND);
-
-            int timeOut = 60000;
-            if (((BigDecimal) getConfig().get(TIME_OUT)) != null) {
-                timeOut = ((BigDecimal) getConfig().get(TIME_OUT)).intValue() * 1000;
-            }
-
-            if (commandLine != null && !commandLine.isEmpty()) {
+    };
 
-                updateState(RUN, OnOffType.ON);
+    /**
+     * Hands the command over to the {@link ExecEngine}, the scheduler thread is not blocked while the command is
+     * running.
+     */
+    private void execute() {
+        String commandLine = (String) getConfig().get(COMMAND);
 
-                // For some obscure reason, when using Apache Common Exec, or using a straight implementation of
-                // Runtime.Exec(), on Mac OS X (Yosemite and El Capitan), there seems to be a lock race condition
-                // randomly appearing (on UNIXProcess) *when* one tries to gobble up the stdout and sterr output of the
-                // subprocess in separate threads. It seems to be common "wisdom" to do that in separate threads, but
-                // only when keeping everything between .exec() and .waitfor() in the same thread, this lock race
-                // condition seems to go away. This approach of not reading the outputs in separate threads *might* be a
-                // problem for external commands that generate a lot of output, but this will be dependent on the limits
-                // of the underlying operating system.
+        if (commandLine == null || commandLine.trim().isEmpty()) {
+            return;
+        }
 
-                try {
-                    if (lastInput != null) {
-                        commandLine = String.format(commandLine, Calendar.getInstance().getTime(), lastInput);
-                    } else {
-                        commandLine = String.format(commandLine, Calendar.getInstance().getTime());
-                    }
-                } catch (IllegalFormatException e) {
-                    logger.error(
-                            "An exception occurred while formatting the command line with the current time and input values : '{}'",
-                            e.getMessage());
-                    updateState(RUN, OnOffType.OFF);
-                    return;
-                }
+        int timeOut = 60000;
+        if (((BigDecimal) getConfig().get(TIME_OUT)) != null) {
+            timeOut = ((BigDecimal) getConfig().get(TIME_OUT)).intValue() * 1000;
+        }
 
-                logger.trace("The command to be executed will be '{}'", commandLine);
-
-                Process proc = null;
-                try {
-                    proc = rt.exec(commandLine.toString());
-                } catch (Exception e) {
-                    logger.error("An exception occurred while executing '{}' : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
-                    updateState(RUN, OnOffType.OFF);
-                    updateState(OUTPUT, new StringType(e.getMessage()));
-                    return;
+        // the command line only has to be formatted if it references the current time or input
+        if (commandLine.indexOf('%') != -1) {
+            try {
+                if (lastInput != null) {
+                    commandLine = String.format(commandLine, Calendar.getInstance().getTime(), lastInput);
+                } else {
+                    commandLine = String.format(commandLine, Calendar.getInstance().getTime());
                 }
+            } catch (IllegalFormatException e) {
+                logger.error(
+                        "An exception occurred while formatting the command line with the current time and input values : '{}'",
+                        e.getMessage());
+                updateState(RUN, OnOffType.OFF);
+                return;
+            }
+        }
 
-                StringBuilder outputBuilder = new StringBuilder();
-                StringBuilder errorBuilder = new StringBuilder();
+        logger.trace("The command to be executed will be '{}'", commandLine);
 
-                try (InputStreamReader isr = new InputStreamReader(proc.getInputStream());
-                        BufferedReader br = new BufferedReader(isr);) {
-                    String line = null;
-                    while ((line = br.readLine()) != null) {
-                        outputBuilder.append(line).append("\n");
-                        logger.debug("Exec [{}]: '{}'", "OUTPUT", line);
-                    }
-                    isr.close();
-                } catch (IOException e) {
-                    logger.error("An exception occurred while reading the stdout when executing '{}' : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
-                }
+        final String executedCommandLine = commandLine;
+        final boolean streaming = getConfig().get(STREAMING) != null
+                && ((Boolean) getConfig().get(STREAMING)).booleanValue();
 
-                try (InputStreamReader isr = new InputStreamReader(proc.getErrorStream());
-                        BufferedReader br = new BufferedReader(isr);) {
-                    String line = null;
-                    while ((line = br.readLine()) != null) {
-                        errorBuilder.append(line).append("\n");
-                        logger.debug("Exec [{}]: '{}'", "ERROR", line);
-                    }
-                    isr.close();
-                } catch (IOException e) {
-                    logger.error("An exception occurred while reading the stderr when executing '{}' : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
-                }
-
-                boolean exitVal = false;
-                try {
-                    exitVal = proc.waitFor(timeOut, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException e) {
-                    logger.error("An exception occurred while waiting for the process ('{}') to finish : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
-                }
+        ExecEngine.Execution execution;
+        try {
+            execution = ExecEngine.getInstance().execute(getThing().getUID().getAsString(), executedCommandLine,
+                    timeOut, streaming, new ExecListener() {
 
-                if (!exitVal) {
-                    logger.warn("Forcibly termininating the process ('{}') after a timeout of {} ms",
-                            new Object[] { commandLine.toString(), timeOut });
-                    proc.destroyForcibly();
-                }
+                        @Override
+                        public void executionStarted() {
+                            updateState(RUN, OnOffType.ON);
+                        }
 
-                updateState(RUN, OnOffType.OFF);
-                updateState(EXIT, new DecimalType(proc.exitValue()));
+                        @Override
+                        public void outputReceived(String line) {
+                            updateState(OUTPUT, new StringType(transform(line)));
+                        }
 
-                outputBuilder.append(errorBuilder.toString());
+                        @Override
+                        public void executionFinished(ExecResult result) {
+                            updateState(RUN, OnOffType.OFF);
+                            updateState(EXIT, new DecimalType(result.getExitValue()));
+                            updateState(RUN_TIME, new DecimalType(result.getRunTime()));
+                            updateState(QUEUE_WAIT_TIME, new DecimalType(result.getQueueWaitTime()));
 
-                outputBuilder.append(errorBuilder.toString());
+                            if (!streaming) {
+                                updateState(OUTPUT, new StringType(transform(StringUtils.chomp(result.getOutput()))));
+                            }
 
-                String transformedResponse = StringUtils.chomp(outputBuilder.toString());
-                String transformation = (String) getConfig().get(TRANSFORM);
+                            DateTimeType stampType = new DateTimeType(Calendar.getInstance());
+                            updateState(LAST_EXECUTION, stampType);
+                        }
 
-                if (transformation != null && transformation.length() > 0) {
-                    transformedResponse = transformResponse(transformedResponse, transformation);
-                }
+                        @Override
+                        public void executionFailed(Exception e) {
+                            logger.error("An exception occurred while executing '{}' : '{}'", executedCommandLine,
+                                    e.getMessage());
+                            updateState(RUN, OnOffType.OFF);
+                            updateState(OUTPUT, new StringType(e.getMessage()));
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            // the engine is busy, keep the periodic job and try again with its next run
+            logger.warn("Couldn't queue '{}', too many commands are waiting: {}", executedCommandLine, e.getMessage());
+            updateState(RUN, OnOffType.OFF);
+            return;
+        }
 
-                updateState(OUTPUT, new StringType(transformedResponse));
+        if (execution != null) {
+            currentExecution = execution;
+        }
+    }
 
-                DateTimeType stampType = new DateTimeType(Calendar.getInstance());
-                updateState(LAST_EXECUTION, stampType);
+    private String transform(String response) {
+        String transformation = (String) getConfig().get(TRANSFORM);
 
-            }
+        if (transformation != null && transformation.length() > 0) {
+            return transformResponse(response, transformation);
         }
-
-    };
+        return response;
+    }
 
     protected String transformResponse(String response, String transformation) {
         String transformedResponse;
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecEngine} runs the commands of all exec things on the bounded {@link #THREADPOOL_NAME} thread pool, so
+ * neither long running commands nor commands producing a lot of output tie up the scheduler of the handlers.
+ *
+ * stderr is redirected into stdout and the merged stream is drained by the thread running the command while a
+ * watchdog terminates the process once its time out has expired. Only the first {@link #MAX_OUTPUT_LENGTH}
+ * characters of the output are kept, the rest is read and discarded. A command is not started again while its
+ * previous execution is still queued or running.
+ *
+ * Commands started in streaming mode are expected to run until they are cancelled. They get a thread of their own
+ * and every line they write is passed on to the {@link ExecListener} as soon as it has been read.
+ *
+ */
+public class ExecEngine {
+
+    /**
+     * The name of the thread pool the commands are executed on
+     */
+    public static final String THREADPOOL_NAME = "exec";
+
+    /**
+     * The maximum number of characters of the output kept for an execution
+     */
+    public static final int MAX_OUTPUT_LENGTH = 64 * 1024;
+
+    private static final ExecEngine INSTANCE = new ExecEngine();
+
+    private final Logger logger = LoggerFactory.getLogger(ExecEngine.class);
+
+    /**
+     * The queued or running executions by their key
+     */
+    private final ConcurrentMap<String, Execution> executions = new ConcurrentHashMap<>();
+
+    private ExecEngine() {
+    }
+
+    /**
+     * Returns the engine shared by all exec things.
+     */
+    public static ExecEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues the command for execution, unless the previous execution with the same key is still queued or running.
+     *
+     * @param key identifies the command, e.g. the UID of the thing
+     * @param commandLine the command line, which is split into the command and its arguments at whitespace
+     * @param timeOut time (in ms) after which the process is terminated, 0 to never terminate it
+     * @param streaming true to pass every line of the output to the listener as soon as it has been written
+     * @param listener the listener to be notified about the execution
+     * @return the execution or null, if the previous execution with the same key has not finished yet
+     * @throws IllegalArgumentException if the command line is empty
+     * @throws RejectedExecutionException if the thread pool does not accept the command
+     */
+    public Execution execute(String key, String commandLine, long timeOut, boolean streaming, ExecListener listener) {
+        if (commandLine == null || commandLine.trim().isEmpty()) {
+            throw new IllegalArgumentException("Empty command");
+        }
+
+        Execution execution = new Execution(key, commandLine, timeOut, streaming, listener);
+        if (executions.putIfAbsent(key, execution) != null) {
+            logger.debug("Skipping '{}', the previous execution has not finished yet", commandLine);
+            return null;
+        }
+
+        listener.executionStarted();
+        try {
+            if (streaming) {
+                Thread thread = new Thread(execution, "ESH-exec-stream-" + key);
+                thread.setDaemon(true);
+                thread.start();
+            } else {
+                ThreadPoolManager.getPool(THREADPOOL_NAME).execute(execution);
+            }
+        } catch (RejectedExecutionException e) {
+            executions.remove(key, execution);
+            throw e;
+        }
+        return execution;
+    }
+
+    /**
+     * Splits the command line at whitespace, the same way {@link Runtime#exec(String)} does.
+     */
+    private static String[] tokenize(String commandLine) {
+        StringTokenizer tokenizer = new StringTokenizer(commandLine);
+        String[] command = new String[tokenizer.countTokens()];
+        for (int i = 0; tokenizer.hasMoreTokens(); i++) {
+            command[i] = tokenizer.nextToken();
+        }
+        return command;
+    }
+
+    /**
+     * A queued or running command.
+     */
+    public class Execution implements Runnable {
+        private final String key;
+        private final String commandLine;
+        private final long timeOut;
+        private final boolean streaming;
+        private final ExecListener listener;
+        private final long submitTime = System.currentTimeMillis();
+
+        private volatile boolean cancelled;
+        private volatile Process process;
+
+        private Execution(String key, String commandLine, long timeOut, boolean streaming, ExecListener listener) {
+            this.key = key;
+            this.commandLine = commandLine;
+            this.timeOut = timeOut;
+            this.streaming = streaming;
+            this.listener = listener;
+        }
+
+        /**
+         * Terminates the process. The listener will not be notified anymore.
+         */
+        public void cancel() {
+            cancelled = true;
+            Process current = process;
+            if (current != null) {
+                current.destroyForcibly();
+            }
+        }
+
+        @Override
+        public void run() {
+            long startTime = System.currentTimeMillis();
+            long queueWaitTime = startTime - submitTime;
+            ScheduledFuture<?> watchdog = null;
+            final AtomicBoolean timedOut = new AtomicBoolean();
+
+            try {
+                if (cancelled) {
+                    return;
+                }
+
+                logger.trace("Executing '{}' after waiting {} ms in the queue", commandLine, queueWaitTime);
+                final Process proc = new ProcessBuilder(tokenize(commandLine)).redirectErrorStream(true).start();
+                process = proc;
+                if (cancelled) {
+                    proc.destroyForcibly();
+                    return;
+                }
+
+                if (timeOut > 0 && !streaming) {
+                    watchdog = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME).schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            logger.warn("Forcibly terminating the process ('{}') after a timeout of {} ms",
+                                    commandLine, timeOut);
+                            timedOut.set(true);
+                            proc.destroyForcibly();
+                        }
+                    }, timeOut, TimeUnit.MILLISECONDS);
+                }
+
+                StringBuilder output = new StringBuilder();
+                boolean truncated = false;
+                try (Reader reader = new InputStreamReader(proc.getInputStream())) {
+                    if (streaming) {
+                        BufferedReader lineReader = new BufferedReader(reader);
+                        String line;
+                        while ((line = lineReader.readLine()) != null) {
+                            logger.debug("Exec [{}]: '{}'", "OUTPUT", line);
+                            if (!cancelled) {
+                                listener.outputReceived(line);
+                            }
+                        }
+                    } else {
+                        char[] buffer = new char[4096];
+                        int read;
+                        while ((read = reader.read(buffer)) != -1) {
+                            int keep = Math.min(read, MAX_OUTPUT_LENGTH - output.length());
+                            if (keep > 0) {
+                                output.append(buffer, 0, keep);
+                            }
+                            if (keep < read) {
+                                truncated = true;
+                            }
+                        }
+                        logger.debug("Exec [{}]: '{}'", "OUTPUT", output);
+                    }
+                } catch (IOException e) {
+                    // the stream is closed when the process is terminated by the watchdog or cancelled
+                    if (!timedOut.get() && !cancelled) {
+                        throw e;
+                    }
+                }
+
+                proc.waitFor();
+                long runTime = System.currentTimeMillis() - startTime;
+
+                if (truncated) {
+                    logger.warn("The output of '{}' exceeded {} characters and has been truncated", commandLine,
+                            MAX_OUTPUT_LENGTH);
+                }
+                logger.debug("Executed '{}' in {} ms after waiting {} ms in the queue", commandLine, runTime,
+                        queueWaitTime);
+
+                if (!cancelled) {
+                    listener.executionFinished(new ExecResult(output.toString(), proc.exitValue(), timedOut.get(),
+                            truncated, queueWaitTime, runTime));
+                }
+            } catch (IOException e) {
+                if (!cancelled) {
+                    listener.executionFailed(e);
+                }
+            } catch (InterruptedException e) {
+                Process current = process;
+                if (current != null) {
+                    current.destroyForcibly();
+                }
+                Thread.currentThread().interrupt();
+            } finally {
+                if (watchdog != null) {
+                    watchdog.cancel(false);
+                }
+                executions.remove(key, this);
+            }
+        }
+    }
+}
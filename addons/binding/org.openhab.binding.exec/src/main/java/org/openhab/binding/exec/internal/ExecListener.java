@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+/**
+ * The {@link ExecListener} is notified by the {@link ExecEngine} about the progress of an execution. Except for
+ * {@link #executionStarted()}, the methods are called from the thread running the command.
+ *
+ */
+public interface ExecListener {
+
+    /**
+     * Called from the thread queuing the command, once it has been accepted and before it is handed over to the
+     * thread running it.
+     */
+    void executionStarted();
+
+    /**
+     * Called for every line the command writes, if the command has been started in streaming mode.
+     *
+     * @param line the line without the line terminator
+     */
+    void outputReceived(String line);
+
+    /**
+     * Called when the command has terminated.
+     *
+     * @param result the output, exit value and timings of the execution
+     */
+    void executionFinished(ExecResult result);
+
+    /**
+     * Called when the command could not be started or its output could not be read.
+     *
+     * @param e the cause
+     */
+    void executionFailed(Exception e);
+}
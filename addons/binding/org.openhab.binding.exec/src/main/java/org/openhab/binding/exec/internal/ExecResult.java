@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+/**
+ * The {@link ExecResult} holds the outcome of a command executed by the {@link ExecEngine}.
+ *
+ */
+public class ExecResult {
+
+    private final String output;
+    private final int exitValue;
+    private final boolean timedOut;
+    private final boolean truncated;
+    private final long queueWaitTime;
+    private final long runTime;
+
+    ExecResult(String output, int exitValue, boolean timedOut, boolean truncated, long queueWaitTime, long runTime) {
+        this.output = output;
+        this.exitValue = exitValue;
+        this.timedOut = timedOut;
+        this.truncated = truncated;
+        this.queueWaitTime = queueWaitTime;
+        this.runTime = runTime;
+    }
+
+    /**
+     * Returns the combined stdout and stderr of the command, limited to {@link ExecEngine#MAX_OUTPUT_LENGTH}
+     * characters. Empty for commands executed in streaming mode.
+     */
+    public String getOutput() {
+        return output;
+    }
+
+    public int getExitValue() {
+        return exitValue;
+    }
+
+    /**
+     * Returns true, if the command has been terminated because it exceeded its time out.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Returns true, if the command wrote more than {@link ExecEngine#MAX_OUTPUT_LENGTH} characters.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the time (in ms) the execution waited for a free thread of the engine.
+     */
+    public long getQueueWaitTime() {
+        return queueWaitTime;
+    }
+
+    /**
+     * Returns the time (in ms) from starting the process until it terminated.
+     */
+    public long getRunTime() {
+        return runTime;
+    }
+}
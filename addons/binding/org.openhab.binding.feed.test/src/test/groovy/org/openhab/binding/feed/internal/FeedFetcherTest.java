@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.feed.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.rometools.rome.feed.synd.SyndFeed;
+
+/**
+ * Tests for {@link FeedFetcher} against a minimal local HTTP server serving the feed documents in
+ * /src/test/resources/input.
+ *
+ */
+public class FeedFetcherTest {
+
+    private static final String FEED_PATH = "/feed";
+
+    private FeedServer server;
+    private String feedURL;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FeedServer();
+        server.setContent("rss_2.0.xml");
+        feedURL = server.getURL(FEED_PATH);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void feedOfSameURLIsDownloadedOncePerInterval() throws Exception {
+        FeedFetcher fetcher = new FeedFetcher(FeedFetcher.DEFAULT_MAX_CONCURRENT_FETCHES, 60000);
+        fetcher.register(feedURL);
+        fetcher.register(feedURL);
+
+        SyndFeed first = fetcher.fetch(feedURL);
+        SyndFeed second = fetcher.fetch(feedURL);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(server.requests.get(), is(1));
+    }
+
+    @Test
+    public void notModifiedResponseReturnsLastFeed() throws Exception {
+        server.etag = "\"v1\"";
+        FeedFetcher fetcher = new FeedFetcher(FeedFetcher.DEFAULT_MAX_CONCURRENT_FETCHES, 0);
+        fetcher.register(feedURL);
+
+        SyndFeed first = fetcher.fetch(feedURL);
+        SyndFeed second = fetcher.fetch(feedURL);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(server.requests.get(), is(2));
+        assertThat(server.notModifiedResponses.get(), is(1));
+    }
+
+    @Test
+    public void unchangedContentIsNotParsedAgain() throws Exception {
+        FeedFetcher fetcher = new FeedFetcher(FeedFetcher.DEFAULT_MAX_CONCURRENT_FETCHES, 0);
+        fetcher.register(feedURL);
+
+        SyndFeed first = fetcher.fetch(feedURL);
+        SyndFeed second = fetcher.fetch(feedURL);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(server.requests.get(), is(2));
+        assertThat(server.notModifiedResponses.get(), is(0));
+    }
+
+    @Test
+    public void changedContentIsParsed() throws Exception {
+        server.etag = "\"v1\"";
+        FeedFetcher fetcher = new FeedFetcher(FeedFetcher.DEFAULT_MAX_CONCURRENT_FETCHES, 0);
+        fetcher.register(feedURL);
+
+        SyndFeed first = fetcher.fetch(feedURL);
+        server.setContent("rss_2.0_changed.xml");
+        server.etag = "\"v2\"";
+        SyndFeed second = fetcher.fetch(feedURL);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getEntries().size(), is(first.getEntries().size() + 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void serverErrorIsReported() throws Exception {
+        server.status = 500;
+        FeedFetcher fetcher = new FeedFetcher(FeedFetcher.DEFAULT_MAX_CONCURRENT_FETCHES, 0);
+
+        fetcher.fetch(feedURL);
+    }
+
+    @Test
+    public void concurrentFetchesAreLimited() throws Exception {
+        server.delay = 200;
+        final FeedFetcher fetcher = new FeedFetcher(2, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<SyndFeed>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                final String url = server.getURL(FEED_PATH + i);
+                results.add(executor.submit(new Callable<SyndFeed>() {
+                    @Override
+                    public SyndFeed call() throws Exception {
+                        return fetcher.fetch(url);
+                    }
+                }));
+            }
+            for (Future<SyndFeed> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS), is(notNullValue()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(server.requests.get(), is(6));
+        assertThat(server.maxConcurrentRequests.get(), is(2));
+    }
+
+    /**
+     * A minimal HTTP server answering every GET request with the configured feed document. It honours
+     * <code>If-None-Match</code>, if an ETag is configured.
+     */
+    private static class FeedServer implements Runnable {
+        private final ServerSocket serverSocket;
+        private final Thread thread;
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger notModifiedResponses = new AtomicInteger();
+        private final AtomicInteger concurrentRequests = new AtomicInteger();
+        private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+        private volatile byte[] content;
+        private volatile String etag;
+        private volatile int status = 200;
+        private volatile long delay;
+
+        private FeedServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            thread = new Thread(this, "Feed test server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private String getURL(String path) {
+            return "http://localhost:" + serverSocket.getLocalPort() + path;
+        }
+
+        private void setContent(String feedContentFile) throws IOException {
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/" + feedContentFile)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                content = out.toByteArray();
+            }
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    Thread handler = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            handle(socket);
+                        }
+                    });
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    // server socket closed
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            int concurrent = concurrentRequests.incrementAndGet();
+            int max;
+            while (concurrent > (max = maxConcurrentRequests.get())) {
+                maxConcurrentRequests.compareAndSet(max, concurrent);
+            }
+            requests.incrementAndGet();
+            boolean counted = true;
+
+            try (Socket s = socket) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+                Map<String, String> headers = new HashMap<>();
+                in.readLine();
+                String line;
+                while ((line = in.readLine()) != null && !line.isEmpty()) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+                    }
+                }
+
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                // the request is no longer counted once the client can receive the response
+                concurrentRequests.decrementAndGet();
+                counted = false;
+
+                String currentEtag = etag;
+                StringBuilder head = new StringBuilder();
+                byte[] body = new byte[0];
+                if (status != 200) {
+                    head.append("HTTP/1.1 ").append(status).append(" Error\r\n");
+                } else if (currentEtag != null && currentEtag.equals(headers.get("if-none-match"))) {
+                    notModifiedResponses.incrementAndGet();
+                    head.append("HTTP/1.1 304 Not Modified\r\n");
+                } else {
+                    body = content;
+                    head.append("HTTP/1.1 200 OK\r\n");
+                    head.append("Content-Type: application/rss+xml\r\n");
+                }
+                if (currentEtag != null) {
+                    head.append("ETag: ").append(currentEtag).append("\r\n");
+                }
+                head.append("Content-Length: ").append(body.length).append("\r\n");
+                head.append("Connection: close\r\n\r\n");
+
+                OutputStream out = s.getOutputStream();
+                out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+                out.write(body);
+                out.flush();
+            } catch (IOException | InterruptedException e) {
+                // client went away
+            } finally {
+                if (counted) {
+                    concurrentRequests.decrementAndGet();
+                }
+            }
+        }
+    }
+}
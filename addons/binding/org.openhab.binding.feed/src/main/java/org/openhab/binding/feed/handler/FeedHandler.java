@@ -10,13 +10,9 @@ package org.openhab.binding.feed.handler;
 
 import static org.openhab.binding.feed.FeedBindingConstants.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -37,13 +33,13 @@ import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.feed.internal.FeedFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.FeedException;
-import com.rometools.rome.io.SyndFeedInput;
 
 /**
  * The {@link FeedHandler } is responsible for handling commands, which are
@@ -60,6 +56,7 @@ public class FeedHandler extends BaseThingHandler {
     private ScheduledFuture<?> refreshTask;
     private SyndFeed currentFeedState;
     private long lastRefreshTime;
+    private final FeedFetcher feedFetcher = FeedFetcher.getInstance();
 
     public FeedHandler(Thing thing) {
         super(thing);
@@ -83,6 +80,7 @@ public class FeedHandler extends BaseThingHandler {
 
         // It is not necessary to check if the URL is valid, this will be done in fetchFeedData() method
         urlString = (String) configuration.get(URL);
+        feedFetcher.register(urlString);
 
         try {
             refreshTime = (BigDecimal) configuration.get(REFRESH_TIME);
@@ -186,8 +184,9 @@ public class FeedHandler extends BaseThingHandler {
      *         otherwise
      */
     private synchronized boolean updateFeedIfChanged(SyndFeed newFeedState) {
-        // SyndFeed class has implementation of equals ()
-        if (newFeedState != null && !newFeedState.equals(currentFeedState)) {
+        // The FeedFetcher returns the same instance as long as the feed has not changed, otherwise SyndFeed class has
+        // implementation of equals ()
+        if (newFeedState != null && newFeedState != currentFeedState && !newFeedState.equals(currentFeedState)) {
             currentFeedState = newFeedState;
             logger.debug("New content available!");
             return true;
@@ -197,7 +196,7 @@ public class FeedHandler extends BaseThingHandler {
     }
 
     /**
-     * This method tries to make connection with the server and fetch data from the feed.
+     * This method fetches the data of the feed with the shared {@link FeedFetcher}.
      * The status of the feed thing is set to {@link ThingStatus#ONLINE}, if the fetching was successful.
      * Otherwise the status will be set to {@link ThingStatus#OFFLINE} with
      * {@link ThingStatusDetail#CONFIGURATION_ERROR} or
@@ -210,15 +209,7 @@ public class FeedHandler extends BaseThingHandler {
     private SyndFeed fetchFeedData(String urlString) {
         SyndFeed feed = null;
         try {
-            URL url = new URL(urlString);
-
-            URLConnection connection = url.openConnection();
-
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-
-            SyndFeedInput input = new SyndFeedInput();
-            feed = input.build(in);
-            in.close();
+            feed = feedFetcher.fetch(urlString);
 
             if (this.thing.getStatus() != ThingStatus.ONLINE) {
                 updateStatus(ThingStatus.ONLINE);
@@ -285,6 +276,7 @@ public class FeedHandler extends BaseThingHandler {
         if (refreshTask != null) {
             refreshTask.cancel(true);
         }
+        feedFetcher.unregister(urlString);
         lastRefreshTime = 0;
     }
 
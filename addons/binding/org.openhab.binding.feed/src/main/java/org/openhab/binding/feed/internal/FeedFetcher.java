@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.feed.internal;
+
+import static org.openhab.binding.feed.FeedBindingConstants.MINIMUM_REFRESH_TIME;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+
+/**
+ * The {@link FeedFetcher} downloads and parses the feed documents for all feed things. Things pointing at the same
+ * URL share one {@link FeedSource}, so the document is downloaded only once per {@link #minimumFetchInterval} no matter
+ * how many things ask for it.
+ *
+ * Requests are conditional: the ETag and Last-Modified headers of the last response are sent back and a
+ * <code>304 Not Modified</code> answer returns the already parsed feed. Servers that don't support conditional
+ * requests are handled by a digest of the response body - an unchanged body is not parsed again. In both cases the
+ * same {@link SyndFeed} instance is returned, so callers can detect an unchanged feed by identity.
+ *
+ * The number of downloads running at the same time is limited to {@link #DEFAULT_MAX_CONCURRENT_FETCHES}.
+ */
+public class FeedFetcher {
+
+    /**
+     * The maximum number of feeds downloaded at the same time
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_FETCHES = 4;
+
+    /**
+     * Timeout (in ms) for connecting to and reading from the server
+     */
+    private static final int TIMEOUT = 30000;
+
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    private static final FeedFetcher INSTANCE = new FeedFetcher(DEFAULT_MAX_CONCURRENT_FETCHES, MINIMUM_REFRESH_TIME);
+
+    private final Logger logger = LoggerFactory.getLogger(FeedFetcher.class);
+
+    private final Map<String, FeedSource> sources = new HashMap<>();
+
+    private final Semaphore fetchPermits;
+
+    private final long minimumFetchInterval;
+
+    FeedFetcher(int maxConcurrentFetches, long minimumFetchInterval) {
+        this.fetchPermits = new Semaphore(maxConcurrentFetches, true);
+        this.minimumFetchInterval = minimumFetchInterval;
+    }
+
+    /**
+     * Returns the fetcher shared by all feed things.
+     */
+    public static FeedFetcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a user of the given URL. The state of the URL (validators, digest and parsed feed) is kept as long as
+     * at least one user is registered.
+     *
+     * @param urlString - URL of the feed
+     */
+    public void register(String urlString) {
+        synchronized (sources) {
+            FeedSource source = sources.get(urlString);
+            if (source == null) {
+                source = new FeedSource(urlString);
+                sources.put(urlString, source);
+            }
+            source.users++;
+        }
+    }
+
+    /**
+     * Unregisters a user of the given URL, which has been registered with {@link #register(String)}.
+     *
+     * @param urlString - URL of the feed
+     */
+    public void unregister(String urlString) {
+        synchronized (sources) {
+            FeedSource source = sources.get(urlString);
+            if (source != null && --source.users <= 0) {
+                sources.remove(urlString);
+            }
+        }
+    }
+
+    /**
+     * Returns the current feed of the given URL. The feed is downloaded only if the last download of the URL is older
+     * than the minimum fetch interval, otherwise the last result is returned.
+     *
+     * @param urlString - URL of the feed
+     * @return the {@link SyndFeed} - the same instance as returned before, if the feed has not changed
+     * @throws MalformedURLException if the URL is not valid
+     * @throws IOException if the feed can not be downloaded
+     * @throws FeedException if the content is not a valid feed
+     */
+    public SyndFeed fetch(String urlString) throws IOException, FeedException {
+        FeedSource source;
+        synchronized (sources) {
+            source = sources.get(urlString);
+        }
+        if (source == null) {
+            // not registered, nothing to share the result with
+            source = new FeedSource(urlString);
+        }
+
+        // concurrent requests for the same URL wait for the running download and take its result
+        synchronized (source) {
+            long now = System.currentTimeMillis();
+            if (source.feed != null && now - source.lastFetchTime < minimumFetchInterval) {
+                logger.trace("Feed {} has been fetched {} ms ago, using the last result", urlString,
+                        now - source.lastFetchTime);
+                return source.feed;
+            }
+
+            try {
+                fetchPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to fetch " + urlString, e);
+            }
+            try {
+                source.feed = download(source);
+                source.lastFetchTime = System.currentTimeMillis();
+                return source.feed;
+            } finally {
+                fetchPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Downloads the document of the source, sending the validators of the last response if there is a parsed feed.
+     *
+     * @return the newly parsed feed or the feed of the source if the document has not changed
+     */
+    private SyndFeed download(FeedSource source) throws IOException, FeedException {
+        URL url = new URL(source.urlString);
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+
+        HttpURLConnection httpConnection = null;
+        if (connection instanceof HttpURLConnection) {
+            httpConnection = (HttpURLConnection) connection;
+            if (source.feed != null) {
+                if (source.etag != null) {
+                    connection.setRequestProperty("If-None-Match", source.etag);
+                }
+                if (source.lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", source.lastModified);
+                }
+            }
+        }
+
+        try {
+            if (httpConnection != null && source.feed != null
+                    && httpConnection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                logger.debug("Feed {} has not been modified", source.urlString);
+                return source.feed;
+            }
+
+            byte[] content;
+            byte[] digest;
+            try (InputStream in = connection.getInputStream()) {
+                MessageDigest messageDigest = createDigest();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    messageDigest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+                content = out.toByteArray();
+                digest = messageDigest.digest();
+            }
+
+            if (httpConnection != null) {
+                source.etag = httpConnection.getHeaderField("ETag");
+                source.lastModified = httpConnection.getHeaderField("Last-Modified");
+            }
+
+            if (source.feed != null && Arrays.equals(digest, source.digest)) {
+                logger.debug("Content of feed {} has not changed", source.urlString);
+                return source.feed;
+            }
+
+            SyndFeed feed = new SyndFeedInput().build(new XmlReader(new ByteArrayInputStream(content)));
+            source.digest = digest;
+            return feed;
+        } finally {
+            if (httpConnection != null) {
+                httpConnection.disconnect();
+            }
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The state of a feed URL shared by all things using it.
+     */
+    private static class FeedSource {
+        private final String urlString;
+        private int users;
+        private String etag;
+        private String lastModified;
+        private byte[] digest;
+        private SyndFeed feed;
+        private long lastFetchTime;
+
+        private FeedSource(String urlString) {
+            this.urlString = urlString;
+        }
+    }
+}
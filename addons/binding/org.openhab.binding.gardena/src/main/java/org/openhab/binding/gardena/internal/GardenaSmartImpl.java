@@ -8,19 +8,20 @@
  */
 package org.openhab.binding.gardena.internal;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.HttpResponseException;
 import org.eclipse.jetty.client.api.ContentResponse;
@@ -36,6 +37,7 @@ import org.openhab.binding.gardena.internal.exception.GardenaException;
 import org.openhab.binding.gardena.internal.exception.GardenaUnauthorizedException;
 import org.openhab.binding.gardena.internal.model.Ability;
 import org.openhab.binding.gardena.internal.model.Device;
+import org.openhab.binding.gardena.internal.model.DeviceWrapper;
 import org.openhab.binding.gardena.internal.model.Devices;
 import org.openhab.binding.gardena.internal.model.Errors;
 import org.openhab.binding.gardena.internal.model.Location;
@@ -80,16 +82,23 @@ public class GardenaSmartImpl implements GardenaSmart {
     private static final String ABILITY_SOIL_TEMPERATURE = "soil_temperature";
 
     private static final String PROPERTY_BUTTON_MANUAL_OVERRIDE_TIME = "button_manual_override_time";
+    private static final String PROPERTY_VALVE_OPEN = "valve_open";
 
     private static final String DEVICE_CATEGORY_MOWER = "mower";
     private static final String DEVICE_CATEGORY_GATEWAY = "gateway";
 
     private static final String DEFAULT_MOWER_DURATION = "180";
 
+    // the delay in seconds after a command until the device is fetched to confirm the command
+    private static final int COMMAND_CONFIRM_DELAY = 3;
+    // the interval in minutes to reload the locations
+    private static final int LOCATIONS_RELOAD_INTERVAL = 60;
+
     private static final String URL = "https://smart.gardena.com";
     private static final String URL_LOGIN = URL + "/sg-1/sessions";
     private static final String URL_LOCATIONS = URL + "/sg-1/locations/?user_id=";
     private static final String URL_DEVICES = URL + "/sg-1/devices/?locationId=";
+    private static final String URL_DEVICE = URL + "/sg-1/devices/%s?locationId=%s";
     private static final String URL_COMMAND = URL + "/sg-1/devices/%s/abilities/%s/command?locationId=%s";
     private static final String URL_PROPERTY = URL + "/sg-1/devices/%s/abilities/%s/properties/%s?locationId=%s";
 
@@ -107,8 +116,11 @@ public class GardenaSmartImpl implements GardenaSmart {
 
     private GardenaSmartEventListener eventListener;
 
-    private Map<String, Device> allDevicesById = new HashMap<String, Device>();
+    private Map<String, Device> allDevicesById = new ConcurrentHashMap<String, Device>();
     private Set<Location> allLocations = new HashSet<Location>();
+    private Map<String, ScheduledFuture<?>> deviceRefreshFutures = new ConcurrentHashMap<String, ScheduledFuture<?>>();
+    private volatile long lastLocationsReload;
+    private volatile boolean locationsReloadRequired;
 
     /**
      * {@inheritDoc}
@@ -134,7 +146,11 @@ public class GardenaSmartImpl implements GardenaSmart {
             throw new GardenaException(ex.getMessage(), ex);
         }
 
-        loadAllDevices();
+        try {
+            refreshDevices(true, false);
+        } finally {
+            startRefreshThread();
+        }
     }
 
     /**
@@ -170,16 +186,35 @@ public class GardenaSmartImpl implements GardenaSmart {
         if (refreshThreadFuture != null) {
             refreshThreadFuture.cancel(true);
         }
+        for (ScheduledFuture<?> deviceRefreshFuture : deviceRefreshFutures.values()) {
+            deviceRefreshFuture.cancel(true);
+        }
+        deviceRefreshFutures.clear();
     }
 
     /**
-     * Schedules a intermediate device refresh.
+     * Schedules the refresh of a single device to confirm a command, a pending refresh of the device is replaced.
      */
-    private void scheduleIntermediateRefresh() {
-        if (refreshThreadFuture != null) {
-            if (refreshThreadFuture.getDelay(TimeUnit.SECONDS) > 5) {
-                scheduler.schedule(refreshDevicesThread, 3, TimeUnit.SECONDS);
+    private void scheduleDeviceRefresh(final Device device) {
+        ScheduledFuture<?> future = scheduler.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                deviceRefreshFutures.remove(device.getId());
+                try {
+                    refreshDevice(device);
+                } catch (GardenaException ex) {
+                    logger.debug("Refreshing device '{}' failed, reloading locations and devices: {}",
+                            device.getId(), ex.getMessage());
+                    locationsReloadRequired = true;
+                    scheduler.execute(refreshDevicesThread);
+                }
             }
+        }, COMMAND_CONFIRM_DELAY, TimeUnit.SECONDS);
+
+        ScheduledFuture<?> previousFuture = deviceRefreshFutures.put(device.getId(), future);
+        if (previousFuture != null) {
+            previousFuture.cancel(false);
         }
     }
 
@@ -219,54 +254,157 @@ public class GardenaSmartImpl implements GardenaSmart {
     public void loadAllDevices() throws GardenaException {
         stopRefreshThread();
         try {
-            allLocations.clear();
-            allDevicesById.clear();
+            refreshDevices(true, true);
+        } finally {
+            startRefreshThread();
+        }
+    }
 
+    /**
+     * Fetches the devices of all locations and applies them to the known devices. Only devices which have been
+     * added, changed or deleted are reported to the listener.
+     *
+     * Gardena Smart Home has no request for the devices changed since a point in time, and fetching each device on its
+     * own would take one request per device instead of one per location. So every refresh fetches the device list of
+     * each location, and changes are found by comparing it to the known devices. Only the locations are reloaded on a
+     * slow cadence ({@link #LOCATIONS_RELOAD_INTERVAL}) or after errors.
+     */
+    private synchronized void refreshDevices(boolean reloadLocations, boolean notify) throws GardenaException {
+        Set<Location> locations = allLocations;
+        if (reloadLocations) {
             verifySession();
-            Locations locations = executeRequest(HttpMethod.GET, URL_LOCATIONS + session.getUserId(), null,
-                    Locations.class);
-
-            for (Location location : locations.getLocations()) {
-                allLocations.add(location);
-                Devices devices = loadDevices(location);
-                for (Device device : devices.getDevices()) {
-                    if (DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
-                        location.getDeviceIds().remove(device.getId());
-                    } else {
-                        allDevicesById.put(device.getId(), device);
+            locations = new HashSet<Location>(executeRequest(HttpMethod.GET, URL_LOCATIONS + session.getUserId(),
+                    null, Locations.class).getLocations());
+        }
+
+        Set<String> currentDeviceIds = new HashSet<String>();
+        List<Device> newDevices = new ArrayList<Device>();
+        List<Device> updatedDevices = new ArrayList<Device>();
+
+        for (Location location : locations) {
+            Devices devices = loadDevices(location);
+            for (Device device : devices.getDevices()) {
+                if (DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
+                    location.getDeviceIds().remove(device.getId());
+                    continue;
+                }
+                currentDeviceIds.add(device.getId());
+
+                Device existingDevice = allDevicesById.get(device.getId());
+                if (existingDevice == null) {
+                    addCommandProperties(device);
+                    newDevices.add(device);
+                } else {
+                    existingDevice.setLocation(location);
+                    if (existingDevice.update(device)) {
+                        updatedDevices.add(existingDevice);
                     }
                 }
             }
-        } finally {
-            startRefreshThread();
+        }
+
+        List<Device> deletedDevices = new ArrayList<Device>();
+        for (Device device : allDevicesById.values()) {
+            if (!currentDeviceIds.contains(device.getId())) {
+                deletedDevices.add(device);
+            }
+        }
+
+        allLocations = locations;
+        for (Device device : newDevices) {
+            allDevicesById.put(device.getId(), device);
+        }
+        for (Device device : deletedDevices) {
+            allDevicesById.remove(device.getId());
+        }
+        if (reloadLocations) {
+            lastLocationsReload = System.currentTimeMillis();
+            locationsReloadRequired = false;
+        }
+
+        logger.debug("Refreshed Gardena devices: {} new, {} updated, {} deleted", newDevices.size(),
+                updatedDevices.size(), deletedDevices.size());
+        if (notify) {
+            for (Device device : deletedDevices) {
+                eventListener.onDeviceDeleted(device);
+            }
+            for (Device device : newDevices) {
+                eventListener.onNewDevice(device);
+            }
+            for (Device device : updatedDevices) {
+                eventListener.onDeviceUpdated(device);
+            }
         }
     }
 
     /**
-     * Loads all devices for the location, adds virtual properties for commands.
+     * Fetches a single device and applies it to the known device.
+     */
+    private synchronized void refreshDevice(Device device) throws GardenaException {
+        Location location = device.getLocation();
+        Device fetchedDevice = executeRequest(HttpMethod.GET,
+                String.format(URL_DEVICE, device.getId(), location.getId()), null, DeviceWrapper.class).getDevice();
+        if (fetchedDevice == null) {
+            throw new GardenaException("Device '" + device.getId() + "' not returned");
+        }
+        prepareDevice(fetchedDevice, location);
+        if (device.update(fetchedDevice)) {
+            eventListener.onDeviceUpdated(device);
+        }
+    }
+
+    /**
+     * Loads all devices for the location.
      */
     private Devices loadDevices(Location location) throws GardenaException {
         Devices devices = executeRequest(HttpMethod.GET, URL_DEVICES + location.getId(), null, Devices.class);
         for (Device device : devices.getDevices()) {
-            device.setLocation(location);
-            for (Ability ability : device.getAbilities()) {
-                ability.setDevice(device);
-                for (Property property : ability.getProperties()) {
-                    property.setAbility(ability);
-                }
+            prepareDevice(device, location);
+        }
+        return devices;
+    }
+
+    /**
+     * Links the device, its abilities and properties to each other.
+     */
+    private void prepareDevice(Device device, Location location) {
+        device.setLocation(location);
+        for (Ability ability : device.getAbilities()) {
+            ability.setDevice(device);
+            for (Property property : ability.getProperties()) {
+                property.setAbility(ability);
             }
+        }
+    }
 
-            if (DEVICE_CATEGORY_MOWER.equals(device.getCategory())) {
-                Ability mower = device.getAbility(ABILITY_MOWER);
-                mower.addProperty(new Property(GardenaSmartCommandName.PARK_UNTIL_NEXT_TIMER, "false"));
-                mower.addProperty(new Property(GardenaSmartCommandName.PARK_UNTIL_FURTHER_NOTICE, "false"));
-                mower.addProperty(new Property(GardenaSmartCommandName.START_RESUME_SCHEDULE, "false"));
-                mower.addProperty(new Property(GardenaSmartCommandName.START_OVERRIDE_TIMER, "false"));
+    /**
+     * Adds virtual properties for commands.
+     */
+    private void addCommandProperties(Device device) throws GardenaException {
+        if (DEVICE_CATEGORY_MOWER.equals(device.getCategory())) {
+            Ability mower = device.getAbility(ABILITY_MOWER);
+            mower.addProperty(new Property(GardenaSmartCommandName.PARK_UNTIL_NEXT_TIMER, "false"));
+            mower.addProperty(new Property(GardenaSmartCommandName.PARK_UNTIL_FURTHER_NOTICE, "false"));
+            mower.addProperty(new Property(GardenaSmartCommandName.START_RESUME_SCHEDULE, "false"));
+            mower.addProperty(new Property(GardenaSmartCommandName.START_OVERRIDE_TIMER, "false"));
+
+            mower.addProperty(new Property(GardenaSmartCommandName.DURATION_PROPERTY, mowerDuration));
+        }
+    }
 
-                mower.addProperty(new Property(GardenaSmartCommandName.DURATION_PROPERTY, mowerDuration));
+    /**
+     * Sets the value a command is expected to result in, until the device is fetched again.
+     */
+    private void updatePropertyValue(Device device, String abilityName, String propertyName, String value) {
+        try {
+            Property property = device.getAbility(abilityName).getProperty(propertyName);
+            if (!StringUtils.equals(property.getValue(), value)) {
+                property.setValue(value);
+                eventListener.onDeviceUpdated(device);
             }
+        } catch (GardenaException ex) {
+            // ignore, the property is set with the next fetch of the device
         }
-        return devices;
     }
 
     /**
@@ -299,6 +437,8 @@ public class GardenaSmartImpl implements GardenaSmart {
                     throw new GardenaException("Command '" + commandName + "' requires a value");
                 }
                 mowerDuration = ObjectUtils.toString(value);
+                updatePropertyValue(device, ABILITY_MOWER,
+                        GardenaSmartCommandName.DURATION_PROPERTY.toString().toLowerCase(), mowerDuration);
                 return;
             case MEASURE_AMBIENT_TEMPERATURE:
                 ability = device.getAbility(ABILITY_AMBIENT_TEMPERATURE);
@@ -325,6 +465,8 @@ public class GardenaSmartImpl implements GardenaSmart {
                 String propertyUrl = String.format(URL_PROPERTY, device.getId(), ABILITY_OUTLET,
                         PROPERTY_BUTTON_MANUAL_OVERRIDE_TIME, device.getLocation().getId());
                 executeRequest(HttpMethod.PUT, propertyUrl, new SimplePropertiesWrapper(prop), NoResult.class);
+                updatePropertyValue(device, ABILITY_OUTLET, PROPERTY_BUTTON_MANUAL_OVERRIDE_TIME,
+                        ObjectUtils.toString(value));
                 break;
             case OUTLET_VALVE:
                 ability = device.getAbility(ABILITY_OUTLET);
@@ -343,8 +485,12 @@ public class GardenaSmartImpl implements GardenaSmart {
 
         if (command != null) {
             executeRequest(HttpMethod.POST, getCommandUrl(device, ability), command, NoResult.class);
+            if (commandName == GardenaSmartCommandName.OUTLET_VALVE) {
+                updatePropertyValue(device, ABILITY_OUTLET, PROPERTY_VALVE_OPEN,
+                        Boolean.toString(value == Boolean.TRUE));
+            }
         }
-        scheduleIntermediateRefresh();
+        scheduleDeviceRefresh(device);
     }
 
     /**
@@ -440,57 +586,18 @@ public class GardenaSmartImpl implements GardenaSmart {
         @Override
         public void run() {
             try {
-                logger.debug("Refreshing gardena device data");
-                Map<String, Device> newDevicesById = new HashMap<String, Device>();
-
-                for (Location location : allLocations) {
-                    Devices devices = loadDevices(location);
-                    for (Device device : devices.getDevices()) {
-                        if (DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
-                            location.getDeviceIds().remove(device.getId());
-                        } else {
-                            newDevicesById.put(device.getId(), device);
-                        }
-                    }
-                }
+                boolean reloadLocations = connectionLost || locationsReloadRequired || System.currentTimeMillis()
+                        - lastLocationsReload >= TimeUnit.MINUTES.toMillis(LOCATIONS_RELOAD_INTERVAL);
+                logger.debug("Refreshing gardena device data{}", reloadLocations ? " including locations" : "");
+                refreshDevices(reloadLocations, true);
 
                 if (connectionLost) {
                     connectionLost = false;
                     logger.info("Connection resumed to Gardena Smart Home with id '{}'", id);
                     eventListener.onConnectionResumed();
                 }
-
-                // determine deleted devices
-                @SuppressWarnings("unchecked")
-                Collection<Device> deletedDevices = CollectionUtils.subtract(allDevicesById.values(),
-                        newDevicesById.values());
-
-                // determine new devices
-                @SuppressWarnings("unchecked")
-                Collection<Device> newDevices = CollectionUtils.subtract(newDevicesById.values(),
-                        allDevicesById.values());
-
-                // determine updated devices
-                @SuppressWarnings("unchecked")
-                Collection<Device> updatedDevices = CollectionUtils.intersection(allDevicesById.values(),
-                        newDevicesById.values());
-
-                allDevicesById = newDevicesById;
-                newDevicesById = null;
-
-                for (Device deletedDevice : deletedDevices) {
-                    eventListener.onDeviceDeleted(deletedDevice);
-                }
-
-                for (Device newDevice : newDevices) {
-                    eventListener.onNewDevice(newDevice);
-                }
-
-                for (Device updatedDevice : updatedDevices) {
-                    eventListener.onDeviceUpdated(updatedDevice);
-                }
-
             } catch (GardenaException ex) {
+                locationsReloadRequired = true;
                 if (!connectionLost) {
                     connectionLost = true;
                     logger.warn("Connection lost to Gardena Smart Home with id '{}'", id);
@@ -9,7 +9,12 @@
 package org.openhab.binding.gardena.internal.model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.openhab.binding.gardena.internal.exception.GardenaException;
 
@@ -25,6 +30,7 @@ public class Ability {
     private transient Device device;
 
     private List<Property> properties = new ArrayList<Property>();
+    private transient Map<String, Property> propertiesByName;
 
     /**
      * Returns the name of the ability.
@@ -50,21 +56,64 @@ public class Ability {
     /**
      * Adds a property to this ability.
      */
-    public void addProperty(Property property) {
+    public synchronized void addProperty(Property property) {
         property.setAbility(this);
         properties.add(property);
+        getPropertiesByName().put(property.getName(), property);
     }
 
     /**
      * Returns the property with the specified name.
      */
-    public Property getProperty(String name) throws GardenaException {
-        for (Property property : properties) {
-            if (property.getName().equals(name)) {
-                return property;
+    public synchronized Property getProperty(String name) throws GardenaException {
+        Property property = getPropertiesByName().get(name);
+        if (property == null) {
+            throw new GardenaException("Property '" + name + "' not found in ability '" + this.name + "'");
+        }
+        return property;
+    }
+
+    /**
+     * Takes over the properties of the same ability fetched again, returns true if a property has been added, changed
+     * or removed. Properties added for commands are kept.
+     */
+    public synchronized boolean update(Ability ability) {
+        boolean changed = false;
+        type = ability.getType();
+        Set<String> names = new HashSet<String>();
+        for (Property property : ability.getProperties()) {
+            names.add(property.getName());
+            Property existing = getPropertiesByName().get(property.getName());
+            if (existing == null) {
+                addProperty(property);
+                changed = true;
+            } else if (existing.update(property)) {
+                changed = true;
+            }
+        }
+        for (Iterator<Property> iterator = properties.iterator(); iterator.hasNext();) {
+            Property property = iterator.next();
+            if (!names.contains(property.getName()) && !property.isCommandProperty()) {
+                iterator.remove();
+                getPropertiesByName().remove(property.getName());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the properties indexed by name, the index is built on first access because Gson fills the
+     * list after construction.
+     */
+    private Map<String, Property> getPropertiesByName() {
+        if (propertiesByName == null) {
+            propertiesByName = new HashMap<String, Property>();
+            for (Property property : properties) {
+                propertiesByName.put(property.getName(), property);
             }
         }
-        throw new GardenaException("Property '" + name + "' not found in ability '" + this.name + "'");
+        return propertiesByName;
     }
 
     /**
@@ -9,8 +9,14 @@
 package org.openhab.binding.gardena.internal.model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.openhab.binding.gardena.internal.exception.GardenaException;
@@ -34,6 +40,7 @@ public class Device {
     @SerializedName("scheduled_events")
     private List<ScheduledEvent> scheduledEvents = new ArrayList<ScheduledEvent>();
     private transient Location location;
+    private transient Map<String, Ability> abilitiesByName;
 
     /**
      * Returns the id of the device.
@@ -101,13 +108,64 @@ public class Device {
     /**
      * Returns the ability with the specified name.
      */
-    public Ability getAbility(String name) throws GardenaException {
-        for (Ability ability : abilities) {
-            if (ability.getName().equals(name)) {
-                return ability;
+    public synchronized Ability getAbility(String name) throws GardenaException {
+        Ability ability = getAbilitiesByName().get(name);
+        if (ability == null) {
+            throw new GardenaException("Ability '" + name + "' not found in device '" + this.name + "'");
+        }
+        return ability;
+    }
+
+    /**
+     * Takes over the data of the same device fetched again, returns true if anything has changed. Abilities not
+     * returned anymore are removed.
+     */
+    public synchronized boolean update(Device device) {
+        boolean changed = !StringUtils.equals(name, device.getName())
+                || !StringUtils.equals(description, device.getDescription())
+                || configurationSynchronized != device.isConfigurationSynchronized();
+        name = device.getName();
+        description = device.getDescription();
+        category = device.getCategory();
+        configurationSynchronized = device.isConfigurationSynchronized();
+        scheduledEvents = device.getScheduledEvents();
+
+        Set<String> names = new HashSet<String>();
+        for (Ability ability : device.getAbilities()) {
+            names.add(ability.getName());
+            Ability existing = getAbilitiesByName().get(ability.getName());
+            if (existing == null) {
+                ability.setDevice(this);
+                abilities.add(ability);
+                getAbilitiesByName().put(ability.getName(), ability);
+                changed = true;
+            } else if (existing.update(ability)) {
+                changed = true;
+            }
+        }
+        for (Iterator<Ability> iterator = abilities.iterator(); iterator.hasNext();) {
+            Ability ability = iterator.next();
+            if (!names.contains(ability.getName())) {
+                iterator.remove();
+                getAbilitiesByName().remove(ability.getName());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the abilities indexed by name, the index is built on first access because Gson fills the
+     * list after construction.
+     */
+    private Map<String, Ability> getAbilitiesByName() {
+        if (abilitiesByName == null) {
+            abilitiesByName = new HashMap<String, Ability>();
+            for (Ability ability : abilities) {
+                abilitiesByName.put(ability.getName(), ability);
             }
         }
-        throw new GardenaException("Ability '" + name + "' not found in device '" + this.name + "'");
+        return abilitiesByName;
     }
 
     /**
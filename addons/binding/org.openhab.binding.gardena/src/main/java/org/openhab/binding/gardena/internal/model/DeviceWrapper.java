@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.gardena.internal.model;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Device wrapper for valid Gardena JSON serialization.
+ *
+ */
+public class DeviceWrapper {
+    @SerializedName(value = "devices")
+    private Device device;
+
+    /**
+     * Returns the device.
+     */
+    public Device getDevice() {
+        return device;
+    }
+
+}
@@ -11,6 +11,7 @@ package org.openhab.binding.gardena.internal.model;
 import java.util.Date;
 import java.util.List;
 
+import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.gardena.internal.GardenaSmartCommandName;
 
 import com.google.gson.annotations.SerializedName;
@@ -31,6 +32,7 @@ public class Property {
     @SerializedName("supported_values")
     private List<String> supportedValues;
     private transient Ability ability;
+    private transient boolean commandProperty;
 
     public Property() {
     }
@@ -38,6 +40,7 @@ public class Property {
     public Property(GardenaSmartCommandName commandName, String value) {
         this.name = commandName.toString().toLowerCase();
         this.value = value;
+        this.commandProperty = true;
     }
 
     /**
@@ -54,6 +57,13 @@ public class Property {
         return value;
     }
 
+    /**
+     * Sets the value of the property.
+     */
+    public void setValue(String value) {
+        this.value = value;
+    }
+
     /**
      * Returns the timestamp of the property.
      */
@@ -97,4 +107,25 @@ public class Property {
         this.ability = ability;
     }
 
+    /**
+     * Returns true, if the property has been added by the binding for a command and is not provided by Gardena Smart
+     * Home.
+     */
+    public boolean isCommandProperty() {
+        return commandProperty;
+    }
+
+    /**
+     * Takes over the value of the same property fetched again, returns true if the value has changed.
+     */
+    public boolean update(Property property) {
+        boolean changed = !StringUtils.equals(value, property.getValue());
+        value = property.getValue();
+        timestamp = property.getTimestamp();
+        unit = property.getUnit();
+        writeable = property.isWriteable();
+        supportedValues = property.getSupportedValues();
+        return changed;
+    }
+
 }
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.globalcache.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookup of codes in a MAP file by the {@link CodeTable}.
+ *
+ */
+public class CodeTableTest {
+
+    private static final String GC_CODE = "sendir,1:1,1,38000,1,1,342,171,21,21";
+    private static final String HEX_CODE = "0000 006D 0002 0000 0157 00AC 0015 0016";
+    private static final String HEX_CODE_AS_GC = "38028,1,5,343,172,21,22";
+
+    private File mapFile;
+    private CodeTable codeTable;
+
+    @Before
+    public void setUp() throws IOException {
+        mapFile = File.createTempFile("globalcache", ".map");
+        codeTable = new CodeTable(mapFile.getName(), mapFile);
+    }
+
+    @After
+    public void tearDown() {
+        mapFile.delete();
+    }
+
+    private void writeMapFile(String... lines) throws IOException {
+        Files.write(mapFile.toPath(), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void looksUpCodesInGcFormat() throws IOException {
+        writeMapFile("POWER=" + GC_CODE, "MUTE=" + HEX_CODE);
+
+        assertTrue(codeTable.isAvailable());
+        assertThat(codeTable.getCode("POWER"), is(GC_CODE));
+        assertThat(codeTable.getCode("MUTE"), is(HEX_CODE_AS_GC));
+        assertThat(codeTable.getCode("VOLUME_UP"), is(nullValue()));
+    }
+
+    @Test
+    public void skipsEmptyAndInvalidEntries() throws IOException {
+        // a frequency of 0 can't be converted
+        writeMapFile("POWER=" + GC_CODE, "EMPTY=", "INVALID=0000 0000 0002 0000 0157 00AC");
+
+        assertThat(codeTable.getCode("EMPTY"), is(nullValue()));
+        assertThat(codeTable.getCode("INVALID"), is(nullValue()));
+        assertThat(codeTable.getCode("POWER"), is(GC_CODE));
+    }
+
+    @Test
+    public void loadsTheFileAgainWhenItChanges() throws IOException {
+        writeMapFile("POWER=" + GC_CODE);
+        assertThat(codeTable.getCode("POWER"), is(GC_CODE));
+        assertThat(codeTable.getCode("MUTE"), is(nullValue()));
+
+        writeMapFile("POWER=" + HEX_CODE, "MUTE=" + GC_CODE);
+        assertThat(codeTable.getCode("POWER"), is(HEX_CODE_AS_GC));
+        assertThat(codeTable.getCode("MUTE"), is(GC_CODE));
+    }
+
+    @Test
+    public void hasNoCodesWithoutFile() {
+        mapFile.delete();
+
+        assertFalse(codeTable.isAvailable());
+        assertThat(codeTable.getCode("POWER"), is(nullValue()));
+    }
+
+    @Test
+    public void compilesOnlyHexCodes() throws Exception {
+        assertThat(CodeTable.compile(HEX_CODE), is(HEX_CODE_AS_GC));
+        assertThat(CodeTable.compile(GC_CODE), is(GC_CODE));
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.globalcache.internal.command;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Test;
+import org.openhab.binding.globalcache.GlobalCacheBindingConstants.CommandType;
+
+/**
+ * Tests how the {@link SendirPipeline} groups IR commands and matches the replies of the device to them.
+ *
+ */
+public class SendirPipelineTest {
+
+    private static RequestMessage sendir(String connector) {
+        return new RequestMessage("sendir", CommandType.COMMAND, "sendir," + connector + ",1,38000,1,1,342,171,21,21",
+                null);
+    }
+
+    private static RequestMessage getstate(String connector) {
+        return new RequestMessage("getstate", CommandType.COMMAND, "getstate," + connector, null);
+    }
+
+    private static RequestMessage sendserial() {
+        return new RequestMessage("sendserial", CommandType.SERIAL1, "hello", null);
+    }
+
+    private static Queue<RequestMessage> queue(RequestMessage... requestMessages) {
+        return new LinkedList<RequestMessage>(Arrays.asList(requestMessages));
+    }
+
+    @Test
+    public void collectsTheIrCommandsForOtherConnectorsOfTheModule() {
+        RequestMessage first = sendir("1:1");
+        RequestMessage second = sendir("1:2");
+        RequestMessage third = sendir("1:3");
+        RequestMessage repeated = sendir("1:2");
+        Queue<RequestMessage> queue = queue(second, third, repeated, sendir("1:1"));
+
+        // the connector 1:2 is still transmitting when its next command arrives, so that one has to wait
+        assertThat(SendirPipeline.collect(first, queue), is(Arrays.asList(first, second, third)));
+        assertThat(queue.peek(), is(sameInstance(repeated)));
+        assertThat(queue.size(), is(2));
+    }
+
+    @Test
+    public void stopsAtTheFirstRequestThatCanNotBePipelined() {
+        RequestMessage first = sendir("1:1");
+
+        Queue<RequestMessage> otherModule = queue(sendir("2:2"), sendir("1:2"));
+        assertThat(SendirPipeline.collect(first, otherModule), is(Arrays.asList(first)));
+        assertThat(otherModule.size(), is(2));
+
+        Queue<RequestMessage> query = queue(getstate("1:2"), sendir("1:2"));
+        assertThat(SendirPipeline.collect(first, query), is(Arrays.asList(first)));
+        assertThat(query.size(), is(2));
+
+        Queue<RequestMessage> serial = queue(sendserial(), sendir("1:2"));
+        assertThat(SendirPipeline.collect(first, serial), is(Arrays.asList(first)));
+        assertThat(serial.size(), is(2));
+    }
+
+    @Test
+    public void pipelinesNothingBehindOtherCommands() {
+        RequestMessage first = getstate("1:1");
+        Queue<RequestMessage> queue = queue(sendir("1:2"), sendir("1:3"));
+
+        assertThat(SendirPipeline.collect(first, queue), is(Arrays.asList(first)));
+        assertThat(queue.size(), is(2));
+    }
+
+    @Test
+    public void matchesRepliesByConnector() {
+        RequestMessage first = sendir("1:1");
+        RequestMessage second = sendir("1:2");
+        RequestMessage third = sendir("1:3");
+        List<RequestMessage> pending = new ArrayList<RequestMessage>(Arrays.asList(first, second, third));
+
+        assertThat(SendirPipeline.matchReply(pending, "busyIR,1:3,1"), is(sameInstance(third)));
+        assertThat(SendirPipeline.matchReply(pending, "completeir,1:2,1"), is(sameInstance(second)));
+        assertThat(SendirPipeline.matchReply(pending, "ERR_1:1,021"), is(sameInstance(first)));
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    public void doesNotMistakeAConnectorForItsPrefix() {
+        RequestMessage first = sendir("1:1");
+        RequestMessage tenth = sendir("1:10");
+        List<RequestMessage> pending = new ArrayList<RequestMessage>(Arrays.asList(first, tenth));
+
+        assertThat(SendirPipeline.matchReply(pending, "completeir,1:10,1"), is(sameInstance(tenth)));
+        assertThat(pending, is(Arrays.asList(first)));
+    }
+
+    @Test
+    public void matchesOtherRepliesToTheOldestRequest() {
+        RequestMessage first = sendir("1:1");
+        RequestMessage second = sendir("1:2");
+        List<RequestMessage> pending = new ArrayList<RequestMessage>(Arrays.asList(first, second));
+
+        assertThat(SendirPipeline.matchReply(pending, "unknowncommand,1"), is(sameInstance(first)));
+        // a reply for a connector without pending request
+        assertThat(SendirPipeline.matchReply(pending, "completeir,1:3,1"), is(sameInstance(second)));
+        assertTrue(pending.isEmpty());
+    }
+
+}
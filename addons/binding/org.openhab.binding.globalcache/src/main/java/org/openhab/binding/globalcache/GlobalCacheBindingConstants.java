@@ -24,9 +24,6 @@ public class GlobalCacheBindingConstants {
 
     public static final String BINDING_ID = "globalcache";
 
-    // Maximum number of GC devices supported by the binding
-    public static final int MAX_GC_DEVICES = 10;
-
     /*
      * GlobalCache thing definitions
      */
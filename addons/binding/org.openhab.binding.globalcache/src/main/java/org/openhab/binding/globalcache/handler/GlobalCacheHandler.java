@@ -21,13 +21,14 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.URLDecoder;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.core.library.types.OnOffType;
@@ -45,6 +46,8 @@ import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.globalcache.GlobalCacheBindingConstants.CommandType;
+import org.openhab.binding.globalcache.internal.CodeTable;
+import org.openhab.binding.globalcache.internal.CodeTable.HexCodeConversionException;
 import org.openhab.binding.globalcache.internal.command.CommandGetstate;
 import org.openhab.binding.globalcache.internal.command.CommandGetversion;
 import org.openhab.binding.globalcache.internal.command.CommandSendir;
@@ -52,6 +55,7 @@ import org.openhab.binding.globalcache.internal.command.CommandSendserial;
 import org.openhab.binding.globalcache.internal.command.CommandSetstate;
 import org.openhab.binding.globalcache.internal.command.RequestMessage;
 import org.openhab.binding.globalcache.internal.command.ResponseMessage;
+import org.openhab.binding.globalcache.internal.command.SendirPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,9 +70,13 @@ public class GlobalCacheHandler extends BaseThingHandler {
 
     private InetAddress ifAddress;
     private CommandProcessor commandProcessor;
-    ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(MAX_GC_DEVICES);
+    // Runs the command processor, which occupies its thread while the thing is initialized
+    private ScheduledExecutorService scheduledExecutorService;
     ScheduledFuture<?> scheduledFuture;
 
+    // IR and serial codes of the MAP file
+    private CodeTable codeTable;
+
     private LinkedBlockingQueue<RequestMessage> sendQueue = null;
 
     // IR transaction counter
@@ -97,6 +105,7 @@ public class GlobalCacheHandler extends BaseThingHandler {
             markThingOfflineWithError(ThingStatusDetail.OFFLINE.CONFIGURATION_ERROR, "No suitable network interface");
             return;
         }
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
         scheduledFuture = scheduledExecutorService.schedule(commandProcessor, 2, TimeUnit.SECONDS);
     }
 
@@ -107,6 +116,11 @@ public class GlobalCacheHandler extends BaseThingHandler {
         if (scheduledFuture != null) {
             scheduledFuture.cancel(false);
         }
+        if (scheduledExecutorService != null) {
+            // lets the command processor finish on the terminate message
+            scheduledExecutorService.shutdown();
+            scheduledExecutorService = null;
+        }
     }
 
     @Override
@@ -234,6 +248,15 @@ public class GlobalCacheHandler extends BaseThingHandler {
             return null;
         }
 
+        CodeTable table = getCodeTable(mapFile);
+        if (table.isAvailable()) {
+            String code = table.getCode(command.toString());
+            if (code == null) {
+                logger.warn("No valid entry for {} in map file '{}' for thing {}", command, mapFile, thingID());
+            }
+            return code;
+        }
+
         TransformationService transformService = TransformationHelper.getTransformationService(bundleContext, "MAP");
         if (transformService == null) {
             logger.error("Failed to get MAP transformation service for thing {}; is bundle installed?", thingID());
@@ -257,84 +280,22 @@ public class GlobalCacheHandler extends BaseThingHandler {
 
         logger.debug("Transformed {} for thing {} with map file '{}'", command, thingID(), mapFile);
 
-        // Determine if the code is hex format. If so, convert to GC format
-        if (isHexCode(code)) {
-            logger.debug("Code is in hex format, convert to GC format");
-            try {
-                code = convertHexToGC(code);
-                logger.debug("Converted hex code is: {}", code);
-            } catch (HexCodeConversionException e) {
-                logger.warn("Failed to convert hex code to GC format");
-                return null;
-            }
+        try {
+            return CodeTable.compile(code);
+        } catch (HexCodeConversionException e) {
+            logger.warn("Failed to convert hex code to GC format: {}", e.getMessage());
+            return null;
         }
-        return code;
-    }
-
-    /*
-     * Check if the string looks like a hex code; if not then assume it's GC format
-     */
-    private boolean isHexCode(String code) {
-        Pattern pattern = Pattern.compile("0000( +[0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f])+");
-        return pattern.matcher(code).find();
     }
 
     /*
-     * Convert a hex code IR string to a Global Cache formatted IR string
+     * Get the code table of the MAP file. The table is replaced when the MAP file name has been changed.
      */
-    private String convertHexToGC(String hexCode) throws HexCodeConversionException {
-        // Magic number for converting frequency to GC format
-        final int FREQ_CONVERSION_FACTOR = 4145146;
-        final int REPEAT = 1;
-        int frequency;
-        int sequence1Length;
-        int offset;
-
-        String[] hexCodeArray = hexCode.trim().split(" ");
-
-        if (hexCodeArray.length < 5) {
-            throw new HexCodeConversionException("Hex code is too short");
+    private synchronized CodeTable getCodeTable(String mapFile) {
+        if (codeTable == null || !codeTable.getMapFilename().equals(mapFile)) {
+            codeTable = new CodeTable(mapFile);
         }
-
-        if (!hexCodeArray[0].equals("0000")) {
-            throw new HexCodeConversionException("Illegal hex code element 0, should be 0000");
-        }
-
-        try {
-            // Use magic number to get frequency
-            frequency = Math.round(FREQ_CONVERSION_FACTOR / Integer.parseInt(hexCodeArray[1], 16));
-        } catch (Exception e) {
-            throw new HexCodeConversionException("Unable to convert frequency from element 1");
-        }
-
-        try {
-            // Offset is derived from sequenceLength1
-            sequence1Length = Integer.parseInt(hexCodeArray[2], 16);
-            offset = (sequence1Length * 2) + 1;
-        } catch (Exception e) {
-            throw new HexCodeConversionException("Unable to convert offset from element 2");
-        }
-
-        // sequenceLength2 (hexCodeArray[3]) is not used
-
-        StringBuilder gcCode = new StringBuilder();
-        gcCode.append(frequency);
-        gcCode.append(",");
-        gcCode.append(REPEAT);
-        gcCode.append(",");
-        gcCode.append(offset);
-
-        try {
-            // The remaining fields are just converted to decimal
-            for (int i = 4; i < hexCodeArray.length; i++) {
-                gcCode.append(",");
-                gcCode.append(Integer.parseInt(hexCodeArray[i], 16));
-            }
-        } catch (Exception e) {
-            throw new HexCodeConversionException("Unable to convert remaining hex code string");
-        }
-
-        return gcCode.toString();
+        return codeTable;
     }
 
     public String getIP() {
@@ -394,19 +355,6 @@ public class GlobalCacheHandler extends BaseThingHandler {
         return thing.getStatusInfo().getStatusDetail();
     }
 
-    /**
-     * The {@link HexCodeConversionException} class is responsible for
-     *
-     * @author Mark Hilbush - Initial contribution
-     */
-    private class HexCodeConversionException extends Exception {
-        private static final long serialVersionUID = -4422352677677729196L;
-
-        public HexCodeConversionException(String message) {
-            super(message);
-        }
-    }
-
     /**
      * The {@link CommandProcessor} class is responsible for handling communication with the GlobalCache
      * device. It waits for requests to arrive on a queue. When a request arrives, it sends the command to the
@@ -464,6 +412,12 @@ public class GlobalCacheHandler extends BaseThingHandler {
                             break;
                         }
 
+                        List<RequestMessage> pipeline = SendirPipeline.collect(requestMessage, sendQueue);
+                        if (pipeline.size() > 1) {
+                            processPipeline(pipeline);
+                            continue;
+                        }
+
                         String deviceReply;
                         connectionManager.connect();
                         if (connectionManager.isConnected()) {
@@ -500,6 +454,65 @@ public class GlobalCacheHandler extends BaseThingHandler {
             logger.debug("Command processor TERMINATING for thing {} at IP {}", thingID(), getIP());
         }
 
+        /*
+         * Write the IR commands to the device at once, then hand each reply to its request as soon as it arrives.
+         */
+        private void processPipeline(List<RequestMessage> pipeline) throws InterruptedException {
+            List<RequestMessage> pending = new ArrayList<RequestMessage>(pipeline);
+
+            connectionManager.connect();
+            if (!connectionManager.isConnected()) {
+                replyToAll(pending, "ERROR: " + "No connection to device");
+                return;
+            }
+
+            DataOutputStream out = connectionManager.getOut(CommandType.COMMAND);
+            BufferedReader in = connectionManager.getIn();
+            if (out == null || in == null) {
+                logger.debug("Error sending to device because stream object is null");
+                replyToAll(pending, "ERROR: " + "Stream to device is null");
+                return;
+            }
+
+            try {
+                long startTime = System.currentTimeMillis();
+                StringBuilder deviceCommands = new StringBuilder();
+                for (RequestMessage requestMessage : pipeline) {
+                    deviceCommands.append(requestMessage.getDeviceCommand()).append('\r');
+                }
+                logger.trace("Processor for thing {} writing {} commands to device", thingID(), pipeline.size());
+                out.write(deviceCommands.toString().getBytes());
+                out.flush();
+
+                while (!pending.isEmpty()) {
+                    String line = in.readLine();
+                    if (line == null) {
+                        throw new IOException("Connection closed by device");
+                    }
+                    String deviceReply = line.trim();
+                    RequestMessage requestMessage = SendirPipeline.matchReply(pending, deviceReply);
+                    logger.trace("Processor for thing {} queuing response message: {}", thingID(), deviceReply);
+                    requestMessage.getReceiveQueue().put(new ResponseMessage(deviceReply));
+                }
+                long endTime = System.currentTimeMillis();
+                logger.debug("Pipeline of {} '{}' transactions for thing {} at {} took {} ms", pipeline.size(),
+                        pipeline.get(0).getCommandName(), thingID(), getIP(), endTime - startTime);
+
+            } catch (IOException e) {
+                logger.error("Comm error for thing {} at {}: {}", thingID(), getIP(), e.getMessage());
+                String deviceReply = "ERROR: " + e.getMessage();
+                connectionManager.setCommError(deviceReply);
+                connectionManager.disconnect();
+                replyToAll(pending, deviceReply);
+            }
+        }
+
+        private void replyToAll(List<RequestMessage> pending, String deviceReply) throws InterruptedException {
+            for (RequestMessage requestMessage : pending) {
+                requestMessage.getReceiveQueue().put(new ResponseMessage(deviceReply));
+            }
+        }
+
         /*
          * Write the command to the device.
          */
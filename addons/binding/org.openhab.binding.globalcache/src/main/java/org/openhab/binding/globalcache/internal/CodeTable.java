@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.globalcache.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link CodeTable} class holds the IR and serial codes of a MAP file, ready to be sent to the device. Codes
+ * in hex format are converted to GC format when the file is loaded. The file is loaded again when it has been
+ * modified since it was loaded.
+ *
+ * If the MAP file is not found in the transform directory, the table is not available and the codes have to be
+ * transformed by the MAP transformation service.
+ */
+public class CodeTable {
+    private final Logger logger = LoggerFactory.getLogger(CodeTable.class);
+
+    private static final String TRANSFORM_FOLDER_NAME = "transform";
+
+    private static final Pattern HEX_CODE_PATTERN = Pattern
+            .compile("0000( +[0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f])+");
+
+    private final String mapFilename;
+    private final File mapFile;
+
+    private Map<String, String> codes = Collections.emptyMap();
+    private long lastModified;
+    private long length;
+
+    public CodeTable(String mapFilename) {
+        this(mapFilename, new File(ConfigConstants.getConfigFolder() + File.separator + TRANSFORM_FOLDER_NAME
+                + File.separator + mapFilename));
+    }
+
+    CodeTable(String mapFilename, File mapFile) {
+        this.mapFilename = mapFilename;
+        this.mapFile = mapFile;
+    }
+
+    public String getMapFilename() {
+        return mapFilename;
+    }
+
+    /*
+     * Return true if the MAP file exists in the transform directory.
+     */
+    public boolean isAvailable() {
+        return mapFile.isFile();
+    }
+
+    /*
+     * Return the code for the command, or null if the MAP file has no valid entry for the command.
+     */
+    public synchronized String getCode(String command) {
+        long modified = mapFile.lastModified();
+        long size = mapFile.length();
+        if (modified != lastModified || size != length) {
+            load(modified, size);
+        }
+        return codes.get(command);
+    }
+
+    private void load(long modified, long size) {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(mapFile), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.warn("Failed to load map file '{}': {}", mapFilename, e.getMessage());
+            codes = Collections.emptyMap();
+            return;
+        }
+
+        Map<String, String> newCodes = new HashMap<String, String>();
+        for (String command : properties.stringPropertyNames()) {
+            String code = properties.getProperty(command);
+            if (code.isEmpty()) {
+                continue;
+            }
+            try {
+                newCodes.put(command, compile(code));
+            } catch (HexCodeConversionException e) {
+                logger.warn("Failed to convert hex code of {} in map file '{}' to GC format: {}", command,
+                        mapFilename, e.getMessage());
+            }
+        }
+        codes = newCodes;
+        lastModified = modified;
+        length = size;
+        logger.debug("Loaded {} codes from map file '{}'", codes.size(), mapFilename);
+    }
+
+    /*
+     * Determine if the code is hex format. If so, convert to GC format
+     */
+    public static String compile(String code) throws HexCodeConversionException {
+        if (isHexCode(code)) {
+            return convertHexToGC(code);
+        }
+        return code;
+    }
+
+    /*
+     * Check if the string looks like a hex code; if not then assume it's GC format
+     */
+    private static boolean isHexCode(String code) {
+        return HEX_CODE_PATTERN.matcher(code).find();
+    }
+
+    /*
+     * Convert a hex code IR string to a Global Cache formatted IR string
+     */
+    private static String convertHexToGC(String hexCode) throws HexCodeConversionException {
+        // Magic number for converting frequency to GC format
+        final int FREQ_CONVERSION_FACTOR = 4145146;
+        final int REPEAT = 1;
+        int frequency;
+        int sequence1Length;
+        int offset;
+
+        String[] hexCodeArray = hexCode.trim().split(" ");
+
+        if (hexCodeArray.length < 5) {
+            throw new HexCodeConversionException("Hex code is too short");
+        }
+
+        if (!hexCodeArray[0].equals("0000")) {
+            throw new HexCodeConversionException("Illegal hex code element 0, should be 0000");
+        }
+
+        try {
+            // Use magic number to get frequency
+            frequency = Math.round(FREQ_CONVERSION_FACTOR / Integer.parseInt(hexCodeArray[1], 16));
+        } catch (Exception e) {
+            throw new HexCodeConversionException("Unable to convert frequency from element 1");
+        }
+
+        try {
+            // Offset is derived from sequenceLength1
+            sequence1Length = Integer.parseInt(hexCodeArray[2], 16);
+            offset = (sequence1Length * 2) + 1;
+        } catch (Exception e) {
+            throw new HexCodeConversionException("Unable to convert offset from element 2");
+        }
+
+        // sequenceLength2 (hexCodeArray[3]) is not used
+
+        StringBuilder gcCode = new StringBuilder();
+        gcCode.append(frequency);
+        gcCode.append(",");
+        gcCode.append(REPEAT);
+        gcCode.append(",");
+        gcCode.append(offset);
+
+        try {
+            // The remaining fields are just converted to decimal
+            for (int i = 4; i < hexCodeArray.length; i++) {
+                gcCode.append(",");
+                gcCode.append(Integer.parseInt(hexCodeArray[i], 16));
+            }
+        } catch (Exception e) {
+            throw new HexCodeConversionException("Unable to convert remaining hex code string");
+        }
+
+        return gcCode.toString();
+    }
+
+    /**
+     * The {@link HexCodeConversionException} class is thrown if a hex code can't be converted to GC format.
+     */
+    public static class HexCodeConversionException extends Exception {
+        private static final long serialVersionUID = -4422352677677729196L;
+
+        public HexCodeConversionException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.globalcache.internal.command;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@link SendirPipeline} class groups the IR commands that can be written to the device at once, and matches the
+ * replies of the device to them.
+ */
+public class SendirPipeline {
+    // Connector address of sendir commands, and of the replies to sendir commands
+    private static final Pattern SENDIR_CONNECTOR_PATTERN = Pattern.compile("^sendir,(\\d+):(\\d+),");
+    private static final Pattern REPLY_CONNECTOR_PATTERN = Pattern.compile("^(?:completeir,|busyIR,|ERR_)(\\d+:\\d+)");
+
+    private SendirPipeline() {
+    }
+
+    /**
+     * Collect the IR commands waiting on the queue behind the request, which are sent to other connectors
+     * of the same module. The device transmits IR on the connectors of a module concurrently, but replies
+     * busyIR when a connector is still transmitting, so each connector appears at most once.
+     *
+     * The caller must be the only consumer of the queue, so the peeked request is the one being polled.
+     *
+     * @param requestMessage the request taken from the queue
+     * @param queue the requests waiting to be sent
+     * @return the request followed by the requests taken from the queue
+     */
+    public static List<RequestMessage> collect(RequestMessage requestMessage, Queue<RequestMessage> queue) {
+        List<RequestMessage> pipeline = new ArrayList<RequestMessage>();
+        pipeline.add(requestMessage);
+
+        Matcher matcher = getSendirMatcher(requestMessage);
+        if (matcher == null) {
+            return pipeline;
+        }
+        String module = matcher.group(1);
+        Set<String> connectors = new HashSet<String>();
+        connectors.add(matcher.group(2));
+
+        RequestMessage nextMessage;
+        while ((nextMessage = queue.peek()) != null) {
+            matcher = getSendirMatcher(nextMessage);
+            if (matcher == null || !matcher.group(1).equals(module) || !connectors.add(matcher.group(2))) {
+                break;
+            }
+            pipeline.add(queue.poll());
+        }
+        return pipeline;
+    }
+
+    /**
+     * Remove the request a reply of the device belongs to from the pending requests. The completeir, busyIR and
+     * error replies are matched to the requests by connector address, any other reply is matched to the oldest
+     * request without reply.
+     *
+     * @param pending the requests of a pipeline still waiting for their reply, in the order they were sent
+     * @param deviceReply the reply of the device
+     * @return the request the reply belongs to
+     */
+    public static RequestMessage matchReply(List<RequestMessage> pending, String deviceReply) {
+        Matcher replyMatcher = REPLY_CONNECTOR_PATTERN.matcher(deviceReply);
+        if (replyMatcher.find()) {
+            Iterator<RequestMessage> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                RequestMessage requestMessage = iterator.next();
+                Matcher matcher = getSendirMatcher(requestMessage);
+                if (matcher != null && (matcher.group(1) + ":" + matcher.group(2)).equals(replyMatcher.group(1))) {
+                    iterator.remove();
+                    return requestMessage;
+                }
+            }
+        }
+        return pending.remove(0);
+    }
+
+    private static Matcher getSendirMatcher(RequestMessage requestMessage) {
+        if (!requestMessage.isCommand() || requestMessage.getDeviceCommand() == null) {
+            return null;
+        }
+        Matcher matcher = SENDIR_CONNECTOR_PATTERN.matcher(requestMessage.getDeviceCommand());
+        return matcher.find() ? matcher : null;
+    }
+}
@@ -0,0 +1,510 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.kodi.internal.protocol;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.kodi.internal.KodiEventListener;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Tests for {@link KodiClientSocket} and {@link KodiConnection} against a minimal local WebSocket server answering
+ * JSON-RPC calls like kodi does.
+ *
+ */
+public class KodiClientSocketTest {
+
+    private static final long WAIT_TIME = 5000;
+
+    private ScheduledExecutorService scheduler;
+    private KodiServer server;
+    private KodiClientSocket socket;
+    private final BlockingQueue<JsonObject> events = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws Exception {
+        scheduler = Executors.newScheduledThreadPool(2);
+        server = new KodiServer();
+        socket = new KodiClientSocket(new KodiClientSocketEventListener() {
+            @Override
+            public void handleEvent(JsonObject json) {
+                events.add(json);
+            }
+
+            @Override
+            public void onConnectionClosed() {
+            }
+
+            @Override
+            public void onConnectionOpened() {
+            }
+        }, server.getURI(), scheduler);
+        socket.open();
+        waitForConnection(socket);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        socket.close();
+        server.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallsAreCorrelatedById() throws Exception {
+        server.delay = 300;
+        CompletableFuture<JsonElement> slow = socket.callMethodAsync("Test.Slow", null, WAIT_TIME);
+        CompletableFuture<JsonElement> fast = socket.callMethodAsync("Test.Echo", params("value", "fast"), WAIT_TIME);
+
+        assertThat(fast.get(WAIT_TIME, TimeUnit.MILLISECONDS).getAsString(), is("fast"));
+        assertThat(slow.isDone(), is(false));
+        assertThat(slow.get(WAIT_TIME, TimeUnit.MILLISECONDS).getAsString(), is("slow"));
+        assertThat(socket.getPendingCallCount(), is(0));
+    }
+
+    @Test
+    public void batchIsSentAsSingleMessage() throws Exception {
+        server.reverseBatches = true;
+        List<JsonElement> results = socket
+                .callMethods(Arrays.asList(new KodiRequest("Test.Echo", params("value", "a")),
+                        new KodiRequest("Test.Echo", params("value", "b")),
+                        new KodiRequest("Test.Echo", params("value", "c"))));
+
+        assertThat(results.size(), is(3));
+        assertThat(results.get(0).getAsString(), is("a"));
+        assertThat(results.get(1).getAsString(), is("b"));
+        assertThat(results.get(2).getAsString(), is("c"));
+        assertThat(server.messages.get(), is(1));
+    }
+
+    @Test
+    public void callTimesOut() throws Exception {
+        CompletableFuture<JsonElement> call = socket.callMethodAsync("Test.Ignore", null, 200);
+
+        try {
+            call.get(WAIT_TIME, TimeUnit.MILLISECONDS);
+            fail("call has not timed out");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(TimeoutException.class)));
+        }
+        assertThat(socket.getPendingCallCount(), is(0));
+    }
+
+    @Test
+    public void errorResponseFailsCall() throws Exception {
+        CompletableFuture<JsonElement> call = socket.callMethodAsync("Test.Unknown", null, WAIT_TIME);
+
+        try {
+            call.get(WAIT_TIME, TimeUnit.MILLISECONDS);
+            fail("call has not failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(KodiErrorException.class)));
+            assertThat(((KodiErrorException) e.getCause()).getCode(), is(-32601));
+        }
+        assertThat(socket.callMethod("Test.Unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void pendingCallsFailWhenConnectionIsClosed() throws Exception {
+        CompletableFuture<JsonElement> call = socket.callMethodAsync("Test.Ignore", null, WAIT_TIME);
+        socket.close();
+
+        try {
+            call.get(WAIT_TIME, TimeUnit.MILLISECONDS);
+            fail("call has not failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+        assertThat(socket.getPendingCallCount(), is(0));
+    }
+
+    @Test
+    public void notificationsArePassedToEventHandler() throws Exception {
+        socket.callMethod("Test.Notify");
+
+        JsonObject event = events.poll(WAIT_TIME, TimeUnit.MILLISECONDS);
+        assertThat(event, is(notNullValue()));
+        assertThat(event.get("method").getAsString(), is("Player.OnPause"));
+    }
+
+    @Test
+    public void playerStatusIsUpdatedWithSingleBatch() throws Exception {
+        final List<String> titles = Collections.synchronizedList(new ArrayList<String>());
+        KodiConnection connection = new KodiConnection(new TitleListener(titles));
+        connection.connect(server.getURI().getHost(), server.getURI().getPort(), scheduler);
+        assertThat(connection.checkConnection(), is(true));
+
+        server.messages.set(0);
+        connection.updatePlayerStatus();
+        // the active player is not known yet, so its item is requested by a second batch
+        assertThat(server.messages.get(), is(2));
+
+        server.messages.set(0);
+        connection.updatePlayerStatus();
+        assertThat(server.messages.get(), is(1));
+        assertThat(titles, is(Arrays.asList("Title", "Title")));
+    }
+
+    private static JsonObject params(String name, String value) {
+        JsonObject params = new JsonObject();
+        params.addProperty(name, value);
+        return params;
+    }
+
+    private static void waitForConnection(KodiClientSocket socket) throws InterruptedException {
+        long end = System.currentTimeMillis() + WAIT_TIME;
+        while (!socket.isConnected() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertThat(socket.isConnected(), is(true));
+    }
+
+    /**
+     * Records the titles passed on by the {@link KodiConnection}.
+     */
+    private static class TitleListener implements KodiEventListener {
+        private final List<String> titles;
+
+        private TitleListener(List<String> titles) {
+            this.titles = titles;
+        }
+
+        @Override
+        public void updateTitle(String title) {
+            titles.add(title);
+        }
+
+        @Override
+        public void updateConnectionState(boolean connected) {
+        }
+
+        @Override
+        public void updateScreenSaverState(boolean screenSaveActive) {
+        }
+
+        @Override
+        public void updateVolume(int volume) {
+        }
+
+        @Override
+        public void updatePlayerState(KodiState state) {
+        }
+
+        @Override
+        public void updateMuted(boolean muted) {
+        }
+
+        @Override
+        public void updateShowTitle(String title) {
+        }
+
+        @Override
+        public void updateAlbum(String album) {
+        }
+
+        @Override
+        public void updateArtist(String artist) {
+        }
+
+        @Override
+        public void updateMediaType(String mediaType) {
+        }
+    }
+
+    /**
+     * A minimal WebSocket server answering JSON-RPC calls like kodi. Every message is answered on a thread of its
+     * own, so delayed answers don't hold back the answers to later calls.
+     */
+    private static class KodiServer implements Runnable {
+        private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger messages = new AtomicInteger();
+        private final JsonParser parser = new JsonParser();
+
+        private final List<Socket> clients = new CopyOnWriteArrayList<>();
+        private volatile long delay;
+        private volatile boolean reverseBatches;
+
+        private KodiServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread thread = new Thread(this, "Kodi test server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private URI getURI() {
+            return URI.create("ws://localhost:" + serverSocket.getLocalPort() + "/jsonrpc");
+        }
+
+        private void close() throws IOException {
+            serverSocket.close();
+            for (Socket client : clients) {
+                client.close();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    clients.add(socket);
+                    Thread connection = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            handle(socket);
+                        }
+                    });
+                    connection.setDaemon(true);
+                    connection.start();
+                } catch (IOException e) {
+                    // server socket closed
+                }
+            }
+        }
+
+        private void handle(final Socket socket) {
+            try (Socket s = socket) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                handshake(in, s.getOutputStream());
+                String message;
+                while ((message = readFrame(in)) != null) {
+                    messages.incrementAndGet();
+                    final String request = message;
+                    Thread handler = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            answer(socket, request);
+                        }
+                    });
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private void handshake(DataInputStream in, OutputStream out) throws IOException {
+            String key = null;
+            String line;
+            while (!(line = readLine(in)).isEmpty()) {
+                if (line.toLowerCase().startsWith("sec-websocket-key:")) {
+                    key = line.substring(line.indexOf(':') + 1).trim();
+                }
+            }
+            String accept;
+            try {
+                accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                        .digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.ISO_8859_1)));
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+        }
+
+        private String readLine(DataInputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1 && c != '\n') {
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        /**
+         * Reads a masked client frame.
+         *
+         * @return the text of the frame or null, if the client has closed the connection
+         */
+        private String readFrame(DataInputStream in) throws IOException {
+            while (true) {
+                int opcode = in.readUnsignedByte() & 0x0f;
+                int second = in.readUnsignedByte();
+                long length = second & 0x7f;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    in.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i % 4];
+                }
+                if (opcode == 0x8) {
+                    return null;
+                } else if (opcode == 0x1) {
+                    return new String(payload, StandardCharsets.UTF_8);
+                }
+                // ignore ping, pong and continuation frames
+            }
+        }
+
+        private void send(Socket client, String text) {
+            byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            frame.write(0x81);
+            if (payload.length < 126) {
+                frame.write(payload.length);
+            } else {
+                frame.write(126);
+                frame.write(payload.length >> 8);
+                frame.write(payload.length & 0xff);
+            }
+            frame.write(payload, 0, payload.length);
+            try {
+                synchronized (client) {
+                    client.getOutputStream().write(frame.toByteArray());
+                    client.getOutputStream().flush();
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private void answer(Socket client, String message) {
+            JsonElement request = parser.parse(message);
+            if (request.isJsonArray()) {
+                JsonArray responses = new JsonArray();
+                for (JsonElement call : request.getAsJsonArray()) {
+                    JsonObject response = answerCall(client, call.getAsJsonObject());
+                    if (response != null) {
+                        responses.add(response);
+                    }
+                }
+                if (reverseBatches) {
+                    JsonArray reversed = new JsonArray();
+                    for (int i = responses.size() - 1; i >= 0; i--) {
+                        reversed.add(responses.get(i));
+                    }
+                    responses = reversed;
+                }
+                send(client, responses.toString());
+            } else {
+                JsonObject response = answerCall(client, request.getAsJsonObject());
+                if (response != null) {
+                    send(client, response.toString());
+                }
+            }
+        }
+
+        private JsonObject answerCall(Socket client, JsonObject call) {
+            String method = call.get("method").getAsString();
+            JsonObject params = call.has("params") ? call.get("params").getAsJsonObject() : new JsonObject();
+            JsonObject response = new JsonObject();
+            response.addProperty("jsonrpc", "2.0");
+            response.add("id", call.get("id"));
+
+            switch (method) {
+                case "Test.Echo":
+                    response.add("result", params.get("value"));
+                    break;
+                case "Test.Slow":
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.addProperty("result", "slow");
+                    break;
+                case "Test.Ignore":
+                    return null;
+                case "Test.Notify":
+                    send(client, "{\"jsonrpc\":\"2.0\",\"method\":\"Player.OnPause\",\"params\":{\"data\":{}}}");
+                    response.addProperty("result", "OK");
+                    break;
+                case "Application.GetProperties":
+                    JsonObject version = new JsonObject();
+                    version.addProperty("major", 17);
+                    version.addProperty("minor", 1);
+                    version.addProperty("revision", "test");
+                    JsonObject properties = new JsonObject();
+                    properties.add("version", version);
+                    response.add("result", properties);
+                    break;
+                case "Player.GetActivePlayers":
+                    JsonObject player = new JsonObject();
+                    player.addProperty("playerid", 1);
+                    player.addProperty("type", "video");
+                    JsonArray players = new JsonArray();
+                    players.add(player);
+                    response.add("result", players);
+                    break;
+                case "Player.GetProperties":
+                    JsonObject speed = new JsonObject();
+                    speed.addProperty("speed", 1);
+                    response.add("result", speed);
+                    break;
+                case "Player.GetItem":
+                    JsonObject item = new JsonObject();
+                    item.addProperty("type", "song");
+                    item.addProperty("title", "Title");
+                    JsonArray artist = new JsonArray();
+                    artist.add(new JsonPrimitive("Artist"));
+                    item.add("artist", artist);
+                    JsonObject result = new JsonObject();
+                    result.add("item", item);
+                    response.add("result", result);
+                    break;
+                default:
+                    JsonObject error = new JsonObject();
+                    error.addProperty("code", -32601);
+                    error.addProperty("message", "Method not found.");
+                    response.add("error", error);
+                    break;
+            }
+            return response;
+        }
+    }
+}
@@ -8,10 +8,21 @@
  */
 package org.openhab.binding.kodi.internal.protocol;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
@@ -24,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -32,6 +44,10 @@ import com.google.gson.JsonParser;
  * KodiClientSocket implements the low level communication to kodi through websocket. Usually this communication is done
  * through port 9090
  *
+ * Calls are correlated with their responses by the JSON-RPC id, so any number of calls can be in flight at the same
+ * time. Every call has a timeout of its own and several calls can be sent to kodi in a single batch array, which
+ * kodi answers in a single message.
+ *
  * @author Paul Frank
  *
  */
@@ -39,11 +55,19 @@ public class KodiClientSocket {
     private final Logger logger = LoggerFactory.getLogger(KodiClientSocket.class);
 
     private final ScheduledExecutorService scheduler;
-    private static final int REQUEST_TIMEOUT_MS = 60000;
+    static final int REQUEST_TIMEOUT_MS = 60000;
+
+    private final AtomicInteger nextMessageId = new AtomicInteger(1);
+
+    /**
+     * The calls which have been sent and not yet been answered by their id
+     */
+    private final Map<Integer, CompletableFuture<JsonElement>> pendingCalls = new ConcurrentHashMap<>();
 
-    private CountDownLatch commandLatch = null;
-    private JsonObject commandResponse = null;
-    private int nextMessageId = 1;
+    /**
+     * Jetty doesn't allow concurrent blocking writes to the same remote endpoint
+     */
+    private final Object sendLock = new Object();
 
     private boolean connected = false;
 
@@ -94,6 +118,7 @@ public class KodiClientSocket {
             }
             session = null;
         }
+        failPendingCalls(new IOException("Connection closed"));
         try {
             client.stop();
         } catch (Exception e) {
@@ -137,36 +162,16 @@ public class KodiClientSocket {
         @OnWebSocketMessage
         public void onMessage(String message) {
             logger.debug("Message received from server: {}", message);
-            final JsonObject json = parser.parse(message).getAsJsonObject();
-            if (json.has("id")) {
-                logger.debug("Response received from server: {}", json);
-                int messageId = json.get("id").getAsInt();
-                if (messageId == nextMessageId - 1) {
-                    commandResponse = json;
-                    commandLatch.countDown();
-                }
-            } else {
-                logger.debug("Event received from server: {}", json);
-                try {
-                    if (eventHandler != null) {
-                        scheduler.submit(new Runnable() {
-
-                            @Override
-                            public void run() {
-                                try {
-                                    eventHandler.handleEvent(json);
-                                } catch (Exception e) {
-                                    logger.error("Error handling event {} player state change message: {}", json,
-                                            e.getMessage(), e);
-                                }
-
-                            }
-                        });
-
+            JsonElement element = parser.parse(message);
+            if (element.isJsonArray()) {
+                // the answer to a batch
+                for (JsonElement response : element.getAsJsonArray()) {
+                    if (response.isJsonObject()) {
+                        handleMessage(response.getAsJsonObject());
                     }
-                } catch (Exception e) {
-                    logger.error("Error handling player state change message", e);
                 }
+            } else if (element.isJsonObject()) {
+                handleMessage(element.getAsJsonObject());
             }
         }
 
@@ -175,6 +180,7 @@ public class KodiClientSocket {
             session = null;
             connected = false;
             logger.debug("Closing a WebSocket due to {}", reason);
+            failPendingCalls(new IOException("Connection closed: " + reason));
             scheduler.submit(new Runnable() {
 
                 @Override
@@ -189,47 +195,200 @@ public class KodiClientSocket {
         }
     }
 
-    private void sendMessage(String str) throws Exception {
-        if (isConnected()) {
-            logger.debug("send message: {}", str);
-            session.getRemote().sendString(str);
+    private void handleMessage(final JsonObject json) {
+        if (json.has("id") && !json.has("method")) {
+            logger.debug("Response received from server: {}", json);
+            JsonElement idElement = json.get("id");
+            if (idElement.isJsonNull()) {
+                // kodi could not determine the id, e.g. the request was not valid JSON
+                logger.debug("Response without id received from server: {}", json);
+                return;
+            }
+            CompletableFuture<JsonElement> call = pendingCalls.remove(idElement.getAsInt());
+            if (call == null) {
+                logger.debug("Ignoring response to unknown or timed out call {}", idElement);
+            } else if (json.has("error")) {
+                JsonObject error = json.get("error").getAsJsonObject();
+                call.completeExceptionally(
+                        new KodiErrorException(error.get("code").getAsInt(), error.get("message").getAsString()));
+            } else {
+                call.complete(json.get("result"));
+            }
         } else {
-            throw new Exception("socket not initialized");
+            logger.debug("Event received from server: {}", json);
+            try {
+                if (eventHandler != null) {
+                    scheduler.submit(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            try {
+                                eventHandler.handleEvent(json);
+                            } catch (Exception e) {
+                                logger.error("Error handling event {} player state change message: {}", json,
+                                        e.getMessage(), e);
+                            }
+
+                        }
+                    });
+
+                }
+            } catch (Exception e) {
+                logger.error("Error handling player state change message", e);
+            }
         }
     }
 
-    public JsonElement callMethod(String methodName) {
-        return callMethod(methodName, null);
+    private void failPendingCalls(Exception cause) {
+        for (Integer id : new ArrayList<>(pendingCalls.keySet())) {
+            CompletableFuture<JsonElement> call = pendingCalls.remove(id);
+            if (call != null) {
+                call.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private void sendMessage(String str) throws Exception {
+        synchronized (sendLock) {
+            if (isConnected()) {
+                logger.debug("send message: {}", str);
+                session.getRemote().sendString(str);
+            } else {
+                throw new IOException("socket not initialized");
+            }
+        }
     }
 
-    public synchronized JsonElement callMethod(String methodName, JsonObject params) {
+    /**
+     * Registers a new call and schedules its timeout.
+     *
+     * @return the JSON-RPC request object
+     */
+    private JsonObject prepareCall(KodiRequest request, long timeout, final CompletableFuture<JsonElement> call) {
+        final int id = nextMessageId.getAndIncrement();
+
+        JsonObject payloadObject = new JsonObject();
+        payloadObject.addProperty("jsonrpc", "2.0");
+        payloadObject.addProperty("id", id);
+        payloadObject.addProperty("method", request.getMethodName());
+        if (request.getParams() != null) {
+            payloadObject.add("params", request.getParams());
+        }
+
+        pendingCalls.put(id, call);
         try {
-            JsonObject payloadObject = new JsonObject();
-            payloadObject.addProperty("jsonrpc", "2.0");
-            payloadObject.addProperty("id", nextMessageId);
-            payloadObject.addProperty("method", methodName);
+            final ScheduledFuture<?> timeoutTask = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (pendingCalls.remove(id, call)) {
+                        call.completeExceptionally(new TimeoutException("No response to " + request));
+                    }
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            call.whenComplete((result, exception) -> timeoutTask.cancel(false));
+        } catch (RejectedExecutionException e) {
+            pendingCalls.remove(id);
+            call.completeExceptionally(e);
+        }
+        return payloadObject;
+    }
+
+    /**
+     * Sends a method call to kodi without waiting for the response.
+     *
+     * @param methodName the name of the method, e.g. <code>Player.GetActivePlayers</code>
+     * @param params the parameters or null, if the method has no parameters
+     * @param timeout time (in ms) after which the call fails with a {@link TimeoutException}
+     * @return a future which is completed with the result of the call by the thread receiving the response. It fails
+     *         with a {@link KodiErrorException}, if kodi returns an error, or with an {@link IOException}, if the
+     *         call can not be sent or the connection is closed before the response has been received.
+     */
+    public CompletableFuture<JsonElement> callMethodAsync(String methodName, JsonObject params, long timeout) {
+        return callMethodsAsync(Collections.singletonList(new KodiRequest(methodName, params)), timeout).get(0);
+    }
+
+    /**
+     * Sends several method calls to kodi in a single batch without waiting for the responses. Kodi executes the calls
+     * in order and answers all of them in a single message.
+     *
+     * @param requests the calls to send
+     * @param timeout time (in ms) after which the calls which have not been answered fail with a
+     *            {@link TimeoutException}
+     * @return a future for every call in the order of the requests, see
+     *         {@link #callMethodAsync(String, JsonObject, long)}
+     */
+    public List<CompletableFuture<JsonElement>> callMethodsAsync(List<KodiRequest> requests, long timeout) {
+        List<CompletableFuture<JsonElement>> calls = new ArrayList<>(requests.size());
+        JsonArray batch = new JsonArray();
+        for (KodiRequest request : requests) {
+            CompletableFuture<JsonElement> call = new CompletableFuture<>();
+            batch.add(prepareCall(request, timeout, call));
+            calls.add(call);
+        }
 
-            if (params != null) {
-                payloadObject.add("params", params);
+        try {
+            sendMessage(mapper.toJson(batch.size() == 1 ? batch.get(0) : batch));
+        } catch (Exception e) {
+            IOException cause = e instanceof IOException ? (IOException) e : new IOException(e);
+            for (int i = 0; i < batch.size(); i++) {
+                pendingCalls.remove(batch.get(i).getAsJsonObject().get("id").getAsInt());
+                calls.get(i).completeExceptionally(cause);
             }
+        }
+        return calls;
+    }
 
-            String message = mapper.toJson(payloadObject);
+    public JsonElement callMethod(String methodName) {
+        return callMethod(methodName, null);
+    }
+
+    /**
+     * Calls a method and waits for its result.
+     *
+     * @return the result or null, if the call failed or timed out
+     */
+    public JsonElement callMethod(String methodName, JsonObject params) {
+        return getResult(new KodiRequest(methodName, params), callMethodAsync(methodName, params, REQUEST_TIMEOUT_MS));
+    }
 
-            commandLatch = new CountDownLatch(1);
-            commandResponse = null;
-            nextMessageId++;
+    /**
+     * Calls several methods in a single batch and waits for their results.
+     *
+     * @return the results in the order of the requests, null for every call which failed or timed out
+     */
+    public List<JsonElement> callMethods(List<KodiRequest> requests) {
+        List<CompletableFuture<JsonElement>> calls = callMethodsAsync(requests, REQUEST_TIMEOUT_MS);
+        List<JsonElement> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            results.add(getResult(requests.get(i), calls.get(i)));
+        }
+        return results;
+    }
 
-            sendMessage(message);
-            if (commandLatch.await(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
-                logger.debug("callMethod returns {}", commandResponse.toString());
-                return commandResponse.get("result");
+    private JsonElement getResult(KodiRequest request, CompletableFuture<JsonElement> call) {
+        try {
+            JsonElement result = call.get();
+            logger.debug("callMethod returns {}", result);
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                logger.error("Timeout during callMethod {}", request);
+            } else if (e.getCause() instanceof KodiErrorException) {
+                logger.debug("Error during callMethod {}: {}", request, e.getCause().getMessage());
             } else {
-                logger.error("Timeout during callMethod({}, {})", methodName, params != null ? params.toString() : "");
-                return null;
+                logger.error("Error during callMethod {}", request, e.getCause());
             }
-        } catch (Exception e) {
-            logger.error("Error during callMethod", e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return null;
         }
     }
+
+    /**
+     * Returns the number of calls which have been sent and are waiting for their response.
+     */
+    int getPendingCallCount() {
+        return pendingCalls.size();
+    }
 }
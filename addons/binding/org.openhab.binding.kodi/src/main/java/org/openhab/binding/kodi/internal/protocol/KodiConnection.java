@@ -9,6 +9,9 @@
 package org.openhab.binding.kodi.internal.protocol;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.openhab.binding.kodi.internal.KodiEventListener;
@@ -33,12 +36,21 @@ public class KodiConnection implements KodiClientSocketEventListener {
 
     private static final int VOLUMESTEP = 10;
 
+    private static final String[] PLAYER_PROPERTIES = { "speed", "position" };
+    private static final String[] ITEM_PROPERTIES = { "title", "album", "artist", "director", "thumbnail", "file",
+            "fanart", "showtitle", "streamdetails" };
+
     private URI wsUri;
     private KodiClientSocket socket;
 
     private int volume = 0;
     private KodiState currentState = KodiState.Stop;
 
+    /**
+     * The player reported active by the last status update, -1 if no player was active
+     */
+    private int lastActivePlayer = -1;
+
     private final KodiEventListener listener;
 
     public KodiConnection(KodiEventListener listener) {
@@ -66,7 +78,10 @@ public class KodiConnection implements KodiClientSocketEventListener {
     }
 
     private int getActivePlayer() {
-        JsonElement response = socket.callMethod("Player.GetActivePlayers");
+        return parseActivePlayer(socket.callMethod("Player.GetActivePlayers"));
+    }
+
+    private int parseActivePlayer(JsonElement response) {
         if (response != null) {
             boolean playing = response.isJsonArray() && response.getAsJsonArray().size() > 0;
             if (playing) {
@@ -167,23 +182,45 @@ public class KodiConnection implements KodiClientSocketEventListener {
         socket.callMethod("Application.SetMute", params);
     }
 
-    private int getSpeed(int activePlayer) {
-        final String[] properties = { "speed", "position" };
-
+    private KodiRequest getPropertiesRequest(int activePlayer) {
         JsonObject params = new JsonObject();
         params.addProperty("playerid", activePlayer);
-        params.add("properties", getJsonArray(properties));
-        JsonElement response = socket.callMethod("Player.GetProperties", params);
+        params.add("properties", getJsonArray(PLAYER_PROPERTIES));
+        return new KodiRequest("Player.GetProperties", params);
+    }
 
-        JsonObject result = response.getAsJsonObject();
-        return result.get("speed").getAsInt();
+    private KodiRequest getItemRequest(int activePlayer) {
+        JsonObject params = new JsonObject();
+        params.addProperty("playerid", activePlayer);
+        params.add("properties", getJsonArray(ITEM_PROPERTIES));
+        return new KodiRequest("Player.GetItem", params);
     }
 
+    /**
+     * Updates the state and the current item of the active player. The active player, its properties and its item are
+     * requested in a single batch, guessing that the player which has been active on the last update is still active.
+     * Only if another player has become active, a second batch for this player is needed.
+     */
     public synchronized void updatePlayerStatus() {
         if (socket.isConnected()) {
-            int activePlayer = getActivePlayer();
-            if (activePlayer >= 0) {
-                int speed = getSpeed(activePlayer);
+            List<KodiRequest> requests = new ArrayList<>();
+            requests.add(new KodiRequest("Player.GetActivePlayers"));
+            if (lastActivePlayer >= 0) {
+                requests.add(getPropertiesRequest(lastActivePlayer));
+                requests.add(getItemRequest(lastActivePlayer));
+            }
+            List<JsonElement> responses = socket.callMethods(requests);
+
+            int activePlayer = parseActivePlayer(responses.get(0));
+            if (activePlayer >= 0 && activePlayer != lastActivePlayer) {
+                responses = new ArrayList<>(responses.subList(0, 1));
+                responses.addAll(socket
+                        .callMethods(Arrays.asList(getPropertiesRequest(activePlayer), getItemRequest(activePlayer))));
+            }
+            lastActivePlayer = activePlayer;
+
+            if (activePlayer >= 0 && responses.get(1) instanceof JsonObject) {
+                int speed = responses.get(1).getAsJsonObject().get("speed").getAsInt();
                 if (speed == 0) {
                     updateState(KodiState.Stop);
                 } else if (speed == 1) {
@@ -193,17 +230,13 @@ public class KodiConnection implements KodiClientSocketEventListener {
                 } else {
                     updateState(KodiState.FastForward);
                 }
-                requestPlayerUpdate(activePlayer);
+                processPlayerItem(responses.get(2), true);
             } else {
                 updateState(KodiState.Stop);
             }
         }
     }
 
-    private void requestPlayerUpdate(int activePlayer) {
-        requestPlayerUpdate(activePlayer, true);
-    }
-
     private void updateFanartUrl(String imagePath) {
         if (imagePath == null || imagePath.isEmpty()) {
             return;
@@ -226,15 +259,15 @@ public class KodiConnection implements KodiClientSocketEventListener {
     }
 
     private void requestPlayerUpdate(int activePlayer, boolean updateMediaType) {
-        final String[] properties = { "title", "album", "artist", "director", "thumbnail", "file", "fanart",
-                "showtitle", "streamdetails" };
-
-        JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
-        params.add("properties", getJsonArray(properties));
-        JsonElement response = socket.callMethod("Player.GetItem", params);
+        KodiRequest request = getItemRequest(activePlayer);
+        processPlayerItem(socket.callMethod(request.getMethodName(), request.getParams()), updateMediaType);
+    }
 
-        JsonObject item = ((JsonObject) response).get("item").getAsJsonObject();
+    private void processPlayerItem(JsonElement response, boolean updateMediaType) {
+        if (!(response instanceof JsonObject) || !response.getAsJsonObject().has("item")) {
+            return;
+        }
+        JsonObject item = response.getAsJsonObject().get("item").getAsJsonObject();
 
         String title = "";
         if (item.has("title")) {
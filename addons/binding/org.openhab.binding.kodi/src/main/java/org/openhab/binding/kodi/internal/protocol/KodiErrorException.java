@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.kodi.internal.protocol;
+
+/**
+ * Thrown when kodi answers a method call with a JSON-RPC error object.
+ *
+ */
+public class KodiErrorException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+
+    public KodiErrorException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    /**
+     * Returns the JSON-RPC error code, e.g. -32601 for an unknown method.
+     */
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.kodi.internal.protocol;
+
+import com.google.gson.JsonObject;
+
+/**
+ * A JSON-RPC method call, which can be sent to kodi together with other calls in a single batch by
+ * {@link KodiClientSocket#callMethods(java.util.List)}.
+ *
+ */
+public class KodiRequest {
+
+    private final String methodName;
+    private final JsonObject params;
+
+    public KodiRequest(String methodName) {
+        this(methodName, null);
+    }
+
+    public KodiRequest(String methodName, JsonObject params) {
+        this.methodName = methodName;
+        this.params = params;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Returns the parameters of the call or null, if the method has no parameters.
+     */
+    public JsonObject getParams() {
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return params != null ? methodName + "(" + params + ")" : methodName + "()";
+    }
+}
@@ -11,14 +11,17 @@ package org.openhab.binding.lutron.handler;
 import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
@@ -28,6 +31,7 @@ import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.lutron.config.IPBridgeConfig;
 import org.openhab.binding.lutron.internal.discovery.LutronDeviceDiscoveryService;
@@ -46,7 +50,14 @@ import org.slf4j.LoggerFactory;
  * @author Allan Tong - Initial contribution
  */
 public class IPBridgeHandler extends BaseBridgeHandler {
-    private static final Pattern STATUS_REGEX = Pattern.compile("~(OUTPUT|DEVICE|SYSTEM),([^,]+),(.*)");
+    private static final String OUTPUT_UPDATE = "~OUTPUT,";
+    private static final String DEVICE_UPDATE = "~DEVICE,";
+    private static final String SYSTEM_UPDATE = "~SYSTEM,";
+
+    private static final String ACTION_ZONELEVEL = "1";
+
+    // Level updates for the same output arriving within this window are coalesced into one update.
+    private static final long LEVEL_UPDATE_WINDOW_MS = 100;
 
     private static final String DB_UPDATE_DATE_FORMAT = "MM/dd/yyyy HH:mm:ss";
 
@@ -72,6 +83,11 @@ public class IPBridgeHandler extends BaseBridgeHandler {
     private ScheduledFuture<?> keepAliveReconnect;
 
     private Date lastDbUpdateDate;
+
+    private final Map<Integer, LutronHandler> childHandlers = new ConcurrentHashMap<>();
+
+    private final Map<Integer, String[]> pendingLevelUpdates = new LinkedHashMap<>();
+    private ScheduledFuture<?> levelUpdateFlush;
     private ServiceRegistration<DiscoveryService> discoveryServiceRegistration;
 
     public IPBridgeHandler(Bridge bridge) {
@@ -231,6 +247,14 @@ public class IPBridgeHandler extends BaseBridgeHandler {
             this.messageSender.cancel(true);
         }
 
+        synchronized (this.pendingLevelUpdates) {
+            if (this.levelUpdateFlush != null) {
+                this.levelUpdateFlush.cancel(false);
+                this.levelUpdateFlush = null;
+            }
+            this.pendingLevelUpdates.clear();
+        }
+
         try {
             this.session.close();
         } catch (IOException e) {
@@ -271,13 +295,44 @@ public class IPBridgeHandler extends BaseBridgeHandler {
         this.sendQueue.add(command);
     }
 
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof LutronHandler) {
+            LutronHandler handler = (LutronHandler) childHandler;
+
+            try {
+                this.childHandlers.put(handler.getIntegrationId(), handler);
+            } catch (IllegalStateException e) {
+                this.logger.debug("Handler for {} has no integration ID", childThing.getUID());
+            }
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        this.childHandlers.values().remove(childHandler);
+    }
+
     private LutronHandler findThingHandler(int integrationId) {
+        LutronHandler handler = this.childHandlers.get(integrationId);
+
+        if (handler != null) {
+            return handler;
+        }
+
+        // Fall back to the things of the bridge in case the handler was initialized before we were
         for (Thing thing : getThing().getThings()) {
             if (thing.getHandler() instanceof LutronHandler) {
-                LutronHandler handler = (LutronHandler) thing.getHandler();
+                handler = (LutronHandler) thing.getHandler();
+
+                try {
+                    if (handler.getIntegrationId() == integrationId) {
+                        this.childHandlers.put(integrationId, handler);
 
-                if (handler.getIntegrationId() == integrationId) {
-                    return handler;
+                        return handler;
+                    }
+                } catch (IllegalStateException e) {
+                    // handler not initialized yet
                 }
             }
         }
@@ -299,39 +354,134 @@ public class IPBridgeHandler extends BaseBridgeHandler {
                 this.keepAliveReconnect.cancel(true);
             }
 
-            Matcher matcher = STATUS_REGEX.matcher(line);
+            int start = line.indexOf('~');
+            LutronCommandType type = null;
 
-            if (matcher.find()) {
-                LutronCommandType type = LutronCommandType.valueOf(matcher.group(1));
+            if (start != -1) {
+                if (line.startsWith(OUTPUT_UPDATE, start)) {
+                    type = LutronCommandType.OUTPUT;
+                } else if (line.startsWith(DEVICE_UPDATE, start)) {
+                    type = LutronCommandType.DEVICE;
+                } else if (line.startsWith(SYSTEM_UPDATE, start)) {
+                    type = LutronCommandType.SYSTEM;
+                }
+            }
 
-                if (type == LutronCommandType.SYSTEM) {
-                    // SYSTEM messages are assumed to be a response to the SYSTEM_DBEXPORTDATETIME
-                    // query. The response returns the last time the device database was updated.
-                    setDbUpdateDate(matcher.group(2), matcher.group(3));
+            // All update prefixes are 8 characters long
+            int idStart = start + OUTPUT_UPDATE.length();
+            int idEnd = type == null ? -1 : line.indexOf(',', idStart);
 
-                    continue;
-                }
+            if (idEnd <= idStart) {
+                this.logger.info("Ignoring message {}", line);
 
-                Integer integrationId = new Integer(matcher.group(2));
-                LutronHandler handler = findThingHandler(integrationId);
+                continue;
+            }
 
-                if (handler != null) {
-                    String paramString = matcher.group(3);
+            String[] parameters = splitParameters(line, idEnd + 1);
 
-                    try {
-                        handler.handleUpdate(type, paramString.split(","));
-                    } catch (Exception e) {
-                        this.logger.error("Error processing update", e);
-                    }
-                } else {
-                    this.logger.info("No thing configured for integration ID {}", integrationId);
-                }
-            } else {
+            if (type == LutronCommandType.SYSTEM) {
+                // SYSTEM messages are assumed to be a response to the SYSTEM_DBEXPORTDATETIME
+                // query. The response returns the last time the device database was updated.
+                setDbUpdateDate(line.substring(idStart, idEnd), line.substring(idEnd + 1));
+
+                continue;
+            }
+
+            int integrationId;
+
+            try {
+                integrationId = Integer.parseInt(line.substring(idStart, idEnd));
+            } catch (NumberFormatException e) {
                 this.logger.info("Ignoring message {}", line);
+
+                continue;
+            }
+
+            if (type == LutronCommandType.OUTPUT && parameters.length > 1 && ACTION_ZONELEVEL.equals(parameters[0])) {
+                queueLevelUpdate(integrationId, parameters);
+            } else {
+                handleUpdate(integrationId, type, parameters);
+            }
+        }
+    }
+
+    /**
+     * Splits the comma separated parameters starting at the given position the same way {@link String#split(String)}
+     * would, without compiling a pattern.
+     */
+    private static String[] splitParameters(String line, int start) {
+        List<String> parameters = new ArrayList<>();
+        int end = line.length();
+        int pos = start;
+        int comma;
+
+        while ((comma = line.indexOf(',', pos)) != -1) {
+            parameters.add(line.substring(pos, comma));
+            pos = comma + 1;
+        }
+
+        if (parameters.isEmpty()) {
+            return new String[] { line.substring(start) };
+        }
+
+        parameters.add(line.substring(pos, end));
+
+        // Trailing empty parameters are dropped
+        int count = parameters.size();
+        while (count > 0 && parameters.get(count - 1).isEmpty()) {
+            count--;
+        }
+
+        return parameters.subList(0, count).toArray(new String[count]);
+    }
+
+    private void handleUpdate(int integrationId, LutronCommandType type, String[] parameters) {
+        LutronHandler handler = findThingHandler(integrationId);
+
+        if (handler != null) {
+            try {
+                handler.handleUpdate(type, parameters);
+            } catch (Exception e) {
+                this.logger.error("Error processing update", e);
+            }
+        } else {
+            this.logger.info("No thing configured for integration ID {}", integrationId);
+        }
+    }
+
+    /**
+     * Holds on to a level update so that consecutive level updates for the same output (e.g. while a scene fades)
+     * result in a single update with the latest level.
+     */
+    private void queueLevelUpdate(int integrationId, String[] parameters) {
+        synchronized (this.pendingLevelUpdates) {
+            this.pendingLevelUpdates.put(integrationId, parameters);
+
+            if (this.levelUpdateFlush == null) {
+                this.levelUpdateFlush = this.scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flushLevelUpdates();
+                    }
+                }, LEVEL_UPDATE_WINDOW_MS, TimeUnit.MILLISECONDS);
             }
         }
     }
 
+    private void flushLevelUpdates() {
+        Map<Integer, String[]> updates;
+
+        synchronized (this.pendingLevelUpdates) {
+            updates = new LinkedHashMap<>(this.pendingLevelUpdates);
+            this.pendingLevelUpdates.clear();
+            this.levelUpdateFlush = null;
+        }
+
+        for (Map.Entry<Integer, String[]> update : updates.entrySet()) {
+            handleUpdate(update.getKey(), LutronCommandType.OUTPUT, update.getValue());
+        }
+    }
+
     private void sendKeepAlive() {
         // Reconnect if no response is received within 30 seconds.
         this.keepAliveReconnect = this.scheduler.schedule(new Runnable() {
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.max.internal.device.Device;
+import org.openhab.binding.max.internal.device.DeviceConfiguration;
+import org.openhab.binding.max.internal.device.DeviceType;
+import org.openhab.binding.max.internal.device.EcoSwitch;
+import org.openhab.binding.max.internal.device.HeatingThermostat;
+import org.openhab.binding.max.internal.device.ShutterContact;
+import org.openhab.binding.max.internal.device.ThermostatModeType;
+
+/**
+ * Golden message tests for {@link L_Message}, based on the messages in sample/sampleMessage.txt.
+ */
+public class L_MessageTest {
+
+    private static final String[] C_MESSAGES = {
+            "C:0b0da3,0gsNowIBEABLRVEwNTQ0MjQyLCQ9CQcYAzAM/wBIYViRSP1ZFE0gTSBNIEUgRSBFIEUgRSBFIEhhWJFQ/VkVUSBRIFEgRSBFIEUgRSBFIEUgSFBYWkj+WRRNIE0gTSBFIEUgRSBFIEUgRSBIUFhaSP5ZFE0gTSBNIEUgRSBFIEUgRSBFIEhQWFpI/lkUTSBNIE0gRSBFIEUgRSBFIEUgSFBYWkj+WRRNIE0gTSBFIEUgRSBFIEUgRSBIUFhaSP5ZFE0gTSBNIEUgRSBFIEUgRSBFIA==",
+            "C:0e75f6,EQ519gQCEABLRVExMTA0Mzgw", "C:04336f,EQQzbwUAEg9KRVEwMzgwODc4",
+            "C:0e15cc,zg4VzAMDEP9MRVEwMDE1MzQwKyE9CURsWSBZIFkgWSBZIFkgRSBFIEUgRSBFIEUgRGBZIFkgWSBZIFkgWSBFIEUgRSBFIEUgRSBEUVRhRNhZIFkgWSBZIEUgRSBFIEUgRSBFIERRVGFE2FkgWSBZIFkgRSBFIEUgRSBFIEUgRFFUYUTYWSBZIFkgWSBFIEUgRSBFIEUgRSBEUVRhRNhZIFkgWSBZIEUgRSBFIEUgRSBFIERRVGFE2FkgWSBZIFkgRSBFIEUgRSBFIEUgBxgw",
+            "C:08c349,0gjDSQEEGP9LRVEwNjQ4OTQ5KiA9CQcYAzAM/wBEbFUKRSBFIEUgRSBFIEUgRSBFIEUgRSBFIERgVQlFIEUgRSBFIEUgRSBFIEUgRSBFIEUgRFFUYUS0VQNFIEUgRSBFIEUgRSBFIEUgRSBEUVRhRLRVA0UgRSBFIEUgRSBFIEUgRSBFIERRVGFEtFUDRSBFIEUgRSBFIEUgRSBFIEUgRFFUYUS0VQNFIEUgRSBFIEUgRSBFIEUgRSBEUVRhRLRVCkUgRSBFIEUgRSBFIEUgRSBFIA==" };
+
+    private static final String L_MESSAGE = "L:CwsNowkSGE0kALAACwjB1gkSGGAiAAAABg519gkSEAYEM28JAAALC+miCRIYACIAAAAMDhXMCRIYBCIAAACtCwjDSQkSGGQqAGMACwe25wkSGGQkAAAA";
+
+    private List<DeviceConfiguration> configurations = new ArrayList<>();
+
+    @Before
+    public void Before() {
+        for (String c : C_MESSAGES) {
+            configurations.add(DeviceConfiguration.create(new C_Message(c)));
+        }
+    }
+
+    private static Device getDevice(List<? extends Device> devices, String rfAddress) {
+        for (Device device : devices) {
+            if (device.getRFAddress().equalsIgnoreCase(rfAddress)) {
+                return device;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void getMessageTypeTest() {
+        assertEquals(MessageType.L, new L_Message(L_MESSAGE).getType());
+    }
+
+    @Test
+    public void getDevicesTest() {
+        List<Device> devices = new ArrayList<>(new L_Message(L_MESSAGE).getDevices(configurations));
+
+        // only devices with a known configuration are created
+        assertEquals(5, devices.size());
+        assertGoldenValues(devices);
+    }
+
+    @Test
+    public void updateDevicesTest() {
+        List<Device> devices = new ArrayList<>();
+        MaxTokenizer tokenizer = new MaxTokenizer();
+
+        new L_Message(L_MESSAGE, tokenizer).updateDevices(devices, configurations);
+        assertEquals(5, devices.size());
+
+        Device thermostat = getDevice(devices, "0b0da3");
+        new L_Message("L:CwsNowkSGQAkALAA", tokenizer).updateDevices(devices, configurations);
+
+        assertEquals(5, devices.size());
+        assertSame(thermostat, getDevice(devices, "0b0da3"));
+        assertEquals(ThermostatModeType.MANUAL, ((HeatingThermostat) thermostat).getMode());
+        assertEquals(0, ((HeatingThermostat) thermostat).getValvePosition().intValue());
+
+        new L_Message(L_MESSAGE, tokenizer).updateDevices(devices, configurations);
+        assertGoldenValues(devices);
+    }
+
+    private void assertGoldenValues(List<Device> devices) {
+        HeatingThermostat thermostatPlus = (HeatingThermostat) getDevice(devices, "0b0da3");
+        assertEquals(DeviceType.HeatingThermostatPlus, thermostatPlus.getType());
+        assertTrue(thermostatPlus.isInitialized());
+        assertTrue(thermostatPlus.isValid());
+        assertFalse(thermostatPlus.isError());
+        assertTrue(thermostatPlus.isDstSettingsActive());
+        assertTrue(thermostatPlus.isGatewayKnown());
+        assertEquals(OnOffType.OFF, thermostatPlus.getBatteryLow());
+        assertEquals(ThermostatModeType.AUTOMATIC, thermostatPlus.getMode());
+        assertEquals(77, thermostatPlus.getValvePosition().intValue());
+        assertEquals(18.0, thermostatPlus.getTemperatureSetpoint().doubleValue(), 0.001);
+        assertEquals(17.6, thermostatPlus.getTemperatureActual().doubleValue(), 0.001);
+
+        HeatingThermostat thermostat = (HeatingThermostat) getDevice(devices, "08c349");
+        assertEquals(DeviceType.HeatingThermostat, thermostat.getType());
+        assertEquals(100, thermostat.getValvePosition().intValue());
+        assertEquals(21.0, thermostat.getTemperatureSetpoint().doubleValue(), 0.001);
+        assertEquals(9.9, thermostat.getTemperatureActual().doubleValue(), 0.001);
+
+        HeatingThermostat wallThermostat = (HeatingThermostat) getDevice(devices, "0e15cc");
+        assertEquals(DeviceType.WallMountedThermostat, wallThermostat.getType());
+        assertEquals(ThermostatModeType.AUTOMATIC, wallThermostat.getMode());
+        assertEquals(17.0, wallThermostat.getTemperatureSetpoint().doubleValue(), 0.001);
+        assertEquals(17.3, wallThermostat.getTemperatureActual().doubleValue(), 0.001);
+
+        ShutterContact shutterContact = (ShutterContact) getDevice(devices, "0e75f6");
+        assertEquals(DeviceType.ShutterContact, shutterContact.getType());
+        assertEquals(OpenClosedType.CLOSED, shutterContact.getShutterState());
+
+        EcoSwitch ecoSwitch = (EcoSwitch) getDevice(devices, "04336f");
+        assertEquals(DeviceType.EcoSwitch, ecoSwitch.getType());
+        assertEquals(OnOffType.OFF, ecoSwitch.getEcoMode());
+    }
+}
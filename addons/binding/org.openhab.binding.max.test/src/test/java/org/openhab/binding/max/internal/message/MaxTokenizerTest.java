@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.net.util.Base64;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link MaxTokenizer}.
+ */
+public class MaxTokenizerTest {
+
+    private static final String L_MESSAGE = "L:CwsNowkSGE0kALAACwjB1gkSGGAiAAAABg519gkSEAYEM28JAAALC+miCRIYACIAAAAMDhXMCRIYBCIAAACtCwjDSQkSGGQqAGMACwe25wkSGGQkAAAA";
+
+    private static final String[] PAYLOADS = { "Bg/xvAkAAA==", "Cw/xvAkSGAQkAN4AAA==", "CwsNowkSGE0kALAA",
+            "CwsNowkSGE0kALAACwjB1gkSGGAiAAAABg519gkSEAYEM28JAAA=", L_MESSAGE.substring(2) };
+
+    @Test
+    public void decodeMatchesBase64Test() {
+        MaxTokenizer tokenizer = new MaxTokenizer();
+
+        for (String payload : PAYLOADS) {
+            byte[] expected = Base64.decodeBase64(payload.getBytes());
+
+            tokenizer.reset("L:" + payload, 2);
+            List<byte[]> tokens = new ArrayList<>();
+            while (tokenizer.hasMoreElements()) {
+                int length = tokenizer.nextToken();
+                tokens.add(Arrays.copyOfRange(tokenizer.getBuffer(), tokenizer.getTokenOffset(),
+                        tokenizer.getTokenOffset() + length));
+            }
+
+            List<byte[]> expectedTokens = new ArrayList<>();
+            MaxTokenizer reference = new MaxTokenizer(expected);
+            while (reference.hasMoreElements()) {
+                expectedTokens.add(reference.nextElement());
+            }
+
+            assertEquals(expectedTokens.size(), tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                assertArrayEquals(expectedTokens.get(i), tokens.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void reuseBufferTest() {
+        MaxTokenizer tokenizer = new MaxTokenizer();
+
+        tokenizer.reset(L_MESSAGE, 2);
+        byte[] buffer = tokenizer.getBuffer();
+        int count = 0;
+        while (tokenizer.hasMoreElements()) {
+            tokenizer.nextToken();
+            count++;
+        }
+        assertEquals(8, count);
+
+        tokenizer.reset("L:Bg/xvAkAAA==", 2);
+        assertSame(buffer, tokenizer.getBuffer());
+        assertTrue(tokenizer.hasMoreElements());
+        assertEquals(6, tokenizer.nextToken());
+        assertEquals(1, tokenizer.getTokenOffset());
+        assertFalse(tokenizer.hasMoreElements());
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void truncatedTokenTest() {
+        MaxTokenizer tokenizer = new MaxTokenizer();
+
+        // first token announces 11 bytes, only 8 are present
+        tokenizer.reset("L:CwsNowkSGE0k", 2);
+        tokenizer.nextToken();
+    }
+}
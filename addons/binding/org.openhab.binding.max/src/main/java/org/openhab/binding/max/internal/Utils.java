@@ -42,11 +42,41 @@ public final class Utils {
      * @return the given numbers as hexadecimal number
      */
     public static final String toHex(int... values) {
-        String returnValue = "";
+        StringBuilder returnValue = new StringBuilder(values.length * 2);
         for (int v : values) {
-            returnValue += v < 16 ? "0" + Integer.toHexString(v).toUpperCase() : Integer.toHexString(v).toUpperCase();
+            if (v < 16) {
+                returnValue.append('0');
+            }
+            returnValue.append(Integer.toHexString(v).toUpperCase());
         }
-        return returnValue;
+        return returnValue.toString();
+    }
+
+    /**
+     * Checks whether the hexadecimal RF address equals the three bytes starting
+     * at the given offset, without creating a string representation of the
+     * bytes. The comparison is case insensitive.
+     *
+     * @param rfAddress
+     *            the RF address as six digit hexadecimal number
+     * @param raw
+     *            the buffer holding the RF address
+     * @param offset
+     *            the position of the first RF address byte within the buffer
+     * @return true if both RF addresses are equal
+     */
+    public static boolean isRfAddress(String rfAddress, byte[] raw, int offset) {
+        if (rfAddress == null || rfAddress.length() != 6) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            int high = Character.digit(rfAddress.charAt(i * 2), 16);
+            int low = Character.digit(rfAddress.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0 || ((high << 4) | low) != (raw[offset + i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -175,8 +205,28 @@ public final class Utils {
         if (raw == null) {
             return null;
         }
-        final StringBuilder hex = new StringBuilder(3 * raw.length);
-        for (final byte b : raw) {
+        return getHex(raw, 0, raw.length);
+    }
+
+    /**
+     * Convert a part of a byte array to a string representation of
+     * hexadecimals.
+     *
+     * @param raw
+     *            the buffer
+     * @param offset
+     *            the position of the first byte to convert
+     * @param length
+     *            the number of bytes to convert
+     * @return String equivalent to hex string
+     **/
+    public static String getHex(byte[] raw, int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        final StringBuilder hex = new StringBuilder(3 * length);
+        for (int i = offset; i < offset + length; i++) {
+            final byte b = raw[i];
             hex.append(HEXES.charAt((b & 0xF0) >> 4)).append(HEXES.charAt((b & 0x0F))).append(" ");
         }
         hex.delete(hex.length() - 1, hex.length());
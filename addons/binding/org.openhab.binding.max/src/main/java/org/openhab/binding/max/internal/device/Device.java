@@ -106,47 +106,78 @@ public abstract class Device {
     }
 
     public static Device create(byte[] raw, List<DeviceConfiguration> configurations) {
-        if (raw.length == 0) {
+        return create(raw, 0, raw.length, configurations);
+    }
+
+    /**
+     * Creates a new device from a L message device record that is located within a larger buffer, without copying
+     * the record.
+     *
+     * @param buffer the buffer holding the device record
+     * @param offset the position of the first byte (RF address) of the record
+     * @param length the length of the record
+     * @param configurations the known device configurations
+     * @return the device or <code>null</code> if no configuration is known for the RF address
+     */
+    public static Device create(byte[] buffer, int offset, int length, List<DeviceConfiguration> configurations) {
+        if (length == 0) {
             return null;
         }
 
-        String rfAddress = Utils.toHex(raw[0] & 0xFF, raw[1] & 0xFF, raw[2] & 0xFF);
-
         // Based on the RF address and the corresponding configuration,
         // create the device based on the type specified in it's configuration
 
-        Device device = Device.create(rfAddress, configurations);
-        if (device == null) {
-            logger.warn("Can't create device from received message, returning NULL.");
-            return null;
+        for (DeviceConfiguration c : configurations) {
+            if (Utils.isRfAddress(c.getRFAddress(), buffer, offset)) {
+                return Device.update(buffer, offset, length, configurations, create(c));
+            }
         }
 
-        return Device.update(raw, configurations, device);
+        logger.warn("Can't create device from received message, returning NULL.");
+        return null;
     }
 
     public static Device update(byte[] raw, List<DeviceConfiguration> configurations, Device device) {
+        return update(raw, 0, raw.length, configurations, device);
+    }
+
+    /**
+     * Updates a device from a L message device record that is located within a larger buffer, without copying the
+     * record.
+     *
+     * @param raw the buffer holding the device record
+     * @param offset the position of the first byte (RF address) of the record
+     * @param length the length of the record
+     * @param configurations the known device configurations
+     * @param device the device to update
+     * @return the updated device
+     */
+    public static Device update(byte[] raw, int offset, int length, List<DeviceConfiguration> configurations,
+            Device device) {
 
         String rfAddress = device.getRFAddress();
 
         // byte 4 is skipped
 
         // multiple device information are encoded in those particular bytes
-        boolean[] bits1 = Utils.getBits(Utils.fromByte(raw[4]));
-        boolean[] bits2 = Utils.getBits(Utils.fromByte(raw[5]));
-
-        device.setInitialized(bits1[1]);
-        device.setAnswer(bits1[2]);
-        device.setError(bits1[3]);
-        device.setValid(bits1[4]);
-
-        device.setDstSettingActive(bits2[3]);
-        device.setGatewayKnown(bits2[4]);
-        device.setPanelLocked(bits2[5]);
-        device.setLinkStatusError(bits2[6]);
-        device.setBatteryLow(bits2[7]);
-
-        logger.trace("Device {} ({}): L Message length: {} content: {}", rfAddress, device.getType().toString(),
-                raw.length, Utils.getHex(raw));
+        int flags1 = raw[offset + 4] & 0xFF;
+        int flags2 = raw[offset + 5] & 0xFF;
+
+        device.setInitialized((flags1 & 0x02) != 0);
+        device.setAnswer((flags1 & 0x04) != 0);
+        device.setError((flags1 & 0x08) != 0);
+        device.setValid((flags1 & 0x10) != 0);
+
+        device.setDstSettingActive((flags2 & 0x08) != 0);
+        device.setGatewayKnown((flags2 & 0x10) != 0);
+        device.setPanelLocked((flags2 & 0x20) != 0);
+        device.setLinkStatusError((flags2 & 0x40) != 0);
+        device.setBatteryLow((flags2 & 0x80) != 0);
+
+        if (logger.isTraceEnabled()) {
+            logger.trace("Device {} ({}): L Message length: {} content: {}", rfAddress, device.getType(), length,
+                    Utils.getHex(raw, offset, length));
+        }
 
         // TODO move the device specific readings into the sub classes
         switch (device.getType()) {
@@ -155,81 +186,86 @@ public abstract class Device {
             case HeatingThermostatPlus:
                 HeatingThermostat heatingThermostat = (HeatingThermostat) device;
                 // "xxxx xx00 = automatic, xxxx xx01 = manual, xxxx xx10 = vacation, xxxx xx11 = boost":
-                if (bits2[1] == false && bits2[0] == false) {
-                    heatingThermostat.setMode(ThermostatModeType.AUTOMATIC);
-                } else if (bits2[1] == false && bits2[0] == true) {
-                    heatingThermostat.setMode(ThermostatModeType.MANUAL);
-                } else if (bits2[1] == true && bits2[0] == false) {
-                    heatingThermostat.setMode(ThermostatModeType.VACATION);
-                } else if (bits2[1] == true && bits2[0] == true) {
-                    heatingThermostat.setMode(ThermostatModeType.BOOST);
-                } else {
-                    logger.debug("Device {} ({}): Unknown mode", rfAddress, device.getType().toString());
+                switch (flags2 & 0x03) {
+                    case 0x00:
+                        heatingThermostat.setMode(ThermostatModeType.AUTOMATIC);
+                        break;
+                    case 0x01:
+                        heatingThermostat.setMode(ThermostatModeType.MANUAL);
+                        break;
+                    case 0x02:
+                        heatingThermostat.setMode(ThermostatModeType.VACATION);
+                        break;
+                    default:
+                        heatingThermostat.setMode(ThermostatModeType.BOOST);
+                        break;
                 }
 
-                heatingThermostat.setValvePosition(raw[6] & 0xFF);
-                heatingThermostat.setTemperatureSetpoint(raw[7] & 0x7F);
+                heatingThermostat.setValvePosition(raw[offset + 6] & 0xFF);
+                heatingThermostat.setTemperatureSetpoint(raw[offset + 7] & 0x7F);
 
                 // 9 2 858B Date until (05-09-2011) (see Encoding/Decoding
                 // date/time)
                 // B 1 2E Time until (23:00) (see Encoding/Decoding date/time)
-                String hexDate = Utils.toHex(raw[8] & 0xFF, raw[9] & 0xFF);
-                int dateValue = Utils.fromHex(hexDate);
-                int timeValue = raw[10] & 0xFF;
+                int dateValue = ((raw[offset + 8] & 0xFF) << 8) | (raw[offset + 9] & 0xFF);
+                int timeValue = raw[offset + 10] & 0xFF;
                 Date date = Utils.resolveDateTime(dateValue, timeValue);
                 heatingThermostat.setDateSetpoint(date);
 
                 int actualTemp = 0;
                 if (device.getType() == DeviceType.WallMountedThermostat) {
-                    actualTemp = (raw[11] & 0xFF) + (raw[7] & 0x80) * 2;
+                    actualTemp = (raw[offset + 11] & 0xFF) + (raw[offset + 7] & 0x80) * 2;
 
                 } else {
                     if (heatingThermostat.getMode() != ThermostatModeType.VACATION
                             && heatingThermostat.getMode() != ThermostatModeType.BOOST) {
-                        actualTemp = (raw[8] & 0xFF) * 256 + (raw[9] & 0xFF);
+                        actualTemp = (raw[offset + 8] & 0xFF) * 256 + (raw[offset + 9] & 0xFF);
                     } else {
                         logger.debug("Device {} ({}): No temperature reading in {} mode", rfAddress,
-                                device.getType().toString(), heatingThermostat.getMode());
+                                device.getType(), heatingThermostat.getMode());
                     }
                 }
-                logger.debug("Device {} ({}): Actual Temperature : {}", rfAddress, device.getType().toString(),
+                logger.debug("Device {} ({}): Actual Temperature : {}", rfAddress, device.getType(),
                         (double) actualTemp / 10);
                 heatingThermostat.setTemperatureActual((double) actualTemp / 10);
                 break;
             case EcoSwitch:
-                String eCoSwitchData = Utils.toHex(raw[3] & 0xFF, raw[4] & 0xFF, raw[5] & 0xFF);
-                logger.trace("Device {} ({}): Status bytes : {}", rfAddress, device.getType().toString(),
-                        eCoSwitchData);
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Device {} ({}): Status bytes : {}", rfAddress, device.getType(),
+                            Utils.toHex(raw[offset + 3] & 0xFF, flags1, flags2));
+                }
                 EcoSwitch ecoswitch = (EcoSwitch) device;
                 // xxxx xx10 = shutter open, xxxx xx00 = shutter closed
-                if (bits2[1] == true && bits2[0] == false) {
+                if ((flags2 & 0x03) == 0x02) {
                     ecoswitch.setEcoMode(OnOffType.ON);
-                    logger.trace("Device {} ({}): status: ON", rfAddress, device.getType().toString());
-                } else if (bits2[1] == false && bits2[0] == false) {
+                    logger.trace("Device {} ({}): status: ON", rfAddress, device.getType());
+                } else if ((flags2 & 0x03) == 0x00) {
                     ecoswitch.setEcoMode(OnOffType.OFF);
-                    logger.trace("Device {} ({}): Status: OFF", rfAddress, device.getType().toString());
+                    logger.trace("Device {} ({}): Status: OFF", rfAddress, device.getType());
                 } else {
                     logger.trace("Device {} ({}): Status switch status Unknown (true-true)", rfAddress,
-                            device.getType().toString());
+                            device.getType());
                 }
                 break;
             case ShutterContact:
                 ShutterContact shutterContact = (ShutterContact) device;
                 // xxxx xx10 = shutter open, xxxx xx00 = shutter closed
-                if (bits2[1] == true && bits2[0] == false) {
+                if ((flags2 & 0x03) == 0x02) {
                     shutterContact.setShutterState(OpenClosedType.OPEN);
-                    logger.debug("Device {} ({}): Status: Open", rfAddress, device.getType().toString());
-                } else if (bits2[1] == false && bits2[0] == false) {
+                    logger.debug("Device {} ({}): Status: Open", rfAddress, device.getType());
+                } else if ((flags2 & 0x03) == 0x00) {
                     shutterContact.setShutterState(OpenClosedType.CLOSED);
-                    logger.debug("Device {} ({}): Status: Closed", rfAddress, device.getType().toString());
+                    logger.debug("Device {} ({}): Status: Closed", rfAddress, device.getType());
                 } else {
                     logger.trace("Device {} ({}): Status switch status Unknown (true-true)", rfAddress,
-                            device.getType().toString());
+                            device.getType());
                 }
 
                 break;
             default:
-                logger.debug("Unhandled Device. DataBytes: {}", Utils.getHex(raw));
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Unhandled Device. DataBytes: {}", Utils.getHex(raw, offset, length));
+                }
                 break;
 
         }
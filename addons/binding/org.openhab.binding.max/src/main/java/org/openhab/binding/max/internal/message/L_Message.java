@@ -12,7 +12,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-import org.apache.commons.net.util.Base64;
 import org.openhab.binding.max.internal.Utils;
 import org.openhab.binding.max.internal.device.Device;
 import org.openhab.binding.max.internal.device.DeviceConfiguration;
@@ -21,6 +20,10 @@ import org.slf4j.Logger;
 /**
  * The L message contains real time information about all MAX! devices.
  *
+ * The Base64 payload is decoded when the devices are requested, using the {@link MaxTokenizer} handed in by the
+ * {@link MessageProcessor}. The device records are parsed in place from the tokenizer's buffer, so a message should
+ * be processed before the next line is added to the same processor.
+ *
  * @author Andreas Heil (info@aheil.de)
  * @author Marcel Verpaalen - OH2 update
  *
@@ -28,21 +31,27 @@ import org.slf4j.Logger;
  */
 public final class L_Message extends Message {
 
+    private final MaxTokenizer tokenizer;
+
     public L_Message(String raw) {
+        this(raw, new MaxTokenizer());
+    }
+
+    L_Message(String raw, MaxTokenizer tokenizer) {
         super(raw);
+        this.tokenizer = tokenizer;
     }
 
     public Collection<? extends Device> getDevices(List<DeviceConfiguration> configurations) {
 
         List<Device> devices = new ArrayList<Device>();
 
-        byte[] decodedRawMessage = Base64.decodeBase64(getPayload().getBytes());
-
-        MaxTokenizer tokenizer = new MaxTokenizer(decodedRawMessage);
+        tokenizer.reset(getRaw(), PAYLOAD_OFFSET);
+        byte[] buffer = tokenizer.getBuffer();
 
         while (tokenizer.hasMoreElements()) {
-            byte[] token = tokenizer.nextElement();
-            Device tempDevice = Device.create(token, configurations);
+            int length = tokenizer.nextToken();
+            Device tempDevice = Device.create(buffer, tokenizer.getTokenOffset(), length, configurations);
             if (tempDevice != null) {
                 devices.add(tempDevice);
             }
@@ -53,29 +62,27 @@ public final class L_Message extends Message {
 
     public Collection<? extends Device> updateDevices(List<Device> devices, List<DeviceConfiguration> configurations) {
 
-        byte[] decodedRawMessage = Base64.decodeBase64(getPayload().getBytes());
-
-        MaxTokenizer tokenizer = new MaxTokenizer(decodedRawMessage);
+        tokenizer.reset(getRaw(), PAYLOAD_OFFSET);
+        byte[] buffer = tokenizer.getBuffer();
 
         while (tokenizer.hasMoreElements()) {
-            byte[] token = tokenizer.nextElement();
-            String rfAddress = Utils.toHex(token[0] & 0xFF, token[1] & 0xFF, token[2] & 0xFF);
-            // logger.debug("token: "+token+" rfaddress: "+rfAddress);
+            int length = tokenizer.nextToken();
+            int offset = tokenizer.getTokenOffset();
+            if (length == 0) {
+                continue;
+            }
 
             Device foundDevice = null;
             for (Device device : devices) {
-                // logger.debug(device.getRFAddress().toUpperCase()+ " vs "+rfAddress);
-                if (device.getRFAddress().toUpperCase().equals(rfAddress)) {
-                    // logger.debug("Updating device..."+rfAddress);
+                if (Utils.isRfAddress(device.getRFAddress(), buffer, offset)) {
                     foundDevice = device;
+                    break;
                 }
             }
             if (foundDevice != null) {
-                foundDevice = Device.update(token, configurations, foundDevice);
-                // devices.remove(token);
-                // devices.add(foundDevice);
+                Device.update(buffer, offset, length, configurations, foundDevice);
             } else {
-                Device tempDevice = Device.create(token, configurations);
+                Device tempDevice = Device.create(buffer, offset, length, configurations);
                 if (tempDevice != null) {
                     devices.add(tempDevice);
                 }
@@ -8,6 +8,7 @@
  */
 package org.openhab.binding.max.internal.message;
 
+import java.util.Arrays;
 import java.util.Enumeration;
 
 /**
@@ -18,15 +19,49 @@ import java.util.Enumeration;
  * The tokens returned consist of the payload solely, and do not contain the first byte holding the
  * tokens length.
  *
+ * Besides the {@link Enumeration} interface, which copies every token into a new array, the tokenizer can be
+ * reused for consecutive messages: {@link #reset(CharSequence, int)} decodes the Base64 payload into an internal
+ * buffer that is kept between messages, and {@link #nextToken()} advances to the next token in place. The current
+ * token is then available at {@link #getTokenOffset()} within {@link #getBuffer()}.
+ *
  * @author Andreas Heil (info@aheil.de)
  * @since 1.4.0
  */
 public final class MaxTokenizer implements Enumeration<byte[]> {
 
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private static final byte[] BASE64_DECODE_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_DECODE_TABLE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+        // URL safe alphabet, accepted by the Base64 decoder used before as well
+        BASE64_DECODE_TABLE['-'] = 62;
+        BASE64_DECODE_TABLE['_'] = 63;
+    }
+
     private int offset = 0;
 
+    private int length = 0;
+
+    private int tokenOffset = 0;
+
+    private int tokenLength = 0;
+
     private byte[] decodedRawMessage = null;
 
+    /**
+     * Creates a new MaxTokenizer without a message. Use {@link #reset(CharSequence, int)} to
+     * decode a message into the internal buffer.
+     */
+    public MaxTokenizer() {
+        this.decodedRawMessage = new byte[INITIAL_BUFFER_SIZE];
+    }
+
     /**
      * Creates a new MaxTokenizer.
      *
@@ -35,6 +70,52 @@ public final class MaxTokenizer implements Enumeration<byte[]> {
      */
     public MaxTokenizer(byte[] decodedRawMessage) {
         this.decodedRawMessage = decodedRawMessage;
+        this.length = decodedRawMessage.length;
+    }
+
+    /**
+     * Decodes the Base64 encoded message into the internal buffer and starts
+     * tokenizing from its first token. Characters that are not part of the
+     * Base64 alphabet are skipped, decoding stops at the first padding
+     * character.
+     *
+     * @param encodedMessage
+     *            the raw line holding the Base64 encoded MAX! Cube protocol L message
+     * @param start
+     *            the position of the first Base64 character within the line
+     */
+    public void reset(CharSequence encodedMessage, int start) {
+        int end = encodedMessage.length();
+        int required = ((end - start) * 3) / 4 + 3;
+        if (decodedRawMessage == null || decodedRawMessage.length < required) {
+            decodedRawMessage = new byte[Math.max(required, INITIAL_BUFFER_SIZE)];
+        }
+
+        int bits = 0;
+        int bitCount = 0;
+        int pos = 0;
+        for (int i = start; i < end; i++) {
+            char c = encodedMessage.charAt(i);
+            if (c == '=') {
+                break;
+            }
+            int value = c < BASE64_DECODE_TABLE.length ? BASE64_DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                continue;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                decodedRawMessage[pos++] = (byte) (bits >> bitCount);
+                bits &= (1 << bitCount) - 1;
+            }
+        }
+
+        this.length = pos;
+        this.offset = 0;
+        this.tokenOffset = 0;
+        this.tokenLength = 0;
     }
 
     /**
@@ -42,7 +123,7 @@ public final class MaxTokenizer implements Enumeration<byte[]> {
      */
     @Override
     public boolean hasMoreElements() {
-        return offset < decodedRawMessage.length;
+        return offset < length;
     }
 
     /**
@@ -50,15 +131,50 @@ public final class MaxTokenizer implements Enumeration<byte[]> {
      */
     @Override
     public byte[] nextElement() {
-        byte length = decodedRawMessage[offset++];
+        nextToken();
+        return Arrays.copyOfRange(decodedRawMessage, tokenOffset, tokenOffset + tokenLength);
+    }
 
+    /**
+     * Advances to the next token without copying it.
+     *
+     * @return the length of the token
+     * @throws ArrayIndexOutOfBoundsException
+     *             if the token is longer than the remaining message
+     */
+    public int nextToken() {
         // make sure to get the correct length in case > 127
-        byte[] token = new byte[length & 0xFF];
+        int tokenSize = decodedRawMessage[offset++] & 0xFF;
 
-        for (int i = 0; i < (length & 0xFF); i++) {
-            token[i] = decodedRawMessage[offset++];
+        if (offset + tokenSize > length) {
+            throw new ArrayIndexOutOfBoundsException(length);
         }
 
-        return token;
+        tokenOffset = offset;
+        tokenLength = tokenSize;
+        offset += tokenSize;
+
+        return tokenLength;
+    }
+
+    /**
+     * @return the buffer holding the decoded message
+     */
+    public byte[] getBuffer() {
+        return decodedRawMessage;
+    }
+
+    /**
+     * @return the position of the current token within {@link #getBuffer()}
+     */
+    public int getTokenOffset() {
+        return tokenOffset;
+    }
+
+    /**
+     * @return the length of the current token
+     */
+    public int getTokenLength() {
+        return tokenLength;
     }
 }
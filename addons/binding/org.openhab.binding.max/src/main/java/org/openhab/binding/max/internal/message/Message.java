@@ -20,6 +20,8 @@ public abstract class Message {
 
     public static final String DELIMETER = ",";
 
+    protected static final int PAYLOAD_OFFSET = 2;
+
     private String raw = null;
 
     public Message(String raw) {
@@ -31,6 +33,13 @@ public abstract class Message {
     public abstract MessageType getType();
 
     protected final String getPayload() {
-        return raw.substring(2, raw.length());
+        return raw.substring(PAYLOAD_OFFSET, raw.length());
+    }
+
+    /**
+     * @return the raw line including the message type prefix, the payload starts at {@link #PAYLOAD_OFFSET}
+     */
+    protected final String getRaw() {
+        return raw;
     }
 }
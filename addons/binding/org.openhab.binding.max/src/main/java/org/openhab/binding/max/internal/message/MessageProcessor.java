@@ -34,6 +34,8 @@ public class MessageProcessor {
 
     public static final String SEPARATOR = ":";
 
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+
     /**
      * The message that was created from last line received. (Null if no message
      * available yet)
@@ -52,6 +54,12 @@ public class MessageProcessor {
     private List<String> receivedLines = new ArrayList<String>();
     private MessageType currentMessageType = null;
 
+    /**
+     * The tokenizer is reused by all L messages created by this processor, so
+     * the decoding buffer is only allocated once per connection.
+     */
+    private final MaxTokenizer tokenizer = new MaxTokenizer();
+
     /**
      * Resets the current status and processed lines. Should be used after
      * processing a message
@@ -114,7 +122,7 @@ public class MessageProcessor {
                 this.currentMessage = new C_Message(line);
                 break;
             case L:
-                this.currentMessage = new L_Message(line);
+                this.currentMessage = new L_Message(line, tokenizer);
                 break;
             case S:
                 this.currentMessage = new S_Message(line);
@@ -172,11 +180,11 @@ public class MessageProcessor {
                 receivedLines.add(tokens[2]);
 
                 if (index + 1 == receivedLines.size()) {
-                    String newLine = "";
+                    StringBuilder newLine = new StringBuilder();
                     for (String curLine : receivedLines) {
-                        newLine += curLine;
+                        newLine.append(curLine);
                     }
-                    this.currentMessage = new M_Message(newLine);
+                    this.currentMessage = new M_Message(newLine.toString());
                     result = true;
                 }
             }
@@ -229,8 +237,12 @@ public class MessageProcessor {
      */
     private static MessageType getMessageType(String line) {
 
-        for (MessageType msgType : MessageType.values()) {
-            if (line.startsWith(msgType.name() + SEPARATOR)) {
+        if (line.length() < 2 || line.charAt(1) != SEPARATOR.charAt(0)) {
+            return null;
+        }
+
+        for (MessageType msgType : MESSAGE_TYPES) {
+            if (line.charAt(0) == msgType.name().charAt(0)) {
                 return msgType;
             }
         }
@@ -241,7 +241,7 @@ public abstract class MieleApplianceHandler<E extends Enum<E> & ApplianceChannel
     @Override
     public void onApplianceRemoved(HomeDevice appliance) {
         if (UID != null) {
-            if (UID.equals(appliance.UID)) {
+            if (("hdm:ZigBee:" + UID).equals(appliance.UID)) {
                 updateStatus(ThingStatus.OFFLINE);
             }
         }
@@ -250,7 +250,7 @@ public abstract class MieleApplianceHandler<E extends Enum<E> & ApplianceChannel
     @Override
     public void onApplianceAdded(HomeDevice appliance) {
         if (UID != null) {
-            if (UID.equals(appliance.UID)) {
+            if (("hdm:ZigBee:" + UID).equals(appliance.UID)) {
                 updateStatus(ThingStatus.ONLINE);
             }
         }
@@ -265,7 +265,7 @@ public abstract class MieleApplianceHandler<E extends Enum<E> & ApplianceChannel
             ThingHandler handler = bridge.getHandler();
             if (handler instanceof MieleBridgeHandler) {
                 this.bridgeHandler = (MieleBridgeHandler) handler;
-                this.bridgeHandler.registerApplianceStatusListener(this);
+                this.bridgeHandler.registerApplianceStatusListener("hdm:ZigBee:" + UID, this);
             } else {
                 return null;
             }
@@ -27,10 +27,12 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -54,6 +56,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 
 /**
@@ -81,11 +84,20 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
     protected Gson gson = new Gson();
     private final Logger logger = LoggerFactory.getLogger(MieleBridgeHandler.class);
 
+    protected final int MULTICAST_TIMEOUT = 1000; // in milliseconds
+    protected final String UID_PREFIX = "hdm:ZigBee:";
+
+    // listeners that want to be informed about all appliances, e.g. the discovery service
     protected List<ApplianceStatusListener> applianceStatusListeners = new CopyOnWriteArrayList<>();
+    // listeners that are only interested in a single appliance, keyed by the UID of the appliance
+    protected Map<String, List<ApplianceStatusListener>> applianceStatusListenersByUID = new ConcurrentHashMap<>();
     protected ScheduledFuture<?> pollingJob;
     protected ScheduledFuture<?> eventListenerJob;
 
-    protected List<HomeDevice> previousHomeDevices = new CopyOnWriteArrayList<HomeDevice>();
+    protected Map<String, HomeDevice> previousHomeDevices = new LinkedHashMap<>();
+    // the last known property values of the appliances, keyed by the UID of the appliance and the property name
+    protected Map<String, Map<String, String>> propertyValues = new ConcurrentHashMap<>();
+    protected boolean batchSupported = true;
 
     protected URL url;
     protected Map<String, String> headers;
@@ -207,34 +219,25 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
 
                     if (currentBridgeConnectionState) {
                         if (getThing().getStatus() == ThingStatus.ONLINE) {
-                            List<HomeDevice> currentHomeDevices = getHomeDevices();
-                            for (HomeDevice hd : currentHomeDevices) {
-                                boolean isExisting = false;
-                                for (HomeDevice phd : previousHomeDevices) {
-                                    if (phd.UID.equals(hd.UID)) {
-                                        isExisting = true;
-                                        break;
-                                    }
-                                }
-                                if (!isExisting) {
+                            Map<String, HomeDevice> currentHomeDevices = new LinkedHashMap<>();
+                            for (HomeDevice hd : getHomeDevices()) {
+                                currentHomeDevices.put(hd.UID, hd);
+                            }
+
+                            for (HomeDevice hd : currentHomeDevices.values()) {
+                                if (!previousHomeDevices.containsKey(hd.UID)) {
                                     logger.info("A new appliance with ID '{}' has been added", hd.UID);
-                                    for (ApplianceStatusListener listener : applianceStatusListeners) {
+                                    for (ApplianceStatusListener listener : getApplianceStatusListeners(hd.UID)) {
                                         listener.onApplianceAdded(hd);
                                     }
                                 }
                             }
 
-                            for (HomeDevice hd : previousHomeDevices) {
-                                boolean isCurrent = false;
-                                for (HomeDevice chd : currentHomeDevices) {
-                                    if (chd.UID.equals(hd.UID)) {
-                                        isCurrent = true;
-                                        break;
-                                    }
-                                }
-                                if (!isCurrent) {
-                                    logger.info("The appliance with ID '{}' has been removed", hd);
-                                    for (ApplianceStatusListener listener : applianceStatusListeners) {
+                            for (HomeDevice hd : previousHomeDevices.values()) {
+                                if (!currentHomeDevices.containsKey(hd.UID)) {
+                                    logger.info("The appliance with ID '{}' has been removed", hd.UID);
+                                    propertyValues.remove(hd.UID);
+                                    for (ApplianceStatusListener listener : getApplianceStatusListeners(hd.UID)) {
                                         listener.onApplianceRemoved(hd);
                                     }
                                 }
@@ -242,28 +245,44 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
 
                             previousHomeDevices = currentHomeDevices;
 
+                            // the multicast events are the primary source of changes, polling only fills in what
+                            // has been missed, so only the properties that changed since then are passed on
+                            List<String> UIDs = new ArrayList<>();
+                            List<Object[]> argsList = new ArrayList<>();
                             for (Thing appliance : getThing().getThings()) {
                                 if (appliance.getStatus() == ThingStatus.ONLINE) {
-                                    String UID = "hdm:ZigBee:"
+                                    String UID = UID_PREFIX
                                             + (String) appliance.getConfiguration().getProperties().get(APPLIANCE_ID);
 
                                     Object[] args = new Object[2];
                                     args[0] = UID;
                                     args[1] = true;
-                                    JsonElement result = invokeRPC("HDAccess/getDeviceClassObjects", args);
-
-                                    if (result != null) {
-                                        for (JsonElement obj : result.getAsJsonArray()) {
-                                            try {
-                                                DeviceClassObject dco = gson.fromJson(obj, DeviceClassObject.class);
+                                    UIDs.add(UID);
+                                    argsList.add(args);
+                                }
+                            }
 
-                                                for (ApplianceStatusListener listener : applianceStatusListeners) {
+                            List<JsonElement> results = invokeBatchRPC("HDAccess/getDeviceClassObjects", argsList);
+                            for (int i = 0; i < UIDs.size(); i++) {
+                                String UID = UIDs.get(i);
+                                JsonElement result = results.get(i);
+
+                                if (result != null) {
+                                    for (JsonElement obj : result.getAsJsonArray()) {
+                                        try {
+                                            DeviceClassObject dco = gson.fromJson(obj, DeviceClassObject.class);
+                                            dco.Properties = getChangedProperties(UID, dco.DeviceClass,
+                                                    dco.Properties);
+
+                                            if (dco.Properties.size() > 0) {
+                                                for (ApplianceStatusListener listener : getApplianceStatusListeners(
+                                                        UID)) {
                                                     listener.onApplianceStateChanged(UID, dco);
                                                 }
-                                            } catch (Exception e) {
-                                                logger.error("An exception occurred while quering an appliance : '{}'",
-                                                        e.getMessage());
                                             }
+                                        } catch (Exception e) {
+                                            logger.error("An exception occurred while quering an appliance : '{}'",
+                                                    e.getMessage());
                                         }
                                     }
                                 }
@@ -326,7 +345,7 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
         @Override
         public void run() {
             if (IP_PATTERN.matcher((String) getConfig().get(INTERFACE)).matches()) {
-                while (true) {
+                while (!Thread.currentThread().isInterrupted()) {
                     // Get the address that we are going to connect to.
                     InetAddress address1 = null;
                     InetAddress address2 = null;
@@ -341,22 +360,23 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
                     byte[] buf = new byte[256];
                     MulticastSocket clientSocket = null;
 
-                    while (true) {
+                    while (!Thread.currentThread().isInterrupted()) {
                         try {
                             clientSocket = new MulticastSocket(JSON_RPC_PORT);
-                            clientSocket.setSoTimeout(100);
+                            // the timeout only serves to notice that the handler has been disposed, the socket
+                            // buffers the events that arrive in the meantime
+                            clientSocket.setSoTimeout(MULTICAST_TIMEOUT);
 
                             clientSocket.setInterface(InetAddress.getByName((String) getConfig().get(INTERFACE)));
                             clientSocket.joinGroup(address1);
                             clientSocket.joinGroup(address2);
 
-                            while (true) {
+                            while (!Thread.currentThread().isInterrupted()) {
                                 try {
-                                    buf = new byte[256];
                                     DatagramPacket packet = new DatagramPacket(buf, buf.length);
                                     clientSocket.receive(packet);
 
-                                    String event = new String(packet.getData());
+                                    String event = new String(packet.getData(), 0, packet.getLength());
                                     logger.debug("Received a multicast event '{}' from '{}:{}'",
                                             new Object[] { event, packet.getAddress(), packet.getPort() });
 
@@ -382,11 +402,11 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
                                         }
                                     }
 
-                                    for (ApplianceStatusListener listener : applianceStatusListeners) {
-                                        listener.onAppliancePropertyChanged(uid, dp);
+                                    if (uid != null && dp.Name != null) {
+                                        onPropertyEvent(uid, dp);
                                     }
                                 } catch (SocketTimeoutException e) {
-                                    Thread.sleep(500);
+                                    // no event within the timeout - check whether we have to stop and wait again
                                 }
                             }
                         } catch (Exception ex) {
@@ -415,6 +435,81 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
         }
     };
 
+    /**
+     * Passes a property change received by multicast on to the listeners of the appliance. The new value is recorded,
+     * so the next poll does not report the same change again.
+     *
+     * @param uid the UID of the appliance
+     * @param dp the changed property
+     */
+    protected void onPropertyEvent(String uid, DeviceProperty dp) {
+        Map<String, String> values = propertyValues.get(uid);
+        if (values != null) {
+            String value = StringUtils.defaultString(StringUtils.trim(dp.Value));
+            String suffix = "/" + dp.Name;
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (entry.getKey().endsWith(suffix)) {
+                    entry.setValue(value);
+                }
+            }
+        }
+
+        for (ApplianceStatusListener listener : getApplianceStatusListeners(uid)) {
+            listener.onAppliancePropertyChanged(uid, dp);
+        }
+    }
+
+    /**
+     * Returns the properties that have changed since they were last polled or received by multicast.
+     *
+     * @param uid the UID of the appliance
+     * @param deviceClass the device class the properties belong to
+     * @param properties the properties as returned by the gateway
+     * @return the properties with a new value
+     */
+    protected JsonArray getChangedProperties(String uid, String deviceClass, JsonArray properties) {
+        JsonArray changed = new JsonArray();
+        if (properties == null) {
+            return changed;
+        }
+
+        Map<String, String> values = propertyValues.get(uid);
+        if (values == null) {
+            values = new ConcurrentHashMap<>();
+            propertyValues.put(uid, values);
+        }
+
+        for (JsonElement prop : properties) {
+            try {
+                DeviceProperty dp = gson.fromJson(prop, DeviceProperty.class);
+                if (dp.Name == null) {
+                    continue;
+                }
+                String value = StringUtils.defaultString(StringUtils.trim(dp.Value));
+                String key = deviceClass + "/" + dp.Name;
+                if (!value.equals(values.put(key, value))) {
+                    changed.add(prop);
+                }
+            } catch (Exception p) {
+                // Ignore - this is due to an unrecognized and not yet reverse-engineered array property
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the listeners of the given appliance and those that listen to all appliances.
+     */
+    protected List<ApplianceStatusListener> getApplianceStatusListeners(String uid) {
+        List<ApplianceStatusListener> listeners = applianceStatusListenersByUID.get(uid);
+        if (listeners == null || listeners.isEmpty()) {
+            return applianceStatusListeners;
+        }
+        List<ApplianceStatusListener> result = new ArrayList<>(applianceStatusListeners);
+        result.addAll(listeners);
+        return result;
+    }
+
     public JsonElement invokeOperation(String UID, String modelID, String methodName) {
         if (getThing().getStatus() == ThingStatus.ONLINE) {
             Object[] args = new Object[4];
@@ -433,21 +528,10 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
 
         int id = rand.nextInt(Integer.MAX_VALUE);
 
-        JsonObject req = new JsonObject();
-        req.addProperty("jsonrpc", "2.0");
-        req.addProperty("id", id);
-        req.addProperty("method", methodName);
+        JsonObject req = createRequest(id, methodName, args);
 
         JsonElement result = null;
 
-        JsonArray params = new JsonArray();
-        if (args != null) {
-            for (Object o : args) {
-                params.add(gson.toJsonTree(o));
-            }
-        }
-        req.add("params", params);
-
         String requestData = req.toString();
         String responseData = null;
         try {
@@ -461,23 +545,108 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
             JsonParser parser = new JsonParser();
             JsonObject resp = (JsonObject) parser.parse(new StringReader(responseData));
 
-            result = resp.get("result");
-            JsonElement error = resp.get("error");
-
-            if (error != null && !error.isJsonNull()) {
-                if (error.isJsonPrimitive()) {
-                    logger.error("A remote exception occurred : '{}'", error.getAsString());
-                } else if (error.isJsonObject()) {
-                    JsonObject o = error.getAsJsonObject();
-                    Integer code = (o.has("code") ? o.get("code").getAsInt() : null);
-                    String message = (o.has("message") ? o.get("message").getAsString() : null);
-                    String data = (o.has("data") ? (o.get("data") instanceof JsonObject ? o.get("data").toString()
-                            : o.get("data").getAsString()) : null);
-                    logger.error("A remote exception occurred : '{}':'{}':'{}'", new Object[] { code, message, data });
-                } else {
-                    logger.error("An unknown remote exception occurred : '{}'", error.toString());
+            result = getResult(resp);
+        }
+
+        return result;
+    }
+
+    /**
+     * Invokes the same method with different arguments in a single JSON-RPC batch request. If the gateway does not
+     * understand batch requests, the method is invoked once per set of arguments instead, and batching is not tried
+     * again.
+     *
+     * @param methodName the method to invoke
+     * @param argsList the arguments of the individual invocations
+     * @return the results in the order of the arguments, null where an invocation failed
+     */
+    protected List<JsonElement> invokeBatchRPC(String methodName, List<Object[]> argsList) {
+
+        List<JsonElement> results = new ArrayList<JsonElement>(Collections.nCopies(argsList.size(), null));
+
+        if (argsList.size() > 1 && batchSupported) {
+            JsonArray req = new JsonArray();
+            for (int i = 0; i < argsList.size(); i++) {
+                req.add(createRequest(i, methodName, argsList.get(i)));
+            }
+
+            String requestData = req.toString();
+            String responseData = null;
+            try {
+                responseData = post(url, headers, requestData);
+            } catch (Exception e) {
+                logger.error("An exception occurred while posting data : '{}'", e.getMessage());
+                return results;
+            }
+
+            if (responseData != null) {
+                logger.debug("The request '{}' yields '{}'", requestData, responseData);
+                try {
+                    JsonParser parser = new JsonParser();
+                    JsonElement resp = parser.parse(new StringReader(responseData));
+
+                    if (resp.isJsonArray()) {
+                        for (JsonElement r : resp.getAsJsonArray()) {
+                            JsonObject o = r.getAsJsonObject();
+                            JsonElement id = o.get("id");
+                            if (id != null && id.isJsonPrimitive()) {
+                                int index = id.getAsInt();
+                                if (index >= 0 && index < results.size()) {
+                                    results.set(index, getResult(o));
+                                }
+                            }
+                        }
+                        return results;
+                    }
+                } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+                    // e.g. an HTML error page or an array of something else than JSON-RPC responses
+                    logger.debug("The response to a batch request cannot be parsed : '{}'", e.getMessage());
                 }
             }
+
+            logger.debug("The Miele gateway does not support batch requests, falling back to single requests");
+            batchSupported = false;
+        }
+
+        for (int i = 0; i < argsList.size(); i++) {
+            results.set(i, invokeRPC(methodName, argsList.get(i)));
+        }
+        return results;
+    }
+
+    private JsonObject createRequest(int id, String methodName, Object[] args) {
+        JsonObject req = new JsonObject();
+        req.addProperty("jsonrpc", "2.0");
+        req.addProperty("id", id);
+        req.addProperty("method", methodName);
+
+        JsonArray params = new JsonArray();
+        if (args != null) {
+            for (Object o : args) {
+                params.add(gson.toJsonTree(o));
+            }
+        }
+        req.add("params", params);
+        return req;
+    }
+
+    private JsonElement getResult(JsonObject resp) {
+        JsonElement result = resp.get("result");
+        JsonElement error = resp.get("error");
+
+        if (error != null && !error.isJsonNull()) {
+            if (error.isJsonPrimitive()) {
+                logger.error("A remote exception occurred : '{}'", error.getAsString());
+            } else if (error.isJsonObject()) {
+                JsonObject o = error.getAsJsonObject();
+                Integer code = (o.has("code") ? o.get("code").getAsInt() : null);
+                String message = (o.has("message") ? o.get("message").getAsString() : null);
+                String data = (o.has("data") ? (o.get("data") instanceof JsonObject ? o.get("data").toString()
+                        : o.get("data").getAsString()) : null);
+                logger.error("A remote exception occurred : '{}':'{}':'{}'", new Object[] { code, message, data });
+            } else {
+                logger.error("An unknown remote exception occurred : '{}'", error.toString());
+            }
         }
 
         return result;
@@ -485,6 +654,8 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
 
     protected String post(URL url, Map<String, String> headers, String data) throws IOException {
 
+        // HttpURLConnection keeps the underlying socket open for the next request to the gateway, as long as
+        // the response is read completely, so do not disconnect
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
 
         if (headers != null) {
@@ -494,12 +665,14 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
         }
 
         connection.addRequestProperty("Accept-Encoding", "gzip");
+        connection.addRequestProperty("Connection", "keep-alive");
 
         connection.setRequestMethod("POST");
         connection.setDoOutput(true);
         connection.connect();
 
         OutputStream out = null;
+        int statusCode;
 
         try {
             out = connection.getOutputStream();
@@ -507,7 +680,7 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
             out.write(data.getBytes());
             out.flush();
 
-            int statusCode = connection.getResponseCode();
+            statusCode = connection.getResponseCode();
             if (statusCode != HttpURLConnection.HTTP_OK) {
                 logger.error("An unexpected status code was returned : '{}'", statusCode);
             }
@@ -522,9 +695,12 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
 
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
 
-        InputStream in = connection.getInputStream();
+        InputStream in = statusCode < HttpURLConnection.HTTP_BAD_REQUEST ? connection.getInputStream()
+                : connection.getErrorStream();
+        if (in == null) {
+            return null;
+        }
         try {
-            in = connection.getInputStream();
             if ("gzip".equalsIgnoreCase(responseEncoding)) {
                 in = new GZIPInputStream(in);
             }
@@ -538,12 +714,11 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
             bos.flush();
             bos.close();
         } finally {
-            if (in != null) {
-                in.close();
-            }
+            in.close();
         }
 
-        return bos.toString();
+        // the error response has only been read to be able to reuse the connection
+        return statusCode < HttpURLConnection.HTTP_BAD_REQUEST ? bos.toString() : null;
     }
 
     private synchronized void onUpdate() {
@@ -574,6 +749,8 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
      * @param bridge the hue bridge the connection is resumed to
      */
     public void onConnectionResumed() {
+        // changes might have been missed, so pass on the complete state with the next poll
+        propertyValues.clear();
         updateStatus(ThingStatus.ONLINE);
         for (Thing thing : getThing().getThings()) {
             MieleApplianceHandler<?> handler = (MieleApplianceHandler<?>) thing.getHandler();
@@ -599,8 +776,43 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
         return result;
     }
 
+    /**
+     * Registers a listener that is only informed about the appliance with the given UID.
+     *
+     * @param applianceUID the UID of the appliance, e.g. 'hdm:ZigBee:001D63FFFE020390'
+     * @param applianceStatusListener the listener to register
+     * @return true if the listener has been registered
+     */
+    public boolean registerApplianceStatusListener(String applianceUID,
+            ApplianceStatusListener applianceStatusListener) {
+        if (applianceStatusListener == null) {
+            throw new IllegalArgumentException("It's not allowed to pass a null ApplianceStatusListener.");
+        }
+        List<ApplianceStatusListener> listeners = applianceStatusListenersByUID.get(applianceUID);
+        if (listeners == null) {
+            listeners = new CopyOnWriteArrayList<>();
+            applianceStatusListenersByUID.put(applianceUID, listeners);
+        }
+        boolean result = listeners.add(applianceStatusListener);
+        if (result && isInitialized()) {
+            // the new listener needs the complete state of the appliance
+            propertyValues.remove(applianceUID);
+            onUpdate();
+
+            for (HomeDevice hd : getHomeDevices()) {
+                if (applianceUID.equals(hd.UID)) {
+                    applianceStatusListener.onApplianceAdded(hd);
+                }
+            }
+        }
+        return result;
+    }
+
     public boolean unregisterApplianceStatusListener(ApplianceStatusListener applianceStatusListener) {
         boolean result = applianceStatusListeners.remove(applianceStatusListener);
+        for (List<ApplianceStatusListener> listeners : applianceStatusListenersByUID.values()) {
+            result |= listeners.remove(applianceStatusListener);
+        }
         if (result && isInitialized()) {
             onUpdate();
         }
@@ -623,5 +835,9 @@ public class MieleBridgeHandler extends BaseBridgeHandler {
             pollingJob.cancel(true);
             pollingJob = null;
         }
+        if (eventListenerJob != null) {
+            eventListenerJob.cancel(true);
+            eventListenerJob = null;
+        }
     }
 }
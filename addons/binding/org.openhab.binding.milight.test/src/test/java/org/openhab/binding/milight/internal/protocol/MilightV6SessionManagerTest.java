@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.internal.protocol;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager.SessionState;
+
+/**
+ * Tests the ring of used sequence numbers of {@link MilightV6SessionManager}.
+ *
+ */
+public class MilightV6SessionManagerTest {
+
+    private static final long START = 1000000L;
+    private static final InetSocketAddress BRIDGE = new InetSocketAddress(InetAddress.getLoopbackAddress(), 5987);
+
+    private static class RecordingSessionManager extends MilightV6SessionManager {
+        private final List<Byte> notConfirmed = new ArrayList<>();
+
+        RecordingSessionManager(QueuedSend sendQueue) {
+            super(sendQueue, "ACCF23F57AD4", new ISessionState() {
+                @Override
+                public void sessionStateChanged(SessionState state) {
+                }
+            });
+        }
+
+        @Override
+        protected synchronized void commandNotConfirmed(byte sequenceNo) {
+            notConfirmed.add(sequenceNo);
+        }
+
+        synchronized List<Byte> getNotConfirmed() {
+            return new ArrayList<>(notConfirmed);
+        }
+    }
+
+    private MilightTransport transport;
+    private RecordingSessionManager session;
+
+    @Before
+    public void setUp() {
+        transport = new RecordingTransport();
+        QueuedSend sendQueue = new QueuedSend(transport);
+        sendQueue.setPort(BRIDGE.getPort());
+        sendQueue.setAddress(BRIDGE.getAddress());
+        session = new RecordingSessionManager(sendQueue);
+    }
+
+    @After
+    public void tearDown() {
+        session.dispose();
+        transport.dispose();
+    }
+
+    private void confirm(byte sequenceNo) {
+        byte[] response = { (byte) 0x88, 0, 0, 0, 3, 0, sequenceNo, 0 };
+        assertTrue(session.packetReceived(BRIDGE, response, response.length, true));
+    }
+
+    @Test
+    public void wrapsAroundAfter256Numbers() {
+        for (int i = 0; i < 256; ++i) {
+            byte sequenceNo = session.getNextSequenceNo2(START);
+            assertEquals((byte) i, sequenceNo);
+            confirm(sequenceNo);
+        }
+        assertEquals(0, session.getNextSequenceNo2(START));
+        assertTrue(session.getNotConfirmed().isEmpty());
+    }
+
+    @Test
+    public void reportsANumberReusedBeforeTheConfirmation() {
+        for (int i = 0; i < 256; ++i) {
+            byte sequenceNo = session.getNextSequenceNo2(START);
+            if (i != 5) {
+                confirm(sequenceNo);
+            }
+        }
+        assertTrue(session.getNotConfirmed().isEmpty());
+
+        for (int i = 0; i < 6; ++i) {
+            session.getNextSequenceNo2(START);
+        }
+        assertEquals(1, session.getNotConfirmed().size());
+        assertEquals(5, (byte) session.getNotConfirmed().get(0));
+    }
+
+    @Test
+    public void reportsNumbersNotConfirmedWithinTwoSeconds() {
+        session.getNextSequenceNo2(START);
+        session.getNextSequenceNo2(START + 1000);
+
+        session.getNextSequenceNo2(START + 2000);
+        assertTrue(session.getNotConfirmed().isEmpty());
+
+        session.getNextSequenceNo2(START + 2001);
+        assertEquals(1, session.getNotConfirmed().size());
+        assertEquals(0, (byte) session.getNotConfirmed().get(0));
+
+        session.getNextSequenceNo2(START + 3001);
+        assertEquals(2, session.getNotConfirmed().size());
+        assertEquals(1, (byte) session.getNotConfirmed().get(1));
+
+        // A timed out number is reported once only, also if it is reused later on
+        for (int i = 0; i < 256; ++i) {
+            session.getNextSequenceNo2(START + 3001);
+        }
+        assertFalse(session.getNotConfirmed().subList(2, session.getNotConfirmed().size()).contains((byte) 0));
+        assertFalse(session.getNotConfirmed().subList(2, session.getNotConfirmed().size()).contains((byte) 1));
+    }
+
+    @Test
+    public void doesNotReportConfirmedNumbers() {
+        confirm(session.getNextSequenceNo2(START));
+        confirm(session.getNextSequenceNo2(START));
+        byte pending = session.getNextSequenceNo2(START + 100);
+
+        session.getNextSequenceNo2(START + 5000);
+        assertEquals(1, session.getNotConfirmed().size());
+        assertEquals(pending, (byte) session.getNotConfirmed().get(0));
+    }
+
+    @Test
+    public void stopsTheTimeoutSweepAtTheOldestUnexpiredNumber() {
+        byte first = session.getNextSequenceNo2(START);
+        session.getNextSequenceNo2(START + 1500);
+        session.getNextSequenceNo2(START + 1600);
+        confirm(first);
+
+        // The first number is confirmed, the others are not expired yet
+        session.getNextSequenceNo2(START + 3000);
+        assertTrue(session.getNotConfirmed().isEmpty());
+
+        session.getNextSequenceNo2(START + 3550);
+        assertEquals(1, session.getNotConfirmed().size());
+        assertEquals(1, (byte) session.getNotConfirmed().get(0));
+    }
+
+    @Test
+    public void ignoresConfirmationsFromOtherAddresses() {
+        byte sequenceNo = session.getNextSequenceNo2(START);
+        byte[] response = { (byte) 0x88, 0, 0, 0, 3, 0, sequenceNo, 0 };
+        assertFalse(session.packetReceived(BRIDGE, response, response.length, false));
+
+        session.getNextSequenceNo2(START + 2001);
+        assertEquals(1, session.getNotConfirmed().size());
+        assertEquals(sequenceNo, (byte) session.getNotConfirmed().get(0));
+    }
+}
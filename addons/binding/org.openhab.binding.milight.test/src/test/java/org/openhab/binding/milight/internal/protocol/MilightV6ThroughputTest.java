@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.internal.protocol;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager.SessionState;
+import org.openhab.binding.milight.test.EmulatedV6Bridge;
+
+/**
+ * Sends light commands to several {@link EmulatedV6Bridge}s on the loopback interface through one shared
+ * {@link MilightTransport}.
+ *
+ */
+public class MilightV6ThroughputTest {
+
+    private static final int BRIDGES = 4;
+    private static final int COMMANDS = 20;
+    private static final int DELAY = 20;
+    private static final long TIMEOUT = 5000;
+
+    private static class RecordingSessionManager extends MilightV6SessionManager {
+        private final Set<Byte> notConfirmed = new HashSet<>();
+
+        RecordingSessionManager(QueuedSend sendQueue, String bridgeId, ISessionState observer) {
+            super(sendQueue, bridgeId, observer);
+        }
+
+        @Override
+        protected synchronized void commandNotConfirmed(byte sequenceNo) {
+            notConfirmed.add(sequenceNo);
+        }
+
+        synchronized Set<Byte> getNotConfirmed() {
+            return new HashSet<>(notConfirmed);
+        }
+    }
+
+    private final MilightTransport transport = new MilightTransport();
+    private final List<EmulatedV6Bridge> bridges = new ArrayList<>();
+    private final List<QueuedSend> sendQueues = new ArrayList<>();
+    private final List<RecordingSessionManager> sessions = new ArrayList<>();
+    private final List<MilightV6> bulbs = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        final CountDownLatch sessionsValid = new CountDownLatch(BRIDGES);
+        for (int i = 0; i < BRIDGES; ++i) {
+            byte[] mac = { (byte) 0xAC, (byte) 0xCF, (byte) 0x23, (byte) 0xF5, (byte) 0x7A, (byte) i };
+            EmulatedV6Bridge bridge = new EmulatedV6Bridge(0, mac);
+            bridges.add(bridge);
+
+            QueuedSend sendQueue = new QueuedSend(transport);
+            sendQueue.setPort(bridge.getPort());
+            sendQueue.setAddress(InetAddress.getLoopbackAddress());
+            sendQueue.setDelayBetweenCommands(DELAY);
+            sendQueue.start();
+            sendQueues.add(sendQueue);
+
+            RecordingSessionManager session = new RecordingSessionManager(sendQueue,
+                    String.format("ACCF23F57A%02X", i), new MilightV6SessionManager.ISessionState() {
+                        @Override
+                        public void sessionStateChanged(SessionState state) {
+                            if (state == SessionState.SESSION_VALID) {
+                                sessionsValid.countDown();
+                            }
+                        }
+                    });
+            sessions.add(session);
+            bulbs.add(new MilightV6RGB_IBOX(sendQueue, session));
+        }
+        assertTrue("sessions not established", sessionsValid.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        // Replaced handshake packets still take a place in the queue until the queue reaches them
+        for (QueuedSend sendQueue : sendQueues) {
+            while (!sendQueue.queue.isEmpty()) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (MilightV6SessionManager session : sessions) {
+            session.dispose();
+        }
+        for (QueuedSend sendQueue : sendQueues) {
+            sendQueue.dispose();
+        }
+        transport.dispose();
+        for (EmulatedV6Bridge bridge : bridges) {
+            bridge.dispose();
+        }
+    }
+
+    private boolean allCommandsReceived() {
+        for (EmulatedV6Bridge bridge : bridges) {
+            if (bridge.getReceivedCommands() < COMMANDS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void pacesEachBridgeOnItsOwn() throws InterruptedException {
+        List<Set<Byte>> sequenceNos = new ArrayList<>();
+        for (int i = 0; i < BRIDGES; ++i) {
+            sequenceNos.add(new HashSet<Byte>());
+        }
+
+        long start = System.nanoTime();
+        for (int c = 0; c < COMMANDS; ++c) {
+            for (int i = 0; i < BRIDGES; ++i) {
+                byte[] command = bulbs.get(i).make_command(1, c, c, c, c);
+                sequenceNos.get(i).add(command[8]);
+                sendQueues.get(i).queue(QueueItem.createNonRepeatable(command));
+            }
+        }
+
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(TIMEOUT);
+        while (!allCommandsReceived() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (EmulatedV6Bridge bridge : bridges) {
+            assertEquals(COMMANDS, bridge.getReceivedCommands());
+        }
+        // Each bridge waits the delay between its own commands only, the bridges don't wait for each other
+        assertTrue("elapsed " + elapsed + " ms", elapsed >= (COMMANDS - 1) * DELAY);
+        assertTrue("elapsed " + elapsed + " ms", elapsed < BRIDGES * COMMANDS * DELAY);
+
+        // Every command has been confirmed by its bridge, none is reported after the timeout
+        Thread.sleep(100);
+        for (int i = 0; i < BRIDGES; ++i) {
+            RecordingSessionManager session = sessions.get(i);
+            session.getNextSequenceNo2(System.currentTimeMillis() + 3000);
+            Set<Byte> notConfirmed = session.getNotConfirmed();
+            notConfirmed.retainAll(sequenceNos.get(i));
+            assertTrue("not confirmed " + notConfirmed, notConfirmed.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.internal.protocol;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.milight.internal.protocol.RecordingTransport.SentPacket;
+
+/**
+ * Tests the order, replacement and pacing of the packets sent by {@link QueuedSend}.
+ *
+ */
+public class QueuedSendTest {
+
+    private static final long TIMEOUT = 2000;
+    // Allowed early wake up of the scheduler, measured against the send time of the previous packet
+    private static final long TOLERANCE = 5;
+
+    private static final byte[] A = { 1 };
+    private static final byte[] B = { 2 };
+    private static final byte[] C = { 3 };
+    private static final byte[] D = { 4 };
+
+    private RecordingTransport transport;
+    private QueuedSend sendQueue;
+
+    @Before
+    public void setUp() {
+        transport = new RecordingTransport();
+        sendQueue = new QueuedSend(transport);
+        sendQueue.setPort(5987);
+        sendQueue.setAddress(InetAddress.getLoopbackAddress());
+        sendQueue.setDelayBetweenCommands(0);
+    }
+
+    @After
+    public void tearDown() {
+        sendQueue.dispose();
+        transport.dispose();
+    }
+
+    private SentPacket expect(byte[] data) throws InterruptedException {
+        SentPacket packet = transport.next(TIMEOUT);
+        assertNotNull("packet " + data[0] + " not sent", packet);
+        assertArrayEquals(data, packet.data);
+        assertEquals(sendQueue.getRemoteAddress(), packet.address);
+        return packet;
+    }
+
+    private static long millisBetween(SentPacket first, SentPacket second) {
+        return TimeUnit.NANOSECONDS.toMillis(second.nanoTime - first.nanoTime);
+    }
+
+    @Test
+    public void sendsNothingBeforeStart() throws InterruptedException {
+        sendQueue.queueRepeatable(1, A);
+        assertNull(transport.next(200));
+
+        sendQueue.start();
+        expect(A);
+    }
+
+    @Test
+    public void sendsChainsInOrderAndRepeatsRepeatableCommands() throws InterruptedException {
+        sendQueue.setRepeatCommands(2);
+        sendQueue.queue(QueueItem.createRepeatable(1, A).addNonRepeatable(B).addRepeatable(C));
+        sendQueue.queue(QueueItem.createNonRepeatable(D));
+        sendQueue.start();
+
+        expect(A);
+        expect(A);
+        expect(B);
+        expect(C);
+        expect(C);
+        expect(D);
+        assertNull(transport.next(200));
+    }
+
+    @Test
+    public void replacesQueuedCommandsWithTheSameId() throws InterruptedException {
+        sendQueue.queueRepeatable(5, A, B);
+        sendQueue.queueRepeatable(6, C);
+        sendQueue.queueRepeatable(5, D);
+        sendQueue.start();
+
+        expect(C);
+        expect(D);
+        assertNull(transport.next(200));
+    }
+
+    @Test
+    public void queuesNonCategorisedCommands() throws InterruptedException {
+        sendQueue.queue(QueueItem.createNonRepeatable(A));
+        sendQueue.queue(QueueItem.createNonRepeatable(B));
+        sendQueue.start();
+
+        expect(A);
+        expect(B);
+    }
+
+    @Test
+    public void waitsTheDelayBetweenCommands() throws InterruptedException {
+        sendQueue.setDelayBetweenCommands(100);
+        sendQueue.queue(QueueItem.createNonRepeatable(A));
+        sendQueue.queue(QueueItem.createNonRepeatable(B));
+        sendQueue.queue(QueueItem.createNonRepeatable(C));
+        sendQueue.start();
+
+        SentPacket a = expect(A);
+        SentPacket b = expect(B);
+        SentPacket c = expect(C);
+        assertTrue(millisBetween(a, b) >= 100 - TOLERANCE);
+        assertTrue(millisBetween(b, c) >= 100 - TOLERANCE);
+    }
+
+    @Test
+    public void waitsTheDelayForACommandQueuedAfterTheQueueRanEmpty() throws InterruptedException {
+        sendQueue.setDelayBetweenCommands(200);
+        sendQueue.start();
+        sendQueue.queue(QueueItem.createNonRepeatable(A));
+        SentPacket a = expect(A);
+
+        sendQueue.queue(QueueItem.createNonRepeatable(B));
+        SentPacket b = expect(B);
+        assertTrue(millisBetween(a, b) >= 200 - TOLERANCE);
+    }
+
+    @Test
+    public void usesTheCustomDelayTimeOfACommand() throws InterruptedException {
+        sendQueue.setDelayBetweenCommands(50);
+        sendQueue.queue(QueueItem.createRepeatable(1, A, 300).addRepeatable(B));
+        sendQueue.queue(QueueItem.createNonRepeatable(C));
+        sendQueue.queue(QueueItem.createNonRepeatable(D));
+        sendQueue.start();
+
+        SentPacket a = expect(A);
+        SentPacket b = expect(B);
+        SentPacket c = expect(C);
+        SentPacket d = expect(D);
+        // The chained command inherits the custom delay time
+        assertTrue(millisBetween(a, b) >= 300 - TOLERANCE);
+        assertTrue(millisBetween(b, c) >= 300 - TOLERANCE);
+        assertTrue(millisBetween(c, d) >= 50 - TOLERANCE);
+        assertTrue(millisBetween(c, d) < 300);
+    }
+
+    @Test
+    public void dropsQueuedCommandsOnDispose() throws InterruptedException {
+        sendQueue.setDelayBetweenCommands(200);
+        sendQueue.queue(QueueItem.createNonRepeatable(A));
+        sendQueue.queue(QueueItem.createNonRepeatable(B));
+        sendQueue.start();
+        expect(A);
+
+        sendQueue.dispose();
+        assertNull(transport.next(400));
+
+        // The queue can be started again
+        sendQueue.queue(QueueItem.createNonRepeatable(C));
+        sendQueue.start();
+        expect(C);
+    }
+
+    @Test
+    public void dropsCommandsWithoutAddress() throws InterruptedException {
+        sendQueue.setAddress(null);
+        sendQueue.queue(QueueItem.createNonRepeatable(A));
+        sendQueue.start();
+        assertNull(transport.next(200));
+
+        sendQueue.setAddress(InetAddress.getLoopbackAddress());
+        sendQueue.queue(QueueItem.createNonRepeatable(B));
+        expect(B);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.internal.protocol;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A transport that records the sent packets with their send time instead of sending them.
+ *
+ */
+class RecordingTransport extends MilightTransport {
+
+    static class SentPacket {
+        final byte[] data;
+        final InetSocketAddress address;
+        final long nanoTime;
+
+        SentPacket(byte[] data, InetSocketAddress address, long nanoTime) {
+            this.data = data;
+            this.address = address;
+            this.nanoTime = nanoTime;
+        }
+    }
+
+    private final BlockingQueue<SentPacket> sent = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(byte[] data, InetSocketAddress address) {
+        sent.add(new SentPacket(data, address, System.nanoTime()));
+    }
+
+    /**
+     * Return the next sent packet, or null if nothing is sent within the given time.
+     */
+    SentPacket next(long timeoutMs) throws InterruptedException {
+        return sent.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -10,7 +10,6 @@ package org.openhab.binding.milight.handler;
 
 import java.math.BigDecimal;
 import java.net.InetAddress;
-import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +26,7 @@ import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.milight.MilightBindingConstants;
 import org.openhab.binding.milight.internal.discovery.ThingDiscoveryService;
+import org.openhab.binding.milight.internal.protocol.MilightTransport;
 import org.openhab.binding.milight.internal.protocol.QueuedSend;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,14 +39,16 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class AbstractMilightBridgeHandler extends BaseBridgeHandler {
     protected Logger logger = LoggerFactory.getLogger(AbstractMilightBridgeHandler.class);
+    protected final MilightTransport transport;
     protected QueuedSend com;
     protected String bridgeid;
     protected ThingDiscoveryService thingDiscoveryService;
     private ScheduledFuture<?> keepAliveTimer;
     protected int refrehIntervalSec = 5;
 
-    public AbstractMilightBridgeHandler(Bridge bridge) {
+    public AbstractMilightBridgeHandler(Bridge bridge, MilightTransport transport) {
         super(bridge);
+        this.transport = transport;
     }
 
     @Override
@@ -180,12 +182,7 @@ public abstract class AbstractMilightBridgeHandler extends BaseBridgeHandler {
     @Override
     public void initialize() {
         if (com == null) {
-            try {
-                com = new QueuedSend();
-            } catch (SocketException e) {
-                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getLocalizedMessage());
-                return;
-            }
+            com = new QueuedSend(transport);
         }
 
         thingDiscoveryService = new ThingDiscoveryService(thing.getUID());
@@ -210,6 +207,9 @@ public abstract class AbstractMilightBridgeHandler extends BaseBridgeHandler {
     }
 
     protected void setupRefreshTimer(int refrehIntervalSec) {
+        if (keepAliveTimer != null) {
+            keepAliveTimer.cancel(false);
+        }
         this.refrehIntervalSec = refrehIntervalSec;
         keepAliveTimer = scheduler.scheduleAtFixedRate(getKeepAliveRunnable(), refrehIntervalSec, refrehIntervalSec,
                 TimeUnit.SECONDS);
@@ -22,6 +22,7 @@ import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.milight.MilightBindingConstants;
 import org.openhab.binding.milight.internal.protocol.MilightDiscover;
 import org.openhab.binding.milight.internal.protocol.MilightDiscover.DiscoverResult;
+import org.openhab.binding.milight.internal.protocol.MilightTransport;
 
 /**
  * The {@link MilightBridgeV3Handler} is responsible for handling commands, which are
@@ -32,8 +33,8 @@ import org.openhab.binding.milight.internal.protocol.MilightDiscover.DiscoverRes
 public class MilightBridgeV3Handler extends AbstractMilightBridgeHandler implements DiscoverResult {
     private MilightDiscover discover;
 
-    public MilightBridgeV3Handler(Bridge bridge) {
-        super(bridge);
+    public MilightBridgeV3Handler(Bridge bridge, MilightTransport transport) {
+        super(bridge, transport);
     }
 
     @Override
@@ -19,6 +19,7 @@ import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.milight.MilightBindingConstants;
+import org.openhab.binding.milight.internal.protocol.MilightTransport;
 import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager;
 import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager.ISessionState;
 import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager.SessionState;
@@ -32,8 +33,8 @@ import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager.Ses
 public class MilightBridgeV6Handler extends AbstractMilightBridgeHandler implements ISessionState {
     private MilightV6SessionManager session;
 
-    public MilightBridgeV6Handler(Bridge bridge) {
-        super(bridge);
+    public MilightBridgeV6Handler(Bridge bridge, MilightTransport transport) {
+        super(bridge, transport);
     }
 
     @Override
@@ -58,7 +59,7 @@ public class MilightBridgeV6Handler extends AbstractMilightBridgeHandler impleme
     }
 
     /**
-     * Creates a session manager object and the send queue. The initial IP address may be null
+     * Creates a session manager object and starts the send queue. The initial IP address may be null
      * or is not matching with the real IP address of the bridge. The session manager will send
      * a broadcast packet to find the bridge with the respective bridge ID and will change the
      * IP address of the send queue object accordingly.
@@ -81,7 +82,7 @@ public class MilightBridgeV6Handler extends AbstractMilightBridgeHandler impleme
         com.start();
 
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_PENDING, "Waiting for session");
-        session = new MilightV6SessionManager(com, bridgeid, scheduler, this);
+        session = new MilightV6SessionManager(com, bridgeid, this);
     }
 
     @Override
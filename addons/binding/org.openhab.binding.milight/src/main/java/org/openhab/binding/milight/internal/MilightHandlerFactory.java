@@ -19,6 +19,8 @@ import org.openhab.binding.milight.MilightBindingConstants;
 import org.openhab.binding.milight.handler.MilightBridgeV3Handler;
 import org.openhab.binding.milight.handler.MilightBridgeV6Handler;
 import org.openhab.binding.milight.handler.MilightLedHandler;
+import org.openhab.binding.milight.internal.protocol.MilightTransport;
+import org.osgi.service.component.ComponentContext;
 
 import com.google.common.collect.Sets;
 
@@ -32,6 +34,22 @@ public class MilightHandlerFactory extends BaseThingHandlerFactory {
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Sets
             .union(MilightBindingConstants.BRIDGE_THING_TYPES_UIDS, MilightBindingConstants.SUPPORTED_THING_TYPES_UIDS);
 
+    // Sends the packets of all bridges and receives their responses
+    private MilightTransport transport;
+
+    @Override
+    protected void activate(ComponentContext componentContext) {
+        super.activate(componentContext);
+        transport = new MilightTransport();
+    }
+
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        transport.dispose();
+        transport = null;
+        super.deactivate(componentContext);
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -42,9 +60,9 @@ public class MilightHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(MilightBindingConstants.BRIDGEV3_THING_TYPE)) {
-            return new MilightBridgeV3Handler((Bridge) thing);
+            return new MilightBridgeV3Handler((Bridge) thing, transport);
         } else if (thingTypeUID.equals(MilightBindingConstants.BRIDGEV6_THING_TYPE)) {
-            return new MilightBridgeV6Handler((Bridge) thing);
+            return new MilightBridgeV6Handler((Bridge) thing, transport);
         } else if (MilightBindingConstants.SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID)) {
             return new MilightLedHandler(thing);
         }
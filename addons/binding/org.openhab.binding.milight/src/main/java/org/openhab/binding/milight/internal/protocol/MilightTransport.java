@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.internal.protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The UDP transport shared by all bridges. All packets are sent from one datagram channel, the responses
+ * of the bridges are received by one thread and handed to the {@link Receiver} of the sending bridge.
+ *
+ * The send queues of the bridges and the session handshake timers run on the scheduler of the transport.
+ * Tasks on that scheduler must not block, sending a datagram does not block.
+ */
+public class MilightTransport implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(MilightTransport.class);
+
+    /**
+     * Implement this interface to receive the packets of a bridge.
+     */
+    public interface Receiver {
+        /**
+         * Return the address of the bridge, packets from this address are handed to this receiver only.
+         * May return null if the address is not known yet.
+         */
+        InetSocketAddress getRemoteAddress();
+
+        /**
+         * A packet has been received. Packets from an unknown address are offered to all receivers,
+         * until one of them accepts the packet.
+         *
+         * @param sender The address of the sender
+         * @param data The packet data, only valid during this call
+         * @param len The length of the packet
+         * @param fromRemoteAddress True if the packet comes from the address of this receiver
+         * @return Return true if the packet belongs to this receiver
+         */
+        boolean packetReceived(InetSocketAddress sender, byte[] data, int len, boolean fromRemoteAddress);
+    }
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Receiver> receivers = new CopyOnWriteArrayList<>();
+    private DatagramChannel channel;
+    private Thread receiveThread;
+    private volatile boolean willbeclosed = false;
+
+    /**
+     * Return the scheduler for the send queues and session timers.
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    public void addReceiver(Receiver receiver) {
+        receivers.add(receiver);
+    }
+
+    public void removeReceiver(Receiver receiver) {
+        receivers.remove(receiver);
+    }
+
+    /**
+     * Send a packet. The channel is opened with the first packet.
+     *
+     * @param data Data to be send
+     * @param address Destination address, may be a broadcast address
+     * @throws IOException If the channel can't be opened or the packet could not be send
+     */
+    public void send(byte[] data, InetSocketAddress address) throws IOException {
+        getChannel().send(ByteBuffer.wrap(data), address);
+    }
+
+    private synchronized DatagramChannel getChannel() throws IOException {
+        if (willbeclosed) {
+            throw new ClosedChannelException();
+        }
+        if (channel == null) {
+            DatagramChannel newChannel = DatagramChannel.open();
+            try {
+                newChannel.socket().setBroadcast(true);
+                newChannel.bind(null);
+            } catch (IOException e) {
+                newChannel.close();
+                throw e;
+            }
+            channel = newChannel;
+            receiveThread = new Thread(this, "Milight receiver");
+            receiveThread.setDaemon(true);
+            receiveThread.start();
+        }
+        return channel;
+    }
+
+    /**
+     * Once disposed, this object can't be reused anymore.
+     */
+    public void dispose() {
+        synchronized (this) {
+            willbeclosed = true;
+            if (channel != null) {
+                try {
+                    // Unblocks the receive thread
+                    channel.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to close channel: {}", e.getMessage());
+                }
+            }
+        }
+        scheduler.shutdownNow();
+        receivers.clear();
+    }
+
+    /**
+     * The receive thread executes this run() method and a blocking receive is performed in a loop.
+     */
+    @Override
+    public void run() {
+        DatagramChannel c;
+        synchronized (this) {
+            c = channel;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        try {
+            while (!willbeclosed) {
+                buffer.clear();
+                InetSocketAddress sender = (InetSocketAddress) c.receive(buffer);
+                try {
+                    dispatch(sender, buffer.array(), buffer.position());
+                } catch (RuntimeException e) {
+                    logger.error("Failed to process packet from {}", sender, e);
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // dispose() has been called
+        } catch (IOException e) {
+            if (!willbeclosed) {
+                logger.error("{}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    private void dispatch(InetSocketAddress sender, byte[] data, int len) {
+        for (Receiver receiver : receivers) {
+            if (sender.equals(receiver.getRemoteAddress())) {
+                receiver.packetReceived(sender, data, len, true);
+                return;
+            }
+        }
+
+        // The address of a bridge may change (DHCP), it is identified by its MAC then.
+        for (Receiver receiver : receivers) {
+            if (receiver.packetReceived(sender, data, len, false)) {
+                return;
+            }
+        }
+        logger.debug("Packet from {} not accepted by any bridge", sender);
+    }
+}
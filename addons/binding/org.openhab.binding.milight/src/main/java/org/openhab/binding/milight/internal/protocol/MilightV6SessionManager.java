@@ -9,16 +9,16 @@
 package org.openhab.binding.milight.internal.protocol;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -44,10 +44,13 @@ import org.slf4j.LoggerFactory;
  * to keep the session alive. Because each command we send is confirmed by the bridge, we know if
  * our session is still valid and can redo the session handshake if necessary.
  *
+ * The responses of the bridge are received by the {@link MilightTransport} shared by all bridges. The handshake
+ * timers run on the scheduler of the transport.
+ *
  * @author David Graeff <david.graeff@web.de>
  * @since 2.1
  */
-public class MilightV6SessionManager implements Runnable {
+public class MilightV6SessionManager implements MilightTransport.Receiver {
     protected final Logger logger = LoggerFactory.getLogger(MilightV6SessionManager.class);
 
     // The used sequence number for a command will be present in the response of the iBox. This
@@ -98,18 +101,19 @@ public class MilightV6SessionManager implements Runnable {
 
     // Used to determine if the session needs a refresh
     private long lastSessionConfirmed = 0;
-    // Quits the receive thread if set to true
+    // Ignores responses and timers if set to true
     private boolean willbeclosed = false;
-    // Keep track of send commands and their sequence number
-    private Map<Byte, Long> used_sequence_no = new TreeMap<Byte, Long>();
-    // The receive thread for all bridge responses.
-    private Thread sessionThread;
+    // Keep track of send commands: The send time by sequence number, 0 for confirmed commands. The ring has
+    // one slot for each sequence number, the oldest unconfirmed number is checked for a timeout.
+    private final long[] used_sequence_no = new long[256];
+    private int oldest_sequence_no = 0;
 
     private final QueuedSend sendQueue;
+    private final MilightTransport transport;
     private final String bridgeId;
 
     // Used to create the timeout timer
-    private ScheduledExecutorService scheduler;
+    private final ScheduledExecutorService scheduler;
 
     // The session timeout timer. Used for cancelling it if the handshake process progresses.
     private ScheduledFuture<?> checkHandshakeTimer = null;
@@ -121,26 +125,35 @@ public class MilightV6SessionManager implements Runnable {
     private static final long REG_TIMEOUT_SEC = 3;
 
     /**
-     * A session manager for the V6 bridge needs a way to send data (a QueuedSend object), the destination bridge ID, a
-     * scheduler for timeout timers and optionally an observer for session state changes.
+     * A session manager for the V6 bridge needs a way to send data (a QueuedSend object), the destination bridge ID
+     * and optionally an observer for session state changes. The responses are received and the timeout timers are
+     * scheduled with the transport of the send queue.
      *
      * @param sendQueue A send queue. Never remove or change that object while the session manager is still working.
      * @param bridgeId Destination bridge ID. If the bridge ID for whatever reason changes, you need to create a new
      *            session manager object
-     * @param scheduler A framework scheduler to create timeout events.
      * @param observer Get notifications of state changes
      */
-    public MilightV6SessionManager(QueuedSend sendQueue, String bridgeId, ScheduledExecutorService scheduler,
-            ISessionState observer) {
+    public MilightV6SessionManager(QueuedSend sendQueue, String bridgeId, ISessionState observer) {
         this.sendQueue = sendQueue;
+        this.transport = sendQueue.getTransport();
         this.bridgeId = bridgeId;
-        this.scheduler = scheduler;
+        this.scheduler = transport.getScheduler();
         this.observer = observer;
         for (int i = 0; i < 6; ++i) {
             BRIDGE_MAC[i] = Integer.valueOf(bridgeId.substring(i * 2, i * 2 + 2), 16).byteValue();
         }
-        sessionThread = new Thread(this, "SessionThread");
-        sessionThread.start();
+        transport.addReceiver(this);
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (MilightV6SessionManager.this) {
+                    if (!willbeclosed) {
+                        session_handshake_process();
+                    }
+                }
+            }
+        });
     }
 
     // Return the first byte of the two bytes password for bridge access
@@ -193,38 +206,53 @@ public class MilightV6SessionManager implements Runnable {
         return fixed_seq_no;
     }
 
-    // Get the second byte of a new sequence number. Add that to a queue of used sequence numbers.
-    // The bridge response will remove the queued number. This method also checks
+    // Get the second byte of a new sequence number. Add that to the ring of used sequence numbers.
+    // The bridge response will remove the number from the ring. This method also checks
     // for non confirmed sequence numbers older that 2 seconds and report them.
     byte getNextSequenceNo2() {
+        return getNextSequenceNo2(System.currentTimeMillis());
+    }
+
+    synchronized byte getNextSequenceNo2(long current) {
         byte t = sequence_no;
-        long current = System.currentTimeMillis();
-        used_sequence_no.put(t, current);
-        // Check old seq no:
-        for (Iterator<Map.Entry<Byte, Long>> it = used_sequence_no.entrySet().iterator(); it.hasNext();) {
-            Map.Entry<Byte, Long> entry = it.next();
-            if (entry.getValue() + 2000 < current) {
-                logger.error("Command not confirmed: {}", entry.getKey());
-                it.remove();
+        int slot = t & 0xFF;
+        if (used_sequence_no[slot] != 0) {
+            // The sequence number wrapped around before the command was confirmed
+            commandNotConfirmed(t);
+        }
+        used_sequence_no[slot] = current;
+        // Check old seq no, from the oldest one until the first unconfirmed number that is not timed out yet:
+        while (oldest_sequence_no != slot) {
+            long sent = used_sequence_no[oldest_sequence_no];
+            if (sent != 0) {
+                if (sent + 2000 >= current) {
+                    break;
+                }
+                commandNotConfirmed((byte) oldest_sequence_no);
+                used_sequence_no[oldest_sequence_no] = 0;
             }
+            oldest_sequence_no = (oldest_sequence_no + 1) & 0xFF;
         }
         ++sequence_no;
         return t;
     }
 
+    // Called for each command that has not been confirmed by the bridge in time.
+    protected void commandNotConfirmed(byte sequenceNo) {
+        logger.error("Command not confirmed: {}", sequenceNo);
+    }
+
     // You have to call that if you are done with this object, we have to clean up
-    // some stuff, like the session receive thread.
-    public void dispose() {
+    // some stuff, like the registration at the transport.
+    public synchronized void dispose() {
         willbeclosed = true;
-        scheduler = null;
-        if (sessionThread != null) {
-            try {
-                sessionThread.join(100);
-            } catch (InterruptedException e) {
-            }
-            sessionThread.interrupt();
-        }
-        sessionThread = null;
+        transport.removeReceiver(this);
+        stop_timeout_timer();
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return sendQueue.getRemoteAddress();
     }
 
     private byte[] search_for_packet() {
@@ -241,11 +269,14 @@ public class MilightV6SessionManager implements Runnable {
      * A response will assign us session bytes.
      */
     private void send_search_for_broadcast() {
-        byte[] buf = new byte[1000];
+        final byte[] packet = search_for_packet();
+        final List<InetSocketAddress> addresses = new ArrayList<>();
 
-        DatagramPacket p = new DatagramPacket(buf, buf.length);
-        p.setPort(sendQueue.getPort());
-        p.setData(search_for_packet());
+        // Ask the known address directly as well, broadcasts do not reach bridges on the loopback interface
+        InetSocketAddress remoteAddress = sendQueue.getRemoteAddress();
+        if (remoteAddress != null) {
+            addresses.add(remoteAddress);
+        }
 
         Enumeration<NetworkInterface> enumNetworkInterfaces;
         try {
@@ -264,18 +295,29 @@ public class MilightV6SessionManager implements Runnable {
                 }
                 InetAddress broadcast = address.getBroadcast();
                 if (broadcast != null && !address.getAddress().isLoopbackAddress()) {
-                    p.setAddress(broadcast);
-                    try {
-                        sendQueue.datagramSocket.send(p);
-                        Thread.sleep(10);
-                        sendQueue.datagramSocket.send(p);
-                    } catch (IOException e) {
-                        logger.error("Could not send discover packet! {}", e.getLocalizedMessage());
-                    } catch (InterruptedException e) {
-                    }
+                    addresses.add(new InetSocketAddress(broadcast, sendQueue.getPort()));
                 }
             }
         }
+
+        send_search_for(packet, addresses);
+        // Send the packets a second time shortly after
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                send_search_for(packet, addresses);
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+    }
+
+    private void send_search_for(byte[] packet, List<InetSocketAddress> addresses) {
+        for (InetSocketAddress address : addresses) {
+            try {
+                transport.send(packet, address);
+            } catch (IOException e) {
+                logger.error("Could not send discover packet! {}", e.getLocalizedMessage());
+            }
+        }
     }
 
     // Search for a specific bridge (our bridge). A response will assign us session bytes.
@@ -315,7 +357,7 @@ public class MilightV6SessionManager implements Runnable {
      * @param periodic_interval_ms How often this method is called in ms. This is used to determine if a session is
      *            still valid.
      */
-    public void keep_alive(int periodic_interval_ms) {
+    public synchronized void keep_alive(int periodic_interval_ms) {
         if (lastSessionConfirmed != 0 && lastSessionConfirmed + 2 * periodic_interval_ms < System.currentTimeMillis()) {
             sessionState = SessionState.SESSION_INVALID;
             lastSessionConfirmed = 0;
@@ -363,7 +405,11 @@ public class MilightV6SessionManager implements Runnable {
         checkHandshakeTimer = scheduler.schedule(new Runnable() {
             @Override
             public void run() {
-                reset_registration_process();
+                synchronized (MilightV6SessionManager.this) {
+                    if (!willbeclosed) {
+                        reset_registration_process();
+                    }
+                }
             }
         }, REG_TIMEOUT_SEC, TimeUnit.SECONDS);
     }
@@ -393,143 +439,134 @@ public class MilightV6SessionManager implements Runnable {
     }
 
     /**
-     * The session thread executes this run() method and a blocking UDP receive
-     * is performed in a loop.
+     * The transport calls this method for each packet from the address of our bridge, and for packets from
+     * unknown addresses. The latter are only accepted if they contain the ID of our bridge.
      */
     @Override
-    public void run() {
-        try {
-            if (DEBUG_SESSION) {
-                logger.debug("MilightCommunicationV6 receive thread ready");
-            }
-            byte[] buffer = new byte[1024];
-            DatagramPacket r_packet = new DatagramPacket(buffer, buffer.length);
+    public synchronized boolean packetReceived(InetSocketAddress sender, byte[] buffer, int len,
+            boolean fromRemoteAddress) {
+        if (willbeclosed) {
+            return false;
+        }
 
-            session_handshake_process();
+        if (len < 5 || buffer[1] != 0 || buffer[2] != 0 || buffer[3] != 0) {
+            if (fromRemoteAddress) {
+                logUnknownPacket(buffer, len, "Not an iBox response!");
+            }
+            return fromRemoteAddress;
+        }
 
-            // Now loop forever, waiting to receive packets and printing them.
-            while (!willbeclosed) {
-                r_packet.setLength(buffer.length);
-                sendQueue.getSocket().receive(r_packet);
-                int len = r_packet.getLength();
+        int expected_len = buffer[4] + 5;
 
-                if (len < 5 || buffer[1] != 0 || buffer[2] != 0 || buffer[3] != 0) {
-                    logUnknownPacket(buffer, len, "Not an iBox response!");
-                    continue;
+        if (expected_len > len) {
+            if (fromRemoteAddress) {
+                logUnknownPacket(buffer, len, "Unexpected size!");
+            }
+            return fromRemoteAddress;
+        }
+        switch (buffer[0]) {
+            // 18 00 00 00 40 02 (AC CF 23 F5 7A D4) 00 20 39 38 35 62 31 35 37 62 66 36 66 63 34 33 33 36 38 61
+            // 36 33 34 36 37 65 61 33 62 31 39 64 30 64 01 00 01 17 63 00 00 05 00 09 78 6C 69 6E 6B 5F 64 65
+            // 76 07 5B CD 15
+            // ASCII string contained: 985b157bf6fc43368a63467ea3b19d0dc .. xlink_dev
+            // Response to the v6 SEARCH and the SEARCH FOR commands to look for new or known devices. A client
+            // session id will be transfered in this process (!= session id)
+            case (byte) 0x18: {
+                boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 6, 6));
+                if (eq) {
+                    if (DEBUG_SESSION) {
+                        logger.debug("Session ID reestablished");
+                    }
+                    if (sessionState == SessionState.SESSION_WAIT_FOR_BRIDGE) {
+                        sessionState = SessionState.SESSION_WAIT_FOR_BRIDGE_SID;
+                    }
+                    sendQueue.setAddress(sender.getAddress());
+                    session_handshake_process();
+                } else if (fromRemoteAddress) {
+                    logger.info("Session ID received, but not for our bridge ({})", bridgeId);
+                    logUnknownPacket(buffer, len, "ID not matching");
                 }
 
-                int expected_len = buffer[4] + 5;
-
-                if (expected_len > len) {
-                    logUnknownPacket(buffer, len, "Unexpected size!");
-                    continue;
-                }
-                switch (buffer[0]) {
-                    // 18 00 00 00 40 02 (AC CF 23 F5 7A D4) 00 20 39 38 35 62 31 35 37 62 66 36 66 63 34 33 33 36 38 61
-                    // 36 33 34 36 37 65 61 33 62 31 39 64 30 64 01 00 01 17 63 00 00 05 00 09 78 6C 69 6E 6B 5F 64 65
-                    // 76 07 5B CD 15
-                    // ASCII string contained: 985b157bf6fc43368a63467ea3b19d0dc .. xlink_dev
-                    // Response to the v6 SEARCH and the SEARCH FOR commands to look for new or known devices. A client
-                    // session id will be transfered in this process (!= session id)
-                    case (byte) 0x18: {
-                        boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 6, 6));
-                        if (eq) {
-                            if (DEBUG_SESSION) {
-                                logger.debug("Session ID reestablished");
-                            }
-                            if (sessionState == SessionState.SESSION_WAIT_FOR_BRIDGE) {
-                                sessionState = SessionState.SESSION_WAIT_FOR_BRIDGE_SID;
-                            }
-                            sendQueue.setAddress(r_packet.getAddress());
-                            session_handshake_process();
-                        } else {
-                            logger.info("Session ID received, but not for our bridge ({})", bridgeId);
-                            logUnknownPacket(buffer, len, "ID not matching");
-                        }
-
-                        break;
-                    }
-                    // 28 00 00 00 11 00 02 (AC CF 23 F5 7A D4) 50 AA 4D 2A 00 01 SS_ID 00
-                    // Response to the keepAlive() packet if session is not valid yet.
-                    // Should contain the session ids
-                    case (byte) 0x28: {
-                        boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 7, 6));
-                        if (eq) {
-                            if (DEBUG_SESSION) {
-                                logger.debug("Session ID received: {}",
-                                        String.format("%02X %02X", buffer[19], buffer[20]));
-                            }
-                            setSessionID(buffer[19], buffer[20]);
-                            if (sessionState == SessionState.SESSION_WAIT_FOR_BRIDGE_SID) {
-                                sessionState = SessionState.SESSION_NEED_REGISTER;
-                            }
-                            session_handshake_process();
-                        } else {
-                            logger.info("Session ID received, but not for our bridge ({})", bridgeId);
-                            logUnknownPacket(buffer, len, "ID not matching");
-                        }
-
-                        break;
+                return eq || fromRemoteAddress;
+            }
+            // 28 00 00 00 11 00 02 (AC CF 23 F5 7A D4) 50 AA 4D 2A 00 01 SS_ID 00
+            // Response to the keepAlive() packet if session is not valid yet.
+            // Should contain the session ids
+            case (byte) 0x28: {
+                boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 7, 6));
+                if (eq) {
+                    if (DEBUG_SESSION) {
+                        logger.debug("Session ID received: {}", String.format("%02X %02X", buffer[19], buffer[20]));
                     }
-                    // 80 00 00 00 15 (AC CF 23 F5 7A D4) 05 02 00 34 00 00 00 00 00 00 00 00 00 00 34
-                    // Response to the registration packet
-                    case (byte) 0x80: {
-                        boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 5, 6));
-                        if (eq) {
-                            sessionState = SessionState.SESSION_VALID;
-                            session_handshake_process();
-                            if (DEBUG_SESSION) {
-                                logger.debug("Registration complete");
-                            }
-                        } else {
-                            logger.info("Registration received, but not for our bridge ({})", bridgeId);
-                            logUnknownPacket(buffer, len, "ID not matching");
-                        }
-                        break;
+                    setSessionID(buffer[19], buffer[20]);
+                    if (sessionState == SessionState.SESSION_WAIT_FOR_BRIDGE_SID) {
+                        sessionState = SessionState.SESSION_NEED_REGISTER;
                     }
-                    // 88 00 00 00 03 SN SN 00 // two byte sequence number, we use the later one only
-                    case (byte) 0x88:
-                        used_sequence_no.remove(buffer[6]);
-                        if (buffer[07] == 0) {
-                            if (DEBUG_SESSION) {
-                                logger.debug("Confirmation received for command:{}", String.valueOf(buffer[6]));
-                            }
-                        } else {
-                            logger.info("Bridge reports an error for command:{}", String.valueOf(buffer[6]));
-                        }
-                        break;
-                    // D8 00 00 00 07 (AC CF 23 F5 7A D4) 01
-                    // Response to the keepAlive() packet
-                    case (byte) 0xD8: {
-                        boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 5, 6));
-                        if (eq) {
-                            sessionState = SessionState.SESSION_VALID;
-                            lastSessionConfirmed = System.currentTimeMillis();
-                            if (DEBUG_SESSION) {
-                                logger.debug("Keep alive received");
-                            }
-                        } else {
-                            logger.info("Keep alive received but not for our bridge ({})", bridgeId);
-                            logUnknownPacket(buffer, len, "ID not matching");
-                        }
-                        break;
+                    session_handshake_process();
+                } else if (fromRemoteAddress) {
+                    logger.info("Session ID received, but not for our bridge ({})", bridgeId);
+                    logUnknownPacket(buffer, len, "ID not matching");
+                }
+
+                return eq || fromRemoteAddress;
+            }
+            // 80 00 00 00 15 (AC CF 23 F5 7A D4) 05 02 00 34 00 00 00 00 00 00 00 00 00 00 34
+            // Response to the registration packet
+            case (byte) 0x80: {
+                boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 5, 6));
+                if (eq) {
+                    sessionState = SessionState.SESSION_VALID;
+                    session_handshake_process();
+                    if (DEBUG_SESSION) {
+                        logger.debug("Registration complete");
                     }
-                    default:
-                        logUnknownPacket(buffer, len, "No valid start byte");
+                } else if (fromRemoteAddress) {
+                    logger.info("Registration received, but not for our bridge ({})", bridgeId);
+                    logUnknownPacket(buffer, len, "ID not matching");
                 }
+                return eq || fromRemoteAddress;
             }
-        } catch (IOException e) {
-            if (!willbeclosed) {
-                logger.error("{}", e.getLocalizedMessage());
+            // 88 00 00 00 03 SN SN 00 // two byte sequence number, we use the later one only
+            case (byte) 0x88:
+                if (!fromRemoteAddress) {
+                    // Does not contain the bridge ID
+                    return false;
+                }
+                used_sequence_no[buffer[6] & 0xFF] = 0;
+                if (buffer[07] == 0) {
+                    if (DEBUG_SESSION) {
+                        logger.debug("Confirmation received for command:{}", String.valueOf(buffer[6]));
+                    }
+                } else {
+                    logger.info("Bridge reports an error for command:{}", String.valueOf(buffer[6]));
+                }
+                return true;
+            // D8 00 00 00 07 (AC CF 23 F5 7A D4) 01
+            // Response to the keepAlive() packet
+            case (byte) 0xD8: {
+                boolean eq = ByteBuffer.wrap(BRIDGE_MAC, 0, 6).equals(ByteBuffer.wrap(buffer, 5, 6));
+                if (eq) {
+                    sessionState = SessionState.SESSION_VALID;
+                    lastSessionConfirmed = System.currentTimeMillis();
+                    if (DEBUG_SESSION) {
+                        logger.debug("Keep alive received");
+                    }
+                } else if (fromRemoteAddress) {
+                    logger.info("Keep alive received but not for our bridge ({})", bridgeId);
+                    logUnknownPacket(buffer, len, "ID not matching");
+                }
+                return eq || fromRemoteAddress;
             }
-        }
-        if (DEBUG_SESSION) {
-            logger.debug("MilightCommunicationV6 receive thread ready stopped");
+            default:
+                if (fromRemoteAddress) {
+                    logUnknownPacket(buffer, len, "No valid start byte");
+                }
+                return fromRemoteAddress;
         }
     }
 
     // Return true if the session is established successfully
-    public boolean isValid() {
+    public synchronized boolean isValid() {
         return sessionState == SessionState.SESSION_VALID;
     }
 }
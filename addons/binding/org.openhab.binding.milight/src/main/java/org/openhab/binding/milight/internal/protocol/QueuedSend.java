@@ -8,14 +8,15 @@
  */
 package org.openhab.binding.milight.internal.protocol;
 
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
+import java.io.IOException;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,42 +28,48 @@ import org.slf4j.LoggerFactory;
  * delay only. The user may issue absolute brightness or color changes faster than 1/10s though, and we don't
  * want to just queue up those commands but apply the newest command only.
  *
+ * The queue has no thread of its own. The packets are sent by the {@link MilightTransport} shared by all
+ * bridges, the next packet is scheduled on the scheduler of the transport after the delay between commands.
+ *
  * @author David Graeff <david.graeff@web.de>
  * @since 2.1
  *
  */
-public class QueuedSend implements Runnable {
+public class QueuedSend {
     private final Logger logger = LoggerFactory.getLogger(QueuedSend.class);
 
     BlockingQueue<QueueItem> queue = new LinkedBlockingQueue<>(20);
-    protected final DatagramPacket packet;
-    protected final DatagramSocket datagramSocket;
+    private final MilightTransport transport;
+    private final Runnable sendNextRunnable = this::sendNext;
+    private InetAddress address;
+    private int port;
+    private InetSocketAddress remoteAddress;
     private int delay_between_commands = 100;
     private int repeat_commands = 1;
-    private boolean willbeclosed = false;
-    private Thread thread;
+    private boolean started = false;
+    private boolean sending = false;
+    // The item in process, if it belongs to a chain of commands the next command in chain is send next.
+    private QueueItem item;
+    // The scheduled send of the next item, null if the queue is idle or an item is being sent
+    private ScheduledFuture<?> nextSend;
 
     public static final byte NO_CATEGORY = 0;
 
     /**
-     * Creates a new send queue and starts the background thread. Call setAddress and
-     * setPort before using any of the queue commands.
+     * Creates a new send queue. Call setAddress and setPort before using any of the queue commands.
      *
-     * @throws SocketException
+     * @param transport The transport used for sending
      */
-    public QueuedSend() throws SocketException {
-        byte[] a = new byte[0];
-        packet = new DatagramPacket(a, a.length);
-        datagramSocket = new DatagramSocket();
+    public QueuedSend(MilightTransport transport) {
+        this.transport = transport;
     }
 
     /**
-     * Start the send thread of this queue. Call dispose() to quit the thread.
+     * Start sending the queued items. Call dispose() to stop.
      */
-    public void start() {
-        willbeclosed = false;
-        thread = new Thread(this);
-        thread.start();
+    public synchronized void start() {
+        started = true;
+        scheduleNextSend(0);
     }
 
     public int getDelayBetweenCommands() {
@@ -83,79 +90,89 @@ public class QueuedSend implements Runnable {
         delay_between_commands = ms;
     }
 
+    private void scheduleNextSend(long delay) {
+        if (started && !sending && nextSend == null
+                && (queue.peek() != null || (item != null && item.next != null))) {
+            nextSend = transport.getScheduler().schedule(sendNextRunnable, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
     /**
-     * The queue process
+     * Sends the next item and schedules the send after that.
      */
-    @Override
-    public void run() {
-        QueueItem item = null;
-        while (!willbeclosed) {
+    private void sendNext() {
+        QueueItem current;
+        InetSocketAddress destination;
+        synchronized (this) {
+            nextSend = null;
+            if (!started) {
+                return;
+            }
+
             // If the command belongs to a chain of commands, get the next command now.
             if (item != null && item.next != null) {
                 item = item.next;
             } else {
-                try {
-                    // block/wait for another item
-                    item = queue.take();
-                } catch (InterruptedException e) {
-                    if (!willbeclosed) {
-                        logger.error("Queue take failed: {}", e.getLocalizedMessage());
-                    }
-                    break;
-                }
+                item = queue.poll();
             }
 
-            if (item == null || item.unique_command_id == QueueItem.INVALID) {
-                // Just in case it is a command chain, set the item to null to not process any chained commands.
-                item = null;
-                continue;
+            // Just in case it is a command chain, set the item to null to not process any chained commands.
+            while (item != null && item.unique_command_id == QueueItem.INVALID) {
+                item = queue.poll();
+            }
+            if (item == null) {
+                return;
             }
+            current = item;
+            destination = remoteAddress;
+            sending = true;
+        }
 
-            packet.setData(item.data);
+        if (destination == null) {
+            logger.debug("No address known, packet dropped");
+        } else {
             try {
-                for (int i = 0; i < (item.repeatable ? repeat_commands : 1); ++i) {
-                    datagramSocket.send(packet);
+                for (int i = 0; i < (current.repeatable ? repeat_commands : 1); ++i) {
+                    transport.send(current.data, destination);
 
                     if (logger.isDebugEnabled()) {
                         StringBuilder s = new StringBuilder();
-                        for (int c = 0; c < item.data.length; ++c) {
-                            s.append(String.format("%02X ", item.data[c]));
+                        for (int c = 0; c < current.data.length; ++c) {
+                            s.append(String.format("%02X ", current.data[c]));
                         }
                         logger.debug("Sent packet '{}' to bridge {}", s.toString(),
-                                packet.getAddress().getHostAddress());
+                                destination.getAddress().getHostAddress());
                     }
                 }
-
-            } catch (Exception e) {
-                logger.error("Failed to send Message to '{}': {}", packet.getAddress().getHostAddress(),
+            } catch (IOException e) {
+                logger.error("Failed to send Message to '{}': {}", destination.getAddress().getHostAddress(),
                         e.getMessage());
             }
+        }
 
-            try {
-                Thread.sleep((item.custom_delay_time != 0) ? item.custom_delay_time : delay_between_commands);
-            } catch (InterruptedException e) {
-                if (!willbeclosed) {
-                    logger.error("Queue sleep failed: {}", e.getLocalizedMessage());
-                }
-                break;
+        synchronized (this) {
+            sending = false;
+            // Wait for the delay even if the queue is empty now, an item queued meanwhile has to wait as well
+            if (started && nextSend == null) {
+                nextSend = transport.getScheduler().schedule(sendNextRunnable,
+                        (current.custom_delay_time != 0) ? current.custom_delay_time : delay_between_commands,
+                        TimeUnit.MILLISECONDS);
             }
         }
-
     }
 
     /**
-     * Once disposed, this object can't be reused anymore.
+     * Stops sending, queued items are dropped. The queue can be started again.
      */
-    public void dispose() {
-        willbeclosed = true;
-        if (thread != null) {
-            try {
-                thread.join(delay_between_commands);
-            } catch (InterruptedException e) {
-            }
-            thread.interrupt();
+    public synchronized void dispose() {
+        started = false;
+        sending = false;
+        if (nextSend != null) {
+            nextSend.cancel(false);
+            nextSend = null;
         }
-        thread = null;
+        queue.clear();
+        item = null;
     }
 
     public void setRepeatTimes(int times) {
@@ -164,7 +181,7 @@ public class QueuedSend implements Runnable {
 
     /**
      * Mark all commands in the queue invalid that have the same unique id as the given one. This does not synchronise
-     * with the sender thread. If an element has been started to being processed, this method has no more effect on that
+     * with the sender. If an element has been started to being processed, this method has no more effect on that
      * element. Command chains are always executed in a row. Even if the head of the command queue has been marked
      * as invalid, if the processing has been started, the chain will be processed completely.
      *
@@ -201,7 +218,7 @@ public class QueuedSend implements Runnable {
      * @param unique_command_id A unique command id. Commands with the same id will overwrite themself.
      * @param data Data to be send
      */
-    public void queueRepeatable(int unique_command_id, byte[]... data) {
+    public synchronized void queueRepeatable(int unique_command_id, byte[]... data) {
         remove_from_queue(unique_command_id);
         QueueItem item = QueueItem.createRepeatable(unique_command_id, data[0]);
         QueueItem next = item;
@@ -209,6 +226,7 @@ public class QueuedSend implements Runnable {
             next = next.addRepeatable(data[i]);
         }
         queue.offer(item);
+        scheduleNextSend(0);
     }
 
     /**
@@ -219,30 +237,40 @@ public class QueuedSend implements Runnable {
      *
      * @param item A queue item, cannot be null.
      */
-    public void queue(QueueItem item) {
+    public synchronized void queue(QueueItem item) {
         if (item.unique_command_id != NO_CATEGORY) {
             remove_from_queue(item.unique_command_id);
         }
         queue.offer(item);
+        scheduleNextSend(0);
+    }
+
+    public synchronized InetAddress getAddr() {
+        return address;
     }
 
-    public InetAddress getAddr() {
-        return packet.getAddress();
+    public synchronized int getPort() {
+        return port;
     }
 
-    public int getPort() {
-        return packet.getPort();
+    /**
+     * Return the address and port of the bridge, or null if the address is not known.
+     */
+    public synchronized InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
     }
 
-    public DatagramSocket getSocket() {
-        return datagramSocket;
+    public MilightTransport getTransport() {
+        return transport;
     }
 
-    public void setAddress(InetAddress address) {
-        packet.setAddress(address);
+    public synchronized void setAddress(InetAddress address) {
+        this.address = address;
+        remoteAddress = address == null ? null : new InetSocketAddress(address, port);
     }
 
-    public void setPort(int port) {
-        packet.setPort(port);
+    public synchronized void setPort(int port) {
+        this.port = port;
+        remoteAddress = address == null ? null : new InetSocketAddress(address, port);
     }
 }
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.SocketException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -23,13 +24,18 @@ import org.slf4j.LoggerFactory;
  * Emulates a Milight V6 iBox bridge to test and intercept communication with the official apps,
  * as well as test the binding to be conformant to the protocol.
  *
+ * Several emulated bridges with different ports and MACs can run in one process, to test the binding
+ * with many bridges on the loopback interface.
+ *
  * @author David Graeff
  * @since 2.1
  *
  */
 public class EmulatedV6Bridge {
     protected final Logger logger = LoggerFactory.getLogger(EmulatedV6Bridge.class);
-    private boolean willbeclosed = false;
+    private volatile boolean willbeclosed = false;
+    private final DatagramSocket datagramSocket;
+    private volatile long receivedCommands = 0;
     private byte SID1 = (byte) 0xed;
     private byte SID2 = (byte) 0xab;
     private byte PW1 = 0;
@@ -88,19 +94,50 @@ public class EmulatedV6Bridge {
     private byte[] KEEP_ALIVE_RESPONSE = { (byte) 0xD8, 0, 0, 0, (byte) 0x07, FAKE_MAC[0], FAKE_MAC[1], FAKE_MAC[2],
             FAKE_MAC[3], FAKE_MAC[4], FAKE_MAC[5], 1 };
 
-    EmulatedV6Bridge() {
+    EmulatedV6Bridge() throws SocketException {
+        this(MilightBindingConstants.PORT_VER6, null);
         new Thread(new Runnable() {
             @Override
             public void run() {
                 runDiscovery();
             }
         }).start();
+    }
+
+    /**
+     * Creates an emulated bridge without discovery.
+     *
+     * @param port The control port of the bridge. Use 0 for any free port, see {@link #getPort()}.
+     * @param mac The MAC of the bridge or null for the default MAC
+     * @throws SocketException If the port can't be bound
+     */
+    public EmulatedV6Bridge(int port, byte[] mac) throws SocketException {
+        if (mac != null) {
+            FAKE_MAC = Arrays.copyOf(mac, 6);
+        }
+        datagramSocket = new DatagramSocket(port);
         new Thread(new Runnable() {
             @Override
             public void run() {
                 runBrigde();
             }
-        }).start();
+        }, "EmulatedV6Bridge " + datagramSocket.getLocalPort()).start();
+    }
+
+    public int getPort() {
+        return datagramSocket.getLocalPort();
+    }
+
+    /**
+     * Return the number of light commands received so far.
+     */
+    public long getReceivedCommands() {
+        return receivedCommands;
+    }
+
+    public void dispose() {
+        willbeclosed = true;
+        datagramSocket.close();
     }
 
     private void replaceWithMac(byte data[], int offset) {
@@ -135,7 +172,10 @@ public class EmulatedV6Bridge {
 
                 if (len >= DISCOVER.length) {
                     if (Arrays.equals(DISCOVER, Arrays.copyOf(buffer, DISCOVER.length))) {
-                        String data = r_packet.getAddress().getHostAddress() + ",ACCF23F57AD4,HF-LPB100";
+                        String data = r_packet.getAddress().getHostAddress() + ","
+                                + String.format("%02X%02X%02X%02X%02X%02X", FAKE_MAC[0], FAKE_MAC[1], FAKE_MAC[2],
+                                        FAKE_MAC[3], FAKE_MAC[4], FAKE_MAC[5])
+                                + ",HF-LPB100";
                         debug_session("Discover message received. Send: " + data);
                         sendMessage(s_packet, datagramSocket, data.getBytes());
                         continue;
@@ -155,7 +195,6 @@ public class EmulatedV6Bridge {
         try {
             byte[] a = new byte[0];
             DatagramPacket s_packet = new DatagramPacket(a, a.length);
-            DatagramSocket datagramSocket = new DatagramSocket(MilightBindingConstants.PORT_VER6);
 
             debug_session("EmulatedV6Bridge control thread ready");
             byte[] buffer = new byte[1024];
@@ -283,6 +322,7 @@ public class EmulatedV6Bridge {
                                 logger.error("Checksum wrong:{} {}", chksum, buffer[21]);
                                 continue;
                             }
+                            ++receivedCommands;
 
                             StringBuilder debugStr = new StringBuilder();
                             if (buffer[13] == 0x08) {
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.netatmo.handler;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests how {@link NetatmoBridgeHandler} plans the next refresh from the last measurements of the devices.
+ *
+ */
+public class NetatmoBridgeHandlerTest {
+
+    private static final long NOW = 1490000000000L;
+    private static final long TEN_MINUTES = TimeUnit.MINUTES.toMillis(10);
+
+    private static Integer secondsAgo(int seconds) {
+        return (int) (NOW / 1000) - seconds;
+    }
+
+    @Test
+    public void usesTheMaximumDelayWithoutMeasurements() {
+        assertEquals(TEN_MINUTES,
+                NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES, Collections.<Integer> emptyList(), NOW));
+        assertEquals(TEN_MINUTES, NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES,
+                Collections.<Integer> singletonList(null), NOW));
+    }
+
+    @Test
+    public void refreshesShortlyAfterTheNextMeasurement() {
+        // measured 5 minutes ago, the next one is expected in 5 minutes and processed 30 s later
+        assertEquals(TimeUnit.SECONDS.toMillis(330),
+                NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES, Arrays.asList(secondsAgo(300)), NOW));
+    }
+
+    @Test
+    public void followsTheDeviceThatMeasuresNext() {
+        assertEquals(TimeUnit.SECONDS.toMillis(90), NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES,
+                Arrays.asList(secondsAgo(300), null, secondsAgo(540)), NOW));
+    }
+
+    @Test
+    public void isCappedByTheRefreshInterval() {
+        long maxDelay = TimeUnit.MINUTES.toMillis(2);
+        assertEquals(maxDelay,
+                NetatmoBridgeHandler.getNextRefreshDelay(maxDelay, Arrays.asList(secondsAgo(300)), NOW));
+    }
+
+    @Test
+    public void looksAgainSoonWhenAMeasurementIsLate() {
+        // the measurement was expected 70 s ago
+        assertEquals(TimeUnit.MINUTES.toMillis(1),
+                NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES, Arrays.asList(secondsAgo(700)), NOW));
+    }
+
+    @Test
+    public void staysOnTheCadenceOfADeviceThatDoesNotReport() {
+        // measured 45 minutes ago, the next slot of its cadence is 5.5 minutes away
+        assertEquals(TimeUnit.SECONDS.toMillis(330),
+                NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES, Arrays.asList(secondsAgo(2700)), NOW));
+    }
+
+    @Test
+    public void neverRefreshesMoreOftenThanOncePerMinute() {
+        // the measurement is expected in 10 s
+        assertEquals(TimeUnit.MINUTES.toMillis(1),
+                NetatmoBridgeHandler.getNextRefreshDelay(TEN_MINUTES, Arrays.asList(secondsAgo(620)), NOW));
+    }
+
+    @Test
+    public void allowsShorterRefreshIntervalsThanOneMinute() {
+        long maxDelay = TimeUnit.SECONDS.toMillis(30);
+        assertEquals(maxDelay,
+                NetatmoBridgeHandler.getNextRefreshDelay(maxDelay, Arrays.asList(secondsAgo(700)), NOW));
+    }
+
+}
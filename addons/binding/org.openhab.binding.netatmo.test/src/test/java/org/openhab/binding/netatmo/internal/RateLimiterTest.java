@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.netatmo.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the token bucket of {@link RateLimiter} with the limits used by the bridge.
+ *
+ */
+public class RateLimiterTest {
+
+    private static final long START = 1000000L;
+    // 500 requests per hour give back one token every 7.2 s
+    private static final long REFILL_PERIOD = 7200;
+
+    private RateLimiter newRateLimiter() {
+        return new RateLimiter(50, 500, TimeUnit.HOURS.toMillis(1), START);
+    }
+
+    @Test
+    public void allowsABurstUpToTheCapacity() {
+        RateLimiter rateLimiter = newRateLimiter();
+        for (int i = 0; i < 50; i++) {
+            assertTrue("request " + i, rateLimiter.tryAcquire(START));
+        }
+        assertFalse(rateLimiter.tryAcquire(START));
+    }
+
+    @Test
+    public void givesBackTokensAtTheHourlyRate() {
+        RateLimiter rateLimiter = newRateLimiter();
+        for (int i = 0; i < 50; i++) {
+            rateLimiter.tryAcquire(START);
+        }
+
+        assertFalse(rateLimiter.tryAcquire(START + REFILL_PERIOD - 1));
+        assertTrue(rateLimiter.tryAcquire(START + REFILL_PERIOD));
+        assertFalse(rateLimiter.tryAcquire(START + REFILL_PERIOD));
+
+        // ten periods later, ten more requests may be sent
+        long later = START + 11 * REFILL_PERIOD;
+        for (int i = 0; i < 10; i++) {
+            assertTrue("request " + i, rateLimiter.tryAcquire(later));
+        }
+        assertFalse(rateLimiter.tryAcquire(later));
+    }
+
+    @Test
+    public void doesNotRefillBeyondTheCapacity() {
+        RateLimiter rateLimiter = newRateLimiter();
+        long later = START + TimeUnit.HOURS.toMillis(10);
+        for (int i = 0; i < 50; i++) {
+            assertTrue("request " + i, rateLimiter.tryAcquire(later));
+        }
+        assertFalse(rateLimiter.tryAcquire(later));
+    }
+
+    @Test
+    public void ignoresTheClockGoingBack() {
+        RateLimiter rateLimiter = newRateLimiter();
+        for (int i = 0; i < 50; i++) {
+            rateLimiter.tryAcquire(START);
+        }
+        assertFalse(rateLimiter.tryAcquire(START - TimeUnit.HOURS.toMillis(1)));
+        assertTrue(rateLimiter.tryAcquire(START + REFILL_PERIOD));
+    }
+
+}
@@ -9,15 +9,32 @@
 package org.openhab.binding.netatmo.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.oltu.oauth2.client.request.OAuthClientRequest;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.netatmo.config.NetatmoBridgeConfiguration;
+import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
+import org.openhab.binding.netatmo.config.NetatmoModuleConfiguration;
+import org.openhab.binding.netatmo.internal.NADeviceAdapter;
+import org.openhab.binding.netatmo.internal.NAModuleAdapter;
+import org.openhab.binding.netatmo.internal.NAPlugAdapter;
+import org.openhab.binding.netatmo.internal.NAStationAdapter;
+import org.openhab.binding.netatmo.internal.RateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +44,8 @@ import io.swagger.client.api.StationApi;
 import io.swagger.client.api.ThermostatApi;
 import io.swagger.client.auth.OAuth;
 import io.swagger.client.auth.OAuthFlow;
+import io.swagger.client.model.NAMain;
+import io.swagger.client.model.NAPlug;
 import io.swagger.client.model.NAStationDataBody;
 import io.swagger.client.model.NAThermostatDataBody;
 import retrofit.RestAdapter.LogLevel;
@@ -34,14 +53,27 @@ import retrofit.RetrofitError;
 
 /**
  * {@link NetatmoBridgeHandler} is the handler for a Netatmo API and connects it
- * to the framework. The devices and modules uses the
- * {@link NetatmoBridgeHandler} to request informations about their status
+ * to the framework. The bridge fetches the data of all stations and thermostats
+ * at once and hands it to the devices and modules
  *
  * @author Gaël L'hopital - Initial contribution OH2 version
  *
  */
 public class NetatmoBridgeHandler extends BaseBridgeHandler {
+    // Netatmo devices send their measurements every 10 minutes, give the API some time to process them
+    private static final long MEASUREMENT_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+    private static final long MEASUREMENT_DELAY = TimeUnit.SECONDS.toMillis(30);
+    private static final long MIN_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
     private Logger logger = LoggerFactory.getLogger(NetatmoBridgeHandler.class);
+    // Netatmo allows 50 requests every 10 seconds and 500 requests every hour per user
+    private final RateLimiter rateLimiter = new RateLimiter(50, 500, TimeUnit.HOURS.toMillis(1));
+    private final Map<String, NADeviceAdapter<?>> devices = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> refreshJob;
+    private boolean refreshing = false;
+    private boolean disposed = false;
+    private volatile boolean forceRefresh = false;
     private NetatmoBridgeConfiguration configuration;
     private ApiClient apiClient;
     private StationApi stationApi = null;
@@ -71,6 +103,24 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
             }
         }
         super.initialize();
+        synchronized (this) {
+            disposed = false;
+        }
+        scheduleRefresh(0);
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            // a refresh in flight or requested by a module must not schedule the next one
+            disposed = true;
+            if (refreshJob != null && !refreshJob.isCancelled()) {
+                refreshJob.cancel(true);
+                refreshJob = null;
+            }
+        }
+        devices.clear();
+        super.dispose();
     }
 
     // We'll use TrustingOkHttpClient because Netatmo certificate is a StartTTLS
@@ -132,8 +182,226 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
         return partnerApi;
     }
 
+    /**
+     * Asks for the data of all devices to be fetched and published again, e.g. after a setpoint change.
+     */
+    public void requestRefresh() {
+        forceRefresh = true;
+        scheduleRefresh(0);
+    }
+
+    /**
+     * Returns the last data fetched for a device
+     *
+     * @param equipmentId the id of the device
+     * @return the device or null if it is not known (yet)
+     */
+    public NADeviceAdapter<?> getDevice(String equipmentId) {
+        return equipmentId != null ? devices.get(equipmentId.toLowerCase()) : null;
+    }
+
+    /**
+     * Returns the last data fetched for a module
+     *
+     * @param parentId the id of the device the module belongs to
+     * @param equipmentId the id of the module
+     * @return the module or null if it is not known (yet)
+     */
+    public NAModuleAdapter getModule(String parentId, String equipmentId) {
+        NADeviceAdapter<?> device = getDevice(parentId);
+        return device != null ? device.getModules().get(equipmentId) : null;
+    }
+
+    /**
+     * Takes a token for a request to Netatmo API
+     *
+     * @return true if the request can be sent without exceeding the rate limits of Netatmo
+     */
+    public boolean tryAcquireRequest() {
+        boolean acquired = rateLimiter.tryAcquire();
+        if (!acquired) {
+            logger.debug("Skipping request to Netatmo API to stay within its rate limits");
+        }
+        return acquired;
+    }
+
+    private synchronized void scheduleRefresh(long delay) {
+        if (disposed) {
+            return;
+        }
+        if (refreshing) {
+            // the running refresh schedules the next one when it is done
+            return;
+        }
+        if (refreshJob != null && !refreshJob.isDone()) {
+            refreshJob.cancel(false);
+        }
+        logger.debug("Scheduling the next refresh of Netatmo data in {} ms", delay);
+        refreshJob = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (NetatmoBridgeHandler.this) {
+                    if (disposed || refreshing) {
+                        return;
+                    }
+                    refreshing = true;
+                }
+                long delay = MIN_REFRESH_INTERVAL;
+                try {
+                    delay = refreshData();
+                } catch (Exception e) {
+                    logger.error("An error occurred while refreshing Netatmo data : {}", e.getMessage());
+                } finally {
+                    synchronized (NetatmoBridgeHandler.this) {
+                        refreshing = false;
+                    }
+                }
+                scheduleRefresh(forceRefresh ? 0 : delay);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Fetches the data of all stations and thermostats
+     *
+     * @return the delay until the next refresh in ms
+     */
+    private long refreshData() {
+        boolean force = forceRefresh;
+        forceRefresh = false;
+
+        boolean complete = true;
+        Map<String, NADeviceAdapter<?>> fetched = new HashMap<>();
+
+        if (configuration.readStation) {
+            NAStationDataBody stationsDataBody = getStationsDataBody(null);
+            if (stationsDataBody != null) {
+                for (NAMain station : stationsDataBody.getDevices()) {
+                    fetched.put(station.getId().toLowerCase(),
+                            new NAStationAdapter(station, stationsDataBody.getUser().getAdministrative()));
+                }
+            } else {
+                complete = false;
+            }
+        }
+
+        if (configuration.readThermostat) {
+            NAThermostatDataBody thermostatsDataBody = getThermostatsDataBody(null);
+            if (thermostatsDataBody != null) {
+                for (NAPlug plug : thermostatsDataBody.getDevices()) {
+                    fetched.put(plug.getId().toLowerCase(),
+                            new NAPlugAdapter(plug, thermostatsDataBody.getUser().getAdministrative()));
+                }
+            } else {
+                complete = false;
+            }
+        }
+
+        synchronized (this) {
+            if (complete) {
+                devices.keySet().retainAll(fetched.keySet());
+            }
+            devices.putAll(fetched);
+        }
+
+        if (!fetched.isEmpty()) {
+            updateThings(force);
+        }
+        return complete ? getNextRefreshDelay() : MIN_REFRESH_INTERVAL;
+    }
+
+    /**
+     * Hands the fetched data to the devices, which pass it on to their modules
+     */
+    private void updateThings(boolean force) {
+        List<NetatmoDeviceHandler<?>> deviceHandlers = new ArrayList<>();
+        Map<String, List<NetatmoModuleHandler<?>>> moduleHandlers = new HashMap<>();
+
+        for (Thing thing : getThing().getThings()) {
+            ThingHandler thingHandler = thing.getHandler();
+            if (thingHandler instanceof NetatmoDeviceHandler) {
+                NetatmoDeviceHandler<?> deviceHandler = (NetatmoDeviceHandler<?>) thingHandler;
+                if (deviceHandler.getConfiguration() != null) {
+                    deviceHandlers.add(deviceHandler);
+                }
+            } else if (thingHandler instanceof NetatmoModuleHandler) {
+                NetatmoModuleHandler<?> moduleHandler = (NetatmoModuleHandler<?>) thingHandler;
+                NetatmoModuleConfiguration moduleConfiguration = moduleHandler.getConfiguration();
+                if (moduleConfiguration != null) {
+                    String parentId = moduleConfiguration.getParentId();
+                    List<NetatmoModuleHandler<?>> children = moduleHandlers.get(parentId);
+                    if (children == null) {
+                        children = new ArrayList<>();
+                        moduleHandlers.put(parentId, children);
+                    }
+                    children.add(moduleHandler);
+                }
+            }
+        }
+
+        for (NetatmoDeviceHandler<?> deviceHandler : deviceHandlers) {
+            String equipmentId = deviceHandler.getConfiguration().getEquipmentId();
+            NADeviceAdapter<?> device = devices.get(equipmentId);
+            if (device != null) {
+                deviceHandler.updateChannels(device, moduleHandlers.get(equipmentId), force);
+            }
+        }
+    }
+
+    /**
+     * The next refresh is planned shortly after the next measurement of a device is expected, but not later than
+     * the refresh interval of any device.
+     */
+    private long getNextRefreshDelay() {
+        long maxDelay = Long.MAX_VALUE;
+        for (Thing thing : getThing().getThings()) {
+            ThingHandler thingHandler = thing.getHandler();
+            if (thingHandler instanceof NetatmoDeviceHandler) {
+                NetatmoDeviceConfiguration deviceConfiguration = ((NetatmoDeviceHandler<?>) thingHandler)
+                        .getConfiguration();
+                if (deviceConfiguration != null && deviceConfiguration.refreshInterval > 0) {
+                    maxDelay = Math.min(maxDelay, deviceConfiguration.refreshInterval);
+                }
+            }
+        }
+        if (maxDelay == Long.MAX_VALUE) {
+            maxDelay = DEFAULT_REFRESH_INTERVAL;
+        }
+
+        List<Integer> lastStatusStores = new ArrayList<>();
+        for (NADeviceAdapter<?> device : devices.values()) {
+            lastStatusStores.add(device.getLastStatusStore());
+        }
+        return getNextRefreshDelay(maxDelay, lastStatusStores, System.currentTimeMillis());
+    }
+
+    /**
+     * @param maxDelay the longest delay allowed by the refresh intervals of the devices in ms
+     * @param lastStatusStores the last_status_store of each device in s, null if a device did not report one
+     * @param now the current time in ms
+     * @return the delay until the next refresh in ms
+     */
+    static long getNextRefreshDelay(long maxDelay, Collection<Integer> lastStatusStores, long now) {
+        long delay = maxDelay;
+        for (Integer lastStatusStore : lastStatusStores) {
+            if (lastStatusStore != null) {
+                long nextMeasurement = lastStatusStore * 1000L + MEASUREMENT_INTERVAL + MEASUREMENT_DELAY;
+                if (nextMeasurement > now) {
+                    delay = Math.min(delay, nextMeasurement - now);
+                } else if (now - nextMeasurement < MEASUREMENT_INTERVAL) {
+                    // the measurement is a bit late, look again soon
+                    delay = Math.min(delay, MIN_REFRESH_INTERVAL);
+                } else {
+                    // the device does not report, stay on its cadence
+                    delay = Math.min(delay, MEASUREMENT_INTERVAL - (now - nextMeasurement) % MEASUREMENT_INTERVAL);
+                }
+            }
+        }
+        return Math.max(Math.min(delay, maxDelay), Math.min(MIN_REFRESH_INTERVAL, maxDelay));
+    }
+
     public NAStationDataBody getStationsDataBody(String equipmentId) {
-        if (getStationApi() != null) {
+        if (getStationApi() != null && tryAcquireRequest()) {
             try {
                 return getStationApi().getstationsdata(equipmentId).getBody();
             } catch (Exception e) {
@@ -144,7 +412,7 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
     }
 
     public NAThermostatDataBody getThermostatsDataBody(String equipmentId) {
-        if (getThermostatApi() != null) {
+        if (getThermostatApi() != null && tryAcquireRequest()) {
             try {
                 return getThermostatApi().getthermostatsdata(equipmentId).getBody();
             } catch (Exception e) {
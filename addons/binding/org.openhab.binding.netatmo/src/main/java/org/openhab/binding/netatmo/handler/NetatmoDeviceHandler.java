@@ -10,8 +10,9 @@ package org.openhab.binding.netatmo.handler;
 
 import static org.openhab.binding.netatmo.NetatmoBindingConstants.*;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.PointType;
@@ -42,7 +43,6 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
 
     protected NADeviceAdapter<?> device;
     private Logger logger = LoggerFactory.getLogger(NetatmoDeviceHandler.class);
-    private ScheduledFuture<?> refreshJob;
 
     public NetatmoDeviceHandler(Thing thing, Class<X> configurationClass) {
         super(thing, configurationClass);
@@ -57,13 +57,11 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
             if (getBridge().getStatus() == ThingStatus.ONLINE) {
                 logger.debug("setting device '{}' online", configuration.getEquipmentId());
                 updateStatus(ThingStatus.ONLINE);
-                logger.debug("scheduling update channel thread to run every {} ms", configuration.refreshInterval);
-                refreshJob = scheduler.scheduleWithFixedDelay(new Runnable() {
-                    @Override
-                    public void run() {
-                        updateChannels(configuration.getEquipmentId());
-                    }
-                }, 1, configuration.refreshInterval, TimeUnit.MILLISECONDS);
+                // the bridge refreshes the data of all devices, show what it already knows
+                NetatmoBridgeHandler bridgeHandler = getBridgeHandler();
+                if (bridgeHandler != null && bridgeHandler.getDevice(configuration.getEquipmentId()) != null) {
+                    updateChannels(configuration.getEquipmentId());
+                }
             } else {
                 logger.debug("setting device '{}' offline (bridge or thing offline)", configuration.getEquipmentId());
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.BRIDGE_OFFLINE);
@@ -74,17 +72,10 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
         }
     }
 
-    @Override
-    public void dispose() {
-        logger.debug("Running dispose()");
-        if (refreshJob != null && !refreshJob.isCancelled()) {
-            refreshJob.cancel(true);
-            refreshJob = null;
-        }
+    protected NADeviceAdapter<?> updateReadings(String equipmentId) {
+        return getBridgeHandler().getDevice(equipmentId);
     }
 
-    protected abstract NADeviceAdapter<?> updateReadings(String equipmentId);
-
     @Override
     protected void updateChannels(String equipmentId) {
         logger.debug("Trying to update channels on device {}", equipmentId);
@@ -101,6 +92,36 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
         }
     }
 
+    /**
+     * Called by the bridge with freshly fetched data. Channels are only updated if the device stored a new
+     * measurement since the last update, unless forced.
+     */
+    void updateChannels(NADeviceAdapter<?> device, List<NetatmoModuleHandler<?>> moduleHandlers, boolean force) {
+        String equipmentId = configuration.getEquipmentId();
+        try {
+            NADeviceAdapter<?> previousDevice = this.device;
+            this.device = device;
+            if (force || previousDevice == null
+                    || !Objects.equals(previousDevice.getLastStatusStore(), device.getLastStatusStore())) {
+                super.updateChannels(equipmentId);
+            } else {
+                logger.debug("No new data for device {}", equipmentId);
+            }
+
+            if (moduleHandlers != null) {
+                Map<String, NAModuleAdapter> modules = device.getModules();
+                for (NetatmoModuleHandler<?> moduleHandler : moduleHandlers) {
+                    NAModuleAdapter module = modules.get(moduleHandler.getConfiguration().getEquipmentId());
+                    if (module != null) {
+                        moduleHandler.updateChannels(module, force);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Exception when trying to update channels: {}", e.getMessage());
+        }
+    }
+
     @Override
     protected State getNAThingProperty(String channelId) {
         switch (channelId) {
@@ -10,12 +10,11 @@ package org.openhab.binding.netatmo.handler;
 
 import static org.openhab.binding.netatmo.NetatmoBindingConstants.*;
 
+import java.util.Objects;
+
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Thing;
-import org.eclipse.smarthome.core.thing.binding.ThingHandler;
-import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
-import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
 import org.openhab.binding.netatmo.config.NetatmoModuleConfiguration;
 import org.openhab.binding.netatmo.internal.ChannelTypeUtils;
 import org.openhab.binding.netatmo.internal.NAModuleAdapter;
@@ -44,6 +43,16 @@ public abstract class NetatmoModuleHandler<X extends NetatmoModuleConfiguration>
     @Override
     public void initialize() {
         super.initialize();
+
+        // the data is refreshed through the parent device, show what the bridge already knows
+        NetatmoBridgeHandler bridgeHandler = getBridge() != null ? getBridgeHandler() : null;
+        if (bridgeHandler != null) {
+            NAModuleAdapter module = bridgeHandler.getModule(configuration.getParentId(),
+                    configuration.getEquipmentId());
+            if (module != null) {
+                updateChannels(module);
+            }
+        }
     }
 
     private void initializeBatteryLevels() {
@@ -91,20 +100,23 @@ public abstract class NetatmoModuleHandler<X extends NetatmoModuleConfiguration>
         super.updateChannels(configuration.getParentId());
     }
 
+    /**
+     * Called with freshly fetched data. Channels are only updated if the module sent a new message since the last
+     * update, unless forced.
+     */
+    void updateChannels(NAModuleAdapter module, boolean force) {
+        if (force || this.module == null || !Objects.equals(this.module.getLastMessage(), module.getLastMessage())) {
+            updateChannels(module);
+        } else {
+            logger.debug("No new data for module {}", configuration.getEquipmentId());
+            this.module = module;
+        }
+    }
+
     protected void requestParentRefresh() {
         logger.debug("Updating parent modules of {}", configuration.getEquipmentId());
-        for (Thing thing : getBridge().getThings()) {
-            ThingHandler thingHandler = thing.getHandler();
-            if (thingHandler instanceof NetatmoDeviceHandler) {
-                @SuppressWarnings("unchecked")
-                NetatmoDeviceHandler<NetatmoDeviceConfiguration> deviceHandler = (NetatmoDeviceHandler<NetatmoDeviceConfiguration>) thingHandler;
-                NetatmoDeviceConfiguration deviceConfiguration = deviceHandler.configuration;
-                if (deviceConfiguration.getEquipmentId().equalsIgnoreCase(configuration.getParentId())) {
-                    // I'm your father Luke
-                    thingHandler.handleCommand(null, RefreshType.REFRESH);
-                }
-            }
-        }
+        // The parent only holds the data the bridge fetched last, so ask the bridge for new data
+        getBridgeHandler().requestRefresh();
     }
 
 }
@@ -11,10 +11,6 @@ package org.openhab.binding.netatmo.handler.thermostat;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
 import org.openhab.binding.netatmo.handler.NetatmoDeviceHandler;
-import org.openhab.binding.netatmo.internal.NADeviceAdapter;
-import org.openhab.binding.netatmo.internal.NAPlugAdapter;
-
-import io.swagger.client.model.NAThermostatDataBody;
 
 /**
  * {@link NAPlugHandler} is the class used to handle the plug
@@ -28,14 +24,4 @@ public class NAPlugHandler extends NetatmoDeviceHandler<NetatmoDeviceConfigurati
         super(thing, NetatmoDeviceConfiguration.class);
     }
 
-    @Override
-    protected NADeviceAdapter<?> updateReadings(String equipmentId) {
-        NAThermostatDataBody thermostatDataBody = getBridgeHandler().getThermostatsDataBody(equipmentId);
-        if (thermostatDataBody != null) {
-            return new NAPlugAdapter(thermostatDataBody);
-        } else {
-            return null;
-        }
-    }
-
 }
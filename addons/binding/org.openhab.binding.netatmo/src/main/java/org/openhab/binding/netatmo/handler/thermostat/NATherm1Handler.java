@@ -51,7 +51,7 @@ public class NATherm1Handler extends NetatmoModuleHandler<NATherm1Configuration>
 
     @Override
     public void updateChannels(NAModuleAdapter module) {
-        if (measuredChannels.size() > 0) {
+        if (measuredChannels.size() > 0 && getBridgeHandler().tryAcquireRequest()) {
             ThermostatApi thermostatApi = getBridgeHandler().getThermostatApi();
             String parentId = configuration.getParentId();
             String moduleId = module.getId();
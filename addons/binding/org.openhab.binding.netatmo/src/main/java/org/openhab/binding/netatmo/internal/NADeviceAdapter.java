@@ -30,9 +30,13 @@ public abstract class NADeviceAdapter<DeviceClass> {
     protected DeviceClass device;
 
     public NADeviceAdapter(DeviceClass device) {
+        this(device, null);
+    }
+
+    public NADeviceAdapter(DeviceClass device, NAUserAdministrative userAdministrative) {
         if (device != null) {
             this.device = device;
-            this.userAdministrative = null;
+            this.userAdministrative = userAdministrative;
         } else {
             throw new IllegalArgumentException("device can not be null");
         }
@@ -75,9 +79,11 @@ public abstract class NADeviceAdapter<DeviceClass> {
     }
 
     // I transform the original list to a map that will be more convenient to handle
-    public Map<String, NAModuleAdapter> getModules() {
-        modules.clear();
-        populateModules();
+    // The adapter wraps the data of a single API call, so the map only has to be built once
+    public synchronized Map<String, NAModuleAdapter> getModules() {
+        if (modules.isEmpty()) {
+            populateModules();
+        }
         return modules;
     }
 
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.netatmo.internal;
+
+/**
+ * {@link RateLimiter} is a token bucket used to keep the requests sent to
+ * Netatmo API below the limits Netatmo enforces per user. Each request takes a
+ * token, tokens are given back at a constant rate up to the size of the bucket.
+ *
+ */
+public class RateLimiter {
+    private final int capacity;
+    private final long refillPeriod;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param capacity the maximum number of requests that may be sent in a burst
+     * @param requests the number of requests allowed within the period
+     * @param period the period in ms
+     */
+    public RateLimiter(int capacity, int requests, long period) {
+        this(capacity, requests, period, System.currentTimeMillis());
+    }
+
+    RateLimiter(int capacity, int requests, long period, long now) {
+        this.capacity = capacity;
+        this.refillPeriod = period / requests;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes a token if one is available
+     *
+     * @return true if the request may be sent
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.currentTimeMillis());
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens--;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / refillPeriod);
+            lastRefill = now;
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.service;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ReachabilityEngine} against local server sockets.
+ *
+ */
+public class ReachabilityEngineTest {
+
+    private static final String LOCALHOST = "127.0.0.1";
+
+    private final List<ServerSocket> servers = new ArrayList<ServerSocket>();
+    private final List<Socket> sockets = new ArrayList<Socket>();
+
+    @After
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        for (ServerSocket server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void reportsOpenAndClosedPorts() throws Exception {
+        ServerSocket server = openServer(50);
+        Result open = new Result();
+        ReachabilityEngine.getInstance().probe(LOCALHOST, server.getLocalPort(), 2000, false, false, open);
+        assertThat(open.await(), is(true));
+        assertThat(open.state >= 0, is(true));
+
+        int closedPort = closedPort();
+        Result closed = new Result();
+        ReachabilityEngine.getInstance().probe(LOCALHOST, closedPort, 2000, false, false, closed);
+        assertThat(closed.await(), is(true));
+        assertThat(closed.state, is(-1.0));
+    }
+
+    @Test
+    public void updatesDeviceStateWithCallback() throws Exception {
+        ServerSocket server = openServer(50);
+        Result open = new Result();
+        new NetworkService(LOCALHOST, server.getLocalPort(), 1, false, 60000, 2000, false).updateDeviceState(open);
+        assertThat(open.await(), is(true));
+        assertThat(open.state >= 0, is(true));
+
+        Result closed = new Result();
+        new NetworkService(LOCALHOST, closedPort(), 2, false, 60000, 2000, false).updateDeviceState(closed);
+        assertThat(closed.await(), is(true));
+        assertThat(closed.state, is(-1.0));
+        assertThat(closed.count, is(1));
+    }
+
+    @Test
+    public void failsPendingProbesAndProbesAgainAfterTheEngineFailed() throws Exception {
+        // a server which does not accept, with a full backlog, leaves further connects pending
+        ServerSocket silent = openServer(1);
+        for (int i = 0; i < 3; i++) {
+            Socket socket = new Socket();
+            sockets.add(socket);
+            try {
+                socket.connect(new InetSocketAddress(LOCALHOST, silent.getLocalPort()), 200);
+            } catch (IOException e) {
+                // the backlog is full
+            }
+        }
+
+        Result pending = new Result();
+        ReachabilityEngine.getInstance().probe(LOCALHOST, silent.getLocalPort(), 30000, false, false, pending);
+        assertThat(pending.await(500), is(false));
+
+        // the refresh throws on the engine thread and stops it
+        ReachabilityEngine.getInstance().scheduleRefresh(new NetworkService() {
+            @Override
+            public long getRefreshInterval() {
+                throw new IllegalStateException("engine failure for the test");
+            }
+        }, new Result());
+
+        assertThat(pending.await(), is(true));
+        assertThat(pending.state, is(-1.0));
+
+        ServerSocket server = openServer(50);
+        Result open = new Result();
+        ReachabilityEngine.getInstance().probe(LOCALHOST, server.getLocalPort(), 2000, false, false, open);
+        assertThat(open.await(), is(true));
+        assertThat(open.state >= 0, is(true));
+    }
+
+    private ServerSocket openServer(int backlog) throws IOException {
+        ServerSocket server = new ServerSocket(0, backlog, InetAddress.getByName(LOCALHOST));
+        servers.add(server);
+        return server;
+    }
+
+    private static int closedPort() throws IOException {
+        ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName(LOCALHOST));
+        int port = server.getLocalPort();
+        server.close();
+        return port;
+    }
+
+    private static class Result implements StateUpdate {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile double state;
+        private volatile int count;
+
+        @Override
+        public void newState(double state) {
+            this.state = state;
+            count++;
+            done.countDown();
+        }
+
+        @Override
+        public void invalidConfig() {
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return await(5000);
+        }
+
+        boolean await(long timeout) throws InterruptedException {
+            return done.await(timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -14,15 +14,15 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.smarthome.config.discovery.AbstractDiscoveryService;
 import org.eclipse.smarthome.config.discovery.DiscoveryResultBuilder;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.openhab.binding.network.service.DiscoveryCallback;
 import org.openhab.binding.network.service.NetworkUtils;
+import org.openhab.binding.network.service.ReachabilityEngine;
+import org.openhab.binding.network.service.StateUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,54 +34,65 @@ import org.slf4j.LoggerFactory;
  */
 public class NetworkDiscoveryService extends AbstractDiscoveryService implements DiscoveryCallback {
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
-    private ExecutorService executorService = null;
     static final int PING_TIMEOUT_IN_MS = 500;
-    private int scanningNetworkSize = 0;
+
+    /**
+     * Incremented with every started and stopped scan, results of older scans are ignored
+     */
+    private volatile int scanId = 0;
 
     public NetworkDiscoveryService() {
         super(SUPPORTED_THING_TYPES_UIDS, 900, false);
     }
 
     /**
-     * Starts the DiscoveryThread for each IP on each interface on the network
+     * Probes each IP on each interface on the network with the {@link ReachabilityEngine}, falling back to the system
+     * ping for addresses that don't answer otherwise
      *
      */
     @Override
     protected void startScan() {
-        if (executorService != null) {
-            stopScan();
-        }
+        final int currentScan = ++scanId;
 
         logger.debug("Starting Discovery");
         LinkedHashSet<String> networkIPs = NetworkUtils.getNetworkIPs(NetworkUtils.getInterfaceIPs());
-        scanningNetworkSize = networkIPs.size();
-        executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 10);
+        ReachabilityEngine engine = ReachabilityEngine.getInstance();
+        final AtomicInteger pendingProbes = new AtomicInteger(networkIPs.size());
 
         for (Iterator<String> it = networkIPs.iterator(); it.hasNext();) {
             final String ip = it.next();
-            executorService.execute(new PingRunnable(ip, this));
+            engine.probe(ip, 0, PING_TIMEOUT_IN_MS, false, true, new StateUpdate() {
+                @Override
+                public void newState(double state) {
+                    if (state >= 0 && currentScan == scanId) {
+                        newDevice(ip);
+                    }
+                    probeFinished();
+                }
+
+                @Override
+                public void invalidConfig() {
+                    probeFinished();
+                }
+
+                private void probeFinished() {
+                    if (pendingProbes.decrementAndGet() == 0 && currentScan == scanId) {
+                        logger.debug("Discovery finished");
+                        stopScan();
+                    }
+                }
+            });
         }
-        stopScan();
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
-        if (executorService == null) {
-            return;
-        }
-
-        try {
-            executorService.awaitTermination(PING_TIMEOUT_IN_MS * scanningNetworkSize, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-        }
-        executorService.shutdown();
-        executorService = null;
-
+        scanId++;
     }
 
     /**
-     * Submit newly discovered devices. This method is called by the spawned threads in {@link startScan}.
+     * Submit newly discovered devices. This method is called by the probes started in {@link startScan}.
      *
      * @param ip The device IP, received by the
      */
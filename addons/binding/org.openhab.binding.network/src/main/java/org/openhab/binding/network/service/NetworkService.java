@@ -8,16 +8,10 @@
  */
 package org.openhab.binding.network.service;
 
-import java.io.IOException;
 import java.net.InetAddress;
 import java.net.SocketException;
-import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
-import org.eclipse.smarthome.model.script.actions.Ping;
 import org.openhab.binding.network.service.dhcp.ReceiveDHCPRequestPackets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +26,7 @@ public class NetworkService {
 
     private Logger logger = LoggerFactory.getLogger(NetworkService.class);
 
-    private ScheduledFuture<?> refreshJob;
+    private ReachabilityEngine.Refresh refreshJob;
 
     private String hostname;
     private int port;
@@ -110,20 +104,8 @@ public class NetworkService {
         this.useSystemPing = useSystemPing;
     }
 
-    public void startAutomaticRefresh(ScheduledExecutorService scheduledExecutorService,
-            final StateUpdate stateUpdate) {
-        Runnable runnable = new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    stateUpdate.newState(updateDeviceState());
-                } catch (InvalidConfigurationException e) {
-                    stateUpdate.invalidConfig();
-                }
-            }
-        };
-
-        refreshJob = scheduledExecutorService.scheduleAtFixedRate(runnable, 0, refreshInterval, TimeUnit.MILLISECONDS);
+    public void startAutomaticRefresh(final StateUpdate stateUpdate) {
+        refreshJob = ReachabilityEngine.getInstance().scheduleRefresh(this, stateUpdate);
 
         if (dhcplisten) {
             try {
@@ -135,7 +117,7 @@ public class NetworkService {
     }
 
     public void stopAutomaticRefresh() {
-        refreshJob.cancel(true);
+        refreshJob.cancel();
         try {
             ReceiveDHCPRequestPackets.unregister(InetAddress.getByName(hostname).getHostAddress());
         } catch (UnknownHostException e) {
@@ -143,40 +125,13 @@ public class NetworkService {
     }
 
     /**
-     * Updates one device to a new status
+     * Updates one device to a new status. The {@link ReachabilityEngine} probes the device, retrying as configured, and
+     * passes the result to the callback.
+     *
+     * @param stateUpdate The callback for the result
      */
-    public double updateDeviceState() throws InvalidConfigurationException {
-        int currentTry = 0;
-        do {
-            boolean success;
-            double pingTime;
-
-            try {
-                pingTime = System.nanoTime();
-                if (!useSystemPing) {
-                    success = Ping.checkVitality(hostname, port, timeout);
-                } else {
-                    success = NetworkUtils.nativePing(hostname, port, timeout);
-                }
-                pingTime = System.nanoTime() - pingTime;
-                if (success) {
-                    logger.debug("established connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                    return pingTime / 1000000.0f;
-                }
-            } catch (SocketTimeoutException se) {
-                logger.debug("timed out while connecting to host '{}' port '{}' timeout '{}'",
-                        new Object[] { hostname, port, timeout });
-            } catch (IOException ioe) {
-                logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']",
-                        new Object[] { hostname, port, timeout });
-            } catch (InterruptedException e) {
-                logger.debug("ping program was interrupted");
-            }
-
-        } while (currentTry++ < this.retry);
-
-        return -1;
+    public void updateDeviceState(StateUpdate stateUpdate) {
+        ReachabilityEngine.getInstance().probe(this, stateUpdate);
     }
 
     @Override
@@ -0,0 +1,698 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.network.service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A reachability engine shared by all network things and the discovery. A single thread runs a selector for
+ * non-blocking TCP connects and a timing wheel that schedules the periodic refreshes and the connect timeouts.
+ *
+ * Probes for the same host (and port) that are requested while a probe is in flight are answered by that probe. Hosts
+ * without a port are knocked on the echo port: a connect or a refused connection both prove the host is up (like
+ * {@link InetAddress#isReachable(int)} does without ICMP privileges). If the knock is not answered within
+ * {@link #FALLBACK_GRACE_MS}, {@link InetAddress#isReachable(int)} and, if requested, the system ping process are
+ * started alongside it, so a host dropping the echo port does not cost two timeouts.
+ *
+ * These blocking fallbacks run on a dedicated executor of at most {@link #MAX_BLOCKING_FALLBACKS} threads, which never
+ * queues: if all of its threads are busy, a host is judged by its TCP probe alone. So silent hosts never hold up the
+ * probes of other hosts. Name lookups run on the {@link #BLOCKING_THREADPOOL_NAME} thread pool, the results are
+ * passed on on the {@link #THREADPOOL_NAME} thread pool.
+ */
+public class ReachabilityEngine {
+    private final Logger logger = LoggerFactory.getLogger(ReachabilityEngine.class);
+
+    /**
+     * The name of the thread pool running the callbacks
+     */
+    static final String THREADPOOL_NAME = "network";
+
+    /**
+     * The name of the thread pool running the name lookups
+     */
+    static final String BLOCKING_THREADPOOL_NAME = "networkProbe";
+
+    /**
+     * The maximum number of blocking fallbacks running at the same time
+     */
+    static final int MAX_BLOCKING_FALLBACKS = 16;
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 512;
+    private static final int MAX_PENDING_CONNECTS = 256;
+    private static final int KNOCK_PORT = 7;
+    private static final long FALLBACK_GRACE_MS = TICK_MS;
+
+    private static final ReachabilityEngine INSTANCE = new ReachabilityEngine();
+
+    private final ThreadPoolExecutor fallbackExecutor = createFallbackExecutor();
+
+    /**
+     * Actions to run on the engine thread
+     */
+    private final Queue<Runnable> pendingActions = new ConcurrentLinkedQueue<Runnable>();
+
+    // The following fields are only accessed from the engine thread
+    private final Map<String, Probe> probes = new HashMap<String, Probe>();
+    private final Queue<Probe> connectBacklog = new ArrayDeque<Probe>();
+    @SuppressWarnings("unchecked")
+    private final List<WheelTask>[] wheel = new List[WHEEL_SIZE];
+    private long currentTick;
+    private long lastTickNanos;
+    private int pendingConnects;
+    private int scheduledTasks;
+
+    private Selector selector;
+    private Thread thread;
+
+    private ReachabilityEngine() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayList<WheelTask>();
+        }
+    }
+
+    public static ReachabilityEngine getInstance() {
+        return INSTANCE;
+    }
+
+    private static ThreadPoolExecutor createFallbackExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_BLOCKING_FALLBACKS, MAX_BLOCKING_FALLBACKS, 60,
+                TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable,
+                                "Network reachability fallback " + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Probes the host once. The callback is called with the round trip time in ms or -1 if the host is not reachable.
+     * {@link StateUpdate#invalidConfig()} is called if the system ping is not supported on this platform.
+     *
+     * @param hostname The host name or address
+     * @param port The TCP port to connect to or 0 to check the host itself
+     * @param timeout The timeout in ms
+     * @param systemPing True to use the system ping process instead of connecting
+     * @param pingFallback True to fall back to the system ping process if a host without port does not answer
+     * @param callback The callback
+     */
+    public void probe(final String hostname, final int port, final int timeout, final boolean systemPing,
+            final boolean pingFallback, final StateUpdate callback) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                startProbe(hostname, port, timeout, systemPing, pingFallback, callback);
+            }
+        });
+    }
+
+    /**
+     * Probes the host of the service once, retrying a failed probe as configured.
+     *
+     * @param service The network service to probe
+     * @param stateUpdate The callback for the result
+     */
+    public void probe(NetworkService service, StateUpdate stateUpdate) {
+        final Refresh refresh = new Refresh(service, stateUpdate);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                refresh.probeWithRetry(0);
+            }
+        });
+    }
+
+    /**
+     * Probes the host of the service every refresh interval, retrying failed probes as configured, until the returned
+     * refresh is cancelled.
+     *
+     * @param service The network service to probe
+     * @param stateUpdate The callback for the results
+     * @return The refresh
+     */
+    public Refresh scheduleRefresh(NetworkService service, StateUpdate stateUpdate) {
+        final Refresh refresh = new Refresh(service, stateUpdate);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                refresh.run();
+            }
+        });
+        return refresh;
+    }
+
+    private synchronized void execute(Runnable action) {
+        pendingActions.add(action);
+        if (thread == null) {
+            try {
+                selector = Selector.open();
+            } catch (IOException e) {
+                logger.error("Cannot open the selector for the reachability engine: {}", e.getMessage());
+                pendingActions.clear();
+                return;
+            }
+            lastTickNanos = System.nanoTime();
+            thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    loop();
+                }
+            }, "Network reachability engine");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Stops the engine thread if there is nothing left to do
+     *
+     * @return True if the thread should stop
+     */
+    private synchronized boolean stopIfIdle() {
+        if (!pendingActions.isEmpty() || !probes.isEmpty() || scheduledTasks > 0) {
+            return false;
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.debug("Cannot close the selector: {}", e.getMessage());
+        }
+        selector = null;
+        thread = null;
+        return true;
+    }
+
+    private void loop() {
+        final Selector loopSelector;
+        synchronized (this) {
+            loopSelector = selector;
+        }
+        try {
+            while (true) {
+                Runnable action;
+                while ((action = pendingActions.poll()) != null) {
+                    action.run();
+                }
+
+                advanceWheel();
+
+                if (stopIfIdle()) {
+                    return;
+                }
+
+                long untilNextTick = TICK_MS - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastTickNanos);
+                loopSelector.select(Math.max(1, untilNextTick));
+
+                Iterator<SelectionKey> keys = loopSelector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isConnectable()) {
+                        finishConnect((Probe) key.attachment());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Reachability engine stopped: {}", e.getMessage(), e);
+            loopFailed(loopSelector);
+        }
+    }
+
+    /**
+     * Fails the probes in flight and starts a new engine thread for the refreshes and the actions still pending
+     */
+    private void loopFailed(Selector loopSelector) {
+        List<Probe> failed = new ArrayList<Probe>(probes.values());
+        probes.clear();
+        connectBacklog.clear();
+        pendingConnects = 0;
+        for (Probe probe : failed) {
+            cancelTasks(probe);
+            closeChannel(probe);
+            complete(probe, -1, false);
+        }
+        try {
+            loopSelector.close();
+        } catch (IOException e) {
+            logger.debug("Cannot close the selector: {}", e.getMessage());
+        }
+
+        boolean restart;
+        synchronized (this) {
+            thread = null;
+            selector = null;
+            restart = !pendingActions.isEmpty() || scheduledTasks > 0;
+        }
+        if (restart) {
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    // restarts the engine thread
+                }
+            });
+        }
+    }
+
+    private void advanceWheel() {
+        long now = System.nanoTime();
+        while (now - lastTickNanos >= TimeUnit.MILLISECONDS.toNanos(TICK_MS)) {
+            lastTickNanos += TimeUnit.MILLISECONDS.toNanos(TICK_MS);
+            currentTick++;
+
+            List<WheelTask> bucket = wheel[(int) (currentTick % WHEEL_SIZE)];
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<WheelTask> due = new ArrayList<WheelTask>();
+            for (Iterator<WheelTask> it = bucket.iterator(); it.hasNext();) {
+                WheelTask task = it.next();
+                if (task.tick <= currentTick) {
+                    it.remove();
+                    scheduledTasks--;
+                    due.add(task);
+                }
+            }
+            for (WheelTask task : due) {
+                if (!task.cancelled) {
+                    task.action.run();
+                }
+            }
+        }
+    }
+
+    private WheelTask schedule(long delayMs, Runnable action) {
+        long ticks = Math.max(1, (delayMs + TICK_MS - 1) / TICK_MS);
+        WheelTask task = new WheelTask(currentTick + ticks, action);
+        wheel[(int) (task.tick % WHEEL_SIZE)].add(task);
+        scheduledTasks++;
+        return task;
+    }
+
+    private void startProbe(String hostname, int port, int timeout, boolean systemPing, boolean pingFallback,
+            StateUpdate callback) {
+        String key = hostname + ":" + port + ":" + systemPing + ":" + pingFallback;
+        Probe probe = probes.get(key);
+        if (probe != null) {
+            probe.callbacks.add(callback);
+            return;
+        }
+
+        probe = new Probe(key, hostname, port, timeout, systemPing, pingFallback);
+        probe.callbacks.add(callback);
+        probes.put(key, probe);
+
+        if (systemPing) {
+            runBlockingFallback(probe, false);
+        } else if (pendingConnects < MAX_PENDING_CONNECTS) {
+            connect(probe);
+        } else {
+            connectBacklog.add(probe);
+        }
+    }
+
+    private void connect(final Probe probe) {
+        pendingConnects++;
+        probe.connecting = true;
+        probe.startNanos = System.nanoTime();
+        try {
+            InetAddress address = parseLiteralAddress(probe.hostname);
+            if (address == null) {
+                // Name lookups may block, resolve them on the pool before connecting
+                resolveAndConnect(probe);
+                return;
+            }
+            startConnect(probe, address);
+        } catch (IOException e) {
+            connectFailed(probe, e);
+        }
+    }
+
+    private void resolveAndConnect(final Probe probe) {
+        ThreadPoolManager.getPool(BLOCKING_THREADPOOL_NAME).execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final InetAddress address = InetAddress.getByName(probe.hostname);
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (probe.completed) {
+                                // failed while the engine was restarted
+                                return;
+                            }
+                            try {
+                                startConnect(probe, address);
+                            } catch (IOException e) {
+                                connectFailed(probe, e);
+                            }
+                        }
+                    });
+                } catch (final IOException e) {
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (!probe.completed) {
+                                connectFailed(probe, e);
+                            }
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void startConnect(final Probe probe, InetAddress address) throws IOException {
+        probe.channel = SocketChannel.open();
+        probe.channel.configureBlocking(false);
+        int port = probe.port > 0 ? probe.port : KNOCK_PORT;
+        if (probe.channel.connect(new InetSocketAddress(address, port))) {
+            connectFinished(probe, true);
+            return;
+        }
+        probe.channel.register(selector, SelectionKey.OP_CONNECT, probe);
+        probe.timeoutTask = schedule(probe.timeout, new Runnable() {
+            @Override
+            public void run() {
+                probe.timeoutTask = null;
+                connectFinished(probe, false);
+            }
+        });
+        if (probe.port == 0) {
+            probe.graceTask = schedule(FALLBACK_GRACE_MS, new Runnable() {
+                @Override
+                public void run() {
+                    probe.graceTask = null;
+                    runBlockingFallback(probe, true);
+                }
+            });
+        }
+    }
+
+    private void finishConnect(Probe probe) {
+        try {
+            connectFinished(probe, probe.channel.finishConnect());
+        } catch (IOException e) {
+            connectFailed(probe, e);
+        }
+    }
+
+    private void connectFailed(Probe probe, IOException e) {
+        // A refused connection proves that the host itself is up
+        boolean hostAnswered = probe.port == 0 && e instanceof ConnectException;
+        logger.trace("Connect to {} failed: {}", probe.key, e.getMessage());
+        connectFinished(probe, hostAnswered);
+    }
+
+    private void connectFinished(Probe probe, boolean reachable) {
+        cancelTasks(probe);
+        closeChannel(probe);
+
+        pendingConnects--;
+        Probe next;
+        while (pendingConnects < MAX_PENDING_CONNECTS && (next = connectBacklog.poll()) != null) {
+            connect(next);
+        }
+
+        probe.connecting = false;
+        if (reachable) {
+            complete(probe, (System.nanoTime() - probe.startNanos) / 1000000.0, false);
+        } else if (probe.port == 0 && !probe.fallbackRunning) {
+            if (probe.fallbackFailed) {
+                complete(probe, -1, false);
+            } else {
+                runBlockingFallback(probe, true);
+            }
+        } else if (probe.port != 0) {
+            complete(probe, -1, false);
+        }
+        // otherwise the running fallback decides
+    }
+
+    private void cancelTasks(Probe probe) {
+        if (probe.timeoutTask != null) {
+            probe.timeoutTask.cancelled = true;
+            probe.timeoutTask = null;
+        }
+        if (probe.graceTask != null) {
+            probe.graceTask.cancelled = true;
+            probe.graceTask = null;
+        }
+    }
+
+    private void closeChannel(Probe probe) {
+        if (probe.channel != null) {
+            try {
+                probe.channel.close();
+            } catch (IOException e) {
+                logger.trace("Cannot close the channel: {}", e.getMessage());
+            }
+            probe.channel = null;
+        }
+    }
+
+    /**
+     * Runs {@link InetAddress#isReachable(int)} (if requested) and the system ping on the fallback executor. For hosts
+     * without a port this may run while the knock is still pending, the first positive answer completes the probe. If
+     * all fallback threads are busy, the fallback counts as failed.
+     */
+    private void runBlockingFallback(final Probe probe, final boolean checkReachable) {
+        probe.fallbackRunning = true;
+        try {
+            fallbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    double latency = -1;
+                    boolean invalidConfig = false;
+                    long start = System.nanoTime();
+                    try {
+                        boolean success = false;
+                        if (checkReachable) {
+                            success = InetAddress.getByName(probe.hostname).isReachable(probe.timeout);
+                        }
+                        if (!success && (probe.systemPing || probe.pingFallback)) {
+                            success = NetworkUtils.nativePing(probe.hostname, probe.port, probe.timeout);
+                        }
+                        if (success) {
+                            latency = (System.nanoTime() - start) / 1000000.0;
+                        }
+                    } catch (InvalidConfigurationException e) {
+                        invalidConfig = probe.systemPing;
+                    } catch (IOException e) {
+                        logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']",
+                                new Object[] { probe.hostname, probe.port, probe.timeout });
+                    } catch (InterruptedException e) {
+                        logger.debug("ping program was interrupted");
+                        Thread.currentThread().interrupt();
+                    }
+
+                    final double result = latency;
+                    final boolean invalid = invalidConfig;
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            fallbackFinished(probe, result, invalid);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("All fallback threads are busy, judging {} by its TCP probe", probe.key);
+            probe.fallbackRunning = false;
+            probe.fallbackFailed = true;
+            if (!probe.connecting) {
+                complete(probe, -1, false);
+            }
+        }
+    }
+
+    private void fallbackFinished(Probe probe, double latency, boolean invalidConfig) {
+        probe.fallbackRunning = false;
+        if (latency < 0 && !invalidConfig && probe.connecting) {
+            // the knock may still be answered
+            probe.fallbackFailed = true;
+            return;
+        }
+        complete(probe, latency, invalidConfig);
+    }
+
+    private void complete(Probe probe, final double latency, final boolean invalidConfig) {
+        if (probe.completed) {
+            return;
+        }
+        probe.completed = true;
+        probes.remove(probe.key);
+        final List<StateUpdate> callbacks = probe.callbacks;
+        ThreadPoolManager.getPool(THREADPOOL_NAME).execute(new Runnable() {
+            @Override
+            public void run() {
+                for (StateUpdate callback : callbacks) {
+                    try {
+                        if (invalidConfig) {
+                            callback.invalidConfig();
+                        } else {
+                            callback.newState(latency);
+                        }
+                    } catch (RuntimeException e) {
+                        logger.error("Error processing reachability result: {}", e.getMessage(), e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Parses IPv4 and IPv6 literals without a name lookup
+     *
+     * @return The address or null if the host is not an address literal
+     */
+    private static InetAddress parseLiteralAddress(String hostname) throws IOException {
+        boolean ipv4 = !hostname.isEmpty();
+        for (int i = 0; i < hostname.length() && ipv4; i++) {
+            char c = hostname.charAt(i);
+            ipv4 = (c >= '0' && c <= '9') || c == '.';
+        }
+        if (ipv4 || hostname.indexOf(':') >= 0) {
+            return InetAddress.getByName(hostname);
+        }
+        return null;
+    }
+
+    /**
+     * A periodic refresh of a {@link NetworkService}
+     */
+    public class Refresh implements Runnable {
+        private final NetworkService service;
+        private final StateUpdate stateUpdate;
+        private volatile boolean cancelled;
+
+        private Refresh(NetworkService service, StateUpdate stateUpdate) {
+            this.service = service;
+            this.stateUpdate = stateUpdate;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Called on the engine thread when the refresh is due
+         */
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            schedule(service.getRefreshInterval(), this);
+            probeWithRetry(0);
+        }
+
+        /**
+         * Called on the engine thread
+         */
+        private void probeWithRetry(final int currentTry) {
+            startProbe(service.getHostname(), service.getPort(), service.getTimeout(), service.isUseSystemPing(), false,
+                    new StateUpdate() {
+                        @Override
+                        public void newState(double state) {
+                            if (cancelled) {
+                                return;
+                            }
+                            if (state < 0 && currentTry < service.getRetry()) {
+                                execute(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        probeWithRetry(currentTry + 1);
+                                    }
+                                });
+                            } else {
+                                stateUpdate.newState(state);
+                            }
+                        }
+
+                        @Override
+                        public void invalidConfig() {
+                            if (!cancelled) {
+                                stateUpdate.invalidConfig();
+                            }
+                        }
+                    });
+        }
+    }
+
+    private static class Probe {
+        private final String key;
+        private final String hostname;
+        private final int port;
+        private final int timeout;
+        private final boolean systemPing;
+        private final boolean pingFallback;
+        private final List<StateUpdate> callbacks = new ArrayList<StateUpdate>(1);
+        private long startNanos;
+        private SocketChannel channel;
+        private WheelTask timeoutTask;
+        private WheelTask graceTask;
+        private boolean connecting;
+        private boolean fallbackRunning;
+        private boolean fallbackFailed;
+        private boolean completed;
+
+        private Probe(String key, String hostname, int port, int timeout, boolean systemPing, boolean pingFallback) {
+            this.key = key;
+            this.hostname = hostname;
+            this.port = port;
+            this.timeout = timeout;
+            this.systemPing = systemPing;
+            this.pingFallback = pingFallback;
+        }
+    }
+
+    private static class WheelTask {
+        private final long tick;
+        private final Runnable action;
+        private boolean cancelled;
+
+        private WheelTask(long tick, Runnable action) {
+            this.tick = tick;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onkyo.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.onkyo.internal.eiscp.EiscpMessage;
+
+/**
+ * Tests how {@link OnkyoConnection} coalesces the commands waiting to be sent.
+ *
+ */
+public class OnkyoConnectionTest {
+
+    private ServerSocket serverSocket;
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private OnkyoConnection connection;
+
+    @Before
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Thread receiver = new Thread("Onkyo stub receiver") {
+            @Override
+            public void run() {
+                try (Socket socket = serverSocket.accept()) {
+                    DataInputStream stream = new DataInputStream(socket.getInputStream());
+                    while (true) {
+                        received.add(readCommand(stream));
+                    }
+                } catch (Exception e) {
+                    // the connection has been closed
+                }
+            }
+        };
+        receiver.setDaemon(true);
+        receiver.start();
+
+        connection = new OnkyoConnection(serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort());
+        connection.openConnection();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connection.closeConnection();
+        serverSocket.close();
+    }
+
+    /**
+     * Reads a packet the way a receiver does and returns its command and value, e.g. MVL20.
+     */
+    private static String readCommand(DataInputStream stream) throws IOException {
+        byte[] header = new byte[16];
+        stream.readFully(header);
+        assertThat(new String(header, 0, 4, StandardCharsets.US_ASCII), is("ISCP"));
+        byte[] data = new byte[ByteBuffer.wrap(header, 8, 4).getInt()];
+        stream.readFully(data);
+        // start character, unit type and command, terminated by CR
+        String message = new String(data, StandardCharsets.US_ASCII);
+        assertThat(message, startsWith("!1"));
+        assertThat(message, endsWith("\r"));
+        return message.substring(2, message.length() - 1);
+    }
+
+    private static Object getCoalescingKey(String command, String value) {
+        return OnkyoConnection.getCoalescingKey(new EiscpMessage.MessageBuilder().command(command).value(value).build());
+    }
+
+    @Test
+    public void absoluteValuesAndQueriesAreCoalesced() {
+        assertThat(getCoalescingKey("MVL", "1A"), is((Object) "MVL"));
+        assertThat(getCoalescingKey("MVL", "20"), is(getCoalescingKey("MVL", "1A")));
+        assertThat(getCoalescingKey("PWR", "01"), is((Object) "PWR"));
+        assertThat(getCoalescingKey("PWR", "QSTN"), is((Object) "PWRQSTN"));
+        assertThat(getCoalescingKey("PWR", "QSTN"), is(not(getCoalescingKey("PWR", "01"))));
+    }
+
+    @Test
+    public void relativeCommandsAreAlwaysSent() {
+        assertThat(getCoalescingKey("MVL", "UP"), is(nullValue()));
+        assertThat(getCoalescingKey("MVL", "DOWN"), is(nullValue()));
+        assertThat(getCoalescingKey("NTC", "01"), is(nullValue()));
+        assertThat(getCoalescingKey("NTC", "PLAY"), is(nullValue()));
+    }
+
+    @Test
+    public void absoluteVolumeIsSentAfterARelativeChangeQueuedBeforeIt() throws InterruptedException {
+        // the sending task connects the socket under the monitor of the connection, holding it keeps every command
+        // queued until all of them have been handed over
+        synchronized (connection) {
+            connection.send("PWR", "01");
+            connection.send("MVL", "1A");
+            connection.send("MVL", "UP");
+            connection.send("MVL", "20");
+        }
+
+        assertThat(received.poll(5, TimeUnit.SECONDS), is("PWR01"));
+        assertThat(received.poll(5, TimeUnit.SECONDS), is("MVLUP"));
+        assertThat(received.poll(5, TimeUnit.SECONDS), is("MVL20"));
+        // MVL1A has been replaced by MVL20
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    public void repeatedQueriesAreSentOnce() throws InterruptedException {
+        synchronized (connection) {
+            connection.send("PWR", "01");
+            connection.send("PWR", "QSTN");
+            connection.send("MVL", "QSTN");
+            connection.send("PWR", "QSTN");
+        }
+
+        assertThat(received.poll(5, TimeUnit.SECONDS), is("PWR01"));
+        assertThat(received.poll(5, TimeUnit.SECONDS), is("MVLQSTN"));
+        assertThat(received.poll(5, TimeUnit.SECONDS), is("PWRQSTN"));
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+}
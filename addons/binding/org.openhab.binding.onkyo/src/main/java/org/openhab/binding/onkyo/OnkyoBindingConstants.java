@@ -25,6 +25,9 @@ public class OnkyoBindingConstants {
 
     public static final String BINDING_ID = "onkyo";
 
+    // Thread pool writing the queued commands to the receivers
+    public static final String CONNECTION_THREADPOOL_NAME = "onkyoConnection";
+
     // List of all supported Onkyo Models
     public static final String ONKYO_TYPE_TXNR414 = "TX-NR414";
     public static final String ONKYO_TYPE_TXNR509 = "TX-NR509";
@@ -36,6 +36,7 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.io.transport.upnp.UpnpIOService;
 import org.openhab.binding.onkyo.internal.OnkyoAlbumArt;
+import org.openhab.binding.onkyo.internal.OnkyoAlbumArtDownloader;
 import org.openhab.binding.onkyo.internal.OnkyoConnection;
 import org.openhab.binding.onkyo.internal.OnkyoEventListener;
 import org.openhab.binding.onkyo.internal.ServiceType;
@@ -69,6 +70,12 @@ public class OnkyoHandler extends UpnpAudioSinkHandler implements OnkyoEventList
 
     private OnkyoAlbumArt onkyoAlbumArt = new OnkyoAlbumArt();
 
+    /**
+     * Counts the album arts received, a download is only passed on if no album art has been received since it was
+     * requested. Only written by the thread reading from the receiver.
+     */
+    private volatile int albumArtCount;
+
     private final int NET_USB_ID = 43;
 
     public OnkyoHandler(Thing thing, UpnpIOService upnpIOService, AudioHTTPServer audioHTTPServer, String callbackUrl) {
@@ -527,15 +534,28 @@ public class OnkyoHandler extends UpnpAudioSinkHandler implements OnkyoEventList
         onkyoAlbumArt.addFrame(data);
 
         if (onkyoAlbumArt.isAlbumCoverReady()) {
-            try {
-                byte[] imgData = onkyoAlbumArt.getAlbumArt();
-                if (imgData != null && imgData.length > 0) {
-                    updateState(CHANNEL_ALBUM_ART, new RawType(imgData));
-                } else {
+            final String url = onkyoAlbumArt.getAlbumArtUrl();
+            final int count = ++albumArtCount;
+            if (url != null) {
+                // download the image without blocking the connection to the receiver. The receiver provides the album
+                // art of every track under the same URL, so it's downloaded again for every track.
+                OnkyoAlbumArtDownloader.getInstance().get(url).whenComplete((imgData, exception) -> {
+                    if (count != albumArtCount) {
+                        // the album art has changed again while the image was downloaded
+                        return;
+                    }
+                    if (exception != null) {
+                        logger.warn("Album Art download failed from url '{}', reason {}", url,
+                                exception.getMessage());
+                    }
+                    updateAlbumArtState(imgData);
+                });
+            } else {
+                try {
+                    updateAlbumArtState(onkyoAlbumArt.getAlbumArt());
+                } catch (IllegalArgumentException e) {
                     updateState(CHANNEL_ALBUM_ART, UnDefType.UNDEF);
                 }
-            } catch (IllegalArgumentException e) {
-                updateState(CHANNEL_ALBUM_ART, UnDefType.UNDEF);
             }
             onkyoAlbumArt.clearAlbumArt();
         }
@@ -551,6 +571,14 @@ public class OnkyoHandler extends UpnpAudioSinkHandler implements OnkyoEventList
 
     }
 
+    private void updateAlbumArtState(byte[] imgData) {
+        if (imgData != null && imgData.length > 0) {
+            updateState(CHANNEL_ALBUM_ART, new RawType(imgData));
+        } else {
+            updateState(CHANNEL_ALBUM_ART, UnDefType.UNDEF);
+        }
+    }
+
     private void updateNetTitle(String data) {
         // first 2 characters is service type
         int type = Integer.parseInt(data.substring(0, 2), 16);
@@ -8,16 +8,8 @@
  */
 package org.openhab.binding.onkyo.internal;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.Arrays;
-
 import javax.xml.bind.DatatypeConverter;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -138,6 +130,22 @@ public class OnkyoAlbumArt {
         }
     }
 
+    /**
+     * Returns the URL of the album art, if the receiver has provided the album art as URL.
+     *
+     * @return the URL or null, if the album art is not ready or has been provided as image data
+     */
+    public String getAlbumArtUrl() {
+        return state == State.READY && imageType == ImageType.URL ? coverArtUrl : null;
+    }
+
+    /**
+     * Returns the album art, if the receiver has provided it as image data. Album art provided as URL has to be
+     * downloaded with the {@link OnkyoAlbumArtDownloader}.
+     *
+     * @return the image data or null, if the album art is not available as image data
+     * @throws IllegalArgumentException if the album art is not ready
+     */
     public byte[] getAlbumArt() throws IllegalArgumentException {
         byte[] data = null;
 
@@ -147,24 +155,6 @@ public class OnkyoAlbumArt {
                 case JPEG:
                     data = DatatypeConverter.parseHexBinary(albumArtStringBuilder.toString());
                     break;
-                case URL:
-                    data = downloadAlbumArt(coverArtUrl);
-                    //Workaround firmware bug providing incorrect headers causing them to be seen as body instead.
-                    if (data != null) {
-                        int bodyLength = data.length;
-                        int i = new String(data).indexOf("image/");
-                        if (i > 0) {
-                            while (i < bodyLength && data[i] != '\r') {
-                                i++;
-                            }
-                            while (i < bodyLength && (data[i] == '\r' || data[i] == '\n')) {
-                                i++;
-                            }
-                            data = Arrays.copyOfRange(data, i, bodyLength);
-                            logger.trace("Onkyo fixed picture data @ {}: {} ", i, new String(data));
-                        }
-                    }
-                    break;
                 case NONE:
                 default:
             }
@@ -174,25 +164,6 @@ public class OnkyoAlbumArt {
         throw new IllegalArgumentException("Illegal Album Art");
     }
 
-    private byte[] downloadAlbumArt(String albumArtUrl) {
-        try {
-            URL url = new URL(albumArtUrl);
-            URLConnection connection = url.openConnection();
-            InputStream inputStream = connection.getInputStream();
-            try {
-                return IOUtils.toByteArray(inputStream);
-            } finally {
-                IOUtils.closeQuietly(inputStream);
-            }
-        } catch (MalformedURLException e) {
-            logger.warn("Album Art download failed from url '{}', reason {}", albumArtUrl, e.getMessage());
-        } catch (IOException e) {
-            logger.warn("Album Art download failed from url '{}', reason {}", albumArtUrl, e.getMessage());
-        }
-
-        return null;
-    }
-
     private ImageType getImageType(char imgType) {
         ImageType it = ImageType.UNKNOWN;
         switch (imgType) {
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onkyo.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link OnkyoAlbumArtDownloader} downloads the album art the receivers provide as URL. Downloads run on the
+ * {@link #THREADPOOL_NAME} thread pool, so they never block the thread reading from the receiver.
+ *
+ * The receivers provide the album art of every track under the same URL, so images are not cached. At most one
+ * download per URL runs at a time: requests made while a download is running share a single download, which is
+ * started once the running one has finished, so they always get the image of the current track.
+ *
+ */
+public class OnkyoAlbumArtDownloader {
+
+    /**
+     * The name of the thread pool the images are downloaded on
+     */
+    public static final String THREADPOOL_NAME = "onkyo";
+
+    /**
+     * Timeout (in ms) for connecting to and reading from the receiver
+     */
+    private static final int TIMEOUT = 5000;
+
+    private static final OnkyoAlbumArtDownloader INSTANCE = new OnkyoAlbumArtDownloader(
+            ThreadPoolManager.getPool(THREADPOOL_NAME));
+
+    private final Logger logger = LoggerFactory.getLogger(OnkyoAlbumArtDownloader.class);
+
+    private final Executor executor;
+
+    /**
+     * The downloads by their URL, guarded by itself
+     */
+    private final Map<String, Downloads> downloads = new HashMap<>();
+
+    OnkyoAlbumArtDownloader(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the downloader shared by all receivers.
+     */
+    public static OnkyoAlbumArtDownloader getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Downloads the image of the given URL. If a download of the URL is running, the image is downloaded again once it
+     * has finished.
+     *
+     * @param url the URL of the image
+     * @return a future which is completed with the image data by the thread which downloaded it. It fails, if the image
+     *         can not be downloaded.
+     */
+    public CompletableFuture<byte[]> get(String url) {
+        synchronized (downloads) {
+            Downloads running = downloads.get(url);
+            if (running != null) {
+                if (running.next == null) {
+                    running.next = new CompletableFuture<>();
+                } else {
+                    logger.trace("Album art {} will be downloaded again already", url);
+                }
+                return running.next;
+            }
+
+            Downloads started = new Downloads();
+            started.current = new CompletableFuture<>();
+            downloads.put(url, started);
+            start(url, started);
+            return started.current;
+        }
+    }
+
+    /**
+     * Submits the current download. Must be called while holding the {@link #downloads} lock.
+     */
+    private void start(final String url, final Downloads started) {
+        final CompletableFuture<byte[]> download = started.current;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        download.complete(download(url));
+                    } catch (Exception e) {
+                        download.completeExceptionally(e);
+                    } finally {
+                        finished(url, started);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            download.completeExceptionally(e);
+            if (started.next != null) {
+                started.next.completeExceptionally(e);
+            }
+            downloads.remove(url);
+        }
+    }
+
+    private void finished(String url, Downloads finished) {
+        synchronized (downloads) {
+            if (finished.next != null) {
+                finished.current = finished.next;
+                finished.next = null;
+                start(url, finished);
+            } else {
+                downloads.remove(url);
+            }
+        }
+    }
+
+    private byte[] download(String albumArtUrl) throws IOException {
+        URLConnection connection = new URL(albumArtUrl).openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        byte[] data;
+        try (InputStream inputStream = connection.getInputStream()) {
+            data = IOUtils.toByteArray(inputStream);
+        }
+
+        // Workaround firmware bug providing incorrect headers causing them to be seen as body instead.
+        int bodyLength = data.length;
+        int i = new String(data).indexOf("image/");
+        if (i > 0) {
+            while (i < bodyLength && data[i] != '\r') {
+                i++;
+            }
+            while (i < bodyLength && (data[i] == '\r' || data[i] == '\n')) {
+                i++;
+            }
+            data = Arrays.copyOfRange(data, i, bodyLength);
+            logger.trace("Onkyo fixed picture data @ {}: {} ", i, new String(data));
+        }
+        return data;
+    }
+
+    /**
+     * The running download of a URL and the download requested while it is running
+     */
+    private static class Downloads {
+        private CompletableFuture<byte[]> current;
+        private CompletableFuture<byte[]> next;
+    }
+}
@@ -15,15 +15,22 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.onkyo.OnkyoBindingConstants;
 import org.openhab.binding.onkyo.internal.eiscp.EiscpCommand;
 import org.openhab.binding.onkyo.internal.eiscp.EiscpException;
 import org.openhab.binding.onkyo.internal.eiscp.EiscpMessage;
@@ -34,6 +41,11 @@ import org.slf4j.LoggerFactory;
 /**
  * This class open a TCP/IP connection to the Onkyo device and send a command.
  *
+ * Commands are queued and written by a task on the {@link OnkyoBindingConstants#CONNECTION_THREADPOOL_NAME} thread
+ * pool, so callers never wait for the receiver. While a command is still queued, a later command of the same type
+ * replaces it and moves to the end of the queue (e.g. only the last of many volume changes is sent, after any relative
+ * changes queued before it) and repeated queries are sent only once.
+ *
  * @author Pauli Anttila
  */
 public class OnkyoConnection {
@@ -66,10 +78,18 @@ public class OnkyoConnection {
     private DataOutputStream outStream = null;
     private DataInputStream inStream = null;
     private boolean connected = false;
-    private List<OnkyoEventListener> listeners = new ArrayList<OnkyoEventListener>();
+    private List<OnkyoEventListener> listeners = new CopyOnWriteArrayList<OnkyoEventListener>();
     private int retryCount = 1;
     private ConnectionSupervisor connectionSupervisor = null;
 
+    /** Commands waiting to be sent, by their coalescing key **/
+    private final Map<Object, EiscpMessage> sendQueue = new LinkedHashMap<Object, EiscpMessage>();
+    private boolean sending = false;
+    private volatile boolean closed = false;
+
+    /** Buffer the packets are framed into, only used by the sending task **/
+    private ByteBuffer sendBuffer = null;
+
     public OnkyoConnection(String ip) {
         this.ip = ip;
         this.port = DEFAULT_EISCP_PORT;
@@ -85,6 +105,7 @@ public class OnkyoConnection {
      *
      **/
     public void openConnection() {
+        closed = false;
         connectSocket();
     }
 
@@ -93,6 +114,10 @@ public class OnkyoConnection {
      *
      **/
     public void closeConnection() {
+        closed = true;
+        synchronized (sendQueue) {
+            sendQueue.clear();
+        }
         closeSocket();
     }
 
@@ -113,18 +138,97 @@ public class OnkyoConnection {
     }
 
     /**
-     * Sends a command to Onkyo device.
+     * Queues a command to be sent to the Onkyo device.
      *
      * @param cmd eISCP command to send
      */
     public void send(final String cmd, final String value) {
+        queueCommand(new EiscpMessage.MessageBuilder().command(cmd).value(value).build());
+    }
+
+    private void queueCommand(EiscpMessage msg) {
+        if (closed) {
+            logger.debug("Connection to {}:{} is closed, dropping command {}", ip, port, msg);
+            return;
+        }
+
+        synchronized (sendQueue) {
+            Object key = getCoalescingKey(msg);
+            // remove first, so the command takes its place behind the commands queued after the one it replaces
+            EiscpMessage replaced = key != null ? sendQueue.remove(key) : null;
+            sendQueue.put(key != null ? key : new Object(), msg);
+            if (replaced != null) {
+                logger.trace("Command {} replaces queued command {}", msg, replaced);
+            }
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
 
         try {
-            sendCommand(new EiscpMessage.MessageBuilder().command(cmd).value(value).build());
-        } catch (Exception e) {
-            logger.error("Could not send command to device on {}: {}", ip + ":" + port, e);
+            ThreadPoolManager.getPool(OnkyoBindingConstants.CONNECTION_THREADPOOL_NAME).execute(new Runnable() {
+                @Override
+                public void run() {
+                    sendQueuedCommands();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Could not send command to device on {}:{}: {}", ip, port, e.getMessage());
+            synchronized (sendQueue) {
+                sendQueue.clear();
+                sending = false;
+            }
         }
+    }
 
+    /**
+     * Returns the key of queued commands the given command can replace, null if it must be sent as it is.
+     *
+     * Commands setting an absolute value (two hex digits, e.g. MVL1A or PWR01) replace queued commands of the same
+     * type and identical queries replace each other. Relative commands like MVLUP and the network/USB key commands
+     * are always sent.
+     **/
+    static Object getCoalescingKey(EiscpMessage msg) {
+        String command = msg.getCommand();
+        String value = msg.getValue();
+        if (value.equals("QSTN") || value.equals("REQ")) {
+            return command + value;
+        }
+        if (!command.equals("NTC") && value.length() == 2 && isHexDigit(value.charAt(0))
+                && isHexDigit(value.charAt(1))) {
+            return command;
+        }
+        return null;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Sends the queued commands until the queue is empty.
+     */
+    private void sendQueuedCommands() {
+        while (true) {
+            EiscpMessage msg;
+            synchronized (sendQueue) {
+                Iterator<EiscpMessage> iterator = sendQueue.values().iterator();
+                if (closed || !iterator.hasNext()) {
+                    sendQueue.clear();
+                    sending = false;
+                    return;
+                }
+                msg = iterator.next();
+                iterator.remove();
+            }
+
+            try {
+                sendCommand(msg);
+            } catch (Exception e) {
+                logger.error("Could not send command to device on {}: {}", ip + ":" + port, e);
+            }
+        }
     }
 
     private void sendCommand(EiscpMessage msg) {
@@ -143,13 +247,13 @@ public class OnkyoConnection {
         if (connectSocket()) {
             try {
 
-                String data = EiscpProtocol.createEiscpPdu(msg);
+                sendBuffer = EiscpProtocol.createEiscpPdu(msg, sendBuffer);
                 if (logger.isTraceEnabled()) {
-                    logger.trace("Sending {} bytes: {}", data.length(),
-                            DatatypeConverter.printHexBinary(data.toString().getBytes()));
+                    logger.trace("Sending {} bytes: {}", sendBuffer.limit(), DatatypeConverter
+                            .printHexBinary(Arrays.copyOf(sendBuffer.array(), sendBuffer.limit())));
                 }
 
-                outStream.writeBytes(data);
+                outStream.write(sendBuffer.array(), 0, sendBuffer.limit());
                 outStream.flush();
             } catch (IOException ioException) {
                 logger.error("Error occurred when sending command: {}", ioException.getMessage());
@@ -157,7 +261,7 @@ public class OnkyoConnection {
                 if (retry > 0) {
                     logger.debug("Retry {}...", retry);
                     closeSocket();
-                    sendCommand(msg, retry--);
+                    sendCommand(msg, retry - 1);
                 } else {
                     sendConnectionErrorEvent();
                 }
@@ -339,8 +443,7 @@ public class OnkyoConnection {
                         connected = false;
                         connectSocket();
                         logger.debug("Test connection to {}:{}", ip, port);
-                        sendCommand(new EiscpMessage.MessageBuilder().command(EiscpCommand.POWER_QUERY.getCommand())
-                                .value(EiscpCommand.POWER_QUERY.getValue()).build());
+                        send(EiscpCommand.POWER_QUERY.getCommand(), EiscpCommand.POWER_QUERY.getValue());
 
                     } catch (Exception ex) {
                         logger.error("Reconnection invoking error: {}", ex.getMessage());
@@ -378,37 +481,30 @@ public class OnkyoConnection {
             @Override
             public void run() {
                 logger.debug("Test connection to {}:{}", ip, port);
-                sendCommand(new EiscpMessage.MessageBuilder().command(EiscpCommand.POWER_QUERY.getCommand())
-                        .value(EiscpCommand.POWER_QUERY.getValue()).build());
+                send(EiscpCommand.POWER_QUERY.getCommand(), EiscpCommand.POWER_QUERY.getValue());
             }
         }
     }
 
     private void sendConnectionErrorEvent() {
-        // send message to event listeners
-        try {
-            Iterator<OnkyoEventListener> iterator = listeners.iterator();
-
-            while (iterator.hasNext()) {
-                iterator.next().connectionError(ip);
+        // send message to event listeners, the list is copied on write so it is safe to iterate without locking
+        for (OnkyoEventListener listener : listeners) {
+            try {
+                listener.connectionError(ip);
+            } catch (Exception ex) {
+                logger.debug("Event listener invoking error: {}", ex.getMessage());
             }
-
-        } catch (Exception ex) {
-            logger.debug("Event listener invoking error: {}", ex.getMessage());
         }
     }
 
     private void sendMessageEvent(EiscpMessage message) {
-        // send message to event listeners
-        try {
-            Iterator<OnkyoEventListener> iterator = listeners.iterator();
-
-            while (iterator.hasNext()) {
-                iterator.next().statusUpdateReceived(ip, message);
+        // send message to event listeners, the list is copied on write so it is safe to iterate without locking
+        for (OnkyoEventListener listener : listeners) {
+            try {
+                listener.statusUpdateReceived(ip, message);
+            } catch (Exception e) {
+                logger.error("Event listener invoking error: {}", e.getMessage());
             }
-
-        } catch (Exception e) {
-            logger.error("Event listener invoking error: {}", e.getMessage());
         }
     }
 }
\ No newline at end of file
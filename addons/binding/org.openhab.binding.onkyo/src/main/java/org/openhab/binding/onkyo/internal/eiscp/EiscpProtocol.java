@@ -10,6 +10,8 @@ package org.openhab.binding.onkyo.internal.eiscp;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import javax.xml.bind.DatatypeConverter;
@@ -89,6 +91,57 @@ public class EiscpProtocol {
         return sb.toString();
     }
 
+    /**
+     * Wraps a command in a eISCP data message and writes the packet into the given buffer, so the buffer can be
+     * reused for every packet sent.
+     *
+     * @param msg
+     *            eISCP command.
+     * @param buffer
+     *            the buffer to write the packet to, null to allocate a new one
+     * @return the given buffer or a new one, if the packet does not fit into it, flipped for reading the packet
+     **/
+    public static ByteBuffer createEiscpPdu(EiscpMessage msg, ByteBuffer buffer) {
+        String command = msg.getCommand();
+        String value = msg.getValue();
+        int eiscpDataSize = 2 + command.length() + value.length() + 1; // this is the eISCP data size
+        int packetSize = 16 + eiscpDataSize;
+
+        ByteBuffer packet = buffer;
+        if (packet == null || packet.capacity() < packetSize) {
+            packet = ByteBuffer.allocate(Math.max(packetSize, 64));
+        }
+        packet.clear();
+
+        // header: "ISCP", header size, data size, version and 3 reserved bytes
+        packet.put((byte) 'I').put((byte) 'S').put((byte) 'C').put((byte) 'P');
+        packet.putInt(16);
+        packet.putInt(eiscpDataSize);
+        packet.put((byte) 0x01);
+        packet.put((byte) 0x00).put((byte) 0x00).put((byte) 0x00);
+
+        // eISCP data: start character, unit type char '1' is receiver, command and param ie PWR01, EOF
+        packet.put((byte) '!').put((byte) '1');
+        putChars(packet, command);
+        putChars(packet, value);
+        packet.put((byte) 0x0D);
+        packet.flip();
+
+        if (logger.isTraceEnabled()) {
+            String d = new String(packet.array(), 0, packet.limit(), StandardCharsets.ISO_8859_1);
+            logger.trace("Created eISCP message: {} -> {}", DatatypeConverter.printHexBinary(d.getBytes()),
+                    toPrintable(d));
+        }
+
+        return packet;
+    }
+
+    private static void putChars(ByteBuffer buffer, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            buffer.put((byte) chars.charAt(i));
+        }
+    }
+
     /**
      * Method to read eISCP message from input stream.
      *
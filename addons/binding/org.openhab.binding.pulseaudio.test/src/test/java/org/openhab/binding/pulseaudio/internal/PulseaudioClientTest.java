@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.pulseaudio.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link PulseaudioClient} against a stub of the pulseaudio CLI server.
+ *
+ */
+public class PulseaudioClientTest {
+
+    private static final String END_OF_ANSWER = "openhab-end-of-answer";
+
+    private static final String MODULES = "1 module(s) loaded.\n    index: 4\n\tname: <module-alsa-card>\n"
+            + "\targument: <device_id=\"0\">\n";
+
+    private CliServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new CliServer();
+        server.answers.put("list-modules", MODULES);
+        server.answers.put("list-sinks", sinks("speakers", "RUNNING"));
+        server.answers.put("list-sources", "0 source(s) available.\n");
+        server.answers.put("list-sink-inputs", "0 sink input(s) available.\n");
+        server.answers.put("list-source-outputs", "0 source output(s) available.\n");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void updateRequestsAllListsInOneBatch() throws IOException {
+        PulseaudioClient client = new PulseaudioClient("127.0.0.1", server.getPort());
+        assertThat(client.isConnected(), is(true));
+        assertThat(server.commands, is(list("list-modules", "list-sinks", "list-sources", "list-sink-inputs",
+                "list-source-outputs")));
+        assertThat(client.getSink("speakers").getState().toString(), is("RUNNING"));
+        assertThat(client.getSink("speakers").getModule().getPaName(), is("module-alsa-card"));
+        assertThat(client.getItems().size(), is(1));
+
+        server.answers.put("list-sinks", sinks("speakers", "IDLE"));
+        assertThat(client.update(), is(true));
+        assertThat(client.getSink("speakers").getState().toString(), is("IDLE"));
+        // the connection is kept open
+        assertThat(server.connections.get(), is(1));
+        assertThat(server.commands.size(), is(10));
+        client.disconnect();
+    }
+
+    @Test
+    public void failedUpdateKeepsTheLastItemsAndReconnects() throws IOException {
+        PulseaudioClient client = new PulseaudioClient("127.0.0.1", server.getPort());
+        assertThat(client.getSink("speakers"), is(notNullValue()));
+
+        // the server closes the connection in the middle of the batch
+        server.closeOn = "list-sources";
+        assertThat(client.update(), is(false));
+        assertThat(client.getSink("speakers"), is(notNullValue()));
+        assertThat(client.getItems().size(), is(1));
+
+        // the next update starts with a new connection, not with the rest of the broken answer
+        server.closeOn = null;
+        server.answers.put("list-sinks", sinks("headphones", "IDLE"));
+        assertThat(client.update(), is(true));
+        assertThat(server.connections.get(), is(2));
+        assertThat(client.getSink("speakers"), is(nullValue()));
+        assertThat(client.getSink("headphones"), is(notNullValue()));
+        client.disconnect();
+    }
+
+    @Test
+    public void timedOutUpdateKeepsTheLastItems() throws IOException {
+        PulseaudioClient client = new PulseaudioClient("127.0.0.1", server.getPort());
+
+        // the server doesn't answer within the read timeout
+        server.silentOn = "list-sink-inputs";
+        assertThat(client.update(), is(false));
+        assertThat(client.getSink("speakers"), is(notNullValue()));
+
+        server.silentOn = null;
+        assertThat(client.update(), is(true));
+        assertThat(server.connections.get(), is(2));
+        assertThat(client.getSink("speakers"), is(notNullValue()));
+        client.disconnect();
+    }
+
+    @Test
+    public void failedConnectIsReported() throws IOException {
+        server.silentOn = END_OF_ANSWER;
+        try {
+            new PulseaudioClient("127.0.0.1", server.getPort());
+            fail("the welcome message was never completed");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static String sinks(String name, String state) {
+        return "1 sink(s) available.\n  * index: 0\n\tname: <" + name + ">\n\tdriver: <module-alsa-card.c>\n"
+                + "\tstate: " + state + "\n\tmodule: 4\n\tmuted: no\n";
+    }
+
+    private static List<String> list(String... values) {
+        List<String> list = new ArrayList<String>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * Answers the commands like the pulseaudio CLI: the answer to a command, the error message for unknown commands.
+     */
+    private static class CliServer implements Runnable {
+        private final ServerSocket serverSocket;
+        private final Map<String, String> answers = new ConcurrentHashMap<String, String>();
+        private final List<String> commands = Collections.synchronizedList(new ArrayList<String>());
+        private final AtomicInteger connections = new AtomicInteger();
+        // the connection is closed when this command is received
+        private volatile String closeOn;
+        // the connection is not answered anymore when this command is received
+        private volatile String silentOn;
+
+        CliServer() throws IOException {
+            serverSocket = new ServerSocket(0, 5, InetAddress.getByName("127.0.0.1"));
+            Thread thread = new Thread(this, "Pulseaudio CLI stub");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    serve(socket);
+                } catch (IOException e) {
+                    // the client went away or the server is closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) throws IOException {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write("Welcome to PulseAudio! Use \"help\" for usage information.\n>>> ");
+            writer.flush();
+            String line;
+            boolean silent = false;
+            while ((line = reader.readLine()) != null) {
+                if (line.equals(closeOn)) {
+                    return;
+                }
+                // stalls from this command on
+                silent |= line.equals(silentOn);
+                if (silent) {
+                    continue;
+                }
+                if (!line.equals(END_OF_ANSWER)) {
+                    commands.add(line);
+                }
+                String answer = answers.get(line);
+                writer.write(answer != null ? answer : "Unknown command: " + line + "\n");
+                writer.write(">>> ");
+                writer.flush();
+            }
+        }
+    }
+}
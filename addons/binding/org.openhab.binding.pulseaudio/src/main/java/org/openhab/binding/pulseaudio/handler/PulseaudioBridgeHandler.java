@@ -13,13 +13,14 @@ import static org.openhab.binding.pulseaudio.PulseaudioBindingConstants.*;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
@@ -31,6 +32,8 @@ import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.pulseaudio.PulseaudioBindingConstants;
 import org.openhab.binding.pulseaudio.internal.PulseaudioClient;
 import org.openhab.binding.pulseaudio.internal.items.AbstractAudioDeviceConfig;
+import org.openhab.binding.pulseaudio.internal.items.Sink;
+import org.openhab.binding.pulseaudio.internal.items.SinkInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,38 +57,22 @@ public class PulseaudioBridgeHandler extends BaseBridgeHandler {
 
     private PulseaudioClient client;
 
-    private HashSet<String> lastActiveDevices = new HashSet<String>();
+    /**
+     * The devices as they have been passed to the listeners the last time, by their type and name
+     */
+    private Map<String, AbstractAudioDeviceConfig> lastActiveDevices = new HashMap<String, AbstractAudioDeviceConfig>();
 
     private ScheduledFuture<?> pollingJob;
     private Runnable pollingRunnable = new Runnable() {
         @Override
         public void run() {
-            client.update();
-            for (AbstractAudioDeviceConfig device : client.getItems()) {
-                if (lastActiveDevices != null && lastActiveDevices.contains(device.getPaName())) {
-                    for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
-                        try {
-                            deviceStatusListener.onDeviceStateChanged(getThing().getUID(), device);
-                        } catch (Exception e) {
-                            logger.error("An exception occurred while calling the DeviceStatusListener", e);
-                        }
-                    }
-                } else {
-                    for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
-                        try {
-                            deviceStatusListener.onDeviceAdded(getThing(), device);
-                            deviceStatusListener.onDeviceStateChanged(getThing().getUID(), device);
-                        } catch (Exception e) {
-                            logger.error("An exception occurred while calling the DeviceStatusListener", e);
-                        }
-                        lastActiveDevices.add(device.getPaName());
-                    }
-                }
+            if (client.update()) {
+                notifyChangedDevices();
             }
         }
     };
 
-    private List<DeviceStatusListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<DeviceStatusListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
 
     public PulseaudioBridgeHandler(Bridge bridge) {
         super(bridge);
@@ -94,12 +81,81 @@ public class PulseaudioBridgeHandler extends BaseBridgeHandler {
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command instanceof RefreshType) {
-            client.update();
+            if (client.update()) {
+                notifyChangedDevices();
+            }
         } else {
             logger.warn("received invalid command for pulseaudio bridge '{}'.", host);
         }
     }
 
+    /**
+     * Compares the devices of the client with the devices passed to the listeners the last time and only notifies the
+     * listeners about added, changed and removed devices.
+     */
+    private synchronized void notifyChangedDevices() {
+        Map<String, AbstractAudioDeviceConfig> activeDevices = new HashMap<String, AbstractAudioDeviceConfig>();
+        for (AbstractAudioDeviceConfig device : client.getItems()) {
+            String key = getDeviceKey(device);
+            activeDevices.put(key, device);
+            AbstractAudioDeviceConfig lastDevice = lastActiveDevices.get(key);
+            if (lastDevice == null) {
+                for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
+                    try {
+                        deviceStatusListener.onDeviceAdded(getThing(), device);
+                        deviceStatusListener.onDeviceStateChanged(getThing().getUID(), device);
+                    } catch (Exception e) {
+                        logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                    }
+                }
+            } else if (hasStateChanged(lastDevice, device)) {
+                for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
+                    try {
+                        deviceStatusListener.onDeviceStateChanged(getThing().getUID(), device);
+                    } catch (Exception e) {
+                        logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, AbstractAudioDeviceConfig> lastDevice : lastActiveDevices.entrySet()) {
+            if (!activeDevices.containsKey(lastDevice.getKey())) {
+                for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
+                    try {
+                        deviceStatusListener.onDeviceRemoved(this, lastDevice.getValue());
+                    } catch (Exception e) {
+                        logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                    }
+                }
+            }
+        }
+        lastActiveDevices = activeDevices;
+    }
+
+    private static String getDeviceKey(AbstractAudioDeviceConfig device) {
+        return device.getClass().getSimpleName() + ":" + device.getPaName();
+    }
+
+    /**
+     * Checks if any of the properties published to the channels differs between the two states of a device
+     */
+    private static boolean hasStateChanged(AbstractAudioDeviceConfig oldDevice, AbstractAudioDeviceConfig newDevice) {
+        if (oldDevice.getId() != newDevice.getId() || oldDevice.getVolume() != newDevice.getVolume()
+                || oldDevice.isMuted() != newDevice.isMuted() || oldDevice.getState() != newDevice.getState()) {
+            return true;
+        }
+        if (newDevice instanceof SinkInput) {
+            Sink oldSink = ((SinkInput) oldDevice).getSink();
+            Sink newSink = ((SinkInput) newDevice).getSink();
+            return !StringUtils.equals(oldSink != null ? oldSink.getPaName() : null,
+                    newSink != null ? newSink.getPaName() : null);
+        }
+        if (newDevice instanceof Sink) {
+            return !((Sink) oldDevice).getCombinedSinkNames().equals(((Sink) newDevice).getCombinedSinkNames());
+        }
+        return false;
+    }
+
     private synchronized void startAutomaticRefresh() {
         if (pollingJob == null || pollingJob.isCancelled()) {
             pollingJob = scheduler.scheduleAtFixedRate(pollingRunnable, 0, refreshInterval, TimeUnit.MILLISECONDS);
@@ -140,6 +196,8 @@ public class PulseaudioBridgeHandler extends BaseBridgeHandler {
                             updateStatus(ThingStatus.ONLINE);
                             logger.info("Established connection to Pulseaudio server on Host '{}':'{}'.", host, port);
                             startAutomaticRefresh();
+                        } else {
+                            updateStatus(ThingStatus.OFFLINE);
                         }
                     } catch (IOException e) {
                         logger.error("Couldn't connect to Pulsaudio server [Host '{}':'{}']: {}", host, port,
@@ -159,8 +217,12 @@ public class PulseaudioBridgeHandler extends BaseBridgeHandler {
 
     @Override
     public void dispose() {
-        pollingJob.cancel(true);
-        client.disconnect();
+        if (pollingJob != null) {
+            pollingJob.cancel(true);
+        }
+        if (client != null) {
+            client.disconnect();
+        }
         super.dispose();
     }
 
@@ -168,7 +230,18 @@ public class PulseaudioBridgeHandler extends BaseBridgeHandler {
         if (deviceStatusListener == null) {
             throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
         }
-        return deviceStatusListeners.add(deviceStatusListener);
+        boolean result = deviceStatusListeners.addIfAbsent(deviceStatusListener);
+        // as only changes are passed on, a new listener has to get the current state of the known devices
+        synchronized (this) {
+            for (AbstractAudioDeviceConfig device : lastActiveDevices.values()) {
+                try {
+                    deviceStatusListener.onDeviceStateChanged(getThing().getUID(), device);
+                } catch (Exception e) {
+                    logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                }
+            }
+        }
+        return result;
     }
 
     public boolean unregisterDeviceStatusListener(DeviceStatusListener deviceStatusListener) {
@@ -262,7 +262,7 @@ public class PulseaudioHandler extends BaseThingHandler implements DeviceStatusL
     @Override
     public void onDeviceRemoved(PulseaudioBridgeHandler bridge, AbstractAudioDeviceConfig device) {
         if (device.getPaName().equals(name)) {
-            bridgeHandler.unregisterDeviceStatusListener(this);
+            bridge.unregisterDeviceStatusListener(this);
             bridgeHandler = null;
             updateStatus(ThingStatus.OFFLINE);
         }
@@ -8,20 +8,28 @@
  */
 package org.openhab.binding.pulseaudio.internal;
 
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.Socket;
-import java.net.SocketException;
-import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.pulseaudio.internal.cli.Parser;
 import org.openhab.binding.pulseaudio.internal.items.AbstractAudioDeviceConfig;
 import org.openhab.binding.pulseaudio.internal.items.AbstractAudioDeviceConfig.State;
+import org.openhab.binding.pulseaudio.internal.items.AbstractDeviceConfig;
 import org.openhab.binding.pulseaudio.internal.items.Module;
 import org.openhab.binding.pulseaudio.internal.items.Sink;
 import org.openhab.binding.pulseaudio.internal.items.SinkInput;
@@ -37,6 +45,10 @@ import org.slf4j.LoggerFactory;
  *
  * On the pulseaudio server the module-cli-protocol-tcp has to be loaded.
  *
+ * The connection is kept open between requests. As newer pulseaudio versions (>=5.0) don't send a prompt after the
+ * answer, every request is followed by an unknown command and the answer is read up to the error message for this
+ * command.
+ *
  * @author Tobias Bräutigam
  * @since 1.2.0
  */
@@ -47,9 +59,35 @@ public class PulseaudioClient {
     private String host;
     private int port;
     private Socket client;
+    private BufferedReader reader;
+    private Writer writer;
+
+    private volatile ItemIndex<Module> modules = new ItemIndex<Module>();
+    private volatile ItemIndex<Sink> sinks = new ItemIndex<Sink>();
+    private volatile ItemIndex<Source> sources = new ItemIndex<Source>();
+    private volatile ItemIndex<SinkInput> sinkInputs = new ItemIndex<SinkInput>();
+    private volatile ItemIndex<SourceOutput> sourceOutputs = new ItemIndex<SourceOutput>();
+    private volatile ItemIndex<AbstractAudioDeviceConfig> items = new ItemIndex<AbstractAudioDeviceConfig>();
 
-    private List<AbstractAudioDeviceConfig> items;
-    private List<Module> modules;
+    /**
+     * timeout (in ms) for reading an answer of the pulseaudio server
+     */
+    private static final int READ_TIMEOUT = 2000;
+
+    /**
+     * the prompt sent by older pulseaudio versions after each answer
+     */
+    private static final String PROMPT = ">>> ";
+
+    /**
+     * unknown command sent after each request to mark the end of the answer
+     */
+    private static final String CMD_END_OF_ANSWER = "openhab-end-of-answer";
+
+    /**
+     * the answer of the pulseaudio server to {@link #CMD_END_OF_ANSWER}
+     */
+    private static final String END_OF_ANSWER = "Unknown command: " + CMD_END_OF_ANSWER;
 
     /**
      * corresponding name to execute actions on sink items
@@ -119,51 +157,46 @@ public class PulseaudioClient {
         this.host = host;
         this.port = port;
 
-        items = new ArrayList<AbstractAudioDeviceConfig>();
-        modules = new ArrayList<Module>();
-
         connect();
         update();
     }
 
-    public boolean isConnected() {
-        return client.isConnected();
+    public synchronized boolean isConnected() {
+        return client != null && client.isConnected() && !client.isClosed();
     }
 
     /**
-     * updates the item states and their relationships
+     * updates the item states and their relationships. The indexes are replaced one after another, as the items
+     * parsed later reference the modules and sinks parsed before. If the server can't be reached, the items of the
+     * last successful update are kept.
+     *
+     * @return true if the items have been updated
      */
-    public void update() {
-        modules.clear();
-        modules.addAll(Parser.parseModules(listModules()));
-
-        items.clear();
-        items.addAll(Parser.parseSinks(listSinks(), this));
-        items.addAll(Parser.parseSources(listSources(), this));
-        items.addAll(Parser.parseSinkInputs(listSinkInputs(), this));
-        items.addAll(Parser.parseSourceOutputs(listSourceOutputs(), this));
-
-        logger.debug("Pulseaudio server {}: {} modules and {} items updated", host, modules.size(), items.size());
-    }
-
-    private String listModules() {
-        return this._sendRawRequest(CMD_LIST_MODULES);
-    }
-
-    private String listSinks() {
-        return this._sendRawRequest(CMD_LIST_SINKS);
-    }
+    public synchronized boolean update() {
+        // all lists are requested at once to save the round trips
+        String[] answers = _sendRawRequests(CMD_LIST_MODULES, CMD_LIST_SINKS, CMD_LIST_SOURCES, CMD_LIST_SINK_INPUTS,
+                CMD_LIST_SOURCE_OUTPUTS);
+        if (answers == null) {
+            logger.debug("Pulseaudio server {}: update failed, keeping the last items", host);
+            return false;
+        }
 
-    private String listSources() {
-        return this._sendRawRequest(CMD_LIST_SOURCES);
-    }
+        modules = new ItemIndex<Module>(Parser.parseModules(answers[0]));
 
-    private String listSinkInputs() {
-        return this._sendRawRequest(CMD_LIST_SINK_INPUTS);
-    }
+        ItemIndex<AbstractAudioDeviceConfig> newItems = new ItemIndex<AbstractAudioDeviceConfig>();
+        sinks = new ItemIndex<Sink>(Parser.parseSinks(answers[1], this));
+        newItems.addAll(sinks.list);
+        sources = new ItemIndex<Source>(Parser.parseSources(answers[2], this));
+        newItems.addAll(sources.list);
+        sinkInputs = new ItemIndex<SinkInput>(Parser.parseSinkInputs(answers[3], this));
+        newItems.addAll(sinkInputs.list);
+        sourceOutputs = new ItemIndex<SourceOutput>(Parser.parseSourceOutputs(answers[4], this));
+        newItems.addAll(sourceOutputs.list);
+        items = newItems;
 
-    private String listSourceOutputs() {
-        return this._sendRawRequest(CMD_LIST_SOURCE_OUTPUTS);
+        logger.debug("Pulseaudio server {}: {} modules and {} items updated", host, modules.list.size(),
+                newItems.list.size());
+        return true;
     }
 
     /**
@@ -173,12 +206,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Module} to the given <code>id</code>
      */
     public Module getModule(int id) {
-        for (Module module : modules) {
-            if (module.getId() == id) {
-                return module;
-            }
-        }
-        return null;
+        return modules.byId.get(id);
     }
 
     /**
@@ -198,12 +226,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Sink} to the given <code>name</code>
      */
     public Sink getSink(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof Sink) {
-                return (Sink) item;
-            }
-        }
-        return null;
+        return sinks.getByName(name);
     }
 
     /**
@@ -212,12 +235,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Sink} to the given <code>id</code>
      */
     public Sink getSink(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof Sink) {
-                return (Sink) item;
-            }
-        }
-        return null;
+        return sinks.byId.get(id);
     }
 
     /**
@@ -226,12 +244,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SinkInput} to the given <code>name</code>
      */
     public SinkInput getSinkInput(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof SinkInput) {
-                return (SinkInput) item;
-            }
-        }
-        return null;
+        return sinkInputs.getByName(name);
     }
 
     /**
@@ -240,12 +253,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SinkInput} to the given <code>id</code>
      */
     public SinkInput getSinkInput(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof SinkInput) {
-                return (SinkInput) item;
-            }
-        }
-        return null;
+        return sinkInputs.byId.get(id);
     }
 
     /**
@@ -254,12 +262,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Source} to the given <code>name</code>
      */
     public Source getSource(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof Source) {
-                return (Source) item;
-            }
-        }
-        return null;
+        return sources.getByName(name);
     }
 
     /**
@@ -268,12 +271,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Source} to the given <code>id</code>
      */
     public Source getSource(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof Source) {
-                return (Source) item;
-            }
-        }
-        return null;
+        return sources.byId.get(id);
     }
 
     /**
@@ -282,12 +280,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SourceOutput} to the given <code>name</code>
      */
     public SourceOutput getSourceOutput(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof SourceOutput) {
-                return (SourceOutput) item;
-            }
-        }
-        return null;
+        return sourceOutputs.getByName(name);
     }
 
     /**
@@ -296,12 +289,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SourceOutput} to the given <code>id</code>
      */
     public SourceOutput getSourceOutput(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof SourceOutput) {
-                return (SourceOutput) item;
-            }
-        }
-        return null;
+        return sourceOutputs.byId.get(id);
     }
 
     /**
@@ -310,16 +298,11 @@ public class PulseaudioClient {
      * @return the corresponding {@link AbstractAudioDeviceConfig} to the given <code>name</code>
      */
     public AbstractAudioDeviceConfig getGenericAudioItem(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name)) {
-                return item;
-            }
-        }
-        return null;
+        return items.getByName(name);
     }
 
     public List<AbstractAudioDeviceConfig> getItems() {
-        return items;
+        return Collections.unmodifiableList(items.list);
     }
 
     /**
@@ -522,59 +505,67 @@ public class PulseaudioClient {
     }
 
     private void _sendRawCommand(String command) {
-        checkConnection();
-        try {
-            PrintStream out = new PrintStream(client.getOutputStream(), true);
-            logger.trace("sending command {} to pa-server {}", command, host);
-            out.print(command + "\r\n");
-            out.close();
-            client.close();
-        } catch (IOException e) {
-            logger.error("{}", e.getLocalizedMessage(), e);
+        String answer = _sendRawRequest(command);
+        if (!answer.isEmpty()) {
+            logger.debug("pa-server {} answered command {}: {}", host, command, answer);
         }
     }
 
     private String _sendRawRequest(String command) {
-        logger.trace("_sendRawRequest({})", command);
+        String[] answers = _sendRawRequests(command);
+        return answers != null ? answers[0] : "";
+    }
+
+    /**
+     * sends the commands in one go and reads their answers
+     *
+     * @return the answers in the order of the commands, null if the server couldn't be reached or an answer couldn't
+     *         be read completely
+     */
+    private synchronized String[] _sendRawRequests(String... commands) {
+        logger.trace("_sendRawRequests({})", (Object) commands);
         checkConnection();
-        String result = "";
+        if (writer == null) {
+            return null;
+        }
+        String[] answers = new String[commands.length];
         try {
-            PrintStream out = new PrintStream(client.getOutputStream(), true);
-            out.print(command + "\r\n");
-
-            InputStream instr = client.getInputStream();
-
-            try {
-                byte[] buff = new byte[1024];
-                int ret_read = 0;
-                int lc = 0;
-                do {
-                    ret_read = instr.read(buff);
-                    lc++;
-                    if (ret_read > 0) {
-                        String line = new String(buff, 0, ret_read);
-                        // System.out.println("'"+line+"'");
-                        if (line.endsWith(">>> ") && lc > 1) {
-                            result += line.substring(0, line.length() - 4);
-                            break;
-                        }
-                        result += line.trim();
-                    }
-                } while (ret_read > 0);
-            } catch (SocketTimeoutException e) {
-                // Timeout -> as newer PA versions (>=5.0) do not send the >>> we have no chance
-                // to detect the end of the answer, except by this timeout
-            } catch (IOException e) {
-                System.err.println("Exception while reading socket:" + e.getMessage());
+            StringBuilder request = new StringBuilder();
+            for (String command : commands) {
+                request.append(command).append("\r\n").append(CMD_END_OF_ANSWER).append("\r\n");
+            }
+            writer.write(request.toString());
+            writer.flush();
+            for (int i = 0; i < commands.length; i++) {
+                answers[i] = readAnswer();
             }
-            instr.close();
-            out.close();
-            client.close();
-            return result;
         } catch (IOException e) {
-            logger.error("{}", e.getLocalizedMessage(), e);
+            logger.error("Exception while sending {} to pa-server {}: {}", StringUtils.join(commands, ", "), host,
+                    e.getLocalizedMessage());
+            closeConnection();
+            return null;
         }
-        return result;
+        return answers;
+    }
+
+    /**
+     * reads the lines of the answer up to the answer to {@link #CMD_END_OF_ANSWER}
+     *
+     * @return the answer, one line per property
+     */
+    private String readAnswer() throws IOException {
+        StringBuilder answer = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            while (line.startsWith(PROMPT)) {
+                line = line.substring(PROMPT.length());
+            }
+            if (line.equals(END_OF_ANSWER)) {
+                return answer.toString();
+            }
+            answer.append(line).append('\n');
+        }
+        throw new EOFException("connection closed by pa-server " + host);
     }
 
     private void checkConnection() {
@@ -588,30 +579,79 @@ public class PulseaudioClient {
     }
 
     /**
-     * Connects to the pulseaudio server (timeout 500ms)
+     * Connects to the pulseaudio server and skips its welcome message. If that fails, the connection is closed, so no
+     * half-read answer is left for the next request.
      */
-    private void connect() throws IOException {
+    private synchronized void connect() throws IOException {
         try {
             client = new Socket(host, port);
-            client.setSoTimeout(500);
+            client.setSoTimeout(READ_TIMEOUT);
+            client.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            writer = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(CMD_END_OF_ANSWER + "\r\n");
+            writer.flush();
+            readAnswer();
         } catch (UnknownHostException e) {
             logger.error("unknown socket host {}", host);
-        } catch (SocketException e) {
-            logger.error("{}", e.getLocalizedMessage(), e);
+            closeConnection();
+            throw e;
+        } catch (IOException e) {
+            closeConnection();
+            throw e;
         }
     }
 
-    /**
-     * Disconnects from the pulseaudio server
-     */
-    public void disconnect() {
+    private void closeConnection() {
         if (client != null) {
             try {
                 client.close();
             } catch (IOException e) {
-                logger.error("{}", e.getLocalizedMessage(), e);
+                logger.debug("{}", e.getLocalizedMessage(), e);
+            }
+        }
+        client = null;
+        reader = null;
+        writer = null;
+    }
+
+    /**
+     * Disconnects from the pulseaudio server
+     */
+    public synchronized void disconnect() {
+        closeConnection();
+    }
+
+    /**
+     * The items of one kind by their id and by their lower case name. If several items have the same name the first
+     * one is found, like the former linear search did.
+     */
+    private static class ItemIndex<T extends AbstractDeviceConfig> {
+        private final List<T> list = new ArrayList<T>();
+        private final Map<Integer, T> byId = new HashMap<Integer, T>();
+        private final Map<String, T> byName = new HashMap<String, T>();
+
+        private ItemIndex() {
+        }
+
+        private ItemIndex(Collection<? extends T> items) {
+            addAll(items);
+        }
+
+        private void addAll(Collection<? extends T> items) {
+            for (T item : items) {
+                list.add(item);
+                byId.put(item.getId(), item);
+                String name = item.getPaName().toLowerCase(Locale.ENGLISH);
+                if (!byName.containsKey(name)) {
+                    byName.put(name, item);
+                }
             }
         }
+
+        private T getByName(String name) {
+            return name == null ? null : byName.get(name.toLowerCase(Locale.ENGLISH));
+        }
     }
 
 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.russound.internal.rio;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.binding.russound.internal.net.SocketSession;
+import org.openhab.binding.russound.internal.net.SocketSessionListener;
+
+/**
+ * Tests the routing of RIO responses by their C/Z/S/System key.
+ *
+ */
+public class RioResponseRouterTest {
+
+    @Test
+    public void routesZoneResponses() {
+        assertThat(RioResponseRouter.parseRoute("N C[1].Z[2].status=\"ON\""), is(RioResponseRouter.zoneRoute(1, 2)));
+        assertThat(RioResponseRouter.parseRoute("S C[6].Z[12].volume=\"25\""),
+                is(RioResponseRouter.zoneRoute(6, 12)));
+        assertThat(RioResponseRouter.parseRoute("n c[1].z[3].name=\"Kitchen\""),
+                is(RioResponseRouter.zoneRoute(1, 3)));
+        assertThat(RioResponseRouter.parseRoute("N C[1].Z[2].favorite[1].valid=\"true\""),
+                is(RioResponseRouter.zoneRoute(1, 2)));
+    }
+
+    @Test
+    public void routesControllerResponses() {
+        assertThat(RioResponseRouter.parseRoute("S C[1].type=\"MCA-C5\""), is(RioResponseRouter.controllerRoute(1)));
+        assertThat(RioResponseRouter.parseRoute("N C[2].ipAddress=\"192.168.1.24\""),
+                is(RioResponseRouter.controllerRoute(2)));
+        assertThat(RioResponseRouter.parseRoute("S C[1].Zone=\"1\""), is(RioResponseRouter.controllerRoute(1)));
+    }
+
+    @Test
+    public void routesSourceAndSystemResponses() {
+        assertThat(RioResponseRouter.parseRoute("N S[3].songName=\"Song\""), is(RioResponseRouter.sourceRoute(3)));
+        assertThat(RioResponseRouter.parseRoute("S S[12].name=\"Tuner\""), is(RioResponseRouter.sourceRoute(12)));
+        assertThat(RioResponseRouter.parseRoute("N System.status=\"ON\""), is(RioResponseRouter.ROUTE_SYSTEM));
+        assertThat(RioResponseRouter.parseRoute("S system.language=\"english\""),
+                is(RioResponseRouter.ROUTE_SYSTEM));
+    }
+
+    @Test
+    public void leavesUnroutableResponsesUnkeyed() {
+        final String[] unroutable = { "", "S", "S C", "S VERSION=\"010.004.00\"", "E Invalid Command",
+                "E Zone not found", "M S[1].menu=\"...\"", "S C[x].type=\"MCA-C5\"", "S C[].type=\"MCA-C5\"",
+                "S C[1234].type=\"MCA-C5\"", "S C[1", "S C[1].Z[a].status=\"ON\"", "S C[1].Z[2", "S X[1].name=\"a\"",
+                "S Systemx", "Login: ", "Password: " };
+        for (String response : unroutable) {
+            assertThat(response, RioResponseRouter.parseRoute(response), is(RioResponseRouter.ROUTE_UNKEYED));
+        }
+    }
+
+    @Test
+    public void keepsRoutesApart() {
+        assertThat(RioResponseRouter.zoneRoute(1, 2), not(RioResponseRouter.zoneRoute(2, 1)));
+        assertThat(RioResponseRouter.controllerRoute(1), not(RioResponseRouter.sourceRoute(1)));
+        assertThat(RioResponseRouter.controllerRoute(1), not(RioResponseRouter.zoneRoute(1, 0)));
+        assertThat(RioResponseRouter.sourceRoute(1), not(RioResponseRouter.ROUTE_ALLSOURCES));
+    }
+
+    @Test
+    public void dispatchesToRegisteredRoutes() throws InterruptedException {
+        final FakeSession session = new FakeSession();
+        final RioResponseRouter router = RioResponseRouter.getRouter(session);
+
+        final Recorder zone = new Recorder();
+        final Recorder controller = new Recorder();
+        final Recorder sources = new Recorder();
+        final Recorder system = new Recorder();
+        final Recorder all = new Recorder();
+        router.addListener(zone, RioResponseRouter.zoneRoute(1, 2));
+        router.addListener(controller, RioResponseRouter.controllerRoute(1));
+        router.addListener(sources, RioResponseRouter.ROUTE_ALLSOURCES);
+        router.addListener(system, RioResponseRouter.ROUTE_SYSTEM, RioResponseRouter.ROUTE_UNKEYED);
+        router.addListener(all, RioResponseRouter.ROUTE_ALL);
+        assertThat(session.listeners.size(), is(1));
+
+        final String[] responses = { "N C[1].Z[2].status=\"ON\"", "N C[1].Z[3].status=\"ON\"", "S C[1].type=\"MCA\"",
+                "N S[4].songName=\"Song\"", "N System.status=\"ON\"", "E Invalid Command" };
+        for (String response : responses) {
+            session.listeners.get(0).responseReceived(response);
+        }
+
+        assertThat(zone.responses, is(list(responses[0])));
+        assertThat(controller.responses, is(list(responses[2])));
+        assertThat(sources.responses, is(list(responses[3])));
+        assertThat(system.responses, is(list(responses[4], responses[5])));
+        assertThat(all.responses, is(list(responses)));
+
+        router.removeListener(zone);
+        router.removeListener(controller);
+        router.removeListener(sources);
+        router.removeListener(system);
+        router.removeListener(all);
+        assertThat(session.listeners.size(), is(0));
+        assertThat(RioResponseRouter.getRouter(session), not(sameInstance(router)));
+    }
+
+    private static List<String> list(String... responses) {
+        final List<String> list = new ArrayList<String>();
+        for (String response : responses) {
+            list.add(response);
+        }
+        return list;
+    }
+
+    private static class Recorder implements SocketSessionListener {
+        private final List<String> responses = new ArrayList<String>();
+
+        @Override
+        public void responseReceived(String response) {
+            responses.add(response);
+        }
+
+        @Override
+        public void responseException(IOException e) {
+        }
+    }
+
+    private static class FakeSession implements SocketSession {
+        private final List<SocketSessionListener> listeners = new ArrayList<SocketSessionListener>();
+
+        @Override
+        public void addListener(SocketSessionListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void clearListeners() {
+            listeners.clear();
+        }
+
+        @Override
+        public boolean removeListener(SocketSessionListener listener) {
+            return listeners.remove(listener);
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void connect(int timeout) {
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void sendCommand(String command) {
+        }
+    }
+}
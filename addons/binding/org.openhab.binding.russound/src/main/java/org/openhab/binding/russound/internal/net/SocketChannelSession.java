@@ -11,13 +11,17 @@ package org.openhab.binding.russound.internal.net;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
-import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
@@ -26,13 +30,34 @@ import org.slf4j.LoggerFactory;
 /**
  * Represents a restartable socket connection to the underlying telnet session. Commands can be sent via
  * {@link #sendCommand(String)} and responses will be received on any {@link SocketSessionListener}. This implementation
- * of {@link SocketSession} communicates using a {@link SocketChannel} connection.
+ * of {@link SocketSession} communicates using a non-blocking {@link SocketChannel} connection.
+ *
+ * The session does not own any threads: the channel is registered with the shared {@link SocketChannelReactor}, which
+ * calls back {@link #processRead(SelectionKey)} whenever data is available. The data is framed into responses right in
+ * the {@link #readBuffer} and the responses are dispatched to the listeners on the reactor's bounded thread pool, one
+ * response at a time per session.
  *
  * @author Tim Roberts
  */
 public class SocketChannelSession implements SocketSession {
     private final Logger logger = LoggerFactory.getLogger(SocketChannelSession.class);
 
+    /**
+     * The maximum number of responses that are queued before reading from the socket is suspended
+     */
+    private static final int MAX_RESPONSES = 50;
+
+    /**
+     * The initial size of the {@link #readBuffer}
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The special prompts that are treated as responses for purposes of logging in
+     */
+    private static final byte[][] PROMPTS = { "Login: ".getBytes(StandardCharsets.US_ASCII),
+            "Password: ".getBytes(StandardCharsets.US_ASCII) };
+
     /**
      * The host/ip address to connect to
      */
@@ -43,30 +68,55 @@ public class SocketChannelSession implements SocketSession {
      */
     private final int port;
 
+    /**
+     * The reactor the {@link #socketChannel} is registered with
+     */
+    private final SocketChannelReactor reactor = SocketChannelReactor.getInstance();
+
     /**
      * The actual socket being used. Will be null if not connected
      */
     private final AtomicReference<SocketChannel> socketChannel = new AtomicReference<SocketChannel>();
 
     /**
-     * The responses read from the {@link #responseReader}
+     * The buffer the responses are framed in. Only accessed from the reactor thread.
      */
-    private final BlockingQueue<Object> responses = new ArrayBlockingQueue<Object>(50);
+    private ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
 
     /**
-     * The {@link SocketSessionListener} that the {@link #dispatcher} will call
+     * Holds the bytes of a single response while it's converted into a string. Only accessed from the reactor thread.
      */
-    private List<SocketSessionListener> sessionListeners = new CopyOnWriteArrayList<SocketSessionListener>();
+    private byte[] responseBytes = new byte[BUFFER_SIZE];
 
     /**
-     * The thread dispatching responses - will be null if not connected
+     * The commands that could not be written to the socket yet
      */
-    private Thread dispatchingThread = null;
+    private final Queue<ByteBuffer> pendingWrites = new ConcurrentLinkedQueue<ByteBuffer>();
 
     /**
-     * The thread processing responses - will be null if not connected
+     * The responses read from the {@link #socketChannel}. Reading is suspended once {@link #MAX_RESPONSES} are queued.
      */
-    private Thread responseThread = null;
+    private final BlockingQueue<Object> responses = new LinkedBlockingQueue<Object>();
+
+    /**
+     * Whether reading has been suspended because {@link #responses} is full
+     */
+    private final AtomicBoolean readSuspended = new AtomicBoolean(false);
+
+    /**
+     * Whether a {@link Dispatcher} has been submitted and not yet finished
+     */
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    /**
+     * The {@link Dispatcher} submitted to the reactor's thread pool
+     */
+    private final Dispatcher dispatcher = new Dispatcher();
+
+    /**
+     * The {@link SocketSessionListener} that the {@link #dispatcher} will call
+     */
+    private List<SocketSessionListener> sessionListeners = new CopyOnWriteArrayList<SocketSessionListener>();
 
     /**
      * Creates the socket session from the given host and port
@@ -99,6 +149,7 @@ public class SocketChannelSession implements SocketSession {
             throw new IllegalArgumentException("listener cannot be null");
         }
         sessionListeners.add(listener);
+        scheduleDispatch();
     }
 
     /*
@@ -146,17 +197,20 @@ public class SocketChannelSession implements SocketSession {
         channel.configureBlocking(true);
 
         logger.debug("Connecting to {}:{}", host, port);
-        channel.socket().connect(new InetSocketAddress(host, port), timeout);
-
-        socketChannel.set(channel);
+        try {
+            channel.socket().connect(new InetSocketAddress(host, port), timeout);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
 
         responses.clear();
+        pendingWrites.clear();
+        readBuffer.clear();
+        readSuspended.set(false);
 
-        dispatchingThread = new Thread(new Dispatcher());
-        responseThread = new Thread(new ResponseReader());
-
-        dispatchingThread.start();
-        responseThread.start();
+        socketChannel.set(channel);
+        reactor.register(channel, this);
     }
 
     /*
@@ -170,15 +224,14 @@ public class SocketChannelSession implements SocketSession {
             logger.debug("Disconnecting from {}:{}", host, port);
 
             final SocketChannel channel = socketChannel.getAndSet(null);
-            channel.close();
-
-            dispatchingThread.interrupt();
-            dispatchingThread = null;
-
-            responseThread.interrupt();
-            responseThread = null;
+            try {
+                channel.close();
+            } finally {
+                reactor.unregister(this);
 
-            responses.clear();
+                pendingWrites.clear();
+                responses.clear();
+            }
         }
     }
 
@@ -219,141 +272,255 @@ public class SocketChannelSession implements SocketSession {
             logger.debug("Cannot send command '{}' - socket channel was closed", command);
         } else {
             logger.debug("Sending Command: '{}'", command);
-            channel.write(toSend);
+            pendingWrites.add(toSend);
+            if (!flushWrites(channel)) {
+                reactor.setInterest(channel, SelectionKey.OP_WRITE, true);
+            }
         }
     }
 
     /**
-     * This is the runnable that will read from the socket and add messages to the responses queue (to be processed by
-     * the dispatcher)
+     * Writes as much of the {@link #pendingWrites} as the socket accepts without blocking.
      *
-     * @author Tim Roberts
+     * @param channel the non-null channel to write to
+     * @return true if all pending commands have been written
+     * @throws IOException if an exception occurred writing to the channel
+     */
+    private boolean flushWrites(SocketChannel channel) throws IOException {
+        synchronized (pendingWrites) {
+            ByteBuffer buffer;
+            while ((buffer = pendingWrites.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+                pendingWrites.poll();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Called by the {@link SocketChannelReactor} when the channel can accept more data
      *
+     * @param key the non-null selection key of the {@link #socketChannel}
      */
-    private class ResponseReader implements Runnable {
+    void processWrite(SelectionKey key) {
+        try {
+            if (flushWrites((SocketChannel) key.channel())) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            key.cancel();
+            queueResponse(e);
+        }
+    }
 
-        /**
-         * Runs the logic to read from the socket until {@link #isRunning} is false. A 'response' is anything that ends
-         * with a carriage-return/newline combo. Additionally, the special "Login: " and "Password: " prompts are
-         * treated as responses for purposes of logging in.
-         */
-        @Override
-        public void run() {
-            final StringBuilder sb = new StringBuilder(100);
-            final ByteBuffer readBuffer = ByteBuffer.allocate(1024);
+    /**
+     * Called by the {@link SocketChannelReactor} when data is available on the channel. A 'response' is anything that
+     * ends with a carriage-return/newline combo. Additionally, the special "Login: " and "Password: " prompts are
+     * treated as responses for purposes of logging in.
+     *
+     * @param key the non-null selection key of the {@link #socketChannel}
+     */
+    void processRead(SelectionKey key) {
+        try {
+            final int bytesRead = ((SocketChannel) key.channel()).read(readBuffer);
+            if (bytesRead == -1) {
+                key.cancel();
+                queueResponse(new IOException("server closed connection"));
+                return;
+            }
+        } catch (IOException e) {
+            key.cancel();
+            queueResponse(e);
+            return;
+        }
 
-            responses.clear();
+        readBuffer.flip();
 
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    // if reader is null, sleep and try again
-                    if (readBuffer == null) {
-                        Thread.sleep(250);
-                        continue;
-                    }
+        int start = readBuffer.position();
+        final int limit = readBuffer.limit();
+        for (int i = start; i < limit; i++) {
+            final byte b = readBuffer.get(i);
+            int end = -1;
+            if (b == '\n') {
+                if (i > start && readBuffer.get(i - 1) == '\r') {
+                    end = i + 1;
+                }
+            } else if (b == ' ' && endsWithPrompt(start, i + 1)) {
+                end = i + 1;
+            }
 
-                    final SocketChannel channel = socketChannel.get();
-                    if (channel == null) {
-                        // socket was closed
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
+            if (end != -1) {
+                // the terminating "\r\n" (or ": " of the prompts) is not part of the response
+                queueResponse(decode(start, end - start - 2));
+                start = end;
+            }
+        }
 
-                    int bytesRead = channel.read(readBuffer);
-                    if (bytesRead == -1) {
-                        responses.put(new IOException("server closed connection"));
-                        break;
-                    } else if (bytesRead == 0) {
-                        readBuffer.clear();
-                        continue;
-                    }
+        readBuffer.position(start);
+        readBuffer.compact();
 
-                    readBuffer.flip();
-                    while (readBuffer.hasRemaining()) {
-                        final char ch = (char) readBuffer.get();
-                        sb.append(ch);
-                        if (ch == '\n' || ch == ' ') {
-                            final String str = sb.toString();
-                            if (str.endsWith("\r\n") || str.endsWith("Login: ") || str.endsWith("Password: ")) {
-                                sb.setLength(0);
-                                final String response = str.substring(0, str.length() - 2);
-                                responses.put(response);
-                            }
-                        }
-                    }
+        if (!readBuffer.hasRemaining()) {
+            // a single response doesn't fit - grow the buffer
+            final ByteBuffer larger = ByteBuffer.allocateDirect(readBuffer.capacity() * 2);
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+
+        if (responses.size() >= MAX_RESPONSES && readSuspended.compareAndSet(false, true)) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
 
-                    readBuffer.flip();
+            // the dispatcher may have drained the queue before reading was suspended - it won't resume reading then
+            if (responses.size() < MAX_RESPONSES / 2 && readSuspended.compareAndSet(true, false)) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+    }
 
-                } catch (InterruptedException e) {
-                    // Ending thread execution
-                    Thread.currentThread().interrupt();
-                } catch (AsynchronousCloseException e) {
-                    // socket was closed by another thread but interrupt our loop anyway
-                    Thread.currentThread().interrupt();
-                } catch (IOException e) {
-                    // set before pushing the response since we'll likely call back our stop
-                    Thread.currentThread().interrupt();
+    /**
+     * Called by the {@link SocketChannelReactor} when its selector failed. The channel won't be read anymore, so the
+     * error is dispatched to the listeners like any other read error.
+     *
+     * @param e the non-null error
+     */
+    void reactorStopped(IOException e) {
+        queueResponse(e);
+    }
 
-                    try {
-                        responses.put(e);
-                        break;
-                    } catch (InterruptedException e1) {
-                        // Do nothing - probably shutting down
-                        // Since we set isRunning to false, will drop out of loop and end the thread
-                    }
-                }
+    /**
+     * Checks whether the response between start and end in the {@link #readBuffer} ends with one of the
+     * {@link #PROMPTS}.
+     *
+     * @param start the start of the response
+     * @param end the end (exclusive) of the response
+     * @return true if the response ends with a prompt
+     */
+    private boolean endsWithPrompt(int start, int end) {
+        for (byte[] prompt : PROMPTS) {
+            if (end - start < prompt.length) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < prompt.length && matches; i++) {
+                matches = readBuffer.get(end - prompt.length + i) == prompt[i];
+            }
+            if (matches) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
-     * The dispatcher runnable is responsible for reading the response queue and dispatching it to the current callable.
-     * Since the dispatcher is ONLY started when a callable is set, responses may pile up in the queue and be dispatched
-     * when a callable is set. Unlike the socket reader, this can be assigned to another thread (no state outside of the
-     * class).
+     * Converts part of the {@link #readBuffer} into a response string
+     *
+     * @param offset the start of the response
+     * @param length the length of the response
+     * @return the non-null response
+     */
+    private String decode(int offset, int length) {
+        if (responseBytes.length < length) {
+            responseBytes = new byte[Math.max(length, responseBytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            responseBytes[i] = readBuffer.get(offset + i);
+        }
+        return new String(responseBytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Queues a response (or exception) for the {@link #dispatcher}
+     *
+     * @param response a non-null response or {@link IOException}
+     */
+    private void queueResponse(Object response) {
+        responses.add(response);
+        scheduleDispatch();
+    }
+
+    /**
+     * Submits the {@link #dispatcher} if there are listeners, responses to dispatch and no dispatcher is running
+     * already
+     */
+    private void scheduleDispatch() {
+        if (!sessionListeners.isEmpty() && !responses.isEmpty() && dispatching.compareAndSet(false, true)) {
+            try {
+                reactor.getDispatcher().execute(dispatcher);
+            } catch (RejectedExecutionException e) {
+                dispatching.set(false);
+                logger.debug("Dispatcher rejected: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * The dispatcher runnable is responsible for reading the response queue and dispatching it to the current
+     * listeners. Since the dispatcher is ONLY submitted when a listener is set, responses may pile up in the queue and
+     * be dispatched when a listener is added. The dispatcher runs on the reactor's thread pool and ends once the queue
+     * is empty.
      *
      * @author Tim Roberts
      */
     private class Dispatcher implements Runnable {
         /**
-         * Runs the logic to dispatch any responses to the current listeners until {@link #isRunning} is false.
+         * Runs the logic to dispatch any queued responses to the current listeners
          */
         @Override
         public void run() {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
                     final SocketSessionListener[] listeners = sessionListeners.toArray(new SocketSessionListener[0]);
 
                     // if no listeners, we don't want to start dispatching yet.
                     if (listeners.length == 0) {
-                        Thread.sleep(250);
-                        continue;
+                        break;
                     }
 
-                    final Object response = responses.poll(1, TimeUnit.SECONDS);
-
-                    if (response != null) {
-                        if (response instanceof String) {
-                            logger.debug("Dispatching response: {}", response);
-                            for (SocketSessionListener listener : listeners) {
-                                listener.responseReceived((String) response);
-                            }
-                        } else if (response instanceof IOException) {
-                            logger.debug("Dispatching exception: {}", response);
-                            for (SocketSessionListener listener : listeners) {
-                                listener.responseException((IOException) response);
-                            }
-                        } else {
-                            logger.warn("Unknown response class: {}", response);
+                    final Object response = responses.poll();
+                    if (response == null) {
+                        break;
+                    }
+
+                    resumeReading();
+
+                    if (response instanceof String) {
+                        logger.debug("Dispatching response: {}", response);
+                        for (SocketSessionListener listener : listeners) {
+                            listener.responseReceived((String) response);
                         }
+                    } else if (response instanceof IOException) {
+                        logger.debug("Dispatching exception: {}", response);
+                        for (SocketSessionListener listener : listeners) {
+                            listener.responseException((IOException) response);
+                        }
+                    } else {
+                        logger.warn("Unknown response class: {}", response);
                     }
-                } catch (InterruptedException e) {
-                    // Ending thread execution
-                    Thread.currentThread().interrupt();
-                } catch (Exception e) {
-                    logger.debug("Uncaught exception {}: {}", e.getMessage(), e);
-                    Thread.currentThread().interrupt();
                 }
+            } catch (InterruptedException e) {
+                // Ending dispatching
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.debug("Uncaught exception {}: {}", e.getMessage(), e);
+            } finally {
+                dispatching.set(false);
+                resumeReading();
+            }
+
+            // a response may have been queued after our last poll
+            scheduleDispatch();
+        }
+
+        /**
+         * Resumes reading from the socket if it had been suspended because the response queue was full
+         */
+        private void resumeReading() {
+            final SocketChannel channel = socketChannel.get();
+            if (channel != null && responses.size() < MAX_RESPONSES / 2 && readSuspended.compareAndSet(true, false)) {
+                reactor.setInterest(channel, SelectionKey.OP_READ, true);
             }
         }
     }
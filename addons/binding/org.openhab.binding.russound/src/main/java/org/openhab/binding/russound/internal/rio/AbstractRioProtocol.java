@@ -36,14 +36,31 @@ public abstract class AbstractRioProtocol implements SocketSessionListener {
     private final RioHandlerCallback callback;
 
     /**
-     * Constructs the protocol handler from given parameters and will add this handler as a
-     * {@link SocketSessionListener} to the specified {@link SocketSession} via
-     * {@link SocketSession#addListener(SocketSessionListener)}
+     * The {@link RioResponseRouter} delivering the responses for this protocol handler
+     */
+    private final RioResponseRouter router;
+
+    /**
+     * Constructs the protocol handler from given parameters and will add this handler as a listener for every response
+     * of the specified {@link SocketSession}
      *
      * @param session a non-null {@link SocketSession} (may be connected or disconnected)
      * @param callback a non-null {@link RioHandlerCallback} to update state and status
      */
     protected AbstractRioProtocol(SocketSession session, RioHandlerCallback callback) {
+        this(session, callback, RioResponseRouter.ROUTE_ALL);
+    }
+
+    /**
+     * Constructs the protocol handler from given parameters and will add this handler as a listener for the given
+     * routes to the {@link RioResponseRouter} of the specified {@link SocketSession}. Only the responses for these
+     * routes will be passed to {@link #responseReceived(String)}.
+     *
+     * @param session a non-null {@link SocketSession} (may be connected or disconnected)
+     * @param callback a non-null {@link RioHandlerCallback} to update state and status
+     * @param routes the non-empty {@link RioResponseRouter} routes to listen to
+     */
+    protected AbstractRioProtocol(SocketSession session, RioHandlerCallback callback, int... routes) {
 
         if (session == null) {
             throw new IllegalArgumentException("session cannot be null");
@@ -54,8 +71,9 @@ public abstract class AbstractRioProtocol implements SocketSessionListener {
         }
 
         this.session = session;
-        this.session.addListener(this);
         this.callback = callback;
+        this.router = RioResponseRouter.getRouter(session);
+        this.router.addListener(this, routes);
     }
 
     /**
@@ -108,10 +126,10 @@ public abstract class AbstractRioProtocol implements SocketSessionListener {
 
     /**
      * Disposes of the protocol by removing ourselves from listening to the socket via
-     * {@link SocketSession#removeListener(SocketSessionListener)}
+     * {@link RioResponseRouter#removeListener(SocketSessionListener)}
      */
     public void dispose() {
-        session.removeListener(this);
+        router.removeListener(this);
     }
 
     /**
@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.russound.internal.rio;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.openhab.binding.russound.internal.net.SocketSession;
+import org.openhab.binding.russound.internal.net.SocketSessionListener;
+
+/**
+ * Routes the responses of a {@link SocketSession} to the protocol handlers that own them. Instead of every protocol
+ * handler running its regular expressions against every line the russound system sends, the routing key
+ * (<code>C[c].Z[z]</code>, <code>C[c]</code>, <code>S[s]</code> or <code>System</code>) is parsed once from the
+ * beginning of the notification and the response is only handed to the listeners registered for that key.
+ *
+ * Responses that don't carry a routing key (such as the version, errors or media management menus) are handed to the
+ * listeners registered for {@link #ROUTE_UNKEYED}. Listeners registered for {@link #ROUTE_ALL} receive every
+ * response.
+ *
+ * There is a single router per {@link SocketSession} - use {@link #getRouter(SocketSession)} to get it. The router
+ * adds itself as a listener of the session when the first listener is added and removes itself (and is forgotten)
+ * once the last listener has been removed.
+ */
+public class RioResponseRouter implements SocketSessionListener {
+    /**
+     * Route receiving every response
+     */
+    public static final int ROUTE_ALL = -1;
+
+    /**
+     * Route receiving the responses without a routing key
+     */
+    public static final int ROUTE_UNKEYED = 0;
+
+    /**
+     * Route receiving the notifications of all sources (<code>S[*]</code>)
+     */
+    public static final int ROUTE_ALLSOURCES = 4 << 16;
+
+    /**
+     * Route receiving the system notifications (<code>System.</code>)
+     */
+    public static final int ROUTE_SYSTEM = 5 << 16;
+
+    // The kind of route is held in the upper bits, the controller/source and zone in the lower bits
+    private static final int KIND_CONTROLLER = 1 << 16;
+    private static final int KIND_ZONE = 2 << 16;
+    private static final int KIND_SOURCE = 3 << 16;
+
+    /**
+     * The routers by their session
+     */
+    private static final Map<SocketSession, RioResponseRouter> ROUTERS = new HashMap<SocketSession, RioResponseRouter>();
+
+    /**
+     * The session we route responses from
+     */
+    private final SocketSession session;
+
+    /**
+     * The listeners by their route
+     */
+    private final Map<Integer, CopyOnWriteArrayList<SocketSessionListener>> routes = new ConcurrentHashMap<Integer, CopyOnWriteArrayList<SocketSessionListener>>();
+
+    /**
+     * The routes each listener has been registered for
+     */
+    private final Map<SocketSessionListener, int[]> listenerRoutes = new HashMap<SocketSessionListener, int[]>();
+
+    /**
+     * Returns the router for the given session, creating it if needed
+     *
+     * @param session a non-null {@link SocketSession}
+     * @return a non-null {@link RioResponseRouter}
+     */
+    public static RioResponseRouter getRouter(SocketSession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("session cannot be null");
+        }
+
+        synchronized (ROUTERS) {
+            RioResponseRouter router = ROUTERS.get(session);
+            if (router == null) {
+                router = new RioResponseRouter(session);
+                ROUTERS.put(session, router);
+            }
+            return router;
+        }
+    }
+
+    /**
+     * Returns the route of the notifications for the given controller (<code>C[c]</code>)
+     *
+     * @param controller the controller identifier
+     * @return the route
+     */
+    public static int controllerRoute(int controller) {
+        return KIND_CONTROLLER | (controller & 0xFF) << 8;
+    }
+
+    /**
+     * Returns the route of the notifications for the given zone (<code>C[c].Z[z]</code>)
+     *
+     * @param controller the controller identifier
+     * @param zone the zone identifier
+     * @return the route
+     */
+    public static int zoneRoute(int controller, int zone) {
+        return KIND_ZONE | (controller & 0xFF) << 8 | (zone & 0xFF);
+    }
+
+    /**
+     * Returns the route of the notifications for the given source (<code>S[s]</code>)
+     *
+     * @param source the source identifier
+     * @return the route
+     */
+    public static int sourceRoute(int source) {
+        return KIND_SOURCE | (source & 0xFF) << 8;
+    }
+
+    /**
+     * Constructs the router for the given session
+     *
+     * @param session a non-null {@link SocketSession}
+     */
+    private RioResponseRouter(SocketSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Adds a listener for the given routes. A listener that is already registered will have its routes replaced.
+     *
+     * @param listener a non-null {@link SocketSessionListener}
+     * @param listenRoutes the non-empty routes to listen to
+     */
+    public void addListener(SocketSessionListener listener, int... listenRoutes) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener cannot be null");
+        }
+        if (listenRoutes == null || listenRoutes.length == 0) {
+            throw new IllegalArgumentException("listenRoutes cannot be null or empty");
+        }
+
+        synchronized (listenerRoutes) {
+            final boolean first = listenerRoutes.isEmpty();
+            removeRoutes(listener);
+
+            listenerRoutes.put(listener, listenRoutes.clone());
+            for (int route : listenRoutes) {
+                CopyOnWriteArrayList<SocketSessionListener> listeners = routes.get(route);
+                if (listeners == null) {
+                    listeners = new CopyOnWriteArrayList<SocketSessionListener>();
+                    routes.put(route, listeners);
+                }
+                listeners.addIfAbsent(listener);
+            }
+
+            if (first) {
+                session.addListener(this);
+            }
+        }
+    }
+
+    /**
+     * Removes the listener from all the routes it was registered for
+     *
+     * @param listener a non-null {@link SocketSessionListener}
+     */
+    public void removeListener(SocketSessionListener listener) {
+        synchronized (listenerRoutes) {
+            if (removeRoutes(listener) && listenerRoutes.isEmpty()) {
+                session.removeListener(this);
+                synchronized (ROUTERS) {
+                    if (ROUTERS.get(session) == this) {
+                        ROUTERS.remove(session);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to remove the listener from the routes it was registered for. Must be called while holding the
+     * {@link #listenerRoutes} lock.
+     *
+     * @param listener a non-null {@link SocketSessionListener}
+     * @return true if the listener had been registered
+     */
+    private boolean removeRoutes(SocketSessionListener listener) {
+        final int[] oldRoutes = listenerRoutes.remove(listener);
+        if (oldRoutes == null) {
+            return false;
+        }
+        for (int route : oldRoutes) {
+            final CopyOnWriteArrayList<SocketSessionListener> listeners = routes.get(route);
+            if (listeners != null) {
+                listeners.remove(listener);
+                if (listeners.isEmpty()) {
+                    routes.remove(route);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the route from the beginning of the response. The response is expected to look like
+     * <code>S C[1].Z[2].name="value"</code> (or start with 'N' for a notification).
+     *
+     * @param response a non-null response
+     * @return the route of the response or {@link #ROUTE_UNKEYED} if the response has no routing key
+     */
+    static int parseRoute(String response) {
+        final int len = response.length();
+        if (len < 4 || response.charAt(1) != ' ') {
+            return ROUTE_UNKEYED;
+        }
+
+        final char type = response.charAt(0);
+        if (type != 'S' && type != 'N' && type != 's' && type != 'n') {
+            return ROUTE_UNKEYED;
+        }
+
+        final char key = response.charAt(2);
+        if (response.charAt(3) == '[') {
+            final int idEnd = parseIdEnd(response, 4);
+            if (idEnd < 0) {
+                return ROUTE_UNKEYED;
+            }
+            final int id = parseId(response, 4, idEnd);
+
+            if (key == 'S' || key == 's') {
+                return sourceRoute(id);
+            }
+
+            if (key == 'C' || key == 'c') {
+                // C[c].Z[z]
+                if (idEnd + 4 < len && response.charAt(idEnd + 1) == '.' && response.charAt(idEnd + 3) == '['
+                        && (response.charAt(idEnd + 2) == 'Z' || response.charAt(idEnd + 2) == 'z')) {
+                    final int zoneEnd = parseIdEnd(response, idEnd + 4);
+                    if (zoneEnd < 0) {
+                        return ROUTE_UNKEYED;
+                    }
+                    return zoneRoute(id, parseId(response, idEnd + 4, zoneEnd));
+                }
+                return controllerRoute(id);
+            }
+            return ROUTE_UNKEYED;
+        }
+
+        if (response.regionMatches(true, 2, "System.", 0, 7)) {
+            return ROUTE_SYSTEM;
+        }
+
+        return ROUTE_UNKEYED;
+    }
+
+    /**
+     * Helper method to find the closing bracket of a numeric identifier
+     *
+     * @param response the non-null response
+     * @param start the position of the first digit
+     * @return the position of the closing bracket or -1 if the identifier is not a number (or is too large to be
+     *         routed)
+     */
+    private static int parseIdEnd(String response, int start) {
+        final int max = Math.min(response.length(), start + 3);
+        int pos = start;
+        while (pos < max && response.charAt(pos) >= '0' && response.charAt(pos) <= '9') {
+            pos++;
+        }
+        return pos > start && pos < response.length() && response.charAt(pos) == ']' ? pos : -1;
+    }
+
+    /**
+     * Helper method to convert the digits between start (inclusive) and end (exclusive) into a number
+     *
+     * @param response the non-null response
+     * @param start the position of the first digit
+     * @param end the position after the last digit
+     * @return the number
+     */
+    private static int parseId(String response, int start, int end) {
+        int id = 0;
+        for (int pos = start; pos < end; pos++) {
+            id = id * 10 + response.charAt(pos) - '0';
+        }
+        return id;
+    }
+
+    /**
+     * Helper method to call the listeners of a route
+     *
+     * @param route the route
+     * @param response the non-null response
+     * @throws InterruptedException if the response processing was interrupted
+     */
+    private void dispatch(int route, String response) throws InterruptedException {
+        final CopyOnWriteArrayList<SocketSessionListener> listeners = routes.get(route);
+        if (listeners != null) {
+            for (SocketSessionListener listener : listeners) {
+                listener.responseReceived(response);
+            }
+        }
+    }
+
+    /**
+     * Routes the response to the listeners registered for its route (and to the listeners of all sources for a source
+     * notification) and to the listeners registered for {@link #ROUTE_ALL}
+     *
+     * @param response a possibly null, possibly empty response
+     * @throws InterruptedException if the response processing was interrupted
+     */
+    @Override
+    public void responseReceived(String response) throws InterruptedException {
+        if (response == null || response.length() == 0) {
+            return;
+        }
+
+        final int route = parseRoute(response);
+        dispatch(route, response);
+        if ((route & 0xFF0000) == KIND_SOURCE) {
+            dispatch(ROUTE_ALLSOURCES, response);
+        }
+        dispatch(ROUTE_ALL, response);
+    }
+
+    /**
+     * Passes the exception on to every listener, regardless of their routes
+     *
+     * @param e the exception
+     * @throws InterruptedException if the exception processing was interrupted
+     */
+    @Override
+    public void responseException(IOException e) throws InterruptedException {
+        final SocketSessionListener[] listeners;
+        synchronized (listenerRoutes) {
+            listeners = listenerRoutes.keySet().toArray(new SocketSessionListener[0]);
+        }
+        for (SocketSessionListener listener : listeners) {
+            listener.responseException(e);
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.openhab.binding.russound.internal.rio.AbstractRioProtocol;
 import org.openhab.binding.russound.internal.rio.RioConstants;
 import org.openhab.binding.russound.internal.rio.RioHandlerCallback;
 import org.openhab.binding.russound.internal.rio.RioPresetsProtocol;
+import org.openhab.binding.russound.internal.rio.RioResponseRouter;
 import org.openhab.binding.russound.internal.rio.RioSystemFavoritesProtocol;
 import org.openhab.binding.russound.internal.rio.models.GsonUtilities;
 import org.openhab.binding.russound.internal.rio.models.RioFavorite;
@@ -117,7 +118,7 @@ class RioZoneProtocol extends AbstractRioProtocol
      */
     RioZoneProtocol(int zone, int controller, RioSystemFavoritesProtocol favoritesProtocol,
             RioPresetsProtocol presetsProtocol, SocketSession session, RioHandlerCallback callback) {
-        super(session, callback);
+        super(session, callback, RioResponseRouter.zoneRoute(controller, zone));
 
         if (controller < 1 || controller > 6) {
             throw new IllegalArgumentException("Controller must be between 1-6: " + controller);
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.squeezebox.internal.utils;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link CliTokenizer} and the {@link StatusValueFilter} with lines as sent by the SqueezeBox Server.
+ *
+ */
+public class CliTokenizerTest {
+
+    private static final String MAC = "00%3A04%3A20%3A12%3A34%3A56";
+
+    private static final String STATUS = MAC + " status - 1 subscribe%3A10 tags%3AyagJlN player_name%3AKitchen "
+            + "power%3A1 mode%3Aplay time%3A12.345 mixer%20volume%3A-25 title%3AWish%20You%20Were%20Here "
+            + "artist%3AMot%C3%B6rhead%20%26%20Friends remote_title%3A50%25%20Off%2BMore";
+
+    @Test
+    public void splitsTokensAtWhitespace() {
+        CliTokenizer tokens = new CliTokenizer("  a  b\tc \r\n");
+        assertThat(tokens.next(), is(true));
+        assertThat(tokens.raw(0), is("a"));
+        assertThat(tokens.next(), is(true));
+        assertThat(tokens.raw(0), is("b"));
+        assertThat(tokens.next(), is(true));
+        assertThat(tokens.raw(0), is("c"));
+        assertThat(tokens.next(), is(false));
+        assertThat(tokens.next(), is(false));
+
+        assertThat(new CliTokenizer("").next(), is(false));
+        assertThat(new CliTokenizer("   ").next(), is(false));
+    }
+
+    @Test
+    public void decodesPercentEncodedTokens() {
+        CliTokenizer tokens = new CliTokenizer(STATUS);
+        assertThat(tokens.next(), is(true));
+        assertThat(tokens.decode(0), is("00:04:20:12:34:56"));
+        assertThat(tokens.raw(0), is(MAC));
+
+        skipTo(tokens, "title%3A");
+        assertThat(tokens.decode("title%3A".length()), is("Wish You Were Here"));
+
+        skipTo(tokens, "artist%3A");
+        assertThat(tokens.decode("artist%3A".length()), is("Motörhead & Friends"));
+
+        skipTo(tokens, "remote_title%3A");
+        assertThat(tokens.decode("remote_title%3A".length()), is("50% Off+More"));
+    }
+
+    @Test
+    public void decodesEscapedTokens() {
+        assertThat(CliTokenizer.decode("plain"), is("plain"));
+        assertThat(CliTokenizer.decode("a+b"), is("a b"));
+        assertThat(CliTokenizer.decode("%2B%25%20%3A"), is("+% :"));
+        assertThat(CliTokenizer.decode("caf%C3%A9"), is("café"));
+        assertThat(CliTokenizer.decode("broken%2"), is(nullValue()));
+        assertThat(CliTokenizer.decode("broken%zz"), is(nullValue()));
+    }
+
+    @Test
+    public void matchesPrefixesAndValues() {
+        CliTokenizer tokens = new CliTokenizer(STATUS);
+        skipTo(tokens, "power%3A");
+        assertThat(tokens.startsWith("power%3A1"), is(true));
+        assertThat(tokens.startsWith("power%3A10"), is(false));
+        assertThat(tokens.matchesAt("power%3A".length(), "1"), is(true));
+        assertThat(tokens.matchesAt("power%3A".length(), "10"), is(false));
+        assertThat(tokens.matchesAt("power%3A".length(), ""), is(false));
+        assertThat(tokens.matchesAt(0, "power%3A1"), is(true));
+
+        skipTo(tokens, "mode%3A");
+        assertThat(tokens.matchesAt("mode%3A".length(), "play"), is(true));
+        assertThat(tokens.matchesAt("mode%3A".length(), "pla"), is(false));
+    }
+
+    @Test
+    public void parsesNumbers() {
+        CliTokenizer tokens = new CliTokenizer(STATUS);
+        skipTo(tokens, "time%3A");
+        assertThat(tokens.parseInt("time%3A".length()), is(12));
+
+        skipTo(tokens, "mixer%20volume%3A");
+        assertThat(tokens.parseInt("mixer%20volume%3A".length()), is(-25));
+
+        tokens = new CliTokenizer("time%3A1.5e3 time%3A7 time%3A");
+        assertThat(tokens.next(), is(true));
+        assertThat(tokens.parseInt("time%3A".length()), is(1500));
+        assertThat(tokens.next(), is(true));
+        assertThat(tokens.parseInt("time%3A".length()), is(7));
+        assertThat(tokens.next(), is(true));
+        try {
+            tokens.parseInt("time%3A".length());
+            throw new AssertionError("an empty value must not be parsed");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void passesOnChangedStatusValuesOnly() {
+        StatusValueFilter filter = new StatusValueFilter();
+
+        assertThat(changedFields(filter, MAC, "time%3A12.345 power%3A1 mode%3Aplay"),
+                is("time%3A power%3A mode%3A "));
+        assertThat(changedFields(filter, MAC, "time%3A13.345 power%3A1 mode%3Aplay"), is("time%3A "));
+        assertThat(changedFields(filter, MAC, "time%3A13.345 power%3A1 mode%3Apause"), is("mode%3A "));
+        assertThat(changedFields(filter, MAC, "time%3A13.345 power%3A1 mode%3Apause"), is(""));
+
+        // the values are kept for each player
+        assertThat(changedFields(filter, "other", "time%3A13.345 power%3A1 mode%3Apause"),
+                is("time%3A power%3A mode%3A "));
+
+        filter.forgetFields(MAC, "power%3A");
+        assertThat(changedFields(filter, MAC, "time%3A13.345 power%3A1 mode%3Apause"), is("power%3A "));
+
+        filter.forgetPlayer(MAC);
+        assertThat(changedFields(filter, MAC, "time%3A13.345 power%3A1 mode%3Apause"),
+                is("time%3A power%3A mode%3A "));
+        assertThat(changedFields(filter, "other", "time%3A13.345 power%3A1 mode%3Apause"), is(""));
+
+        filter.clear();
+        assertThat(changedFields(filter, "other", "time%3A13.345 power%3A1 mode%3Apause"),
+                is("time%3A power%3A mode%3A "));
+    }
+
+    private static String changedFields(StatusValueFilter filter, String mac, String status) {
+        StringBuilder changed = new StringBuilder();
+        CliTokenizer tokens = new CliTokenizer(status);
+        while (tokens.next()) {
+            String field = tokens.raw(0).substring(0, tokens.raw(0).indexOf("%3A") + 3);
+            if (filter.changed(mac, field, tokens)) {
+                changed.append(field).append(' ');
+            }
+        }
+        return changed.toString();
+    }
+
+    private static void skipTo(CliTokenizer tokens, String prefix) {
+        while (tokens.next()) {
+            if (tokens.startsWith(prefix)) {
+                return;
+            }
+        }
+        throw new AssertionError("no token starts with " + prefix);
+    }
+}
@@ -41,7 +41,7 @@ import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.squeezebox.SqueezeBoxBindingConstants;
 import org.openhab.binding.squeezebox.config.SqueezeBoxPlayerConfig;
-import org.openhab.binding.squeezebox.internal.utils.HttpUtils;
+import org.openhab.binding.squeezebox.internal.utils.CoverArtCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -104,6 +104,11 @@ public class SqueezeBoxPlayerHandler extends BaseThingHandler implements Squeeze
      */
     private int notificationSoundVolume = -1;
 
+    /**
+     * The URL of the cover art of the current track
+     */
+    private volatile String coverArtUrl;
+
     /**
      * Creates SqueezeBox Player Handler
      *
@@ -363,13 +368,22 @@ public class SqueezeBoxPlayerHandler extends BaseThingHandler implements Squeeze
     }
 
     @Override
-    public void coverArtChangeEvent(String mac, String coverArtUrl) {
-        try {
-            byte[] data = HttpUtils.getData(coverArtUrl);
-            updateChannel(mac, CHANNEL_COVERART_DATA, new RawType(data));
-        } catch (Exception e) {
-            logger.debug("Could not get album art data", e);
+    public void coverArtChangeEvent(final String mac, final String coverArtUrl) {
+        if (!isMe(mac)) {
+            return;
         }
+        this.coverArtUrl = coverArtUrl;
+        CoverArtCache.getInstance().get(coverArtUrl).whenComplete((data, exception) -> {
+            if (!coverArtUrl.equals(this.coverArtUrl)) {
+                // the cover art has changed again while the image was downloaded
+                return;
+            }
+            if (exception != null) {
+                logger.debug("Could not get album art data", exception);
+            } else {
+                updateChannel(mac, CHANNEL_COVERART_DATA, new RawType(data));
+            }
+        });
     }
 
     @Override
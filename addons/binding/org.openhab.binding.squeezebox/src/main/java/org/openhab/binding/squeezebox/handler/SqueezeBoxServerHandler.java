@@ -15,16 +15,14 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.net.Socket;
-import java.net.URLDecoder;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -38,7 +36,10 @@ import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
+import org.openhab.binding.squeezebox.config.SqueezeBoxPlayerConfig;
 import org.openhab.binding.squeezebox.config.SqueezeBoxServerConfig;
+import org.openhab.binding.squeezebox.internal.utils.CliTokenizer;
+import org.openhab.binding.squeezebox.internal.utils.StatusValueFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,10 +68,50 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
     private static final int VOLUME_CHANGE_SIZE = 5;
     private static final String NEW_LINE = System.getProperty("line.separator");
 
+    // fields of the players list
+    private static final String PLAYER_INDEX = "playerindex%3A";
+    private static final String PLAYER_ID = "playerid%3A";
+    private static final String PLAYER_IP = "ip%3A";
+    private static final String PLAYER_UUID = "uuid%3A";
+    private static final String PLAYER_NAME = "name%3A";
+    private static final String PLAYER_MODEL = "model%3A";
+
+    // handled fields of a player status message
+    private static final String STATUS_POWER = "power%3A";
+    private static final String STATUS_VOLUME = "mixer%20volume%3A";
+    private static final String STATUS_MODE = "mode%3A";
+    private static final String STATUS_TIME = "time%3A";
+    private static final String STATUS_DURATION = "duration%3A";
+    private static final String STATUS_PLAYLIST_INDEX = "playlist_cur_index%3A";
+    private static final String STATUS_PLAYLIST_TRACKS = "playlist_tracks%3A";
+    private static final String STATUS_REPEAT = "playlist%20repeat%3A";
+    private static final String STATUS_SHUFFLE = "playlist%20shuffle%3A";
+    private static final String STATUS_TITLE = "title%3A";
+    private static final String STATUS_REMOTE_TITLE = "remote_title%3A";
+    private static final String STATUS_ARTIST = "artist%3A";
+    private static final String STATUS_ALBUM = "album%3A";
+    private static final String STATUS_GENRE = "genre%3A";
+    private static final String STATUS_YEAR = "year%3A";
+    private static final String STATUS_ARTWORK = "artwork_track_id%3A";
+    private static final String[] STATUS_FIELDS = { STATUS_POWER, STATUS_VOLUME, STATUS_MODE, STATUS_TIME,
+            STATUS_DURATION, STATUS_PLAYLIST_INDEX, STATUS_PLAYLIST_TRACKS, STATUS_REPEAT, STATUS_SHUFFLE,
+            STATUS_TITLE, STATUS_REMOTE_TITLE, STATUS_ARTIST, STATUS_ALBUM, STATUS_GENRE, STATUS_YEAR,
+            STATUS_ARTWORK };
+
     private List<SqueezeBoxPlayerEventListener> squeezeBoxPlayerListeners = Collections
             .synchronizedList(new ArrayList<SqueezeBoxPlayerEventListener>());
     private Map<String, SqueezeBoxPlayer> players = Collections
             .synchronizedMap(new HashMap<String, SqueezeBoxPlayer>());
+
+    /**
+     * The handlers of the player things by the MAC address of the player
+     */
+    private final Map<String, SqueezeBoxPlayerEventListener> playerHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * Passes on only the fields of the status messages which have changed
+     */
+    private final StatusValueFilter statusValues = new StatusValueFilter();
     // client socket and listener thread
     private Socket clientSocket;
     private SqueezeServerListener listener;
@@ -344,6 +385,7 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
             listener = null;
         }
         players.clear();
+        statusValues.clear();
         logger.trace("Squeeze Server connection stopped.");
     }
 
@@ -416,93 +458,82 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
             logger.debug("Squeeze Server listener exiting.");
         }
 
-        private String decode(String raw) {
-            try {
-                return URLDecoder.decode(raw, "UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                logger.debug("Failed to decode '{}' ", raw, e);
-                return null;
-            }
-        }
-
         private void handlePlayersList(String message) {
-            // Split out players
-            String[] playersList = message.split("playerindex\\S*\\s");
-            for (String playerParams : playersList) {
-
-                // For each player, split out parameters and decode parameter
-                String[] parameterList = playerParams.split("\\s");
-                for (int i = 0; i < parameterList.length; i++) {
-                    parameterList[i] = decode(parameterList[i]);
-                }
-
-                // parse out the MAC address first
-                String macAddress = null;
-                for (String parameter : parameterList) {
-                    if (parameter.contains("playerid")) {
-                        macAddress = parameter.substring(parameter.indexOf(":") + 1);
-                        break;
-                    }
-                }
-
-                // if none found then ignore this set of params
-                if (macAddress == null) {
+            CliTokenizer tokens = new CliTokenizer(message);
+            SqueezeBoxPlayer player = null;
+            while (tokens.next()) {
+                // every player starts with its index
+                if (tokens.startsWith(PLAYER_INDEX)) {
+                    addPlayer(player);
+                    player = new SqueezeBoxPlayer();
+                } else if (player == null) {
                     continue;
+                } else if (tokens.startsWith(PLAYER_ID)) {
+                    player.setMacAddress(tokens.decode(PLAYER_ID.length()));
+                } else if (tokens.startsWith(PLAYER_IP)) {
+                    player.setIpAddr(tokens.decode(PLAYER_IP.length()));
+                } else if (tokens.startsWith(PLAYER_UUID)) {
+                    player.setUuid(tokens.decode(PLAYER_UUID.length()));
+                } else if (tokens.startsWith(PLAYER_NAME)) {
+                    player.setName(tokens.decode(PLAYER_NAME.length()));
+                } else if (tokens.startsWith(PLAYER_MODEL)) {
+                    player.setModel(tokens.decode(PLAYER_MODEL.length()));
                 }
+            }
+            addPlayer(player);
+        }
 
-                final SqueezeBoxPlayer player = new SqueezeBoxPlayer();
-                player.setMacAddress(macAddress);
-                // populate the player state
-                for (String parameter : parameterList) {
-                    if (parameter.contains("ip")) {
-                        player.setIpAddr(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("uuid")) {
-                        player.setUuid(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("name")) {
-                        player.setName(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("model")) {
-                        player.setModel(parameter.substring(parameter.indexOf(":") + 1));
-                    }
-                }
+        private void addPlayer(final SqueezeBoxPlayer player) {
+            // if no MAC address has been found then ignore this player
+            if (player == null || player.getMacAddress() == null) {
+                return;
+            }
+            String macAddress = player.getMacAddress();
 
-                // Save player if we haven't seen it yet
-                if (!players.containsKey(macAddress)) {
-                    players.put(macAddress, player);
+            // Save player if we haven't seen it yet
+            if (!players.containsKey(macAddress)) {
+                players.put(macAddress, player);
+                statusValues.forgetPlayer(macAddress);
 
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.playerAdded(player);
-                        }
-                    });
+                updatePlayer(macAddress, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.playerAdded(player);
+                    }
+                });
 
-                    // tell the server we want to subscribe to player updates
-                    sendCommand(player.getMacAddress() + " status - 1 subscribe:10 tags:yagJlN");
-                }
+                // tell the server we want to subscribe to player updates
+                sendCommand(player.getMacAddress() + " status - 1 subscribe:10 tags:yagJlN");
             }
         }
 
         private void handlePlayerUpdate(String message) {
-            String[] messageParts = message.split("\\s");
-            if (messageParts.length < 2) {
+            CliTokenizer tokens = new CliTokenizer(message);
+            if (!tokens.next()) {
+                logger.warn("Invalid message - expecting at least 2 parts. Ignoring.");
+                return;
+            }
+            final String mac = tokens.decode(0);
+            if (!tokens.next()) {
                 logger.warn("Invalid message - expecting at least 2 parts. Ignoring.");
                 return;
             }
-
-            final String mac = decode(messageParts[0]);
 
             // get the message type
-            String messageType = messageParts[1];
+            String messageType = tokens.raw(0);
 
             if (messageType.equals("status")) {
-                handleStatusMessage(mac, messageParts);
+                handleStatusMessage(mac, tokens);
             } else if (messageType.equals("playlist")) {
-                handlePlaylistMessage(mac, messageParts);
+                handlePlaylistMessage(mac, tokens);
             } else if (messageType.equals("prefset")) {
-                handlePrefsetMessage(mac, messageParts);
+                handlePrefsetMessage(mac, tokens);
             } else if (messageType.equals("ir")) {
-                final String ircode = messageParts[2];
-                updatePlayer(new PlayerUpdateEvent() {
+                if (!tokens.next()) {
+                    return;
+                }
+                final String ircode = tokens.raw(0);
+                updatePlayer(mac, new PlayerUpdateEvent() {
                     @Override
                     public void updateListener(SqueezeBoxPlayerEventListener listener) {
                         listener.irCodeChangeEvent(mac, ircode);
@@ -522,214 +553,240 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
             }
         }
 
-        private void handleStatusMessage(final String mac, String[] messageParts) {
-            for (String messagePart : messageParts) {
-                // Parameter Power
-                if (messagePart.startsWith("power%3A")) {
-                    String value = messagePart.substring("power%3A".length());
-                    final boolean power = value.matches("1");
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.powerChangeEvent(mac, power);
-                        }
-                    });
-                }
-                // Parameter Volume
-                else if (messagePart.startsWith("mixer%20volume%3A")) {
-                    String value = messagePart.substring("mixer%20volume%3A".length());
-                    final int volume = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.volumeChangeEvent(mac, volume);
-                        }
-                    });
+        /**
+         * Returns the field of the status message the current token holds, null if the field is not handled.
+         */
+        private String getStatusField(CliTokenizer tokens) {
+            for (String field : STATUS_FIELDS) {
+                if (tokens.startsWith(field)) {
+                    return field;
                 }
-                // Parameter Mode
-                else if (messagePart.startsWith("mode%3A")) {
-                    final String mode = messagePart.substring("mode%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.modeChangeEvent(mac, mode);
-                        }
-                    });
-                }
-                // Parameter Playing Time
-                else if (messagePart.startsWith("time%3A")) {
-                    String value = messagePart.substring("time%3A".length());
-                    final int time = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlayingTimeEvent(mac, time);
-                        }
-                    });
-                }
-                // Parameter duration
-                else if (messagePart.startsWith("duration%3A")) {
-                    String value = messagePart.substring("duration%3A".length());
-                    final int duration = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.durationEvent(mac, duration);
-                        }
-                    });
-                }
-                // Parameter Playing Playlist Index
-                else if (messagePart.startsWith("playlist_cur_index%3A")) {
-                    String value = messagePart.substring("playlist_cur_index%3A".length());
-                    // player.setCurrentPlaylistIndex((int)
-                    // Integer.parseInt(value));
-                    final int index = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlaylistIndexEvent(mac, index);
-                        }
-                    });
-                }
-                // Parameter Playlist Number Tracks
-                else if (messagePart.startsWith("playlist_tracks%3A")) {
-                    String value = messagePart.substring("playlist_tracks%3A".length());
-                    final int track = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.numberPlaylistTracksEvent(mac, track);
-                        }
-                    });
-                }
-                // Parameter Playlist Repeat Mode
-                else if (messagePart.startsWith("playlist%20repeat%3A")) {
-                    String value = messagePart.substring("playlist%20repeat%3A".length());
-                    final int repeat = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlaylistRepeatEvent(mac, repeat);
-                        }
-                    });
-                }
-                // Parameter Playlist Shuffle Mode
-                else if (messagePart.startsWith("playlist%20shuffle%3A")) {
-                    String value = messagePart.substring("playlist%20shuffle%3A".length());
-                    final int shuffle = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlaylistShuffleEvent(mac, shuffle);
-                        }
-                    });
-                }
-                // Parameter Title
-                else if (messagePart.startsWith("title%3A")) {
-                    final String value = messagePart.substring("title%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.titleChangeEvent(mac, decode(value));
-                        }
-                    });
+            }
+            return null;
+        }
 
+        private void handleStatusMessage(final String mac, CliTokenizer tokens) {
+            while (tokens.next()) {
+                String field = getStatusField(tokens);
+                if (field == null) {
+                    // Added to be able to see additional status message types
+                    logger.trace("Unhandled status message type '{}'", tokens.raw(0));
+                    continue;
                 }
-                // Parameter Remote Title (radio)
-                else if (messagePart.startsWith("remote_title%3A")) {
-                    final String value = messagePart.substring("remote_title%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.remoteTitleChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Artist
-                else if (messagePart.startsWith("artist%3A")) {
-                    final String value = messagePart.substring("artist%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.artistChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Album
-                else if (messagePart.startsWith("album%3A")) {
-                    final String value = messagePart.substring("album%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.albumChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Genre
-                else if (messagePart.startsWith("genre%3A")) {
-                    final String value = messagePart.substring("genre%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.genreChangeEvent(mac, decode(value));
-                        }
-                    });
+
+                // the server repeats all fields in every status message, pass on only the changed ones
+                if (!statusValues.changed(mac, field, tokens)) {
+                    continue;
                 }
-                // Parameter Year
-                else if (messagePart.startsWith("year%3A")) {
-                    final String value = messagePart.substring("year%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.yearChangeEvent(mac, decode(value));
-                        }
-                    });
+
+                try {
+                    handleStatusField(mac, field, tokens);
+                } catch (NumberFormatException e) {
+                    logger.debug("Invalid value in status message '{}'", tokens.raw(0));
                 }
-                // Parameter Artwork
-                else if (messagePart.startsWith("artwork_track_id%3A")) {
-                    String url = messagePart.substring("artwork_track_id%3A".length());
-                    // NOTE: what is returned if not an artwork id? i.e. if a
-                    // space?
-                    if (!url.startsWith(" ")) {
-                        url = "http://" + host + ":" + webport + "/music/" + url + "/cover.jpg";
+            }
+        }
+
+        private void handleStatusField(final String mac, String field, CliTokenizer tokens) {
+            // Parameter Power
+            if (field == STATUS_POWER) {
+                final boolean power = tokens.matchesAt(field.length(), "1");
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.powerChangeEvent(mac, power);
                     }
-                    final String value = url;
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.coverArtChangeEvent(mac, decode(value));
-                        }
-                    });
-                } else {
-                    // Added to be able to see additional status message types
-                    logger.trace("Unhandled status message type '{}'", messagePart);
-                }
+                });
             }
+            // Parameter Volume
+            else if (field == STATUS_VOLUME) {
+                final int volume = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.volumeChangeEvent(mac, volume);
+                    }
+                });
+            }
+            // Parameter Mode
+            else if (field == STATUS_MODE) {
+                final String mode = tokens.raw(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.modeChangeEvent(mac, mode);
+                    }
+                });
+            }
+            // Parameter Playing Time
+            else if (field == STATUS_TIME) {
+                final int time = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.currentPlayingTimeEvent(mac, time);
+                    }
+                });
+            }
+            // Parameter duration
+            else if (field == STATUS_DURATION) {
+                final int duration = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.durationEvent(mac, duration);
+                    }
+                });
+            }
+            // Parameter Playing Playlist Index
+            else if (field == STATUS_PLAYLIST_INDEX) {
+                final int index = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.currentPlaylistIndexEvent(mac, index);
+                    }
+                });
+            }
+            // Parameter Playlist Number Tracks
+            else if (field == STATUS_PLAYLIST_TRACKS) {
+                final int track = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.numberPlaylistTracksEvent(mac, track);
+                    }
+                });
+            }
+            // Parameter Playlist Repeat Mode
+            else if (field == STATUS_REPEAT) {
+                final int repeat = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.currentPlaylistRepeatEvent(mac, repeat);
+                    }
+                });
+            }
+            // Parameter Playlist Shuffle Mode
+            else if (field == STATUS_SHUFFLE) {
+                final int shuffle = tokens.parseInt(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.currentPlaylistShuffleEvent(mac, shuffle);
+                    }
+                });
+            }
+            // Parameter Title
+            else if (field == STATUS_TITLE) {
+                final String value = tokens.decode(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.titleChangeEvent(mac, value);
+                    }
+                });
+            }
+            // Parameter Remote Title (radio)
+            else if (field == STATUS_REMOTE_TITLE) {
+                final String value = tokens.decode(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.remoteTitleChangeEvent(mac, value);
+                    }
+                });
+            }
+            // Parameter Artist
+            else if (field == STATUS_ARTIST) {
+                final String value = tokens.decode(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.artistChangeEvent(mac, value);
+                    }
+                });
+            }
+            // Parameter Album
+            else if (field == STATUS_ALBUM) {
+                final String value = tokens.decode(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.albumChangeEvent(mac, value);
+                    }
+                });
+            }
+            // Parameter Genre
+            else if (field == STATUS_GENRE) {
+                final String value = tokens.decode(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.genreChangeEvent(mac, value);
+                    }
+                });
+            }
+            // Parameter Year
+            else if (field == STATUS_YEAR) {
+                final String value = tokens.decode(field.length());
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.yearChangeEvent(mac, value);
+                    }
+                });
+            }
+            // Parameter Artwork
+            else if (field == STATUS_ARTWORK) {
+                final String value = CliTokenizer
+                        .decode("http://" + host + ":" + webport + "/music/" + tokens.raw(field.length()) + "/cover.jpg");
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.coverArtChangeEvent(mac, value);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Makes sure the next status message passes on the given fields, because an event has been sent for them
+         * which did not come from a status message.
+         */
+        private void forgetStatusValues(String mac, String... fields) {
+            statusValues.forgetFields(mac, fields);
         }
 
-        private void handlePlaylistMessage(final String mac, String[] messageParts) {
-            String action = messageParts[2];
+        private void handlePlaylistMessage(final String mac, CliTokenizer tokens) {
+            if (!tokens.next()) {
+                return;
+            }
+            String action = tokens.raw(0);
             String mode;
             if (action.equals("newsong")) {
                 mode = "play";
                 // Set the track duration to 0
-                updatePlayer(new PlayerUpdateEvent() {
+                forgetStatusValues(mac, STATUS_DURATION);
+                updatePlayer(mac, new PlayerUpdateEvent() {
                     @Override
                     public void updateListener(SqueezeBoxPlayerEventListener listener) {
                         listener.durationEvent(mac, 0);
                     }
                 });
             } else if (action.equals("pause")) {
-                mode = messageParts[3].equals("0") ? "play" : "pause";
+                mode = tokens.next() && tokens.matchesAt(0, "0") ? "play" : "pause";
             } else if (action.equals("stop")) {
                 mode = "stop";
             } else {
                 // Added so that actions (such as delete, index, jump, open) are not treated as "play"
-                logger.trace("Unhandled playlist message type '{}'", Arrays.toString(messageParts));
+                logger.trace("Unhandled playlist message type '{}'", action);
                 return;
             }
+            forgetStatusValues(mac, STATUS_MODE);
             final String value = mode;
-            updatePlayer(new PlayerUpdateEvent() {
+            updatePlayer(mac, new PlayerUpdateEvent() {
                 @Override
                 public void updateListener(SqueezeBoxPlayerEventListener listener) {
                     listener.modeChangeEvent(mac, value);
@@ -737,33 +794,34 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
             });
         }
 
-        private void handlePrefsetMessage(final String mac, String[] messageParts) {
-            if (messageParts.length < 5) {
+        private void handlePrefsetMessage(final String mac, CliTokenizer tokens) {
+            // server prefsets
+            if (!tokens.next() || !tokens.matchesAt(0, "server") || !tokens.next()) {
+                return;
+            }
+            String function = tokens.raw(0);
+            if (!tokens.next()) {
                 return;
             }
 
-            // server prefsets
-            if (messageParts[2].equals("server")) {
-                String function = messageParts[3];
-                String value = messageParts[4];
-
-                if (function.equals("power")) {
-                    final boolean power = value.equals("1");
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.powerChangeEvent(mac, power);
-                        }
-                    });
-                } else if (function.equals("volume")) {
-                    final int volume = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.volumeChangeEvent(mac, volume);
-                        }
-                    });
-                }
+            if (function.equals("power")) {
+                final boolean power = tokens.matchesAt(0, "1");
+                forgetStatusValues(mac, STATUS_POWER);
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.powerChangeEvent(mac, power);
+                    }
+                });
+            } else if (function.equals("volume")) {
+                final int volume = tokens.parseInt(0);
+                forgetStatusValues(mac, STATUS_VOLUME);
+                updatePlayer(mac, new PlayerUpdateEvent() {
+                    @Override
+                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
+                        listener.volumeChangeEvent(mac, volume);
+                    }
+                });
             }
         }
     }
@@ -780,29 +838,67 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
     }
 
     /**
-     * Update Listeners and child Squeeze Player Things
+     * Update Listeners and the child Squeeze Player Thing of the player
      *
+     * @param mac the MAC address of the player the event is about
      * @param event
      */
-    private void updatePlayer(PlayerUpdateEvent event) {
+    private void updatePlayer(String mac, PlayerUpdateEvent event) {
         // update listeners like disco services
         for (SqueezeBoxPlayerEventListener listener : squeezeBoxPlayerListeners) {
             event.updateListener(listener);
         }
-        // update our children
-        Bridge bridge = getThing();
+        // update our child
+        SqueezeBoxPlayerEventListener handler = getPlayerHandler(mac);
+        if (handler != null && !squeezeBoxPlayerListeners.contains(handler)) {
+            event.updateListener(handler);
+        }
+    }
 
-        if (bridge == null) {
-            return;
+    /**
+     * Returns the handler of the player thing with the given MAC address
+     *
+     * @param mac
+     * @return the handler or null, if there is no initialized thing for the player
+     */
+    private SqueezeBoxPlayerEventListener getPlayerHandler(String mac) {
+        SqueezeBoxPlayerEventListener handler = playerHandlers.get(mac);
+        if (handler != null) {
+            return handler;
         }
 
-        List<Thing> things = bridge.getThings();
-        for (Thing thing : things) {
-            ThingHandler handler = thing.getHandler();
-            if (handler instanceof SqueezeBoxPlayerEventListener && !squeezeBoxPlayerListeners.contains(handler)) {
-                event.updateListener((SqueezeBoxPlayerEventListener) handler);
+        // the handler might have been initialized before this bridge handler
+        Bridge bridge = getThing();
+        if (bridge == null) {
+            return null;
+        }
+        for (Thing thing : bridge.getThings()) {
+            ThingHandler thingHandler = thing.getHandler();
+            if (thingHandler instanceof SqueezeBoxPlayerEventListener && mac.equals(getPlayerMac(thing))) {
+                playerHandlers.put(mac, (SqueezeBoxPlayerEventListener) thingHandler);
+                return (SqueezeBoxPlayerEventListener) thingHandler;
             }
         }
+        return null;
+    }
+
+    private String getPlayerMac(Thing thing) {
+        return thing.getConfiguration().as(SqueezeBoxPlayerConfig.class).mac;
+    }
+
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        String mac = getPlayerMac(childThing);
+        if (childHandler instanceof SqueezeBoxPlayerEventListener && mac != null) {
+            playerHandlers.put(mac, (SqueezeBoxPlayerEventListener) childHandler);
+            // pass on the complete state with the next status message
+            statusValues.forgetPlayer(mac);
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        playerHandlers.values().remove(childHandler);
     }
 
     /**
@@ -813,6 +909,8 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
      */
     public boolean registerSqueezeBoxPlayerListener(SqueezeBoxPlayerEventListener squeezeBoxPlayerListener) {
         logger.trace("Registering player listener");
+        // pass on the complete state of all players with the next status messages
+        statusValues.clear();
         return squeezeBoxPlayerListeners.add(squeezeBoxPlayerListener);
     }
 
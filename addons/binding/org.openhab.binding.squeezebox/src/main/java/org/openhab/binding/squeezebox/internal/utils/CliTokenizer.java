@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.squeezebox.internal.utils;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+/**
+ * Splits a line received from the command line interface of a SqueezeBox Server into its URL encoded tokens without
+ * copying them. Only the tokens (or parts of tokens) which are actually used are copied and decoded.
+ *
+ * <pre>
+ * CliTokenizer tokens = new CliTokenizer(line);
+ * while (tokens.next()) {
+ *     if (tokens.startsWith("title%3A")) {
+ *         String title = tokens.decode("title%3A".length());
+ *     }
+ * }
+ * </pre>
+ *
+ */
+public class CliTokenizer {
+
+    private final String line;
+    private int start;
+    private int end;
+
+    public CliTokenizer(String line) {
+        this.line = line;
+    }
+
+    /**
+     * Advances to the next token. Consecutive whitespace is skipped.
+     *
+     * @return true if there is a next token, false at the end of the line
+     */
+    public boolean next() {
+        int pos = end;
+        int length = line.length();
+        while (pos < length && isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        if (pos >= length) {
+            start = end = length;
+            return false;
+        }
+        start = pos;
+        while (pos < length && !isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+        end = pos;
+        return true;
+    }
+
+    /**
+     * Returns true if the current token starts with the given (encoded) prefix.
+     */
+    public boolean startsWith(String prefix) {
+        return prefix.length() <= end - start && line.startsWith(prefix, start);
+    }
+
+    /**
+     * Returns true if the current token, from the given offset on, equals the given (encoded) value.
+     */
+    public boolean matchesAt(int offset, String value) {
+        return value.length() == end - start - offset && line.startsWith(value, start + offset);
+    }
+
+    /**
+     * Returns the encoded current token from the given offset on.
+     */
+    public String raw(int offset) {
+        return line.substring(start + offset, end);
+    }
+
+    /**
+     * Returns the decoded current token from the given offset on.
+     */
+    public String decode(int offset) {
+        return decode(raw(offset));
+    }
+
+    /**
+     * Returns the integer part of the numeric value of the current token from the given offset on, e.g. 12 for
+     * <code>time%3A12.345</code> and offset 7.
+     *
+     * @throws NumberFormatException if the value is not a number
+     */
+    public int parseInt(int offset) {
+        int pos = start + offset;
+        boolean negative = pos < end && line.charAt(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        if (pos >= end) {
+            throw new NumberFormatException("Not a number: '" + raw(offset) + "'");
+        }
+        int value = 0;
+        boolean fraction = false;
+        for (; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                if (!fraction) {
+                    value = value * 10 + (c - '0');
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                // exponents and other unusual formats
+                return (int) Double.parseDouble(raw(offset));
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * URL decodes a token. Tokens without escaped characters are returned as they are.
+     *
+     * @return the decoded token or null, if it can not be decoded
+     */
+    public static String decode(String raw) {
+        if (raw.indexOf('%') < 0 && raw.indexOf('+') < 0) {
+            return raw;
+        }
+        try {
+            return URLDecoder.decode(raw, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\f' || c == 0x0B;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.squeezebox.internal.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link CoverArtCache} downloads the cover art of all players and keeps the most recently used images in memory,
+ * up to {@link #DEFAULT_MAX_SIZE} bytes in total. Downloads run on the {@link #THREADPOOL_NAME} thread pool, so they
+ * never block the thread reading the CLI of the server. Concurrent requests for the same URL share a single download.
+ *
+ */
+public class CoverArtCache {
+
+    /**
+     * The name of the thread pool the images are downloaded on
+     */
+    public static final String THREADPOOL_NAME = "squeezebox";
+
+    /**
+     * The maximum number of bytes of all cached images together
+     */
+    public static final int DEFAULT_MAX_SIZE = 4 * 1024 * 1024;
+
+    private static final CoverArtCache INSTANCE = new CoverArtCache(DEFAULT_MAX_SIZE,
+            ThreadPoolManager.getPool(THREADPOOL_NAME));
+
+    private final Logger logger = LoggerFactory.getLogger(CoverArtCache.class);
+
+    private final long maxSize;
+    private final Executor executor;
+
+    /**
+     * The cached images in the order of their last use, guarded by itself
+     */
+    private final Map<String, byte[]> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * The running downloads by their URL
+     */
+    private final ConcurrentMap<String, CompletableFuture<byte[]>> downloads = new ConcurrentHashMap<>();
+
+    CoverArtCache(long maxSize, Executor executor) {
+        this.maxSize = maxSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the cache shared by all players.
+     */
+    public static CoverArtCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the image of the given URL, downloading it if it is not cached.
+     *
+     * @param url the URL of the image
+     * @return a future which is completed with the image data, immediately if the image is cached and otherwise by the
+     *         thread which downloaded it. It fails, if the image can not be downloaded.
+     */
+    public CompletableFuture<byte[]> get(final String url) {
+        byte[] data = getCached(url);
+        if (data != null) {
+            return CompletableFuture.completedFuture(data);
+        }
+
+        final CompletableFuture<byte[]> download = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = downloads.putIfAbsent(url, download);
+        if (running != null) {
+            logger.trace("Cover art {} is already being downloaded", url);
+            return running;
+        }
+
+        // the image might have been cached by a download which finished in the meantime
+        data = getCached(url);
+        if (data != null) {
+            downloads.remove(url, download);
+            download.complete(data);
+            return download;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        byte[] image = HttpUtils.getData(url);
+                        put(url, image);
+                        download.complete(image);
+                    } catch (Exception e) {
+                        download.completeExceptionally(e);
+                    } finally {
+                        downloads.remove(url, download);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            downloads.remove(url, download);
+            download.completeExceptionally(e);
+        }
+        return download;
+    }
+
+    private byte[] getCached(String url) {
+        synchronized (images) {
+            return images.get(url);
+        }
+    }
+
+    private void put(String url, byte[] image) {
+        if (image.length > maxSize) {
+            logger.debug("Cover art {} with {} bytes is too large to be cached", url, image.length);
+            return;
+        }
+        synchronized (images) {
+            byte[] previous = images.put(url, image);
+            if (previous != null) {
+                size -= previous.length;
+            }
+            size += image.length;
+
+            Iterator<byte[]> eldest = images.values().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                size -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+}
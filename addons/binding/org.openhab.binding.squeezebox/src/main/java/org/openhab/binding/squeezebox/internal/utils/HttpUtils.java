@@ -8,6 +8,7 @@
  */
 package org.openhab.binding.squeezebox.internal.utils;
 
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.concurrent.TimeUnit;
@@ -79,7 +80,11 @@ public class HttpUtils {
     public static byte[] getData(String urlString) throws Exception {
         URL url = new URL(urlString);
         URLConnection connection = url.openConnection();
-        return IOUtils.toByteArray(connection.getInputStream());
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        try (InputStream in = connection.getInputStream()) {
+            return IOUtils.toByteArray(in);
+        }
     }
 
     /**
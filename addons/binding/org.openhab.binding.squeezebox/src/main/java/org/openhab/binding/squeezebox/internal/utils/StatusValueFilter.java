@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.squeezebox.internal.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SqueezeBox Server repeats all fields in every status message of a player. The {@link StatusValueFilter}
+ * remembers the (encoded) values of the last status message by the MAC address of the player, so only the fields
+ * which have changed are passed on.
+ *
+ * The values of a player are only read and updated by the thread reading from the server, but they may be forgotten
+ * by any thread.
+ *
+ */
+public class StatusValueFilter {
+
+    private final Map<String, Map<String, String>> values = new ConcurrentHashMap<>();
+
+    /**
+     * Checks whether the value of a field has changed since the last status message of the player and remembers the
+     * new value.
+     *
+     * @param mac the MAC address of the player
+     * @param field the (encoded) field including its separator, e.g. <code>time%3A</code>
+     * @param tokens the tokenizer positioned on the token holding the field
+     * @return true if the value differs from the last value of the field or if the field has no value yet
+     */
+    public boolean changed(String mac, String field, CliTokenizer tokens) {
+        Map<String, String> lastValues = values.get(mac);
+        if (lastValues == null) {
+            lastValues = new HashMap<>();
+            values.put(mac, lastValues);
+        }
+
+        String lastValue = lastValues.get(field);
+        if (lastValue != null && tokens.matchesAt(field.length(), lastValue)) {
+            return false;
+        }
+        lastValues.put(field, tokens.raw(field.length()));
+        return true;
+    }
+
+    /**
+     * Makes sure the next status message of the player passes on the given fields.
+     */
+    public void forgetFields(String mac, String... fields) {
+        Map<String, String> lastValues = values.get(mac);
+        if (lastValues != null) {
+            for (String field : fields) {
+                lastValues.remove(field);
+            }
+        }
+    }
+
+    /**
+     * Makes sure the next status message of the player passes on all fields.
+     */
+    public void forgetPlayer(String mac) {
+        values.remove(mac);
+    }
+
+    /**
+     * Makes sure the next status messages of all players pass on all fields.
+     */
+    public void clear() {
+        values.clear();
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.model
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.concurrent.TimeUnit
+
+import org.eclipse.smarthome.core.library.types.DecimalType
+import org.junit.Before
+import org.junit.Test
+
+import oshi.hardware.CentralProcessor
+import oshi.hardware.ComputerSystem
+import oshi.hardware.Display
+import oshi.hardware.GlobalMemory
+import oshi.hardware.HWDiskStore
+import oshi.hardware.HardwareAbstractionLayer
+import oshi.hardware.NetworkIF
+import oshi.hardware.PowerSource
+import oshi.hardware.Sensors
+import oshi.hardware.UsbDevice
+import oshi.software.os.FileSystem
+import oshi.software.os.NetworkParams
+import oshi.software.os.OSFileStore
+import oshi.software.os.OSProcess
+import oshi.software.os.OperatingSystem
+import oshi.software.os.OperatingSystemVersion
+
+/**
+ * Tests the sampling passes of {@link OshiSysteminfo} and the rates computed from the counters of two passes with
+ * fake network interface and drive counters.
+ *
+ */
+class OshiSysteminfoTest {
+
+    private static final long START = TimeUnit.HOURS.toNanos(1)
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1)
+    private static final long HALF_SECOND = TimeUnit.MILLISECONDS.toNanos(500)
+
+    private FakeNetworkIF network
+    private HWDiskStore drive
+    private FakeHardware hardware
+    private OshiSysteminfo systeminfo
+
+    @Before
+    public void setUp() {
+        network = new FakeNetworkIF("eth0")
+        network.setBytesSent(1000000L)
+        network.setBytesRecv(5000000L)
+        network.setPacketsSent(1000L)
+        network.setPacketsRecv(4000L)
+
+        drive = new HWDiskStore()
+        drive.setName("sda")
+        drive.setReadBytes(10000000L)
+        drive.setWriteBytes(20000000L)
+        drive.setReads(1000L)
+        drive.setWrites(2000L)
+
+        hardware = new FakeHardware(network, drive)
+        systeminfo = new OshiSysteminfo(hardware, new FakeOperatingSystem())
+    }
+
+    @Test
+    public void 'the first pass has no rates'() {
+        systeminfo.startSamplingPass(START)
+
+        assertThat systeminfo.getNetworkDataSentRate(0), is(nullValue())
+        assertThat systeminfo.getNetworkDataReceivedRate(0), is(nullValue())
+        assertThat systeminfo.getDriveReadRate(0), is(nullValue())
+        assertThat systeminfo.getDriveWriteRate(0), is(nullValue())
+        assertThat systeminfo.getDriveOperationsRate(0), is(nullValue())
+    }
+
+    @Test
+    public void 'rates are computed from the counter deltas of two passes'() {
+        systeminfo.startSamplingPass(START)
+        systeminfo.getNetworkDataSentRate(0)
+        systeminfo.getDriveReadRate(0)
+
+        network.setBytesSent(network.getBytesSent() + 204800L)
+        network.setBytesRecv(network.getBytesRecv() + 1024000L)
+        drive.setReadBytes(drive.getReadBytes() + 2097152L)
+        drive.setWriteBytes(drive.getWriteBytes() + 512000L)
+        drive.setReads(drive.getReads() + 100L)
+        drive.setWrites(drive.getWrites() + 200L)
+        systeminfo.startSamplingPass(START + 2 * SECOND)
+
+        assertValue(100.0, systeminfo.getNetworkDataSentRate(0))
+        assertValue(500.0, systeminfo.getNetworkDataReceivedRate(0))
+        assertValue(1024.0, systeminfo.getDriveReadRate(0))
+        assertValue(250.0, systeminfo.getDriveWriteRate(0))
+        assertValue(150.0, systeminfo.getDriveOperationsRate(0))
+    }
+
+    @Test
+    public void 'the counters are read once per pass'() {
+        systeminfo.startSamplingPass(START)
+        int driveQueries = hardware.driveQueries
+        assertValue(1000.0, systeminfo.getNetworkPacketsSent(0))
+        assertValue(4000.0, systeminfo.getNetworkPacketsReceived(0))
+        systeminfo.getDriveReadRate(0)
+        systeminfo.getDriveOperationsRate(0)
+
+        network.setPacketsSent(1500L)
+        assertValue(1000.0, systeminfo.getNetworkPacketsSent(0))
+        assertThat network.updates, is(1)
+        assertThat hardware.driveQueries, is(driveQueries + 1)
+
+        systeminfo.startSamplingPass(START + 2 * SECOND)
+        assertValue(1500.0, systeminfo.getNetworkPacketsSent(0))
+        systeminfo.getDriveWriteRate(0)
+        assertThat network.updates, is(2)
+        assertThat hardware.driveQueries, is(driveQueries + 2)
+    }
+
+    @Test
+    public void 'passes less than a second apart reuse the rates'() {
+        systeminfo.startSamplingPass(START)
+        systeminfo.getNetworkDataSentRate(0)
+
+        network.setBytesSent(network.getBytesSent() + 204800L)
+        systeminfo.startSamplingPass(START + 2 * SECOND)
+        assertValue(100.0, systeminfo.getNetworkDataSentRate(0))
+
+        // the pass of the next tick right after it keeps the rate and the base of the next rate
+        network.setBytesSent(network.getBytesSent() + 512000L)
+        systeminfo.startSamplingPass(START + 2 * SECOND + HALF_SECOND)
+        assertValue(100.0, systeminfo.getNetworkDataSentRate(0))
+
+        systeminfo.startSamplingPass(START + 4 * SECOND)
+        assertValue(250.0, systeminfo.getNetworkDataSentRate(0))
+    }
+
+    @Test
+    public void 'a counter reset is no rate'() {
+        systeminfo.startSamplingPass(START)
+        systeminfo.getNetworkDataSentRate(0)
+
+        network.setBytesSent(1000L)
+        systeminfo.startSamplingPass(START + 2 * SECOND)
+        assertThat systeminfo.getNetworkDataSentRate(0), is(nullValue())
+
+        network.setBytesSent(1000L + 409600L)
+        systeminfo.startSamplingPass(START + 4 * SECOND)
+        assertValue(200.0, systeminfo.getNetworkDataSentRate(0))
+    }
+
+    private static void assertValue(double expected, DecimalType actual) {
+        assertThat actual, is(notNullValue())
+        assertEquals(expected, actual.doubleValue(), 0.001)
+    }
+
+    private static class FakeNetworkIF extends NetworkIF {
+        private final String name
+        private int updates
+
+        FakeNetworkIF(String name) {
+            this.name = name
+        }
+
+        @Override
+        public String getName() {
+            return name
+        }
+
+        @Override
+        public void updateNetworkStats() {
+            updates++
+        }
+    }
+
+    private static class FakeHardware implements HardwareAbstractionLayer {
+        private final NetworkIF network
+        private final HWDiskStore drive
+        private int driveQueries
+
+        FakeHardware(NetworkIF network, HWDiskStore drive) {
+            this.network = network
+            this.drive = drive
+        }
+
+        @Override
+        public NetworkIF[] getNetworkIFs() {
+            return [network] as NetworkIF[]
+        }
+
+        @Override
+        public HWDiskStore[] getDiskStores() {
+            driveQueries++
+            return [drive] as HWDiskStore[]
+        }
+
+        @Override
+        public ComputerSystem getComputerSystem() {
+            return null
+        }
+
+        @Override
+        public CentralProcessor getProcessor() {
+            return null
+        }
+
+        @Override
+        public GlobalMemory getMemory() {
+            return null
+        }
+
+        @Override
+        public PowerSource[] getPowerSources() {
+            return new PowerSource[0]
+        }
+
+        @Override
+        public Display[] getDisplays() {
+            return new Display[0]
+        }
+
+        @Override
+        public Sensors getSensors() {
+            return null
+        }
+
+        @Override
+        public UsbDevice[] getUsbDevices(boolean tree) {
+            return new UsbDevice[0]
+        }
+    }
+
+    private static class FakeFileSystem implements FileSystem {
+        @Override
+        public OSFileStore[] getFileStores() {
+            return new OSFileStore[0]
+        }
+
+        @Override
+        public long getOpenFileDescriptors() {
+            return 0
+        }
+
+        @Override
+        public long getMaxFileDescriptors() {
+            return 0
+        }
+    }
+
+    private static class FakeOperatingSystem implements OperatingSystem {
+        @Override
+        public FileSystem getFileSystem() {
+            return new FakeFileSystem()
+        }
+
+        @Override
+        public OSProcess[] getProcesses(int limit, OperatingSystem.ProcessSort sort) {
+            return new OSProcess[0]
+        }
+
+        @Override
+        public OSProcess getProcess(int pid) {
+            return null
+        }
+
+        @Override
+        public String getFamily() {
+            return null
+        }
+
+        @Override
+        public String getManufacturer() {
+            return null
+        }
+
+        @Override
+        public OperatingSystemVersion getVersion() {
+            return null
+        }
+
+        @Override
+        public int getProcessId() {
+            return 0
+        }
+
+        @Override
+        public int getProcessCount() {
+            return 0
+        }
+
+        @Override
+        public int getThreadCount() {
+            return 0
+        }
+
+        @Override
+        public NetworkParams getNetworkParams() {
+            return null
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.model
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.LinkedHashMap
+import java.util.Map
+
+import org.junit.Before
+import org.junit.Test
+import org.openhab.binding.systeminfo.model.ProcessWatcher.ProcessSample
+
+import oshi.software.os.FileSystem
+import oshi.software.os.NetworkParams
+import oshi.software.os.OSProcess
+import oshi.software.os.OperatingSystem
+import oshi.software.os.OperatingSystemVersion
+
+/**
+ * Tests the name resolution and the CPU usage calculation of the {@link ProcessWatcher} with a fake process table.
+ *
+ */
+class ProcessWatcherTest {
+
+    private static final long NEVER = Long.MAX_VALUE
+
+    private FakeOperatingSystem operatingSystem
+
+    @Before
+    public void setUp() {
+        operatingSystem = new FakeOperatingSystem()
+        operatingSystem.start(1, "java", 1000L)
+        operatingSystem.start(2, "java", 2000L)
+        operatingSystem.start(3, "php-fpm", 3000L)
+        operatingSystem.start(4, "php-fpm: pool www", 4000L)
+    }
+
+    @Test
+    public void 'names and regular expressions are resolved with one scan'() {
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(2)
+        assertThat watcher.getSample("php-fpm.*").getProcessCount(), is(2)
+        assertThat watcher.getSample("python").getProcessCount(), is(0)
+        // a scan resolves the names watched so far, a new name needs another one
+        assertThat operatingSystem.scans, is(3)
+
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(2)
+        assertThat watcher.getSample("php-fpm.*").getProcessCount(), is(2)
+        assertThat watcher.getSample("python").getProcessCount(), is(0)
+        assertThat operatingSystem.scans, is(3)
+        assertThat operatingSystem.queries, is(4)
+    }
+
+    @Test
+    public void 'samples are summed up per name and computed once per pass'() {
+        operatingSystem.processes.get(1).setResidentSetSize(100L)
+        operatingSystem.processes.get(1).setThreadCount(10)
+        operatingSystem.processes.get(2).setResidentSetSize(200L)
+        operatingSystem.processes.get(2).setThreadCount(20)
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+
+        watcher.startPass()
+        ProcessSample sample = watcher.getSample("java")
+        assertThat sample.getResidentSetSize(), is(300L)
+        assertThat sample.getThreadCount(), is(30)
+        assertThat watcher.getSample("java"), is(sameInstance(sample))
+        assertThat operatingSystem.queries, is(0)
+    }
+
+    @Test
+    public void 'the table is scanned again when a watched process has exited'() {
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(2)
+
+        operatingSystem.processes.remove(2)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(1)
+        assertThat operatingSystem.scans, is(2)
+
+        // a new process with the PID of an exited one is no replacement
+        operatingSystem.start(1, "java", 9000L)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(1)
+        assertThat operatingSystem.scans, is(3)
+    }
+
+    @Test
+    public void 'processes started later are found by the periodic scan'() {
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(2)
+
+        operatingSystem.start(5, "java", 5000L)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(2)
+
+        watcher = new ProcessWatcher(operatingSystem, NEVER, 0L)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(3)
+        operatingSystem.start(6, "java", 6000L)
+        watcher.startPass()
+        assertThat watcher.getSample("java").getProcessCount(), is(4)
+    }
+
+    @Test
+    public void 'unresolved names are scanned for periodically'() {
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+        watcher.startPass()
+        assertThat watcher.getSample("python").getProcessCount(), is(0)
+        operatingSystem.start(5, "python", 5000L)
+        watcher.startPass()
+        assertThat watcher.getSample("python").getProcessCount(), is(0)
+
+        watcher = new ProcessWatcher(operatingSystem, 0L, NEVER)
+        watcher.startPass()
+        operatingSystem.processes.remove(5)
+        assertThat watcher.getSample("python").getProcessCount(), is(0)
+        operatingSystem.start(5, "python", 5000L)
+        watcher.startPass()
+        assertThat watcher.getSample("python").getProcessCount(), is(1)
+    }
+
+    @Test
+    public void 'the CPU usage is computed from the difference to the previous sample'() {
+        OSProcess process = operatingSystem.processes.get(3)
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+
+        // the first sample is the average over the lifetime
+        setTimes(process, 2000L, 3000L, 10000L)
+        watcher.startPass()
+        assertEquals(50.0, watcher.getCpuUsage(process), 0.001)
+
+        setTimes(process, 2000L, 3500L, 12000L)
+        assertEquals(50.0, watcher.getCpuUsage(process), 0.001)
+
+        watcher.startPass()
+        assertEquals(25.0, watcher.getCpuUsage(process), 0.001)
+
+        // four threads busy at the same time
+        setTimes(process, 4000L, 5500L, 13000L)
+        watcher.startPass()
+        assertEquals(400.0, watcher.getCpuUsage(process), 0.001)
+
+        // a new process with the same PID starts with its lifetime average again
+        OSProcess restarted = operatingSystem.start(3, "php-fpm", 90000L)
+        setTimes(restarted, 100L, 100L, 1000L)
+        watcher.startPass()
+        assertEquals(20.0, watcher.getCpuUsage(restarted), 0.001)
+    }
+
+    @Test
+    public void 'the CPU usage of a name is the sum of its processes'() {
+        setTimes(operatingSystem.processes.get(1), 1000L, 0L, 10000L)
+        setTimes(operatingSystem.processes.get(2), 2000L, 0L, 10000L)
+        ProcessWatcher watcher = new ProcessWatcher(operatingSystem, NEVER, NEVER)
+
+        watcher.startPass()
+        assertEquals(30.0, watcher.getSample("java").getCpuUsage(), 0.001)
+
+        setTimes(operatingSystem.processes.get(1), 2000L, 0L, 20000L)
+        setTimes(operatingSystem.processes.get(2), 2000L, 0L, 20000L)
+        watcher.startPass()
+        assertEquals(10.0, watcher.getSample("java").getCpuUsage(), 0.001)
+    }
+
+    private static void setTimes(OSProcess process, long kernelTime, long userTime, long upTime) {
+        process.setKernelTime(kernelTime)
+        process.setUserTime(userTime)
+        process.setUpTime(upTime)
+    }
+
+    private static class FakeOperatingSystem implements OperatingSystem {
+        private final Map<Integer, OSProcess> processes = new LinkedHashMap<Integer, OSProcess>()
+        private int scans
+        private int queries
+
+        OSProcess start(int pid, String name, long startTime) {
+            OSProcess process = new OSProcess()
+            process.setProcessID(pid)
+            process.setName(name)
+            process.setStartTime(startTime)
+            processes.put(pid, process)
+            return process
+        }
+
+        @Override
+        public OSProcess[] getProcesses(int limit, OperatingSystem.ProcessSort sort) {
+            scans++
+            return processes.values().toArray(new OSProcess[processes.size()])
+        }
+
+        @Override
+        public OSProcess getProcess(int pid) {
+            queries++
+            return processes.get(pid)
+        }
+
+        @Override
+        public String getFamily() {
+            return null
+        }
+
+        @Override
+        public String getManufacturer() {
+            return null
+        }
+
+        @Override
+        public OperatingSystemVersion getVersion() {
+            return null
+        }
+
+        @Override
+        public FileSystem getFileSystem() {
+            return null
+        }
+
+        @Override
+        public int getProcessId() {
+            return 0
+        }
+
+        @Override
+        public int getProcessCount() {
+            return processes.size()
+        }
+
+        @Override
+        public int getThreadCount() {
+            return 0
+        }
+
+        @Override
+        public NetworkParams getNetworkParams() {
+            return null
+        }
+    }
+}
@@ -499,6 +499,36 @@ class SysteminfoOSGiTest extends OSGiTest{
         assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
     }
 
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel drive#readRate is updated' () {
+        String channelID = SysteminfoBindingConstants.CHANNEL_DRIVE_READ_RATE;
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channelID,acceptedItemType)
+        assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel drive#writeRate is updated' () {
+        String channelID = SysteminfoBindingConstants.CHANNEL_DRIVE_WRITE_RATE;
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channelID,acceptedItemType)
+        assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel drive#operationsRate is updated' () {
+        String channelID = SysteminfoBindingConstants.CHANNEL_DRIVE_OPERATIONS_RATE;
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channelID,acceptedItemType)
+        assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
     @Ignore
     //There is a bug opened for this issue - https://github.com/dblock/oshi/issues/185
     @Test
@@ -614,6 +644,26 @@ class SysteminfoOSGiTest extends OSGiTest{
         assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
     }
 
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel network#dataSentRate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_SENT_RATE
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
+    @Test
+    public void 'assert channel network#dataReceivedRate is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_NETWORK_DATA_RECEIVED_RATE
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
     @Category(org.openhab.binding.systeminfo.test.PlatformDependentTestsInterface.class)
     @Test
     public void 'asssert channel network#packetsSent is updated' () {
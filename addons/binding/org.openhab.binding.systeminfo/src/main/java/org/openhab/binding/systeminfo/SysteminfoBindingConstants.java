@@ -115,6 +115,21 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_DRIVE_SERIAL = "drive#serial";
 
+    /**
+     * Physical storage drive read rate in kB/s
+     */
+    public static final String CHANNEL_DRIVE_READ_RATE = "drive#readRate";
+
+    /**
+     * Physical storage drive write rate in kB/s
+     */
+    public static final String CHANNEL_DRIVE_WRITE_RATE = "drive#writeRate";
+
+    /**
+     * Physical storage drive read and write operations per second
+     */
+    public static final String CHANNEL_DRIVE_OPERATIONS_RATE = "drive#operationsRate";
+
     /**
      * Name of the logical volume storage
      */
@@ -250,6 +265,16 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_NETWORK_DATA_RECEIVED = "network#dataReceived";
 
+    /**
+     * Network data sent rate in kB/s
+     */
+    public static final String CHANNEL_NETWORK_DATA_SENT_RATE = "network#dataSentRate";
+
+    /**
+     * Network data received rate in kB/s
+     */
+    public static final String CHANNEL_NETWORK_DATA_RECEIVED_RATE = "network#dataReceivedRate";
+
     /**
      * Network packets sent
      */
@@ -301,6 +326,31 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_PROCESS_PATH = "process#path";
 
+    /**
+     * Prefix of the channel groups for watched processes, followed by the name of the processes
+     */
+    public static final String CHANNEL_GROUP_WATCHED_PROCESS_PREFIX = "process_";
+
+    /**
+     * Number of running processes with the watched name
+     */
+    public static final String CHANNEL_WATCHED_PROCESS_COUNT = "count";
+
+    /**
+     * CPU load used from the processes with the watched name
+     */
+    public static final String CHANNEL_WATCHED_PROCESS_LOAD = "load";
+
+    /**
+     * Size of memory used from the processes with the watched name in MB
+     */
+    public static final String CHANNEL_WATCHED_PROCESS_MEMORY = "used";
+
+    /**
+     * Number of threads, used from the processes with the watched name
+     */
+    public static final String CHANNEL_WATCHED_PROCESS_THREADS = "threads";
+
     // Thing configuraion
     /**
      * Name of the configuration parameter of the thing that defines refresh time for High priority channels
@@ -312,6 +362,11 @@ public class SysteminfoBindingConstants {
      */
     public static final String MEDIUM_PRIORITY_REFRESH_TIME = "interval_medium";
 
+    /**
+     * Name of the configuration parameter of the thing that defines the names of the watched processes
+     */
+    public static final String WATCHED_PROCESSES = "processes";
+
     // Channel configuration
 
     /**
@@ -11,13 +11,19 @@ package org.openhab.binding.systeminfo.handler;
 import static org.openhab.binding.systeminfo.SysteminfoBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.thing.Channel;
@@ -26,6 +32,8 @@ import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
@@ -75,6 +83,11 @@ public class SysteminfoHandler extends BaseThingHandler {
      */
     private Set<ChannelUID> lowPriorityChannels = new HashSet<ChannelUID>();
 
+    /**
+     * The names of the watched processes by the ID of their channel group.
+     */
+    private Map<String, String> watchedProcesses = new LinkedHashMap<String, String>();
+
     /**
      * Wait time for the creation of Item-Channel links in seconds. This delay is needed, because the Item-Channel
      * links have to be created before the thing state is updated, otherwise item state will not be updated.
@@ -86,6 +99,11 @@ public class SysteminfoHandler extends BaseThingHandler {
     ScheduledFuture<?> highPriorityTasks;
     ScheduledFuture<?> mediumPriorityTasks;
 
+    /**
+     * Serializes the sampling passes of the scheduled updates and the refresh commands.
+     */
+    private final Object samplingLock = new Object();
+
     private Logger logger = LoggerFactory.getLogger(SysteminfoHandler.class);
 
     public SysteminfoHandler(Thing thing) {
@@ -97,6 +115,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         logger.debug("Start initializing!");
 
         if (instantiateSysteminfoLibrary() && isConfigurationValid() && updateProperties()) {
+            updateWatchedProcessChannels();
             groupChannelsByPriority();
             scheduleUpdates();
             logger.debug("Thing is successfully initialized!");
@@ -131,6 +150,33 @@ public class SysteminfoHandler extends BaseThingHandler {
             }
             logger.debug("Refresh time for medium priority channels set to {} s", refreshIntervalMediumPriority);
             logger.debug("Refresh time for high priority channels set to {} s", refreshIntervalHighPriority);
+
+            watchedProcesses.clear();
+            String processes = (String) this.thing.getConfiguration().get(WATCHED_PROCESSES);
+            if (processes != null) {
+                for (String namePattern : processes.split(",")) {
+                    namePattern = namePattern.trim();
+                    if (namePattern.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        Pattern.compile(namePattern);
+                    } catch (PatternSyntaxException e) {
+                        logger.error("Watched process {} is not a valid regular expression! Please change the thing "
+                                + "configuration!", namePattern, e);
+                        return false;
+                    }
+                    String groupID = CHANNEL_GROUP_WATCHED_PROCESS_PREFIX
+                            + namePattern.replaceAll("[^A-Za-z0-9_-]", "_");
+                    if (watchedProcesses.containsKey(groupID)) {
+                        logger.error("Watched processes {} and {} map to the same channel group! Please change the "
+                                + "thing configuration!", watchedProcesses.get(groupID), namePattern);
+                        return false;
+                    }
+                    watchedProcesses.put(groupID, namePattern);
+                }
+            }
+            logger.debug("Watched processes set to {}", watchedProcesses.values());
             return true;
         } catch (IllegalArgumentException e) {
             logger.error("Refresh time value is invalid! Please change the thing configuration!", e);
@@ -159,6 +205,58 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
+    /**
+     * Adds a channel group for each watched process, which has none yet, and removes the channel groups of processes,
+     * which are not watched anymore.
+     */
+    private void updateWatchedProcessChannels() {
+        List<Channel> channels = new ArrayList<Channel>();
+        Set<String> existingGroupIDs = new HashSet<String>();
+        boolean channelsChanged = false;
+
+        for (Channel channel : this.thing.getChannels()) {
+            String groupID = channel.getUID().getGroupId();
+            if (groupID != null && groupID.startsWith(CHANNEL_GROUP_WATCHED_PROCESS_PREFIX)) {
+                if (!watchedProcesses.containsKey(groupID)) {
+                    channelsChanged = true;
+                    continue;
+                }
+                existingGroupIDs.add(groupID);
+            }
+            channels.add(channel);
+        }
+
+        for (Map.Entry<String, String> watchedProcess : watchedProcesses.entrySet()) {
+            String groupID = watchedProcess.getKey();
+            if (existingGroupIDs.contains(groupID)) {
+                continue;
+            }
+            String name = watchedProcess.getValue();
+            channels.add(createWatchedProcessChannel(groupID, CHANNEL_WATCHED_PROCESS_COUNT, "count_watched_process",
+                    name + " processes"));
+            channels.add(createWatchedProcessChannel(groupID, CHANNEL_WATCHED_PROCESS_LOAD, "load_watched_process",
+                    name + " load"));
+            channels.add(createWatchedProcessChannel(groupID, CHANNEL_WATCHED_PROCESS_MEMORY, "used_watched_process",
+                    name + " used memory"));
+            channels.add(createWatchedProcessChannel(groupID, CHANNEL_WATCHED_PROCESS_THREADS,
+                    "threads_watched_process", name + " threads"));
+            channelsChanged = true;
+        }
+
+        if (channelsChanged) {
+            logger.debug("Updating the channels of the watched processes {}", watchedProcesses.values());
+            updateThing(editThing().withChannels(channels).build());
+        }
+    }
+
+    private Channel createWatchedProcessChannel(String groupID, String channelID, String channelTypeID, String label) {
+        Map<String, Object> configuration = new HashMap<String, Object>();
+        configuration.put(PRIOIRITY_PARAM, "High");
+        return ChannelBuilder.create(new ChannelUID(this.thing.getUID(), groupID, channelID), "Number")
+                .withType(new ChannelTypeUID(BINDING_ID, channelTypeID)).withLabel(label)
+                .withConfiguration(new Configuration(configuration)).build();
+    }
+
     private void groupChannelsByPriority() {
         logger.trace("Grouping channels by priority.");
         List<Channel> channels = this.thing.getChannels();
@@ -222,8 +320,10 @@ public class SysteminfoHandler extends BaseThingHandler {
         mediumPriorityTasks = scheduler.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
-                systeminfo.updateStaticObjects();
-                publishData(mediumPriorityChannels);
+                synchronized (samplingLock) {
+                    systeminfo.updateStaticObjects();
+                    publishData(mediumPriorityChannels);
+                }
             }
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, refreshIntervalMediumPriority.intValue(), TimeUnit.SECONDS);
 
@@ -237,13 +337,19 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
+    /**
+     * Samples the system once and updates all linked channels from this sample.
+     */
     private void publishData(Set<ChannelUID> channels) {
         if (channels != null) {
-            Iterator<ChannelUID> iter = channels.iterator();
-            while (iter.hasNext()) {
-                ChannelUID channeUID = iter.next();
-                if (isLinked(channeUID.getId())) {
-                    publishDataForChannel(channeUID);
+            synchronized (samplingLock) {
+                systeminfo.startSamplingPass();
+                Iterator<ChannelUID> iter = channels.iterator();
+                while (iter.hasNext()) {
+                    ChannelUID channeUID = iter.next();
+                    if (isLinked(channeUID.getId())) {
+                        publishDataForChannel(channeUID);
+                    }
                 }
             }
         }
@@ -274,6 +380,11 @@ public class SysteminfoHandler extends BaseThingHandler {
         String channelIDWithoutGroup = channelUID.getIdWithoutGroup();
         String channelGroupID = channelUID.getGroupId();
 
+        String watchedProcess = watchedProcesses.get(channelGroupID);
+        if (watchedProcess != null) {
+            return getInfoForWatchedProcessChannel(watchedProcess, channelIDWithoutGroup);
+        }
+
         int deviceIndex = getDeviceIndex(channelUID);
 
         // The channelGroup may contain deviceIndex. It must be deleted from the channelID, because otherwise the
@@ -367,6 +478,15 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_DRIVE_NAME:
                     state = systeminfo.getDriveName(deviceIndex);
                     break;
+                case CHANNEL_DRIVE_READ_RATE:
+                    state = systeminfo.getDriveReadRate(deviceIndex);
+                    break;
+                case CHANNEL_DRIVE_WRITE_RATE:
+                    state = systeminfo.getDriveWriteRate(deviceIndex);
+                    break;
+                case CHANNEL_DRIVE_OPERATIONS_RATE:
+                    state = systeminfo.getDriveOperationsRate(deviceIndex);
+                    break;
                 case CHANNEL_STORAGE_NAME:
                     state = systeminfo.getStorageName(deviceIndex);
                     break;
@@ -409,6 +529,12 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_NETWORK_DATA_RECEIVED:
                     state = systeminfo.getNetworkDataReceived(deviceIndex);
                     break;
+                case CHANNEL_NETWORK_DATA_SENT_RATE:
+                    state = systeminfo.getNetworkDataSentRate(deviceIndex);
+                    break;
+                case CHANNEL_NETWORK_DATA_RECEIVED_RATE:
+                    state = systeminfo.getNetworkDataReceivedRate(deviceIndex);
+                    break;
                 case CHANNEL_NETWORK_PACKETS_RECEIVED:
                     state = systeminfo.getNetworkPacketsReceived(deviceIndex);
                     break;
@@ -443,6 +569,38 @@ public class SysteminfoHandler extends BaseThingHandler {
         return state != null ? state : UnDefType.UNDEF;
     }
 
+    /**
+     * This method gets the information for a channel of a watched process through the {@link SysteminfoInterface}.
+     *
+     * @param namePattern - the name of the watched processes
+     * @param channelID - the ID of the channel without the group
+     * @return State object or {@link UnDefType#UNDEF}, if there is no information for the channel
+     */
+    private State getInfoForWatchedProcessChannel(String namePattern, String channelID) {
+        State state = null;
+        try {
+            switch (channelID) {
+                case CHANNEL_WATCHED_PROCESS_COUNT:
+                    state = systeminfo.getWatchedProcessCount(namePattern);
+                    break;
+                case CHANNEL_WATCHED_PROCESS_LOAD:
+                    state = systeminfo.getWatchedProcessCpuUsage(namePattern);
+                    break;
+                case CHANNEL_WATCHED_PROCESS_MEMORY:
+                    state = systeminfo.getWatchedProcessMemoryUsage(namePattern);
+                    break;
+                case CHANNEL_WATCHED_PROCESS_THREADS:
+                    state = systeminfo.getWatchedProcessThreads(namePattern);
+                    break;
+                default:
+                    logger.error("Channel with unknown ID: {} for process {} !", channelID, namePattern);
+            }
+        } catch (Exception e) {
+            logger.error("Unexpected error occurred while getting information for process {}!", namePattern, e);
+        }
+        return state != null ? state : UnDefType.UNDEF;
+    }
+
     /**
      * The device index is an optional part of the channelID - the last characters of the groupID. It is used to
      * identify unique device, when more than one devices are available (e.g. local disks with names C:\, D:\, E"\ - the
@@ -501,7 +659,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         if (thing.getStatus().equals(ThingStatus.ONLINE)) {
             if (command instanceof RefreshType) {
                 logger.debug("Refresh command received for channel {}!", channelUID);
-                publishDataForChannel(channelUID);
+                publishData(Collections.singleton(channelUID));
             } else {
                 logger.debug("Unsupported command {}! Supported commands: REFRESH", command);
             }
@@ -571,7 +729,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         Object newValue = newConfig.get(parameter);
         logger.debug("Channel with UID : {} has changed its {} from {} to {}", channel.getUID(), parameter, oldValue,
                 newValue);
-        publishDataForChannel(channel.getUID());
+        publishData(Collections.singleton(channel.getUID()));
     }
 
     private void stopScheduledUpdates() {
@@ -9,6 +9,9 @@
 package org.openhab.binding.systeminfo.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -56,21 +59,68 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     public static final int PRECISION_AFTER_DECIMAl_SIGN = 1;
 
+    /**
+     * Counters, which are sampled within this interval after the last sample of the same device, are not used as base
+     * for the rates, as the rates would be distorted by the short interval.
+     */
+    private static final long MIN_RATE_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final int NETWORK_BYTES_SENT = 0;
+    private static final int NETWORK_BYTES_RECEIVED = 1;
+    private static final int NETWORK_PACKETS_SENT = 2;
+    private static final int NETWORK_PACKETS_RECEIVED = 3;
+
+    private static final int DRIVE_BYTES_READ = 0;
+    private static final int DRIVE_BYTES_WRITTEN = 1;
+    private static final int DRIVE_OPERATIONS = 2;
+
+    // Values of the current sampling pass, each of them is queried at most once per pass
+    private long passTime = System.nanoTime();
+    private boolean memorySampled;
+    private long memoryTotal;
+    private long memoryAvailable;
+    private long swapTotal;
+    private long swapUsed;
+    private Double cpuLoad;
+    private double[] cpuLoadAverages;
+    private Long cpuUptime;
+    private Integer cpuThreads;
+    private Double cpuTemperature;
+    private Double cpuVoltage;
+    private int[] fanSpeeds;
+    private HWDiskStore[] sampledDrives;
+    private Map<Integer, CounterSample> networkSamples = new HashMap<Integer, CounterSample>();
+    private Map<Integer, CounterSample> driveSamples = new HashMap<Integer, CounterSample>();
+    private Map<Integer, OSProcess> processes = new HashMap<Integer, OSProcess>();
+    private ProcessWatcher processWatcher;
+
+    // The counters used as base for the rates of each network interface and drive, by device name
+    private Map<String, CounterSample> rateBaseNetworkSamples = new HashMap<String, CounterSample>();
+    private Map<String, CounterSample> rateBaseDriveSamples = new HashMap<String, CounterSample>();
+
     /**
      * Some of the methods used in this constructor execute native code and require execute permissions
      *
      */
     public OshiSysteminfo() {
-        SystemInfo systemInfo = new SystemInfo();
-        hal = systemInfo.getHardware();
+        this(new SystemInfo());
+    }
+
+    private OshiSysteminfo(SystemInfo systemInfo) {
+        this(systemInfo.getHardware(), systemInfo.getOperatingSystem());
+    }
+
+    OshiSysteminfo(HardwareAbstractionLayer hal, OperatingSystem operatingSystem) {
+        this.hal = hal;
 
         // Doesn't need regular update, they may be queried repeatedly
         memory = hal.getMemory();
         cpu = hal.getProcessor();
         sensors = hal.getSensors();
 
-        operatingSystem = systemInfo.getOperatingSystem();
+        this.operatingSystem = operatingSystem;
         displays = hal.getDisplays();
+        processWatcher = new ProcessWatcher(operatingSystem);
 
         updateStaticObjects();
     }
@@ -92,13 +142,88 @@ public class OshiSysteminfo implements SysteminfoInterface {
     }
 
     private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+        OSProcess process = processes.get(pid);
         if (process == null) {
-            throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            process = operatingSystem.getProcess(pid);
+            if (process == null) {
+                throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            }
+            processes.put(pid, process);
         }
         return process;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The calls of a sampling pass are not synchronized, they have to be serialized by the caller.
+     */
+    @Override
+    public void startSamplingPass() {
+        startSamplingPass(System.nanoTime());
+    }
+
+    /**
+     * Starts a new sampling pass taken at the given time, the counters of all devices sampled in the pass share it
+     *
+     * @param time the time of the pass in ns, as returned by {@link System#nanoTime()}
+     */
+    void startSamplingPass(long time) {
+        passTime = time;
+        memorySampled = false;
+        cpuLoad = null;
+        cpuLoadAverages = null;
+        cpuUptime = null;
+        cpuThreads = null;
+        cpuTemperature = null;
+        cpuVoltage = null;
+        fanSpeeds = null;
+        sampledDrives = null;
+        networkSamples.clear();
+        driveSamples.clear();
+        processes.clear();
+        processWatcher.startPass();
+    }
+
+    private void sampleMemory() {
+        if (!memorySampled) {
+            memoryTotal = memory.getTotal();
+            memoryAvailable = memory.getAvailable();
+            swapTotal = memory.getSwapTotal();
+            swapUsed = memory.getSwapUsed();
+            memorySampled = true;
+        }
+    }
+
+    private CounterSample getNetworkSample(int index) throws DeviceNotFoundException {
+        CounterSample sample = networkSamples.get(index);
+        if (sample == null) {
+            NetworkIF network = (NetworkIF) getDevice(networks, index);
+            network.updateNetworkStats();
+            sample = new CounterSample(passTime, network.getBytesSent(), network.getBytesRecv(),
+                    network.getPacketsSent(), network.getPacketsRecv());
+            sample.updateRates(rateBaseNetworkSamples, network.getName());
+            networkSamples.put(index, sample);
+        }
+        return sample;
+    }
+
+    private CounterSample getDriveSample(int index) throws DeviceNotFoundException {
+        CounterSample sample = driveSamples.get(index);
+        if (sample == null) {
+            if (sampledDrives == null) {
+                // The counters of the drives are read only when the drives are listed
+                sampledDrives = hal.getDiskStores();
+            }
+            HWDiskStore drive = (HWDiskStore) getDevice(sampledDrives, index);
+            sample = new CounterSample(passTime, drive.getReadBytes(), drive.getWriteBytes(),
+                    drive.getReads() + drive.getWrites());
+            sample.updateRates(rateBaseDriveSamples, drive.getName());
+            driveSamples.put(index, sample);
+        }
+        return sample;
+    }
+
     @Override
     public StringType getOsFamily() {
         String osFamily = operatingSystem.getFamily();
@@ -152,29 +277,35 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getCpuLoad() {
-        double processorLoad = cpu.getSystemCpuLoad();
+        if (cpuLoad == null) {
+            cpuLoad = cpu.getSystemCpuLoad();
+        }
+        double processorLoad = cpuLoad;
         BigDecimal processorLoadPercent = getPercentsValue(processorLoad);
         return new DecimalType(processorLoadPercent);
     }
 
     @Override
     public DecimalType getMemoryTotal() {
-        long totalMemory = memory.getTotal();
+        sampleMemory();
+        long totalMemory = memoryTotal;
         totalMemory = getSizeInMB(totalMemory);
         return new DecimalType(totalMemory);
     }
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        sampleMemory();
+        long availableMemory = memoryAvailable;
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
 
     @Override
     public DecimalType getMemoryUsed() {
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        sampleMemory();
+        long totalMemory = memoryTotal;
+        long availableMemory = memoryAvailable;
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -296,21 +427,29 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        if (cpuTemperature == null) {
+            cpuTemperature = sensors.getCpuTemperature();
+        }
+        BigDecimal cpuTemp = new BigDecimal(cpuTemperature);
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuTemp.signum() == 1 ? new DecimalType(cpuTemp) : null;
     }
 
     @Override
     public DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
-        cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
-        return cpuVoltage.signum() == 1 ? new DecimalType(cpuVoltage) : null;
+        if (cpuVoltage == null) {
+            cpuVoltage = sensors.getCpuVoltage();
+        }
+        BigDecimal voltage = new BigDecimal(cpuVoltage);
+        voltage = voltage.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return voltage.signum() == 1 ? new DecimalType(voltage) : null;
     }
 
     @Override
     public DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
+        if (fanSpeeds == null) {
+            fanSpeeds = sensors.getFanSpeeds();
+        }
         int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
         return speed > 0 ? new DecimalType(speed) : null;
     }
@@ -341,8 +480,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        sampleMemory();
+        long availableMemory = memoryAvailable;
+        long totalMemory = memoryTotal;
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -354,8 +494,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryUsedPercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        sampleMemory();
+        long availableMemory = memoryAvailable;
+        long totalMemory = memoryTotal;
         long usedMemory = totalMemory - availableMemory;
         if (totalMemory > 0) {
             double usedPercentDecimal = (double) usedMemory / (double) totalMemory;
@@ -389,15 +530,14 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapTotal() {
-        long swapTotal = memory.getSwapTotal();
-        swapTotal = getSizeInMB(swapTotal);
-        return swapTotal > 0 ? new DecimalType(swapTotal) : null;
+        sampleMemory();
+        long swapTotalInMB = getSizeInMB(swapTotal);
+        return swapTotalInMB > 0 ? new DecimalType(swapTotalInMB) : null;
     }
 
     @Override
     public DecimalType getSwapAvailable() {
-        long swapTotal = memory.getSwapTotal();
-        long swapUsed = memory.getSwapUsed();
+        sampleMemory();
         long swapAvaialble = swapTotal - swapUsed;
         swapAvaialble = getSizeInMB(swapAvaialble);
         return swapAvaialble > 0 ? new DecimalType(swapAvaialble) : null;
@@ -405,15 +545,16 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsed() {
-        long swapTotal = memory.getSwapUsed();
-        swapTotal = getSizeInMB(swapTotal);
-        return swapTotal > 0 ? new DecimalType(swapTotal) : null;
+        sampleMemory();
+        long swapUsedInMB = getSizeInMB(swapUsed);
+        return swapUsedInMB > 0 ? new DecimalType(swapUsedInMB) : null;
     }
 
     @Override
     public DecimalType getSwapAvailablePercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        sampleMemory();
+        long usedSwap = swapUsed;
+        long totalSwap = swapTotal;
         long freeSwap = totalSwap - usedSwap;
         if (totalSwap > 0) {
             double freePercentDecimal = (double) freeSwap / (double) totalSwap;
@@ -426,8 +567,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsedPercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        sampleMemory();
+        long usedSwap = swapUsed;
+        long totalSwap = swapTotal;
         if (totalSwap > 0) {
             double usedPercentDecimal = (double) usedSwap / (double) totalSwap;
             BigDecimal usedPercent = getPercentsValue(usedPercentDecimal);
@@ -447,6 +589,21 @@ public class OshiSysteminfo implements SysteminfoInterface {
         return result;
     }
 
+    private BigDecimal getRoundedValue(double value) {
+        BigDecimal result = new BigDecimal(value);
+        result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return result;
+    }
+
+    private DecimalType getRateInKB(Double bytesPerSecond) {
+        if (bytesPerSecond == null) {
+            return null;
+        }
+        BigDecimal result = new BigDecimal(bytesPerSecond / 1024);
+        result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return new DecimalType(result);
+    }
+
     private BigDecimal getTimeInMinutes(double timeInSeconds) {
         BigDecimal timeInMinutes = new BigDecimal(timeInSeconds / 60);
         timeInMinutes = timeInMinutes.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_UP);
@@ -502,21 +659,29 @@ public class OshiSysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
-        BigDecimal result = new BigDecimal(processorLoads[index]);
+        if (cpuLoadAverages == null) {
+            cpuLoadAverages = cpu.getSystemLoadAverage(3);
+        }
+        BigDecimal result = new BigDecimal(cpuLoadAverages[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
     }
 
     @Override
     public DecimalType getCpuUptime() {
-        long seconds = cpu.getSystemUptime();
+        if (cpuUptime == null) {
+            cpuUptime = cpu.getSystemUptime();
+        }
+        long seconds = cpuUptime;
         return new DecimalType(getTimeInMinutes(seconds));
     }
 
     @Override
     public DecimalType getCpuThreads() {
-        int threadCount = operatingSystem.getThreadCount();
+        if (cpuThreads == null) {
+            cpuThreads = operatingSystem.getThreadCount();
+        }
+        int threadCount = cpuThreads;
         return new DecimalType(threadCount);
     }
 
@@ -529,36 +694,80 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
-        long packRecv = network.getPacketsRecv();
+        long packRecv = getNetworkSample(networkIndex).getCounter(NETWORK_PACKETS_RECEIVED);
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
-        long packSent = network.getPacketsSent();
+        long packSent = getNetworkSample(networkIndex).getCounter(NETWORK_PACKETS_SENT);
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
-        long bytesSent = network.getBytesSent();
+        long bytesSent = getNetworkSample(networkIndex).getCounter(NETWORK_BYTES_SENT);
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
-        long bytesRecv = network.getBytesRecv();
+        long bytesRecv = getNetworkSample(networkIndex).getCounter(NETWORK_BYTES_RECEIVED);
         return new DecimalType(getSizeInMB(bytesRecv));
     }
 
+    @Override
+    public DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException {
+        return getRateInKB(getNetworkSample(networkIndex).getRate(NETWORK_BYTES_SENT));
+    }
+
+    @Override
+    public DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException {
+        return getRateInKB(getNetworkSample(networkIndex).getRate(NETWORK_BYTES_RECEIVED));
+    }
+
+    @Override
+    public DecimalType getDriveReadRate(int deviceIndex) throws DeviceNotFoundException {
+        return getRateInKB(getDriveSample(deviceIndex).getRate(DRIVE_BYTES_READ));
+    }
+
+    @Override
+    public DecimalType getDriveWriteRate(int deviceIndex) throws DeviceNotFoundException {
+        return getRateInKB(getDriveSample(deviceIndex).getRate(DRIVE_BYTES_WRITTEN));
+    }
+
+    @Override
+    public DecimalType getDriveOperationsRate(int deviceIndex) throws DeviceNotFoundException {
+        Double operationsRate = getDriveSample(deviceIndex).getRate(DRIVE_OPERATIONS);
+        if (operationsRate == null) {
+            return null;
+        }
+        BigDecimal result = new BigDecimal(operationsRate);
+        result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+        return new DecimalType(result);
+    }
+
+    @Override
+    public DecimalType getWatchedProcessCount(String namePattern) {
+        return new DecimalType(processWatcher.getSample(namePattern).getProcessCount());
+    }
+
+    @Override
+    public DecimalType getWatchedProcessCpuUsage(String namePattern) {
+        return new DecimalType(getRoundedValue(processWatcher.getSample(namePattern).getCpuUsage()));
+    }
+
+    @Override
+    public DecimalType getWatchedProcessMemoryUsage(String namePattern) {
+        long memoryInBytes = processWatcher.getSample(namePattern).getResidentSetSize();
+        return new DecimalType(getSizeInMB(memoryInBytes));
+    }
+
+    @Override
+    public DecimalType getWatchedProcessThreads(String namePattern) {
+        return new DecimalType(processWatcher.getSample(namePattern).getThreadCount());
+    }
+
     @Override
     public StringType getProcessName(int pid) throws DeviceNotFoundException {
         OSProcess process = getProcess(pid);
@@ -569,9 +778,7 @@ public class OshiSysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getProcessCpuUsage(int pid) throws DeviceNotFoundException {
         OSProcess process = getProcess(pid);
-        double cpuUsageRaw = (process.getKernelTime() + process.getUserTime()) / process.getUpTime();
-        BigDecimal cpuUsage = getPercentsValue(cpuUsageRaw);
-        return new DecimalType(cpuUsage);
+        return new DecimalType(getRoundedValue(processWatcher.getCpuUsage(process)));
     }
 
     @Override
@@ -596,4 +803,56 @@ public class OshiSysteminfo implements SysteminfoInterface {
         return new DecimalType(threadCount);
     }
 
+    /**
+     * The counters of a device taken at one point in time and the rates derived from the previous sample.
+     */
+    private static class CounterSample {
+        private final long time;
+        private final long[] counters;
+        private double[] rates;
+
+        CounterSample(long time, long... counters) {
+            this.time = time;
+            this.counters = counters;
+        }
+
+        /**
+         * Computes the rates against the base sample of the device and makes this sample the new base.
+         */
+        void updateRates(Map<String, CounterSample> rateBaseSamples, String deviceName) {
+            CounterSample base = rateBaseSamples.get(deviceName);
+            if (base != null && time - base.time < MIN_RATE_INTERVAL_NS) {
+                rates = base.rates;
+                return;
+            }
+            rateBaseSamples.put(deviceName, this);
+            if (base == null || base.counters.length != counters.length) {
+                return;
+            }
+
+            double seconds = (time - base.time) / 1e9;
+            double[] newRates = new double[counters.length];
+            for (int i = 0; i < counters.length; i++) {
+                long delta = counters[i] - base.counters[i];
+                if (delta < 0) {
+                    // The counters have been reset
+                    return;
+                }
+                newRates[i] = delta / seconds;
+            }
+            rates = newRates;
+        }
+
+        long getCounter(int index) {
+            return counters[index];
+        }
+
+        /**
+         * Returns the change of the counter per second or null, if there is no previous sample yet.
+         */
+        Double getRate(int index) {
+            return rates != null ? rates[index] : null;
+        }
+    }
+
 }
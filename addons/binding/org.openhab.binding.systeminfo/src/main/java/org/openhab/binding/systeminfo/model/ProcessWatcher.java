@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+/**
+ * The {@link ProcessWatcher} tracks the processes matching a name or a regular expression. The names are resolved to
+ * PIDs with a scan of the process table, afterwards only the known PIDs are queried. The process table is scanned again
+ * when a watched process has exited, every minute while no process matches a name, and every few minutes otherwise to
+ * find processes started later with a matching name.
+ *
+ * The CPU usage of a process is computed from the difference of its CPU time to the previous sample.
+ *
+ * The methods are not synchronized, they have to be serialized by the caller.
+ */
+public class ProcessWatcher {
+
+    /**
+     * Interval in which the process table is scanned for names, which are not matched by any process
+     */
+    private static final long UNRESOLVED_RESCAN_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Interval in which the process table is scanned for further processes matching a name
+     */
+    private static final long RESOLVED_RESCAN_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Tolerance of the start time, when checking that a PID still belongs to the same process
+     */
+    private static final long START_TIME_TOLERANCE = 1000;
+
+    private final OperatingSystem operatingSystem;
+    private final long unresolvedRescanInterval;
+    private final long resolvedRescanInterval;
+
+    private final Map<String, WatchedName> watchedNames = new LinkedHashMap<String, WatchedName>();
+    private final Map<Integer, CpuTimes> cpuTimesByPid = new HashMap<Integer, CpuTimes>();
+
+    private int pass;
+    private long lastScan;
+
+    public ProcessWatcher(OperatingSystem operatingSystem) {
+        this(operatingSystem, UNRESOLVED_RESCAN_INTERVAL, RESOLVED_RESCAN_INTERVAL);
+    }
+
+    ProcessWatcher(OperatingSystem operatingSystem, long unresolvedRescanInterval, long resolvedRescanInterval) {
+        this.operatingSystem = operatingSystem;
+        this.unresolvedRescanInterval = unresolvedRescanInterval;
+        this.resolvedRescanInterval = resolvedRescanInterval;
+    }
+
+    /**
+     * Starts a new sampling pass, the processes are queried at most once per pass.
+     */
+    public void startPass() {
+        pass++;
+    }
+
+    /**
+     * Returns the sample of the processes matching the name in the current pass. The name is watched from the first
+     * call on.
+     *
+     * @param namePattern - the name of the processes or a regular expression matching the names
+     * @throws IllegalArgumentException - thrown if the regular expression is invalid
+     */
+    public ProcessSample getSample(String namePattern) {
+        WatchedName watchedName = watchedNames.get(namePattern);
+        if (watchedName == null) {
+            watchedName = new WatchedName(Pattern.compile(namePattern));
+            watchedNames.put(namePattern, watchedName);
+        }
+        if (watchedName.pass != pass) {
+            refresh(watchedName);
+        }
+        return watchedName.sample;
+    }
+
+    /**
+     * Returns the CPU usage of the process since its previous sample. The usage for the first sample of a process is
+     * the average over its lifetime. The usage is computed once per pass.
+     *
+     * @return the usage as percentage value of one logical processor /may exceed 100 for multithreaded processes/
+     */
+    public double getCpuUsage(OSProcess process) {
+        long cpuTime = process.getKernelTime() + process.getUserTime();
+        long upTime = process.getUpTime();
+
+        CpuTimes previous = cpuTimesByPid.get(process.getProcessID());
+        if (previous != null && previous.isSameProcess(process)) {
+            if (previous.pass == pass) {
+                return previous.usage;
+            }
+            if (upTime > previous.upTime && cpuTime >= previous.cpuTime) {
+                double usage = 100.0 * (cpuTime - previous.cpuTime) / (upTime - previous.upTime);
+                cpuTimesByPid.put(process.getProcessID(), new CpuTimes(process, cpuTime, upTime, pass, usage));
+                return usage;
+            }
+        }
+
+        double usage = upTime > 0 ? 100.0 * cpuTime / upTime : 0;
+        cpuTimesByPid.put(process.getProcessID(), new CpuTimes(process, cpuTime, upTime, pass, usage));
+        return usage;
+    }
+
+    private void refresh(WatchedName watchedName) {
+        long sinceLastScan = System.currentTimeMillis() - lastScan;
+        if (!watchedName.scanned || sinceLastScan >= (watchedName.startTimesByPid.isEmpty() ? unresolvedRescanInterval
+                : resolvedRescanInterval)) {
+            scan();
+            return;
+        }
+
+        List<OSProcess> processes = new ArrayList<OSProcess>();
+        for (Map.Entry<Integer, Long> entry : watchedName.startTimesByPid.entrySet()) {
+            OSProcess process = operatingSystem.getProcess(entry.getKey());
+            if (process == null || Math.abs(process.getStartTime() - entry.getValue()) > START_TIME_TOLERANCE) {
+                // The process has exited, look for its replacement
+                scan();
+                return;
+            }
+            processes.add(process);
+        }
+        watchedName.update(processes, pass);
+    }
+
+    /**
+     * Scans the process table once and resolves all watched names.
+     */
+    private void scan() {
+        OSProcess[] allProcesses = operatingSystem.getProcesses(0, null);
+        lastScan = System.currentTimeMillis();
+
+        Set<Integer> pids = new HashSet<Integer>();
+        for (OSProcess process : allProcesses) {
+            pids.add(process.getProcessID());
+        }
+        Iterator<Integer> iterator = cpuTimesByPid.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (!pids.contains(iterator.next())) {
+                iterator.remove();
+            }
+        }
+
+        for (WatchedName watchedName : watchedNames.values()) {
+            List<OSProcess> processes = new ArrayList<OSProcess>();
+            for (OSProcess process : allProcesses) {
+                String name = process.getName();
+                if (name != null && watchedName.pattern.matcher(name).matches()) {
+                    processes.add(process);
+                }
+            }
+            watchedName.scanned = true;
+            watchedName.update(processes, pass);
+        }
+    }
+
+    private class WatchedName {
+        private final Pattern pattern;
+        private Map<Integer, Long> startTimesByPid = new HashMap<Integer, Long>();
+        private boolean scanned;
+        private int pass;
+        private ProcessSample sample = new ProcessSample(0, 0, 0, 0);
+
+        WatchedName(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        void update(List<OSProcess> processes, int pass) {
+            Map<Integer, Long> startTimes = new HashMap<Integer, Long>();
+            double cpuUsage = 0;
+            long residentSetSize = 0;
+            int threadCount = 0;
+            for (OSProcess process : processes) {
+                startTimes.put(process.getProcessID(), process.getStartTime());
+                cpuUsage += getCpuUsage(process);
+                residentSetSize += process.getResidentSetSize();
+                threadCount += process.getThreadCount();
+            }
+            this.startTimesByPid = startTimes;
+            this.pass = pass;
+            this.sample = new ProcessSample(processes.size(), cpuUsage, residentSetSize, threadCount);
+        }
+    }
+
+    private static class CpuTimes {
+        private final long startTime;
+        private final long cpuTime;
+        private final long upTime;
+        private final int pass;
+        private final double usage;
+
+        CpuTimes(OSProcess process, long cpuTime, long upTime, int pass, double usage) {
+            this.startTime = process.getStartTime();
+            this.cpuTime = cpuTime;
+            this.upTime = upTime;
+            this.pass = pass;
+            this.usage = usage;
+        }
+
+        boolean isSameProcess(OSProcess process) {
+            return Math.abs(process.getStartTime() - startTime) <= START_TIME_TOLERANCE;
+        }
+    }
+
+    /**
+     * The summed up values of all processes matching a watched name.
+     */
+    public static class ProcessSample {
+        private final int processCount;
+        private final double cpuUsage;
+        private final long residentSetSize;
+        private final int threadCount;
+
+        ProcessSample(int processCount, double cpuUsage, long residentSetSize, int threadCount) {
+            this.processCount = processCount;
+            this.cpuUsage = cpuUsage;
+            this.residentSetSize = residentSetSize;
+            this.threadCount = threadCount;
+        }
+
+        public int getProcessCount() {
+            return processCount;
+        }
+
+        /**
+         * @return the usage as percentage value of one logical processor
+         */
+        public double getCpuUsage() {
+            return cpuUsage;
+        }
+
+        /**
+         * @return the resident set size in bytes
+         */
+        public long getResidentSetSize() {
+            return residentSetSize;
+        }
+
+        public int getThreadCount() {
+            return threadCount;
+        }
+    }
+}
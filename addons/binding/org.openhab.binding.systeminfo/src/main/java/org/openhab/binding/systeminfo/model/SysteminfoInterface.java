@@ -19,6 +19,13 @@ import org.eclipse.smarthome.core.library.types.StringType;
  */
 public interface SysteminfoInterface {
 
+    /**
+     * Starts a new sampling pass. Information, which changes over time, is queried from the system at most once per
+     * pass, all calls within the pass return the values of this sample. Rates are computed from the difference to the
+     * counters of the previous pass.
+     */
+    public void startSamplingPass();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -265,6 +272,33 @@ public interface SysteminfoInterface {
      */
     public StringType getDriveSerialNumber(int deviceIndex) throws DeviceNotFoundException;
 
+    /**
+     * Get the rate of the data read from the drive since the previous sampling pass
+     *
+     * @param deviceIndex - the index of the drive
+     * @return rate in kB/s or null, if there is no previous sample yet
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getDriveReadRate(int deviceIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the rate of the data written to the drive since the previous sampling pass
+     *
+     * @param deviceIndex - the index of the drive
+     * @return rate in kB/s or null, if there is no previous sample yet
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getDriveWriteRate(int deviceIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the number of read and write operations per second of the drive since the previous sampling pass
+     *
+     * @param deviceIndex - the index of the drive
+     * @return operations per second or null, if there is no previous sample yet
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getDriveOperationsRate(int deviceIndex) throws DeviceNotFoundException;
+
     // Network info
     /**
      * Get the Host IP address of the network.
@@ -331,6 +365,24 @@ public interface SysteminfoInterface {
      */
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException;
 
+    /**
+     * Get the rate of the data sent since the previous sampling pass
+     *
+     * @param networkIndex - the index of the network
+     * @return rate in kB/s or null, if there is no previous sample yet
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkDataSentRate(int networkIndex) throws DeviceNotFoundException;
+
+    /**
+     * Get the rate of the data received since the previous sampling pass
+     *
+     * @param networkIndex - the index of the network
+     * @return rate in kB/s or null, if there is no previous sample yet
+     * @throws DeviceNotFoundException
+     */
+    public DecimalType getNetworkDataReceivedRate(int networkIndex) throws DeviceNotFoundException;
+
     // Display info
     /**
      * Get information about the display device as product number, manufacturer, serial number, width and height in cm";
@@ -400,10 +452,10 @@ public interface SysteminfoInterface {
     public StringType getProcessName(int pid) throws DeviceNotFoundException;
 
     /**
-     * Returns the CPU usage of the process
+     * Returns the CPU usage of the process since the previous sampling pass
      *
      * @param pid - the PID of the process
-     * @return - percentage value /0-100/
+     * @return - percentage value of one logical processor /0-100 per used processor/
      * @throws DeviceNotFoundException - thrown if process with this PID can not be found
      */
     public DecimalType getProcessCpuUsage(int pid) throws DeviceNotFoundException;
@@ -433,4 +485,39 @@ public interface SysteminfoInterface {
      */
     public DecimalType getProcessThreads(int pid) throws DeviceNotFoundException;
 
+    // Watched process info
+    /**
+     * Returns the number of running processes with this name
+     *
+     * @param namePattern - the name of the processes or a regular expression matching the names
+     * @throws IllegalArgumentException - thrown if the regular expression is invalid
+     */
+    public DecimalType getWatchedProcessCount(String namePattern);
+
+    /**
+     * Returns the CPU usage of all processes with this name since the previous sampling pass
+     *
+     * @param namePattern - the name of the processes or a regular expression matching the names
+     * @return percentage value of one logical processor /0-100 per used processor/
+     * @throws IllegalArgumentException - thrown if the regular expression is invalid
+     */
+    public DecimalType getWatchedProcessCpuUsage(String namePattern);
+
+    /**
+     * Returns the size of RAM memory used by all processes with this name
+     *
+     * @param namePattern - the name of the processes or a regular expression matching the names
+     * @return memory size in MB
+     * @throws IllegalArgumentException - thrown if the regular expression is invalid
+     */
+    public DecimalType getWatchedProcessMemoryUsage(String namePattern);
+
+    /**
+     * Returns the number of threads of all processes with this name
+     *
+     * @param namePattern - the name of the processes or a regular expression matching the names
+     * @throws IllegalArgumentException - thrown if the regular expression is invalid
+     */
+    public DecimalType getWatchedProcessThreads(String namePattern);
+
 }
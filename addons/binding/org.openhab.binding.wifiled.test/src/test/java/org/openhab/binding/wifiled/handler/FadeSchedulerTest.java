@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wifiled.handler;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the timer wheel of the {@link FadeScheduler}.
+ *
+ */
+public class FadeSchedulerTest {
+
+    private static final long TIMEOUT = 5000;
+    // Allowed early step, measured from the time the task was scheduled
+    private static final long TOLERANCE = FadeScheduler.TICK_IN_MS;
+
+    private final FadeScheduler fadeScheduler = new FadeScheduler();
+
+    /**
+     * A task which records the time of its steps and returns the given delays one after the other.
+     */
+    private static class RecordingTask implements FadeScheduler.Task {
+        private final long start = System.nanoTime();
+        private final long[] delays;
+        private final List<Long> stepTimes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        RecordingTask(long... delays) {
+            this.delays = delays;
+        }
+
+        @Override
+        public long step() {
+            stepTimes.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (stepTimes.size() > delays.length) {
+                finished.countDown();
+                return -1;
+            }
+            return delays[stepTimes.size() - 1];
+        }
+
+        void awaitFinished() throws InterruptedException {
+            assertTrue("task not finished", finished.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        fadeScheduler.shutdown();
+    }
+
+    @Test
+    public void stepsATaskUntilItIsFinished() throws InterruptedException {
+        RecordingTask task = new RecordingTask(20, 20, 50);
+        fadeScheduler.schedule(task, 0);
+        task.awaitFinished();
+
+        assertEquals(4, task.stepTimes.size());
+        assertTrue(task.stepTimes.get(1) >= 20 + FadeScheduler.TICK_IN_MS - TOLERANCE);
+        assertTrue(task.stepTimes.get(2) >= 40 + FadeScheduler.TICK_IN_MS - TOLERANCE);
+        assertTrue(task.stepTimes.get(3) >= 90 + FadeScheduler.TICK_IN_MS - TOLERANCE);
+    }
+
+    @Test
+    public void waitsForTheDueTickOfADelayLongerThanTheWheel() throws InterruptedException {
+        // 200 ticks, the slot of the step is passed once before it is due
+        RecordingTask task = new RecordingTask();
+        fadeScheduler.schedule(task, 2000);
+        task.awaitFinished();
+
+        assertEquals(1, task.stepTimes.size());
+        assertTrue("stepped after " + task.stepTimes.get(0) + " ms", task.stepTimes.get(0) >= 2000 - TOLERANCE);
+    }
+
+    @Test
+    public void keepsShortAndLongDelaysInTheSameSlotApart() throws InterruptedException {
+        // 20 ticks and 148 ticks share a slot of the wheel
+        RecordingTask shortTask = new RecordingTask();
+        RecordingTask longTask = new RecordingTask();
+        fadeScheduler.schedule(longTask, 1480);
+        fadeScheduler.schedule(shortTask, 200);
+        shortTask.awaitFinished();
+        longTask.awaitFinished();
+
+        assertTrue(shortTask.stepTimes.get(0) >= 200 - TOLERANCE);
+        assertTrue(shortTask.stepTimes.get(0) < 1480);
+        assertTrue(longTask.stepTimes.get(0) >= 1480 - TOLERANCE);
+    }
+
+    @Test
+    public void stopsStepping() throws InterruptedException {
+        final AtomicInteger steps = new AtomicInteger();
+        final CountDownLatch stepped = new CountDownLatch(3);
+        FadeScheduler.Task task = () -> {
+            steps.incrementAndGet();
+            stepped.countDown();
+            return 10;
+        };
+        fadeScheduler.schedule(task, 0);
+        assertTrue(stepped.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        fadeScheduler.cancel(task);
+        // a step may be running while the task is canceled
+        Thread.sleep(50);
+        int stepsAfterCancel = steps.get();
+        Thread.sleep(200);
+        assertEquals(stepsAfterCancel, steps.get());
+    }
+
+    @Test
+    public void finishesATaskWhoseStepFails() throws InterruptedException {
+        final AtomicInteger failingSteps = new AtomicInteger();
+        fadeScheduler.schedule(() -> {
+            failingSteps.incrementAndGet();
+            throw new IllegalStateException("step failed");
+        }, 0);
+        RecordingTask task = new RecordingTask(10, 10, 10);
+        fadeScheduler.schedule(task, 0);
+        task.awaitFinished();
+
+        assertEquals(1, failingSteps.get());
+    }
+
+    @Test
+    public void runsBlockingWorkOutsideOfTheWheel() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        fadeScheduler.schedule(() -> {
+            fadeScheduler.execute(() -> {
+                try {
+                    release.await();
+                    released.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return -1;
+        }, 0);
+
+        // the other fades keep stepping while the work is blocked
+        RecordingTask task = new RecordingTask(10, 10, 10, 10, 10);
+        fadeScheduler.schedule(task, 0);
+        task.awaitFinished();
+        assertEquals(1, released.getCount());
+
+        release.countDown();
+        assertTrue(released.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void dropsTheTasksOnShutdown() throws InterruptedException {
+        RecordingTask task = new RecordingTask();
+        fadeScheduler.schedule(task, 100);
+        fadeScheduler.shutdown();
+
+        Thread.sleep(300);
+        assertTrue(task.stepTimes.isEmpty());
+    }
+}
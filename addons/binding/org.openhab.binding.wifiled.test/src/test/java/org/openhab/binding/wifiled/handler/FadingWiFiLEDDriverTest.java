@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wifiled.handler;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.wifiled.handler.AbstractWiFiLEDDriver.Protocol;
+
+/**
+ * Tests the fades of the {@link FadingWiFiLEDDriver} against a controller which records the received packets.
+ *
+ */
+public class FadingWiFiLEDDriverTest {
+
+    private static final long TIMEOUT = 5000;
+    private static final int POWER = 0x71;
+    private static final int COLOR = 0x31;
+
+    /**
+     * Accepts connections like a LD382A controller and records the packets.
+     */
+    private static class RecordingController implements Runnable {
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final BlockingQueue<byte[]> packets = new LinkedBlockingQueue<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        RecordingController() throws IOException {
+            Thread thread = new Thread(this, "Recording controller");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    try {
+                        while (true) {
+                            int command = in.readUnsignedByte();
+                            // power: 0x71 on/off 0x0F checksum, color: 0x31 r g b w 0x00 0x0F checksum
+                            byte[] packet = new byte[command == COLOR ? 8 : 4];
+                            packet[0] = (byte) command;
+                            in.readFully(packet, 1, packet.length - 1);
+                            packets.add(packet);
+                        }
+                    } catch (EOFException e) {
+                        closed.countDown();
+                    }
+                } catch (IOException e) {
+                    // the test is finished
+                }
+            }
+        }
+
+        byte[] next(long timeoutMs) throws InterruptedException {
+            return packets.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        int nextWhite() throws InterruptedException {
+            byte[] packet;
+            do {
+                packet = next(TIMEOUT);
+                assertNotNull("no color received", packet);
+            } while (packet[0] != COLOR);
+            return packet[4] & 0xFF;
+        }
+
+        void dispose() throws IOException {
+            serverSocket.close();
+        }
+    }
+
+    private final FadeScheduler fadeScheduler = new FadeScheduler();
+    private RecordingController controller;
+
+    @Before
+    public void setUp() throws IOException {
+        controller = new RecordingController();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fadeScheduler.shutdown();
+        controller.dispose();
+    }
+
+    private FadingWiFiLEDDriver newDriver(int fadeDurationInMs, int fadeSteps) {
+        return new FadingWiFiLEDDriver("127.0.0.1", controller.serverSocket.getLocalPort(), Protocol.LD382A,
+                fadeDurationInMs, fadeSteps, fadeScheduler);
+    }
+
+    @Test
+    public void switchesTheControllerOnAndFadesToTheTarget() throws Exception {
+        FadingWiFiLEDDriver driver = newDriver(200, 10);
+        driver.setWhite(new PercentType(40));
+        driver.setPower(OnOffType.ON);
+
+        byte[] power = controller.next(TIMEOUT);
+        assertNotNull(power);
+        assertEquals(POWER, power[0]);
+        assertEquals(0x23, power[1]);
+
+        int white = controller.nextWhite();
+        while (white != 102) {
+            int next = controller.nextWhite();
+            assertTrue(next > white);
+            white = next;
+        }
+        assertNull(controller.next(300));
+        driver.dispose();
+    }
+
+    @Test
+    public void continuesARunningFadeToTheNewTarget() throws Exception {
+        FadingWiFiLEDDriver driver = newDriver(1000, 20);
+        driver.setWhite(new PercentType(40));
+        driver.setPower(OnOffType.ON);
+        int white = 0;
+        for (int i = 0; i < 3; i++) {
+            white = controller.nextWhite();
+        }
+        assertTrue(white < 102);
+
+        driver.setWhite(PercentType.HUNDRED);
+        // the fade continues from the current color, the controller never goes back to black
+        while (white != 255) {
+            int next = controller.nextWhite();
+            assertTrue(next + " after " + white, next >= white);
+            white = next;
+        }
+        assertNull(controller.next(300));
+        assertEquals(1, controller.connections.get());
+        driver.dispose();
+    }
+
+    @Test
+    public void keepsTheConnectionBetweenFades() throws Exception {
+        FadingWiFiLEDDriver driver = newDriver(100, 5);
+        driver.setWhite(new PercentType(40));
+        driver.setPower(OnOffType.ON);
+        while (controller.nextWhite() != 102) {
+        }
+
+        driver.setPower(OnOffType.OFF);
+        while (controller.nextWhite() != 0) {
+        }
+        assertEquals(1, controller.connections.get());
+        driver.dispose();
+    }
+
+    @Test
+    public void stopsTheFadeAndClosesTheConnectionOnDispose() throws Exception {
+        FadingWiFiLEDDriver driver = newDriver(2000, 100);
+        driver.setWhite(PercentType.HUNDRED);
+        driver.setPower(OnOffType.ON);
+        for (int i = 0; i < 3; i++) {
+            controller.nextWhite();
+        }
+
+        driver.dispose();
+        assertTrue("connection not closed", controller.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        // nothing is sent after the connection has been closed, also not on a new connection
+        controller.packets.clear();
+        assertNull(controller.next(300));
+        assertEquals(1, controller.connections.get());
+    }
+}
@@ -98,6 +98,12 @@ public abstract class AbstractWiFiLEDDriver {
         getLEDState();
     }
 
+    /**
+     * Releases the resources of the driver, it is not used afterwards.
+     */
+    public void dispose() {
+    }
+
     public abstract LEDStateDTO getLEDStateDTO() throws IOException;
 
     protected synchronized LEDState getLEDState() throws IOException {
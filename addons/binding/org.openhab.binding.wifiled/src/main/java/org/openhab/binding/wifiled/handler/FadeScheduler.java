@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.wifiled.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link FadeScheduler} runs the fade steps of all fading drivers on one thread.
+ * The steps are kept in a timer wheel, which is advanced every {@link #TICK_IN_MS} ms while fades are running.
+ * A step is due in the slot of its tick, so a tick only looks at the steps of its own slot.
+ *
+ * The steps must not block, since all fades share the thread. Blocking work of a step, like writing to a
+ * controller, is handed to {@link #execute(Runnable)}, so a stalled controller only delays its own fade.
+ */
+public class FadeScheduler {
+
+    /** Resolution of the wheel, the shortest time between two steps of a fade. */
+    public static final int TICK_IN_MS = 10;
+
+    private static final int WHEEL_SIZE = 128;
+
+    /**
+     * A fade, which is stepped by the scheduler.
+     */
+    public interface Task {
+
+        /**
+         * Performs the next step.
+         *
+         * @return the delay in ms until the next step, or a negative value if the fade is finished
+         */
+        long step();
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(FadeScheduler.class);
+
+    private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService sendExecutorService = Executors.newCachedThreadPool();
+    private final List<List<Entry>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final List<Entry> dueEntries = new ArrayList<>();
+    private ScheduledFuture<?> ticker;
+    private long tick;
+    private int scheduledCount;
+
+    public FadeScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules the first step of a task. The task is stepped until it reports that it is finished, it must not be
+     * scheduled again before.
+     *
+     * @param task the task to schedule
+     * @param delayInMs the delay until the first step, it is rounded up to the next tick
+     */
+    public synchronized void schedule(Task task, long delayInMs) {
+        add(new Entry(task), delayInMs);
+    }
+
+    /**
+     * Removes a task from the wheel. A step which is already running is not interrupted, but the task is not stepped
+     * again.
+     */
+    public synchronized void cancel(Task task) {
+        for (Entry entry : dueEntries) {
+            if (entry.task == task) {
+                entry.canceled = true;
+            }
+        }
+        for (List<Entry> slot : wheel) {
+            Iterator<Entry> iterator = slot.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().task == task) {
+                    iterator.remove();
+                    scheduledCount--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs blocking work of a step outside of the scheduler thread.
+     *
+     * @param runnable the work to run, e.g. sending the color of the step
+     */
+    public void execute(Runnable runnable) {
+        sendExecutorService.execute(runnable);
+    }
+
+    /**
+     * Stops the scheduler thread, running fades are dropped.
+     */
+    public synchronized void shutdown() {
+        executorService.shutdownNow();
+        sendExecutorService.shutdownNow();
+        for (List<Entry> slot : wheel) {
+            slot.clear();
+        }
+        scheduledCount = 0;
+        ticker = null;
+    }
+
+    private void add(Entry entry, long delayInMs) {
+        long ticks = Math.max(1, (delayInMs + TICK_IN_MS - 1) / TICK_IN_MS);
+        entry.dueTick = tick + ticks;
+        wheel.get((int) (entry.dueTick % WHEEL_SIZE)).add(entry);
+        scheduledCount++;
+
+        if (ticker == null && !executorService.isShutdown()) {
+            ticker = executorService.scheduleAtFixedRate(this::advance, TICK_IN_MS, TICK_IN_MS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void advance() {
+        // only the ticker thread changes dueEntries
+        synchronized (this) {
+            tick++;
+            Iterator<Entry> iterator = wheel.get((int) (tick % WHEEL_SIZE)).iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.dueTick <= tick) {
+                    iterator.remove();
+                    scheduledCount--;
+                    dueEntries.add(entry);
+                }
+            }
+        }
+
+        for (Entry entry : dueEntries) {
+            long delayInMs;
+            try {
+                delayInMs = entry.task.step();
+            } catch (RuntimeException e) {
+                logger.warn("Fade step failed", e);
+                delayInMs = -1;
+            }
+            entry.delayInMs = delayInMs;
+        }
+
+        synchronized (this) {
+            for (Entry entry : dueEntries) {
+                if (entry.delayInMs >= 0 && !entry.canceled) {
+                    add(entry, entry.delayInMs);
+                }
+            }
+            dueEntries.clear();
+
+            if (scheduledCount == 0 && ticker != null) {
+                ticker.cancel(false);
+                ticker = null;
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Task task;
+        private long dueTick;
+        private long delayInMs;
+        private boolean canceled;
+
+        Entry(Task task) {
+            this.task = task;
+        }
+    }
+
+}
@@ -15,17 +15,21 @@ import org.eclipse.smarthome.core.library.types.StringType;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.net.NoRouteToHostException;
 import java.net.Socket;
-import java.net.SocketException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.net.SocketTimeoutException;
 
 /**
  * The {@link FadingWiFiLEDDriver} class is responsible for the communication with the WiFi LED controller.
  * It utilizes color fading when changing colors or turning the light on of off.
  *
+ * The fade steps are run by the {@link FadeScheduler} shared by all drivers. The colors are sent outside of the
+ * scheduler thread, one at a time. While a slow controller has not taken the last color yet, the following steps are
+ * skipped, the fade of other controllers is not delayed. The connection to the controller is kept open between fades.
+ * A command which arrives during a fade continues the fade from the current color to the new target color.
+ *
  * @author Stefan Endrullis
  */
 public class FadingWiFiLEDDriver extends AbstractWiFiLEDDriver {
@@ -35,21 +39,32 @@ public class FadingWiFiLEDDriver extends AbstractWiFiLEDDriver {
 
     private boolean power = false;
     private InternalLedState blackState = new InternalLedState();
-    private InternalLedState currentState = new InternalLedState();
-    private InternalLedState currentTargetState = new InternalLedState();
+    private final InternalLedState currentState = new InternalLedState();
+    private final InternalLedState currentTargetState = new InternalLedState();
     private InternalLedState targetState = new InternalLedState();
     private InternalLedState realTargetState = new InternalLedState();
+    private final InternalLedState fadeStartState = new InternalLedState();
+    private final InternalLedState fadeEndState = new InternalLedState();
     private LEDStateDTO dtoState = LEDStateDTO.valueOf(0, 0, 0, 0, 0, 0, 0, 0);
-    private ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    private final FadeScheduler fadeScheduler;
+    private final FadeScheduler.Task fadeTask = this::fadeStep;
     private final int fadeDurationInMs;
     private final int fadeSteps;
-    private boolean keepFading = false;
+    private int fadeStep;
+    private boolean fading = false;
+    // a color of the fade is being sent, the controller is switched on before the next color if powerOnPending is set
+    private boolean sending = false;
+    private boolean powerOnPending = false;
+    private boolean disposed = false;
+    private Socket socket;
+    private DataOutputStream outputStream;
 
     public FadingWiFiLEDDriver(String host, int port, AbstractWiFiLEDDriver.Protocol protocol, int fadeDurationInMs,
-            int fadeSteps) {
+            int fadeSteps, FadeScheduler fadeScheduler) {
         super(host, port, protocol);
         this.fadeDurationInMs = fadeDurationInMs;
         this.fadeSteps = fadeSteps;
+        this.fadeScheduler = fadeScheduler;
     }
 
     @Override
@@ -59,11 +74,21 @@ public class FadingWiFiLEDDriver extends AbstractWiFiLEDDriver {
             dtoState = LEDStateDTO.valueOf(s.state, s.program, s.programSpeed, s.red, s.green, s.blue, s.white,
                     s.white2);
             power = (s.state & 0x01) != 0;
-            currentTargetState = InternalLedState.fromRGBW(s.red, s.green, s.blue, s.white, s.white2);
+            synchronized (this) {
+                currentTargetState.set(InternalLedState.fromRGBW(s.red, s.green, s.blue, s.white, s.white2));
+            }
         } catch (IOException ignored) {
         }
     }
 
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        fadeScheduler.cancel(fadeTask);
+        fading = false;
+        closeConnection();
+    }
+
     @Override
     public void setColor(HSBType color) throws IOException {
         dtoState = dtoState.withColor(color);
@@ -143,49 +168,201 @@ public class FadingWiFiLEDDriver extends AbstractWiFiLEDDriver {
         }
     }
 
-    private void fadeToState(final InternalLedState newState) throws IOException {
-        if (!newState.equals(realTargetState)) {
-            keepFading = false;
+    private void fadeToState(final InternalLedState newState) {
+        synchronized (this) {
+            if (newState.equals(realTargetState)) {
+                return;
+            }
             realTargetState = newState;
+        }
 
-            executorService.schedule(() -> {
-                if (currentTargetState.equals(newState)) {
+        // connect without holding the lock, the fade steps of all drivers share one thread and must not wait for it
+        Socket newSocket = null;
+        if (!isConnectionAlive()) {
+            try {
+                newSocket = openConnection();
+            } catch (NoRouteToHostException e) {
+                logger.warn("No route to host {}:{}", host, port, e);
+                synchronized (this) {
+                    abortFade();
+                }
+                return;
+            } catch (IOException e) {
+                logger.warn("Failed to connect to {}:{}", host, port, e);
+                synchronized (this) {
+                    abortFade();
+                }
+                return;
+            }
+        }
+
+        synchronized (this) {
+            if (newSocket != null) {
+                closeConnection();
+                if (disposed) {
+                    closeQuietly(newSocket);
+                    return;
+                }
+                try {
+                    outputStream = new DataOutputStream(newSocket.getOutputStream());
+                    socket = newSocket;
+                } catch (IOException e) {
+                    logger.warn("Failed to connect to {}:{}", host, port, e);
+                    closeQuietly(newSocket);
+                    abortFade();
                     return;
                 }
+            }
+            startFade();
+        }
+    }
 
-                keepFading = true;
+    /**
+     * Starts a fade from the current color to the real target state. If a fade is running, it is continued with the
+     * new target instead of scheduling another one.
+     */
+    private void startFade() {
+        if (outputStream == null) {
+            return;
+        }
+        fadeStartState.set(currentTargetState);
+        fadeEndState.set(realTargetState);
+        fadeStep = fadeStartState.equals(fadeEndState) ? fadeSteps : 0;
+        // ensure controller is on
+        powerOnPending = true;
+
+        if (!fading) {
+            fading = true;
+            fadeScheduler.schedule(fadeTask, 0);
+        }
+    }
 
-                try (Socket socket = new Socket(host, port)) {
-                    logger.debug("Connected to '{}'", socket);
+    /**
+     * Computes the next color of the fade and hands it to the sender, runs on the thread of the {@link FadeScheduler}.
+     * The fade is finished when the last color has been sent.
+     *
+     * @return the delay until the next step, or -1 if the fade is finished
+     */
+    private synchronized long fadeStep() {
+        if (outputStream == null) {
+            fading = false;
+            return -1;
+        }
 
-                    socket.setSoTimeout(DEFAULT_SOCKET_TIMEOUT);
+        if (fadeStep < fadeSteps) {
+            fadeStep++;
+            currentTargetState.setFaded(fadeStartState, fadeEndState, (double) fadeStep / fadeSteps);
+            logger.debug("fadeState: {}", currentTargetState);
+        }
 
-                    try (DataOutputStream outputStream = new DataOutputStream(socket.getOutputStream())) {
-                        // ensure controller is on
-                        sendRaw(getBytesForPower(true), outputStream);
+        if (!sending) {
+            if (fadeStep >= fadeSteps && !powerOnPending && currentState.equals(currentTargetState)) {
+                fading = false;
+                return -1;
+            }
+            sending = true;
+            final InternalLedState ledState = new InternalLedState().set(currentTargetState);
+            final DataOutputStream out = outputStream;
+            final boolean powerOn = powerOnPending;
+            powerOnPending = false;
+            fadeScheduler.execute(() -> send(ledState, powerOn, out));
+        }
+        return fadeDurationInMs / fadeSteps;
+    }
 
-                        InternalLedState fadeState = currentTargetState;
+    /**
+     * Sends a color of the fade, runs outside of the thread of the {@link FadeScheduler}.
+     */
+    private void send(InternalLedState ledState, boolean powerOn, DataOutputStream out) {
+        try {
+            if (powerOn) {
+                sendRaw(getBytesForPower(true), out);
+            }
+            sendLEDData(ledState, out);
+        } catch (IOException e) {
+            synchronized (this) {
+                // the connection has not been closed by a dispose or a reconnect meanwhile
+                if (out == outputStream) {
+                    logger.warn("Failed to send data to {}:{}", host, port, e);
+                    abortFade();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                sending = false;
+            }
+        }
+    }
 
-                        for (int i = 1; i <= fadeSteps && keepFading; i++) {
-                            long lastTime = System.nanoTime();
-                            fadeState = currentTargetState.fade(newState, (double) i / fadeSteps);
-                            logger.debug("fadeState: {}", fadeState);
+    /**
+     * Stops the fade at the current color after a connection failure, the next command connects again and fades
+     * from there.
+     */
+    private void abortFade() {
+        closeConnection();
+        fadeStep = fadeSteps;
+        realTargetState = new InternalLedState().set(currentTargetState);
+    }
 
-                            sendLEDData(fadeState, outputStream);
+    /**
+     * Checks whether the controller has closed the open connection, e.g. after a restart.
+     */
+    private boolean isConnectionAlive() {
+        Socket s;
+        synchronized (this) {
+            s = socket;
+        }
+        if (s == null || s.isClosed()) {
+            return false;
+        }
 
-                            busySleep(fadeDurationInMs / fadeSteps, lastTime);
-                        }
+        try {
+            InputStream inputStream = s.getInputStream();
+            while (inputStream.available() > 0) {
+                inputStream.skip(inputStream.available());
+            }
+            s.setSoTimeout(1);
+            return inputStream.read() >= 0;
+        } catch (SocketTimeoutException e) {
+            // nothing to read, the connection is still open
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                s.setSoTimeout(DEFAULT_SOCKET_TIMEOUT);
+            } catch (IOException ignored) {
+            }
+        }
+    }
 
-                        currentTargetState = fadeState;
-                    }
-                } catch (NoRouteToHostException e) {
-                    logger.warn("No route to host {}:{}", host, port, e);
-                } catch (SocketException e) {
-                    logger.warn("SocketException", e);
-                } catch (Exception e) {
-                    logger.warn("An error occurred", e);
-                }
-            }, 0, TimeUnit.SECONDS);
+    private Socket openConnection() throws IOException {
+        Socket newSocket = new Socket();
+        try {
+            newSocket.connect(new InetSocketAddress(host, port), DEFAULT_SOCKET_TIMEOUT);
+            newSocket.setSoTimeout(DEFAULT_SOCKET_TIMEOUT);
+            // the fade steps are small packets, which must not be delayed
+            newSocket.setTcpNoDelay(true);
+        } catch (IOException e) {
+            closeQuietly(newSocket);
+            throw e;
+        }
+        logger.debug("Connected to '{}'", newSocket);
+        return newSocket;
+    }
+
+    private void closeConnection() {
+        if (socket != null) {
+            closeQuietly(socket);
+            socket = null;
+            outputStream = null;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
         }
     }
 
@@ -206,14 +383,7 @@ public class FadingWiFiLEDDriver extends AbstractWiFiLEDDriver {
             sendRaw(bytes, out);
         }
 
-        currentState = ledState;
-    }
-
-    private static void busySleep(final long nanos, final long startTime) {
-        // noinspection StatementWithEmptyBody
-        while (System.nanoTime() - startTime < nanos * 1000000) {
-            ;
-        }
+        currentState.set(ledState);
     }
 
 }
@@ -105,6 +105,41 @@ public class InternalLedState {
         );
     }
 
+    /**
+     * Copies the values of that state into this state.
+     *
+     * @param that state to copy
+     * @return this state
+     */
+    public InternalLedState set(InternalLedState that) {
+        this.r = that.r;
+        this.g = that.g;
+        this.b = that.b;
+        this.w = that.w;
+        this.w2 = that.w2;
+        return this;
+    }
+
+    /**
+     * Sets this state to the fading from one color to another color, like {@link #fade(InternalLedState, double)}
+     * but without creating a new state.
+     *
+     * @param from color at progress 0
+     * @param to color at progress 1
+     * @param progress value between 0 (from color) and 1 (to color)
+     * @return this state
+     */
+    public InternalLedState setFaded(InternalLedState from, InternalLedState to, double progress) {
+        double invProgress = 1 - progress;
+
+        this.r = from.r * invProgress + to.r * progress;
+        this.g = from.g * invProgress + to.g * progress;
+        this.b = from.b * invProgress + to.b * progress;
+        this.w = from.w * invProgress + to.w * progress;
+        this.w2 = from.w2 * invProgress + to.w2 * progress;
+        return this;
+    }
+
     /**
      * Returns the brightness or the RGB color.
      *
@@ -38,11 +38,13 @@ public class WiFiLEDHandler extends BaseThingHandler {
     private static final int INC_DEC_STEP = 10;
 
     private Logger logger = LoggerFactory.getLogger(WiFiLEDHandler.class);
+    private final FadeScheduler fadeScheduler;
     private AbstractWiFiLEDDriver driver;
     private ScheduledFuture<?> pollingJob;
 
-    public WiFiLEDHandler(Thing thing) {
+    public WiFiLEDHandler(Thing thing, FadeScheduler fadeScheduler) {
         super(thing);
+        this.fadeScheduler = fadeScheduler;
     }
 
     @Override
@@ -63,7 +65,8 @@ public class WiFiLEDHandler extends BaseThingHandler {
             case FADING:
                 int fadeDurationInMs = config.getFadeDurationInMs() == null ? FadingWiFiLEDDriver.DEFAULT_FADE_DURATION_IN_MS : config.getFadeDurationInMs();
                 int fadeSteps = config.getFadeSteps() == null ? FadingWiFiLEDDriver.DEFAULT_FADE_STEPS : config.getFadeSteps();
-                driver = new FadingWiFiLEDDriver(config.getIp(), port, protocol, fadeDurationInMs, fadeSteps);
+                driver = new FadingWiFiLEDDriver(config.getIp(), port, protocol, fadeDurationInMs, fadeSteps,
+                        fadeScheduler);
                 break;
         }
 
@@ -92,6 +95,9 @@ public class WiFiLEDHandler extends BaseThingHandler {
             pollingJob.cancel(true);
             pollingJob = null;
         }
+        if (driver != null) {
+            driver.dispose();
+        }
         driver = null;
     }
 
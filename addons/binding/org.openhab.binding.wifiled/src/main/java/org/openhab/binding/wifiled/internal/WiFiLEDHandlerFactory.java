@@ -12,7 +12,9 @@ import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
+import org.openhab.binding.wifiled.handler.FadeScheduler;
 import org.openhab.binding.wifiled.handler.WiFiLEDHandler;
+import org.osgi.service.component.ComponentContext;
 
 import java.util.Collections;
 import java.util.Set;
@@ -29,6 +31,22 @@ public class WiFiLEDHandlerFactory extends BaseThingHandlerFactory {
 
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_TYPE_WIFILED);
 
+    // Runs the fades of all things using the fading driver
+    private FadeScheduler fadeScheduler;
+
+    @Override
+    protected void activate(ComponentContext componentContext) {
+        super.activate(componentContext);
+        fadeScheduler = new FadeScheduler();
+    }
+
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        fadeScheduler.shutdown();
+        fadeScheduler = null;
+        super.deactivate(componentContext);
+    }
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -40,7 +58,7 @@ public class WiFiLEDHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(THING_TYPE_WIFILED)) {
-            return new WiFiLEDHandler(thing);
+            return new WiFiLEDHandler(thing, fadeScheduler);
         }
 
         return null;
@@ -33,7 +33,7 @@ public class WiFiLEDHandlerTestApp {
 		System.out.println("start");
 
 		driver = fadingDriver ?
-			new FadingWiFiLEDDriver(ip, port, protocol, 0, 1) :
+			new FadingWiFiLEDDriver(ip, port, protocol, 0, 1, new FadeScheduler()) :
 			new ClassicWiFiLEDDriver(ip, port, protocol);
 
 		System.out.println("driver created");
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zoneminder.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import name.eskildsen.zoneminder.common.ZoneMinderMonitorFunctionEnum;
+
+/**
+ * Tests for {@link ZoneMinderMonitorDataCache} against the {@link ZoneMinderServerStandIn}.
+ *
+ */
+public class ZoneMinderMonitorDataCacheTest {
+
+    private static final int MONITOR_COUNT = 24;
+
+    private ZoneMinderServerStandIn server;
+    private ZoneMinderMonitorDataCache cache;
+
+    @Before
+    public void setUp() {
+        server = new ZoneMinderServerStandIn();
+        for (int i = 1; i <= MONITOR_COUNT; i++) {
+            server.addMonitor(Integer.toString(i));
+        }
+        cache = new ZoneMinderMonitorDataCache();
+    }
+
+    @Test
+    public void fetchesAllMonitorsWithOneCall() {
+        Set<String> changed = cache.refresh(server);
+
+        assertThat(server.getMonitorsCallCount(), is(1));
+        assertThat(changed.size(), is(MONITOR_COUNT));
+        assertThat(cache.getAll().size(), is(MONITOR_COUNT));
+        assertThat(cache.get("7").getName(), is("Monitor-7"));
+    }
+
+    @Test
+    public void reportsNothingIfNothingChanged() {
+        cache.refresh(server);
+        Set<String> changed = cache.refresh(server);
+
+        assertThat(server.getMonitorsCallCount(), is(2));
+        assertTrue(changed.isEmpty());
+    }
+
+    @Test
+    public void reportsOnlyChangedMonitors() {
+        cache.refresh(server);
+        server.getMonitor("3").setFunction(ZoneMinderMonitorFunctionEnum.RECORD);
+        server.getMonitor("12").setEnabled(false);
+        server.getMonitor("20").setMaxFPS("5.00");
+
+        Set<String> changed = cache.refresh(server);
+
+        assertThat(changed, is(new HashSet<>(Arrays.asList("3", "12", "20"))));
+        assertThat(cache.get("3").getFunction(), is(ZoneMinderMonitorFunctionEnum.RECORD));
+        assertFalse(cache.get("12").getEnabled());
+    }
+
+    @Test
+    public void reportsAddedAndRemovedMonitors() {
+        cache.refresh(server);
+        server.removeMonitor("5");
+        server.addMonitor("25");
+
+        Set<String> changed = cache.refresh(server);
+
+        assertThat(changed, is(new HashSet<>(Arrays.asList("5", "25"))));
+        assertThat(cache.get("5"), is(nullValue()));
+        assertThat(cache.get("25"), is(notNullValue()));
+    }
+
+    @Test
+    public void keepsDataIfFetchFails() {
+        cache.refresh(server);
+        server.setResponseCode(500);
+
+        assertThat(cache.refresh(server), is(nullValue()));
+        assertThat(cache.getAll().size(), is(MONITOR_COUNT));
+
+        server.setResponseCode(200);
+        assertTrue(cache.refresh(server).isEmpty());
+    }
+
+    @Test
+    public void clearReportsAllMonitorsAgain() {
+        cache.refresh(server);
+        cache.clear();
+
+        assertThat(cache.get("1"), is(nullValue()));
+        assertThat(cache.refresh(server).size(), is(MONITOR_COUNT));
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zoneminder.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import name.eskildsen.zoneminder.IZoneMinderDaemonStatus;
+import name.eskildsen.zoneminder.IZoneMinderDiskUsage;
+import name.eskildsen.zoneminder.IZoneMinderHostLoad;
+import name.eskildsen.zoneminder.IZoneMinderHostVersion;
+import name.eskildsen.zoneminder.IZoneMinderMonitorData;
+import name.eskildsen.zoneminder.IZoneMinderServer;
+import name.eskildsen.zoneminder.api.config.ZoneMinderConfig;
+import name.eskildsen.zoneminder.api.config.ZoneMinderConfigEnum;
+import name.eskildsen.zoneminder.common.ZoneMinderMonitorFunctionEnum;
+import name.eskildsen.zoneminder.common.ZoneMinderMonitorSourceTypeEnum;
+
+/**
+ * A local stand-in for the API of a ZoneMinder Server. It serves the monitors set up by the test and counts the calls
+ * to 'monitors.json'.
+ *
+ */
+public class ZoneMinderServerStandIn implements IZoneMinderServer {
+
+    private final Map<String, Monitor> monitors = new LinkedHashMap<>();
+    private int responseCode = 200;
+    private int monitorsCallCount = 0;
+
+    public Monitor addMonitor(String id) {
+        Monitor monitor = new Monitor(id);
+        monitors.put(id, monitor);
+        return monitor;
+    }
+
+    public void removeMonitor(String id) {
+        monitors.remove(id);
+    }
+
+    public Monitor getMonitor(String id) {
+        return monitors.get(id);
+    }
+
+    public void setResponseCode(int responseCode) {
+        this.responseCode = responseCode;
+    }
+
+    public int getMonitorsCallCount() {
+        return monitorsCallCount;
+    }
+
+    @Override
+    public ArrayList<IZoneMinderMonitorData> getMonitors() {
+        monitorsCallCount++;
+        ArrayList<IZoneMinderMonitorData> result = new ArrayList<>();
+        if (responseCode == 200) {
+            // Like the API, every call returns new objects
+            for (Monitor monitor : monitors.values()) {
+                result.add(monitor.copy());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getHttpUrl() {
+        return "http://localhost/zm/api/monitors.json";
+    }
+
+    @Override
+    public int getHttpResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public String getHttpResponseMessage() {
+        return responseCode == 200 ? "OK" : "Internal Server Error";
+    }
+
+    @Override
+    public boolean isConnected() {
+        return true;
+    }
+
+    @Override
+    public boolean isApiEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isTriggerOptionEnabled() {
+        return true;
+    }
+
+    @Override
+    public IZoneMinderHostVersion getHostVersion() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IZoneMinderHostLoad getHostCpuLoad() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IZoneMinderDaemonStatus getHostDaemonCheckState() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public IZoneMinderDiskUsage getHostDiskUsage() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ZoneMinderConfig getConfig(ZoneMinderConfigEnum config) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean setConfig(ZoneMinderConfigEnum config, Boolean value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean setConfig(ZoneMinderConfigEnum config, String value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * A monitor as returned by 'monitors.json'.
+     */
+    public static class Monitor implements IZoneMinderMonitorData {
+        private final String id;
+        private String name;
+        private ZoneMinderMonitorFunctionEnum function = ZoneMinderMonitorFunctionEnum.MODECT;
+        private boolean enabled = true;
+        private String maxFPS = "10.00";
+
+        private Monitor(String id) {
+            this.id = id;
+            this.name = "Monitor-" + id;
+        }
+
+        private Monitor copy() {
+            Monitor copy = new Monitor(id);
+            copy.name = name;
+            copy.function = function;
+            copy.enabled = enabled;
+            copy.maxFPS = maxFPS;
+            return copy;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setFunction(ZoneMinderMonitorFunctionEnum function) {
+            this.function = function;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public void setMaxFPS(String maxFPS) {
+            this.maxFPS = maxFPS;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public ZoneMinderMonitorSourceTypeEnum getSourceType() {
+            return ZoneMinderMonitorSourceTypeEnum.REMOTE;
+        }
+
+        @Override
+        public ZoneMinderMonitorFunctionEnum getFunction() {
+            return function;
+        }
+
+        @Override
+        public boolean getEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public String getLinkedMonitors() {
+            return "";
+        }
+
+        @Override
+        public String getTriggers() {
+            return "";
+        }
+
+        @Override
+        public String getFormat() {
+            return "0";
+        }
+
+        @Override
+        public Boolean getV4LMultiBuffer() {
+            return false;
+        }
+
+        @Override
+        public String getV4LCapturesPerFrame() {
+            return "1";
+        }
+
+        @Override
+        public String getWidth() {
+            return "1280";
+        }
+
+        @Override
+        public String getHeight() {
+            return "720";
+        }
+
+        @Override
+        public String GetColours() {
+            return "4";
+        }
+
+        @Override
+        public String getPalette() {
+            return "0";
+        }
+
+        @Override
+        public String getDeinterlacing() {
+            return "0";
+        }
+
+        @Override
+        public String getImageBufferCount() {
+            return "50";
+        }
+
+        @Override
+        public String getWarmupCount() {
+            return "25";
+        }
+
+        @Override
+        public String getPreEventCount() {
+            return "25";
+        }
+
+        @Override
+        public String getPostEventCount() {
+            return "25";
+        }
+
+        @Override
+        public String getAlarmFrameCount() {
+            return "1";
+        }
+
+        @Override
+        public String getAnalysisFPS() {
+            return "5.00";
+        }
+
+        @Override
+        public String getMaxFPS() {
+            return maxFPS;
+        }
+
+        @Override
+        public String getAlarmMaxFPS() {
+            return "10.00";
+        }
+
+        @Override
+        public String getHttpUrl() {
+            return "http://localhost/zm/api/monitors.json";
+        }
+
+        @Override
+        public int getHttpResponseCode() {
+            return 200;
+        }
+
+        @Override
+        public String getHttpResponseMessage() {
+            return "OK";
+        }
+    }
+}
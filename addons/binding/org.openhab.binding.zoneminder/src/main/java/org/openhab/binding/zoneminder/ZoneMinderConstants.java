@@ -52,10 +52,12 @@ public class ZoneMinderConstants {
     public static final String PARAM_PORT = "port";
     public static final String PARAM_REFRESH_INTERVAL_ = "refresh_interval";
     public static final String PARAM_REFRESH_INTERVAL_DISKUSAGE = "refresh_interval_disk_usage";
+    public static final String PARAM_REFRESH_INTERVAL_CONSISTENCY_CHECK = "refresh_interval_consistency_check";
 
     // Default values for Monitor parameters
     public static final Integer DEFAULT_HTTP_PORT = 80;
     public static final Integer DEFAULT_TELNET_PORT = 6802;
+    public static final Integer DEFAULT_REFRESH_INTERVAL_CONSISTENCY_CHECK = 300;
 
     /*
      * ZoneMinder Monitor Constants
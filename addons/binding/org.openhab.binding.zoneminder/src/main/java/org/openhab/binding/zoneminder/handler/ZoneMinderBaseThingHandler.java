@@ -12,8 +12,6 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.security.GeneralSecurityException;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.StringType;
@@ -37,7 +35,6 @@ import org.slf4j.LoggerFactory;
 
 import name.eskildsen.zoneminder.IZoneMinderConnectionInfo;
 import name.eskildsen.zoneminder.IZoneMinderSession;
-import name.eskildsen.zoneminder.ZoneMinderFactory;
 import name.eskildsen.zoneminder.exception.ZoneMinderUrlNotFoundException;
 
 /**
@@ -63,8 +60,8 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
     /** ZoneMidner ConnectionInfo */
     private IZoneMinderConnectionInfo zoneMinderConnection = null;
 
-    private Lock lockSession = new ReentrantLock();
-    private IZoneMinderSession zoneMinderSession = null;
+    /** Session shared with the bridge and all other things of the bridge */
+    private volatile IZoneMinderSession zoneMinderSession = null;
 
     /** Configuration from openHAB */
     protected ZoneMinderThingConfig configuration;
@@ -118,13 +115,24 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
         return zoneMinderSession.isConnected();
     }
 
+    /**
+     * Locks the session of the bridge and returns it. Returns null if there is no bridge or the bridge is not
+     * connected. {@link #releaseSession()} must be called when done.
+     */
     protected IZoneMinderSession aquireSession() {
-        lockSession.lock();
-        return zoneMinderSession;
+        ZoneMinderServerBridgeHandler bridge = getZoneMinderBridgeHandler();
+        if (bridge == null) {
+            return null;
+        }
+        return bridge.aquireSession();
     }
 
     protected void releaseSession() {
-        lockSession.unlock();
+        // Don't synchronize on this handler while holding the lock of the session
+        ZoneMinderServerBridgeHandler bridge = zoneMinderBridgeHandler;
+        if (bridge != null) {
+            bridge.releaseSession();
+        }
     }
 
     /**
@@ -160,7 +168,13 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
         return ch.getUID();
     }
 
-    protected abstract void onFetchData();
+    /**
+     * Fetches the state of the thing.
+     *
+     * @param refreshPriority HIGH_PRIORITY to only fetch the values, which change while the thing is active, SCHEDULED
+     *            to fetch all values
+     */
+    protected abstract void onFetchData(DataRefreshPriorityEnum refreshPriority);
 
     /**
      * Method to Refresh Thing Handler.
@@ -183,7 +197,7 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
                 logger.debug("{}: refreshThing(): Bridge '{}' Found for Thing '{}'!", getLogIdentifier(),
                         getThing().getUID(), this.getThing().getUID());
 
-                onFetchData();
+                onFetchData(refreshPriority);
             }
         }
 
@@ -263,13 +277,8 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
     @Override
     public void onBridgeConnected(ZoneMinderServerBridgeHandler bridge, IZoneMinderConnectionInfo connection)
             throws IllegalArgumentException, GeneralSecurityException, IOException, ZoneMinderUrlNotFoundException {
-        lockSession.lock();
-        try {
-            zoneMinderSession = ZoneMinderFactory.CreateSession(connection);
-
-        } finally {
-            lockSession.unlock();
-        }
+        // Use the session of the bridge instead of logging in for every thing
+        zoneMinderSession = bridge.getSession();
     }
 
     @Override
@@ -280,13 +289,7 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
             this.setThingRefreshed(false);
         }
 
-        lockSession.lock();
-        try {
-            zoneMinderSession = null;
-
-        } finally {
-            lockSession.unlock();
-        }
+        zoneMinderSession = null;
 
     }
 
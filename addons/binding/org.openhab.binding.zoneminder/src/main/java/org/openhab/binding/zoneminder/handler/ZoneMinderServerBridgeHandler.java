@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.security.auth.login.FailedLoginException;
 
@@ -43,6 +44,7 @@ import org.openhab.binding.zoneminder.ZoneMinderConstants;
 import org.openhab.binding.zoneminder.ZoneMinderProperties;
 import org.openhab.binding.zoneminder.discovery.ZoneMinderDiscoveryService;
 import org.openhab.binding.zoneminder.internal.DataRefreshPriorityEnum;
+import org.openhab.binding.zoneminder.internal.ZoneMinderMonitorDataCache;
 import org.openhab.binding.zoneminder.internal.config.ZoneMinderBridgeServerConfig;
 import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
@@ -85,8 +87,6 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
     private ServiceRegistration discoveryRegistration = null;
 
     private ScheduledFuture<?> taskWatchDog = null;
-    private int refreshFrequency = 0;
-    private int refreshCycleCount = 0;
 
     /** Connection status for the bridge. */
     private boolean connected = false;
@@ -125,112 +125,51 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
     Boolean isInitialized = false;
 
-    private IZoneMinderSession zoneMinderSession = null;
+    private volatile IZoneMinderSession zoneMinderSession = null;
     private IZoneMinderConnectionInfo zoneMinderConnection = null;
 
     private ScheduledFuture<?> taskRefreshData = null;
-    private ScheduledFuture<?> taskPriorityRefreshData = null;
+
+    /** Serializes the use of the session shared by the bridge and all monitors */
+    private final ReentrantLock lockSession = new ReentrantLock();
+
+    /** Data of all monitors, fetched with a single call per refresh cycle */
+    private final ZoneMinderMonitorDataCache monitorCache = new ZoneMinderMonitorDataCache();
+
+    private long lastDiskUsageRefresh = 0;
+    private long lastConsistencyCheck = 0;
 
     private Runnable refreshDataRunnable = new Runnable() {
         @Override
         public void run() {
             try {
-                boolean fetchDiskUsage = false;
-
                 if (!isOnline()) {
                     logger.debug("{}: Bridge '{}' is noit online skipping refresh", getLogIdentifier(), thing.getUID());
                 }
 
-                refreshCycleCount++;
+                long now = System.currentTimeMillis();
 
-                int iMaxCycles;
-                boolean resetCount = false;
-                boolean doRefresh = false;
-
-                // Disk Usage is disabled
-                if (getBridgeConfig().getRefreshIntervalLowPriorityTask() == 0) {
-                    iMaxCycles = getBridgeConfig().getRefreshInterval();
-                    resetCount = true;
-                    doRefresh = true;
-
-                } else {
-                    iMaxCycles = getBridgeConfig().getRefreshIntervalLowPriorityTask() * 60;
-                    doRefresh = true;
-                    if ((refreshCycleCount * refreshFrequency) >= (getBridgeConfig().getRefreshIntervalLowPriorityTask()
-                            * 60)) {
-                        fetchDiskUsage = true;
-                        resetCount = true;
-
-                    }
+                // Disk Usage is disabled if the interval is '0'
+                boolean fetchDiskUsage = false;
+                int diskUsageInterval = getBridgeConfig().getRefreshIntervalLowPriorityTask();
+                if ((diskUsageInterval > 0) && (now - lastDiskUsageRefresh >= diskUsageInterval * 60000L)) {
+                    fetchDiskUsage = true;
+                    lastDiskUsageRefresh = now;
                 }
 
-                logger.debug(
-                        "{}: Running Refresh data task count='{}', freq='{}', max='{}', interval='{}', intervalLow='{}'",
-                        getLogIdentifier(), refreshCycleCount, refreshFrequency, iMaxCycles,
-                        getBridgeConfig().getRefreshInterval(), getBridgeConfig().getRefreshIntervalLowPriorityTask());
-
-                if (doRefresh) {
-
-                    if (resetCount == true) {
-                        refreshCycleCount = 0;
-                    }
-
-                    logger.debug("{}: 'refreshDataRunnable()': (diskUsage='{}')", getLogIdentifier(), fetchDiskUsage);
-
-                    refreshThing(zoneMinderSession, fetchDiskUsage);
+                boolean consistencyCheck = false;
+                if (now - lastConsistencyCheck >= getBridgeConfig().getRefreshIntervalConsistencyCheck() * 1000L) {
+                    consistencyCheck = true;
+                    lastConsistencyCheck = now;
                 }
 
-            } catch (Exception exception) {
-                logger.error("{}: monitorRunnable::run(): Exception: {}", getLogIdentifier(), exception);
-            }
-        }
-    };
-
-    private Runnable refreshPriorityDataRunnable = new Runnable() {
-
-        @Override
-        public void run() {
-            try {
+                logger.debug("{}: 'refreshDataRunnable()': (diskUsage='{}', consistencyCheck='{}')", getLogIdentifier(),
+                        fetchDiskUsage, consistencyCheck);
 
-                // Make sure priority updates is done
-                for (Thing thing : getThing().getThings()) {
-                    try {
-
-                        if (thing.getThingTypeUID().equals(ZoneMinderConstants.THING_TYPE_THING_ZONEMINDER_MONITOR)) {
-                            Thing thingMonitor = thing;
-
-                            ZoneMinderBaseThingHandler thingHandler = (ZoneMinderBaseThingHandler) thing.getHandler();
-                            if (thingHandler != null) {
-
-                                if (thingHandler.getRefreshPriority() == DataRefreshPriorityEnum.HIGH_PRIORITY) {
-                                    logger.debug("[MONITOR-{}]: RefreshPriority is High Priority",
-                                            thingHandler.getZoneMinderId());
-                                    thingHandler.refreshThing(zoneMinderSession, DataRefreshPriorityEnum.HIGH_PRIORITY);
-                                }
-                            } else {
-                                logger.debug(
-                                        "[MONITOR]: refreshThing not called for monitor, since thingHandler is 'null'");
-
-                            }
-                        }
-
-                    } catch (NullPointerException ex) {
-                        // This isn't critical (unless it comes over and over). There seems to be a bug so that a
-                        // null
-                        // pointer exception is coming every now and then.
-                        // HAve to find the reason for that. Until thenm, don't Spamm
-                        logger.error(
-                                "[MONITOR]: Method 'refreshThing()' for Bridge failed for thing='{}' - Exception='{}'",
-                                thing.getUID(), ex);
-                    } catch (Exception ex) {
-                        logger.error(
-                                "[MONITOR]: Method 'refreshThing()' for Bridge failed for thing='{}' - Exception='{}'",
-                                thing.getUID(), ex);
-                    }
-                }
+                refreshThing(zoneMinderSession, fetchDiskUsage, consistencyCheck);
 
             } catch (Exception exception) {
-                logger.error("[MONITOR]: monitorRunnable::run(): Exception: ", exception);
+                logger.error("{}: monitorRunnable::run(): Exception: {}", getLogIdentifier(), exception);
             }
         }
     };
@@ -277,7 +216,6 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
                     getBridgeConfig().getPassword(), 3000);
 
             taskRefreshData = null;
-            taskPriorityRefreshData = null;
 
         } catch (Exception ex) {
             logger.error("[BRIDGE]: 'ZoneMinderServerBridgeHandler' failed to initialize. Exception='{}'",
@@ -289,29 +227,6 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
         }
     }
 
-    /**
-     * Method to find the lowest possible refresh rate (based on configuration)
-     *
-     * @param refreshRate
-     * @return
-     */
-    protected int calculateCommonRefreshFrequency(int refreshRate) {
-        // Check if 30, 15, 10 or 5 seconds is possible
-        if ((refreshRate % 30) == 0) {
-            return 30;
-        } else if ((refreshRate % 15) == 0) {
-            return 15;
-        } else if ((refreshRate % 10) == 0) {
-            return 10;
-        } else if ((refreshRate % 5) == 0) {
-            return 5;
-        }
-
-        // Hmm, didn't find a obvious shared value. Run every second...
-        return 1;
-
-    }
-
     protected void startWatchDogTask() {
         taskWatchDog = startTask(watchDogRunnable, 0, 15, TimeUnit.SECONDS);
     }
@@ -413,12 +328,78 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
         logger.debug("{}: Update '{}' with '{}'", getLogIdentifier(), channelUID.getAsString(), command.toString());
     }
 
-    protected synchronized void refreshThing(IZoneMinderSession session, boolean fetchDiskUsage) {
+    protected synchronized void refreshThing(IZoneMinderSession session, boolean fetchDiskUsage,
+            boolean consistencyCheck) {
 
         logger.debug("{}: 'refreshThing()': Thing='{}'!", getLogIdentifier(), this.getThing().getUID());
 
         List<Channel> channels = getThing().getChannels();
         List<Thing> things = getThing().getThings();
+        Set<String> changedMonitors = null;
+
+        lockSession.lock();
+        try {
+            changedMonitors = refreshServerData(session, fetchDiskUsage);
+        } finally {
+            lockSession.unlock();
+        }
+
+        /*
+         * Update all channels on Bridge
+         */
+        for (Channel channel : channels) {
+            updateChannel(channel.getUID());
+        }
+
+        /*
+         * Pass changed monitor data to the Things attached to Bridge. Only monitors with an active alarm and (during
+         * the consistency check) all monitors fetch their state themselves.
+         */
+        for (Thing thing : things) {
+            try {
+
+                if (thing.getThingTypeUID().equals(ZoneMinderConstants.THING_TYPE_THING_ZONEMINDER_MONITOR)) {
+                    ZoneMinderThingMonitorHandler thingHandler = (ZoneMinderThingMonitorHandler) thing.getHandler();
+                    if (thingHandler == null) {
+                        continue;
+                    }
+
+                    String monitorId = thingHandler.getZoneMinderId();
+                    if ((changedMonitors != null) && changedMonitors.contains(monitorId)) {
+                        thingHandler.onMonitorDataChanged(monitorCache.get(monitorId));
+                    }
+
+                    if (consistencyCheck) {
+                        thingHandler.refreshThing(session, DataRefreshPriorityEnum.SCHEDULED);
+                    } else if (thingHandler.getRefreshPriority() == DataRefreshPriorityEnum.HIGH_PRIORITY) {
+                        logger.debug("[MONITOR-{}]: RefreshPriority is High Priority", monitorId);
+                        thingHandler.refreshThing(session, DataRefreshPriorityEnum.HIGH_PRIORITY);
+                    }
+                }
+
+            } catch (NullPointerException ex) {
+                // This isn't critical (unless it comes over and over). There seems to be a bug so that a null
+                // pointer exception is coming every now and then.
+                // HAve to find the reason for that. Until thenm, don't Spamm
+                logger.debug("{}: Method 'refreshThing()' for Bridge {} failed for thing='{}' - Exception='{}'",
+                        getLogIdentifier(), this.getZoneMinderId(), thing.getUID(), ex.getMessage());
+
+                // Other exceptions has to be shown as errors
+            } catch (Exception ex) {
+                logger.error("{}: Method 'refreshThing()' for Bridge {} failed for thing='{}' - Exception='{}'",
+                        getLogIdentifier(), this.getZoneMinderId(), thing.getUID(), ex.getMessage());
+            }
+        }
+
+    }
+
+    /**
+     * Fetches the data of the server and of all monitors.
+     *
+     * @return the ids of the monitors whose data has changed or null, if the monitors could not be fetched
+     */
+    private Set<String> refreshServerData(IZoneMinderSession session, boolean fetchDiskUsage) {
+        Set<String> changedMonitors = null;
 
         IZoneMinderServer zoneMinderServerProxy = ZoneMinderFactory.getServerProxy(session);
         if (zoneMinderServerProxy == null) {
@@ -479,6 +460,12 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
                 }
             }
 
+            changedMonitors = monitorCache.refresh(zoneMinderServerProxy);
+            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}' ChangedMonitors='{}'",
+                    getLogIdentifier(), zoneMinderServerProxy.getHttpUrl(),
+                    zoneMinderServerProxy.getHttpResponseCode(), zoneMinderServerProxy.getHttpResponseMessage(),
+                    changedMonitors);
+
         } else {
             _online = false;
             // Make sure old data is cleared
@@ -486,40 +473,7 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
             channelDiskUsage = "";
         }
 
-        /*
-         * Update all channels on Bridge
-         */
-        for (Channel channel : channels) {
-            updateChannel(channel.getUID());
-        }
-
-        /*
-         * Request Things attached to Bridge to refresh
-         */
-        for (Thing thing : things) {
-            try {
-
-                if (thing.getThingTypeUID().equals(ZoneMinderConstants.THING_TYPE_THING_ZONEMINDER_MONITOR)) {
-                    Thing thingMonitor = thing;
-                    ZoneMinderBaseThingHandler thingHandler = (ZoneMinderBaseThingHandler) thing.getHandler();
-
-                    thingHandler.refreshThing(session, DataRefreshPriorityEnum.SCHEDULED);
-                }
-
-            } catch (NullPointerException ex) {
-                // This isn't critical (unless it comes over and over). There seems to be a bug so that a null
-                // pointer exception is coming every now and then.
-                // HAve to find the reason for that. Until thenm, don't Spamm
-                logger.debug("{}: Method 'refreshThing()' for Bridge {} failed for thing='{}' - Exception='{}'",
-                        getLogIdentifier(), this.getZoneMinderId(), thing.getUID(), ex.getMessage());
-
-                // Other exceptions has to be shown as errors
-            } catch (Exception ex) {
-                logger.error("{}: Method 'refreshThing()' for Bridge {} failed for thing='{}' - Exception='{}'",
-                        getLogIdentifier(), this.getZoneMinderId(), thing.getUID(), ex.getMessage());
-            }
-        }
-
+        return changedMonitors;
     }
 
     /**
@@ -547,7 +501,10 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
         if (this.connected != connected) {
             if (connected) {
                 try {
-                    zoneMinderSession = ZoneMinderFactory.CreateSession(zoneMinderConnection);
+                    // Keep the session established while checking the availability, all things share it
+                    if (zoneMinderSession == null) {
+                        zoneMinderSession = ZoneMinderFactory.CreateSession(zoneMinderConnection);
+                    }
                 } catch (FailedLoginException | IllegalArgumentException | IOException
                         | ZoneMinderUrlNotFoundException e) {
                     logger.error("BRIDGE [{}]: Call to setConencted failed with exception '{}'", getThingId(),
@@ -672,8 +629,14 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
                     return;
                 }
 
-                IZoneMinderServer serverProxy = ZoneMinderFactory.getServerProxy(zoneMinderSession);
-                IZoneMinderDaemonStatus daemonStatus = serverProxy.getHostDaemonCheckState();
+                IZoneMinderDaemonStatus daemonStatus;
+                lockSession.lock();
+                try {
+                    IZoneMinderServer serverProxy = ZoneMinderFactory.getServerProxy(zoneMinderSession);
+                    daemonStatus = serverProxy.getHostDaemonCheckState();
+                } finally {
+                    lockSession.unlock();
+                }
 
                 // If service isn't running OR we revceived a http responsecode other than 200, assume we are offline
                 if ((!daemonStatus.getStatus()) || (daemonStatus.getHttpResponseCode() != 200)) {
@@ -1027,38 +990,32 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
         if (taskRefreshData == null) {
 
-            // Perform first refresh manually (we want to force update of DiskUsage)
+            // Perform first refresh manually (we want to force update of DiskUsage). The monitors are not connected
+            // yet, they pick up the fetched monitor data when they are. The first scheduled refresh checks them all.
             boolean updateDiskUsage = (getBridgeConfig().getRefreshIntervalLowPriorityTask() > 0) ? true : false;
-            refreshThing(zoneMinderSession, updateDiskUsage);
-
-            if (getBridgeConfig().getRefreshIntervalLowPriorityTask() != 0) {
-                refreshFrequency = calculateCommonRefreshFrequency(getBridgeConfig().getRefreshInterval());
-            } else {
-                refreshFrequency = getBridgeConfig().getRefreshInterval();
-            }
-            logger.info("BRIDGE [{}]: Calculated refresh inetrval to '{}'", getThingId(), refreshFrequency);
+            refreshThing(zoneMinderSession, updateDiskUsage, false);
+            lastDiskUsageRefresh = System.currentTimeMillis();
+            lastConsistencyCheck = 0;
 
             if (taskRefreshData != null) {
                 taskRefreshData.cancel(true);
                 taskRefreshData = null;
             }
 
-            // Start job to handle next updates
-            taskRefreshData = startTask(refreshDataRunnable, refreshFrequency, refreshFrequency, TimeUnit.SECONDS);
-
-            if (taskPriorityRefreshData != null) {
-                taskPriorityRefreshData.cancel(true);
-                taskPriorityRefreshData = null;
-            }
-
-            // Only start if Priority Frequency is higher than ordinary
-            if (refreshFrequency > 1) {
-                taskPriorityRefreshData = startTask(refreshPriorityDataRunnable, 0, 1, TimeUnit.SECONDS);
-            }
+            // Start job to handle next updates. Monitor states are received via telnet, the refresh only fetches
+            // the data of all monitors with one call and checks the monitors with an active alarm.
+            int refreshInterval = getBridgeConfig().getRefreshInterval();
+            logger.info("BRIDGE [{}]: Refresh interval is '{}'", getThingId(), refreshInterval);
+            taskRefreshData = startTask(refreshDataRunnable, refreshInterval, refreshInterval, TimeUnit.SECONDS);
         }
 
         // Update properties
-        updateMonitorProperties(zoneMinderSession);
+        lockSession.lock();
+        try {
+            updateMonitorProperties(zoneMinderSession);
+        } finally {
+            lockSession.unlock();
+        }
     }
 
     @Override
@@ -1075,12 +1032,7 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
             logger.debug("{}: Stopping DataRefresh task", getLogIdentifier());
         }
 
-        // Stopping High priority thread while OFFLINE
-        if (taskPriorityRefreshData != null) {
-            taskPriorityRefreshData.cancel(true);
-            taskPriorityRefreshData = null;
-            logger.debug("{}: Stopping Priority DataRefresh task", getLogIdentifier());
-        }
+        monitorCache.clear();
 
         // Make sure everything gets refreshed
         for (Channel ch : getThing().getChannels()) {
@@ -1129,15 +1081,55 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
     public ArrayList<IZoneMinderMonitorData> getMonitors() {
         if (isOnline()) {
+            lockSession.lock();
+            try {
+                IZoneMinderServer serverProxy = ZoneMinderFactory.getServerProxy(zoneMinderSession);
+                ArrayList<IZoneMinderMonitorData> result = serverProxy.getMonitors();
 
-            IZoneMinderServer serverProxy = ZoneMinderFactory.getServerProxy(zoneMinderSession);
-            ArrayList<IZoneMinderMonitorData> result = serverProxy.getMonitors();
-
-            return result;
+                return result;
+            } finally {
+                lockSession.unlock();
+            }
         }
         return new ArrayList<IZoneMinderMonitorData>();
     }
 
+    /**
+     * Returns the data of the monitor fetched during the last refresh or null, if the monitor is not known.
+     */
+    public IZoneMinderMonitorData getMonitorData(String monitorId) {
+        return monitorCache.get(monitorId);
+    }
+
+    /**
+     * Locks the session shared by the bridge and all monitors and returns it. The session is null while the bridge
+     * is not connected. {@link #releaseSession()} must be called when done.
+     */
+    public IZoneMinderSession aquireSession() {
+        lockSession.lock();
+        return zoneMinderSession;
+    }
+
+    /**
+     * Unlocks the session locked by {@link #aquireSession()}. Must be called by the thread which has locked it.
+     */
+    public void releaseSession() {
+        if (!lockSession.isHeldByCurrentThread()) {
+            // A release without a matching aquireSession() or from another thread, the stack trace shows the caller
+            logger.error("{}: Session released without holding its lock", getLogIdentifier(),
+                    new IllegalMonitorStateException());
+            return;
+        }
+        lockSession.unlock();
+    }
+
+    /**
+     * Returns the session shared by the bridge and all monitors, or null if the bridge is not connected.
+     */
+    public IZoneMinderSession getSession() {
+        return zoneMinderSession;
+    }
+
     /*
      * This is experimental
      * Try to add different properties
@@ -16,8 +16,6 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.security.auth.login.FailedLoginException;
-
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.Channel;
@@ -79,6 +77,9 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
 
     private ZoneMinderEvent curEvent = null;
 
+    /** Id of the event reported via Telnet, whose cause has not been fetched yet */
+    private volatile String pendingEventId = null;
+
     /**
      * Channels
      */
@@ -125,26 +126,26 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
             super.onBridgeConnected(bridge, connection);
 
             ZoneMinderFactory.SubscribeMonitorEvents(connection, config.getZoneMinderId(), this);
-            IZoneMinderSession session = aquireSession();
-            IZoneMinderMonitor monitor = ZoneMinderFactory.getMonitorProxy(session, config.getZoneMinderId());
-            IZoneMinderMonitorData monitorData = monitor.getMonitorData();
-
-            logger.debug("{}:    SourceType:         {}", getLogIdentifier(), monitorData.getSourceType().name());
-            logger.debug("{}:    Format:             {}", getLogIdentifier(), monitorData.getFormat());
-            logger.debug("{}:    AlarmFrameCount:    {}", getLogIdentifier(), monitorData.getAlarmFrameCount());
-            logger.debug("{}:    AlarmMaxFPS:        {}", getLogIdentifier(), monitorData.getAlarmMaxFPS());
-            logger.debug("{}:    AnalysisFPS:        {}", getLogIdentifier(), monitorData.getAnalysisFPS());
-            logger.debug("{}:    Height x Width:     {} x {}", getLogIdentifier(), monitorData.getHeight(),
-                    monitorData.getWidth());
 
-            updateMonitorProperties(session);
+            // The bridge has already fetched the data of all monitors
+            IZoneMinderMonitorData monitorData = bridge.getMonitorData(getZoneMinderId());
+            if (monitorData == null) {
+                logger.warn("{}: Monitor not found on ZoneMinder Server", getLogIdentifier());
+            } else {
+                logger.debug("{}:    SourceType:         {}", getLogIdentifier(), monitorData.getSourceType().name());
+                logger.debug("{}:    Format:             {}", getLogIdentifier(), monitorData.getFormat());
+                logger.debug("{}:    AlarmFrameCount:    {}", getLogIdentifier(), monitorData.getAlarmFrameCount());
+                logger.debug("{}:    AlarmMaxFPS:        {}", getLogIdentifier(), monitorData.getAlarmMaxFPS());
+                logger.debug("{}:    AnalysisFPS:        {}", getLogIdentifier(), monitorData.getAnalysisFPS());
+                logger.debug("{}:    Height x Width:     {} x {}", getLogIdentifier(), monitorData.getHeight(),
+                        monitorData.getWidth());
+            }
+            onMonitorDataChanged(monitorData);
 
         } catch (Exception ex) {
             logger.error("{}: Exception occurred when calling 'onBridgeConencted()'. Exception='{}'",
                     getLogIdentifier(), ex.getMessage());
 
-        } finally {
-            releaseSession();
         }
 
     }
@@ -333,16 +334,29 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
     public void onTrippedForceAlarm(ZoneMinderTriggerEvent event) {
         try {
             logger.info("{}: Received forceAlarm for monitor {}", getLogIdentifier(), event.getMonitorId());
-            Channel channel = this.getThing().getChannel(ZoneMinderConstants.CHANNEL_MONITOR_DETAILED_STATUS);
-            Channel chEventCause = this.getThing().getChannel(ZoneMinderConstants.CHANNEL_MONITOR_EVENT_CAUSE);
 
             // Set Current Event to actual event
             if (event.getState()) {
+                pendingEventId = event.getEventId();
                 startPriorityRefresh();
 
             } else {
                 curEvent = null;
             }
+
+            // Events are the primary source of the monitor state, fetch it right away instead of waiting for the
+            // next refresh of the bridge. Don't block the Telnet listener while doing so.
+            scheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refreshThing(null, DataRefreshPriorityEnum.HIGH_PRIORITY);
+                    } catch (Exception ex) {
+                        logger.error("{}: Exception occurred when refreshing after event. Exception='{}'",
+                                getLogIdentifier(), ex.getMessage());
+                    }
+                }
+            });
         } catch (Exception ex) {
             logger.error("{}: Exception occurred inTrippedForceAlarm() Exception='{}'", getLogIdentifier(),
                     ex.getMessage());
@@ -350,6 +364,33 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
         }
     }
 
+    /**
+     * Called by the bridge when the data of the monitor fetched from the ZoneMinder Server has changed.
+     *
+     * @param monitorData the new data or null, if the monitor does not exist on the server
+     */
+    public synchronized void onMonitorDataChanged(IZoneMinderMonitorData monitorData) {
+        if (monitorData == null) {
+            channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
+            channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
+            channelEnabled = false;
+            channelEventCause = "";
+        } else {
+            channelFunction = monitorData.getFunction();
+            channelEnabled = monitorData.getEnabled();
+
+            if (isConnected()) {
+                updateMonitorProperties(monitorData);
+            }
+        }
+
+        RecalculateChannelStates();
+
+        for (Channel channel : getThing().getChannels()) {
+            updateChannel(channel.getUID());
+        }
+    }
+
     protected ZoneMinderThingMonitorConfig getMonitorConfig() {
         return this.getConfigAs(ZoneMinderThingMonitorConfig.class);
     }
@@ -483,27 +524,24 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
             IZoneMinderMonitor monitorProxy = null;
             IZoneMinderDaemonStatus captureDaemon = null;
             // TODO:: Also look at Analysis and Frame Daemons (only if they are supposed to be running)
-            // IZoneMinderSession session = aquireSession();
 
-            IZoneMinderSession curSession = null;
+            // Use the session of the bridge instead of logging in again
+            IZoneMinderSession curSession = aquireSession();
             try {
-                curSession = ZoneMinderFactory.CreateSession(connection);
-            } catch (FailedLoginException | IllegalArgumentException | IOException
-                    | ZoneMinderUrlNotFoundException ex) {
-                logger.error("{}: Create Session failed with exception {}", getLogIdentifier(), ex.getMessage());
-
-                newThingStatus = ThingStatus.OFFLINE;
-                thingStatusDetailed = ThingStatusDetail.COMMUNICATION_ERROR;
-                thingStatusDescription = "Failed to connect. (Check Log)";
+                if (curSession == null) {
+                    newThingStatus = ThingStatus.OFFLINE;
+                    thingStatusDetailed = ThingStatusDetail.COMMUNICATION_ERROR;
+                    thingStatusDescription = "Failed to connect. (Check Log)";
 
-                updateThingStatus(newThingStatus, thingStatusDetailed, thingStatusDescription);
-                return;
-            }
+                    updateThingStatus(newThingStatus, thingStatusDetailed, thingStatusDescription);
+                    return;
+                }
 
-            if (curSession != null) {
                 monitorProxy = ZoneMinderFactory.getMonitorProxy(curSession, getZoneMinderId());
 
                 captureDaemon = monitorProxy.getCaptureDaemonStatus();
+            } finally {
+                releaseSession();
             }
 
             if (captureDaemon == null) {
@@ -722,96 +760,54 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
     }
 
     @Override
-    protected void onFetchData() {
+    protected void onFetchData(DataRefreshPriorityEnum refreshPriority) {
 
         IZoneMinderSession session = null;
 
+        // Function and Enabled are passed on by the bridge, which fetches the data of all monitors at once
         session = aquireSession();
         try {
-            IZoneMinderMonitor monitorProxy = ZoneMinderFactory.getMonitorProxy(session, getZoneMinderId());
-
-            IZoneMinderMonitorData data = null;
-            IZoneMinderDaemonStatus captureDaemon = null;
-            IZoneMinderDaemonStatus analysisDaemon = null;
-            IZoneMinderDaemonStatus frameDaemon = null;
-
-            data = monitorProxy.getMonitorData();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
-
-            captureDaemon = monitorProxy.getCaptureDaemonStatus();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
+            if (session == null) {
+                return;
+            }
 
-            analysisDaemon = monitorProxy.getAnalysisDaemonStatus();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
+            IZoneMinderMonitor monitorProxy = ZoneMinderFactory.getMonitorProxy(session, getZoneMinderId());
 
-            frameDaemon = monitorProxy.getFrameDaemonStatus();
+            ZoneMinderMonitorStatusEnum monitorStatus = monitorProxy.getMonitorDetailedStatus();
             logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
                     monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
                     monitorProxy.getHttpResponseMessage());
 
-            if ((data.getHttpResponseCode() != 200) || (captureDaemon.getHttpResponseCode() != 200)
-                    || (analysisDaemon.getHttpResponseCode() != 200) || (frameDaemon.getHttpResponseCode() != 200)) {
-
-                if (data.getHttpResponseCode() != 200) {
-                    logger.warn("{}: HTTP Response MonitorData: Code='{}', Message'{}'", getLogIdentifier(),
-                            data.getHttpResponseCode(), data.getHttpResponseMessage());
-
-                    channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
-                    channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
-                    channelEnabled = false;
-                    channelEventCause = "";
-                }
-                if (captureDaemon.getHttpResponseCode() != 200) {
-                    channelDaemonCapture = false;
-                    logger.warn("{}: HTTP Response CaptureDaemon: Code='{}', Message'{}'", getLogIdentifier(),
-                            captureDaemon.getHttpResponseCode(), captureDaemon.getHttpResponseMessage());
+            if ((monitorStatus == null) || (monitorProxy.getHttpResponseCode() != 200)) {
+                logger.warn("{}: HTTP Response MonitorStatus: Code='{}', Message'{}'", getLogIdentifier(),
+                        monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+                channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
+            } else {
+                channelMonitorStatus = monitorStatus;
+            }
 
+            // Fetch the cause of the event reported via Telnet only once
+            String eventId = pendingEventId;
+            if (eventId != null) {
+                pendingEventId = null;
+                IZoneMinderEventData event = monitorProxy.getEventById(eventId);
+                if (event != null) {
+                    channelEventCause = event.getCause();
                 }
-                if (analysisDaemon.getHttpResponseCode() != 200) {
-                    channelDaemonAnalysis = false;
+            }
 
-                    logger.warn("{}: HTTP Response AnalysisDaemon: Code='{}', Message='{}'", getLogIdentifier(),
-                            analysisDaemon.getHttpResponseCode(), analysisDaemon.getHttpResponseMessage());
-                }
-                if (frameDaemon.getHttpResponseCode() != 200) {
-                    channelDaemonFrame = false;
-                    logger.warn("{}: HTTP Response MonitorData: Code='{}', Message'{}'", getLogIdentifier(),
-                            frameDaemon.getHttpResponseCode(), frameDaemon.getHttpResponseMessage());
-                }
+            if (refreshPriority == DataRefreshPriorityEnum.SCHEDULED) {
+                fetchDaemonStatus(monitorProxy);
 
-            } else {
-                if (isConnected()) {
-                    channelMonitorStatus = monitorProxy.getMonitorDetailedStatus();
-                    logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                            monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                            monitorProxy.getHttpResponseMessage());
-
-                    channelFunction = data.getFunction();
-                    channelEnabled = data.getEnabled();
+                // The cause is normally taken from the event reported via Telnet. Looking up the last event is
+                // expensive (it pages through all events of the monitor), so only do it if an event was missed.
+                if (channelEventCause.isEmpty() && ((channelMonitorStatus == ZoneMinderMonitorStatusEnum.PRE_ALARM)
+                        || (channelMonitorStatus == ZoneMinderMonitorStatusEnum.ALARM)
+                        || (channelMonitorStatus == ZoneMinderMonitorStatusEnum.ALERT))) {
                     IZoneMinderEventData event = monitorProxy.getLastEvent();
                     if (event != null) {
                         channelEventCause = event.getCause();
-                    } else {
-                        channelEventCause = "";
                     }
-
-                    channelDaemonCapture = captureDaemon.getStatus();
-                    channelDaemonAnalysis = analysisDaemon.getStatus();
-                    channelDaemonFrame = frameDaemon.getStatus();
-                } else {
-                    channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
-                    channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
-                    channelEnabled = false;
-                    channelEventCause = "";
-                    channelDaemonCapture = false;
-                    channelDaemonAnalysis = false;
-                    channelDaemonFrame = false;
                 }
             }
         } finally {
@@ -827,6 +823,44 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
 
     }
 
+    private void fetchDaemonStatus(IZoneMinderMonitor monitorProxy) {
+        IZoneMinderDaemonStatus captureDaemon = monitorProxy.getCaptureDaemonStatus();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+
+        IZoneMinderDaemonStatus analysisDaemon = monitorProxy.getAnalysisDaemonStatus();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+
+        IZoneMinderDaemonStatus frameDaemon = monitorProxy.getFrameDaemonStatus();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+
+        if (captureDaemon.getHttpResponseCode() != 200) {
+            channelDaemonCapture = false;
+            logger.warn("{}: HTTP Response CaptureDaemon: Code='{}', Message'{}'", getLogIdentifier(),
+                    captureDaemon.getHttpResponseCode(), captureDaemon.getHttpResponseMessage());
+        } else {
+            channelDaemonCapture = captureDaemon.getStatus();
+        }
+
+        if (analysisDaemon.getHttpResponseCode() != 200) {
+            channelDaemonAnalysis = false;
+            logger.warn("{}: HTTP Response AnalysisDaemon: Code='{}', Message='{}'", getLogIdentifier(),
+                    analysisDaemon.getHttpResponseCode(), analysisDaemon.getHttpResponseMessage());
+        } else {
+            channelDaemonAnalysis = analysisDaemon.getStatus();
+        }
+
+        if (frameDaemon.getHttpResponseCode() != 200) {
+            channelDaemonFrame = false;
+            logger.warn("{}: HTTP Response MonitorData: Code='{}', Message'{}'", getLogIdentifier(),
+                    frameDaemon.getHttpResponseCode(), frameDaemon.getHttpResponseMessage());
+        } else {
+            channelDaemonFrame = frameDaemon.getStatus();
+        }
+    }
+
     protected State getDetailedStatus() {
         State state = UnDefType.UNDEF;
 
@@ -849,14 +883,10 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
      * This is experimental
      * Try to add different properties
      */
-    private void updateMonitorProperties(IZoneMinderSession session) {
+    private void updateMonitorProperties(IZoneMinderMonitorData monitorData) {
         logger.debug("{}: Update Monitor Properties", getLogIdentifier());
         // Update property information about this device
         Map<String, String> properties = editProperties();
-        IZoneMinderMonitor monitorProxy = ZoneMinderFactory.getMonitorProxy(session, getZoneMinderId());
-        IZoneMinderMonitorData monitorData = monitorProxy.getMonitorData();
-        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
 
         properties.put(ZoneMinderProperties.PROPERTY_ID, getLogIdentifier());
         properties.put(ZoneMinderProperties.PROPERTY_MONITOR_NAME, monitorData.getName());
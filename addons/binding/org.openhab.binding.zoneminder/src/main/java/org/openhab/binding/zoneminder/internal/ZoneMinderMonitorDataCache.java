@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zoneminder.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import name.eskildsen.zoneminder.IZoneMinderMonitorData;
+import name.eskildsen.zoneminder.IZoneMinderServer;
+
+/**
+ * The {@link ZoneMinderMonitorDataCache} holds the last data of all monitors of a ZoneMinder Server. The data of all
+ * monitors is fetched with a single call to 'monitors.json' and compared to the previous fetch, so only the monitors
+ * which have been added, changed or removed have to be updated.
+ *
+ */
+public class ZoneMinderMonitorDataCache {
+
+    private final Map<String, IZoneMinderMonitorData> monitors = new ConcurrentHashMap<>();
+    private final Map<String, String> signatures = new HashMap<>();
+
+    /**
+     * Fetches the data of all monitors from the server.
+     *
+     * @param serverProxy the server to fetch the monitors from
+     * @return the ids of the monitors, which have been added, changed or removed since the last fetch or null, if the
+     *         monitors could not be fetched
+     */
+    public synchronized Set<String> refresh(IZoneMinderServer serverProxy) {
+        List<IZoneMinderMonitorData> result = serverProxy.getMonitors();
+        if (result == null || (result.isEmpty() && serverProxy.getHttpResponseCode() != 200)) {
+            return null;
+        }
+
+        Set<String> changed = new HashSet<>();
+        Set<String> removed = new HashSet<>(signatures.keySet());
+        for (IZoneMinderMonitorData data : result) {
+            String id = data.getId();
+            if (id == null) {
+                continue;
+            }
+            removed.remove(id);
+
+            String signature = getSignature(data);
+            if (!signature.equals(signatures.put(id, signature))) {
+                changed.add(id);
+            }
+            monitors.put(id, data);
+        }
+
+        for (String id : removed) {
+            signatures.remove(id);
+            monitors.remove(id);
+            changed.add(id);
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the last fetched data of the monitor or null, if the monitor is not known.
+     */
+    public IZoneMinderMonitorData get(String id) {
+        return monitors.get(id);
+    }
+
+    /**
+     * Returns the last fetched data of all monitors.
+     */
+    public List<IZoneMinderMonitorData> getAll() {
+        return new ArrayList<>(monitors.values());
+    }
+
+    public synchronized void clear() {
+        monitors.clear();
+        signatures.clear();
+    }
+
+    /**
+     * Returns the values of the monitor shown in channels or properties.
+     */
+    private static String getSignature(IZoneMinderMonitorData data) {
+        return data.getName() + '|' + data.getFunction() + '|' + data.getEnabled() + '|' + data.getSourceType() + '|'
+                + data.getAnalysisFPS() + '|' + data.getMaxFPS() + '|' + data.getAlarmMaxFPS() + '|' + data.getWidth()
+                + '|' + data.getHeight();
+    }
+}
@@ -30,6 +30,7 @@ public class ZoneMinderBridgeServerConfig extends ZoneMinderConfig {
     private String password;
     private Integer refresh_interval;
     private Integer refresh_interval_disk_usage;
+    private Integer refresh_interval_consistency_check;
     private Boolean autodiscover_things;
 
     @Override
@@ -116,6 +117,17 @@ public class ZoneMinderBridgeServerConfig extends ZoneMinderConfig {
         this.refresh_interval_disk_usage = refreshIntervalDiskUsage;
     }
 
+    public Integer getRefreshIntervalConsistencyCheck() {
+        if (refresh_interval_consistency_check == null) {
+            return ZoneMinderConstants.DEFAULT_REFRESH_INTERVAL_CONSISTENCY_CHECK;
+        }
+        return refresh_interval_consistency_check;
+    }
+
+    public void setRefreshIntervalConsistencyCheck(Integer refreshIntervalConsistencyCheck) {
+        this.refresh_interval_consistency_check = refreshIntervalConsistencyCheck;
+    }
+
     public Boolean getAutodiscoverThings() {
         return autodiscover_things;
     }
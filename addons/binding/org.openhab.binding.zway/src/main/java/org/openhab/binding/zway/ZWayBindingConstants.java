@@ -94,6 +94,7 @@ public class ZWayBindingConstants {
     public static final String BRIDGE_CONFIG_ZWAY_SERVER_USERNAME = "zwayServerUsername";
     public static final String BRIDGE_CONFIG_ZWAY_SERVER_PASSWORD = "zwayServerPassword";
     public static final String BRIDGE_CONFIG_POLLING_INTERVAL = "pollingInterval";
+    public static final String BRIDGE_CONFIG_DEVICE_LIST_MAX_AGE = "deviceListMaxAge";
     public static final String BRIDGE_CONFIG_OBSERVER_MECHANISM_ENABLED = "observerMechanismEnabled";
 
     public static final String DEVICE_CONFIG_NODE_ID = "nodeId";
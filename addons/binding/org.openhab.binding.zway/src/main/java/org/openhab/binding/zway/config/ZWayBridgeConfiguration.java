@@ -32,6 +32,7 @@ public class ZWayBridgeConfiguration {
     private String zwayServerPassword;
 
     private Integer pollingInterval;
+    private Integer deviceListMaxAge;
     private Boolean observerMechanismEnabled;
 
     public String getOpenHabAlias() {
@@ -114,6 +115,14 @@ public class ZWayBridgeConfiguration {
         this.pollingInterval = pollingInterval;
     }
 
+    public Integer getDeviceListMaxAge() {
+        return deviceListMaxAge;
+    }
+
+    public void setDeviceListMaxAge(Integer deviceListMaxAge) {
+        this.deviceListMaxAge = deviceListMaxAge;
+    }
+
     public Boolean getObserverMechanismEnabled() {
         return observerMechanismEnabled;
     }
@@ -134,6 +143,7 @@ public class ZWayBridgeConfiguration {
                 .append(BRIDGE_CONFIG_ZWAY_SERVER_USERNAME, this.getZWayUsername())
                 .append(BRIDGE_CONFIG_ZWAY_SERVER_PASSWORD, this.getZWayPassword())
                 .append(BRIDGE_CONFIG_POLLING_INTERVAL, this.getPollingInterval())
+                .append(BRIDGE_CONFIG_DEVICE_LIST_MAX_AGE, this.getDeviceListMaxAge())
                 .append(BRIDGE_CONFIG_OBSERVER_MECHANISM_ENABLED, this.getObserverMechanismEnabled()).toString();
     }
 }
@@ -10,7 +10,12 @@ package org.openhab.binding.zway.handler;
 
 import static org.openhab.binding.zway.ZWayBindingConstants.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -68,6 +73,10 @@ import de.fh_zwickau.informatik.sensor.model.zwaveapi.devices.ZWaveDevice;
  * - clean up openHAB Connector configuration
  * - important: the configured devices not changed in openHAB Connector!
  *
+ * The bridge owns the device list of the Z-Way server. All device handlers read their devices from this shared
+ * snapshot, which is loaded again at most every {@link ZWayBridgeConfiguration#getDeviceListMaxAge()} seconds, and
+ * are notified about the devices whose update time changed since the previous snapshot.
+ *
  * @author Patrick Hecker - Initial contribution
  */
 public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCallbacks {
@@ -85,6 +94,11 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
     private ZWayBridgeConfiguration mConfig = null;
     private IZWayApi mZWayApi = null;
 
+    private final Object deviceListLock = new Object();
+    private DeviceList deviceList = null;
+    private Map<String, Device> devicesById = Collections.emptyMap();
+    private long deviceListLoadTime = 0;
+
     /**
      * Initializer authenticate the Z-Way API instance with bridge configuration.
      *
@@ -304,6 +318,11 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
             resetInclusionExclusionJob = null;
         }
 
+        synchronized (deviceListLock) {
+            deviceList = null;
+            devicesById = Collections.emptyMap();
+        }
+
         super.dispose();
     }
 
@@ -340,6 +359,7 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
             logger.debug("Starting polling for bridge: {}", getThing().getLabel());
             if (getThing().getStatus().equals(ThingStatus.ONLINE)) {
                 updateControllerData();
+                refreshDeviceList();
             } else {
                 logger.debug("Polling not possible, bridge isn't ONLINE");
             }
@@ -570,6 +590,102 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
         return mZWayApi;
     }
 
+    /**
+     * Returns the device list of the Z-Way server. The list is shared by all devices and loaded again, if it is older
+     * than the configured maximum age.
+     *
+     * @return device list or null, if the devices couldn't be loaded
+     */
+    public DeviceList getDeviceList() {
+        synchronized (deviceListLock) {
+            if (deviceList == null || System.currentTimeMillis() - deviceListLoadTime > getDeviceListMaxAge()) {
+                loadDeviceList();
+            }
+            return deviceList;
+        }
+    }
+
+    /**
+     * Returns a device from the shared device list (see {@link #getDeviceList()}).
+     *
+     * @param deviceId id of the virtual device
+     * @return device or null, if the device doesn't exist or the devices couldn't be loaded
+     */
+    public Device getDevice(String deviceId) {
+        synchronized (deviceListLock) {
+            getDeviceList();
+            return devicesById.get(deviceId);
+        }
+    }
+
+    /**
+     * Loads the device list from the Z-Way server, regardless of its age.
+     */
+    private void refreshDeviceList() {
+        synchronized (deviceListLock) {
+            loadDeviceList();
+        }
+    }
+
+    private long getDeviceListMaxAge() {
+        Integer maxAge = mConfig != null ? mConfig.getDeviceListMaxAge() : null;
+        return TimeUnit.SECONDS.toMillis(maxAge != null ? maxAge : 10);
+    }
+
+    /**
+     * Loads the device list, rebuilds the index and notifies the device handlers about all devices whose update time
+     * changed. Must be called with the device list lock held.
+     */
+    private void loadDeviceList() {
+        IZWayApi zwayApi = mZWayApi;
+        if (zwayApi == null) {
+            return;
+        }
+
+        DeviceList loadedDeviceList = zwayApi.getDevices();
+        // keep the last snapshot on errors, but don't try again before the maximum age expired
+        deviceListLoadTime = System.currentTimeMillis();
+        if (loadedDeviceList == null) {
+            logger.debug("Loading Z-Way devices failed");
+            return;
+        }
+
+        Map<String, Device> loadedDevicesById = new HashMap<String, Device>();
+        final List<Device> updatedDevices = new ArrayList<Device>();
+        for (Device device : loadedDeviceList.getDevices()) {
+            loadedDevicesById.put(device.getDeviceId(), device);
+
+            Device previousDevice = devicesById.get(device.getDeviceId());
+            if (previousDevice == null || !Objects.equals(previousDevice.getUpdateTime(), device.getUpdateTime())) {
+                updatedDevices.add(device);
+            }
+        }
+        logger.debug("Z-Way devices loaded ({} virtual devices, {} updated)", loadedDevicesById.size(),
+                updatedDevices.size());
+
+        deviceList = loadedDeviceList;
+        devicesById = loadedDevicesById;
+
+        if (!updatedDevices.isEmpty()) {
+            // notify the device handlers outside of the lock
+            scheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    notifyDevicesUpdated(updatedDevices);
+                }
+            });
+        }
+    }
+
+    private void notifyDevicesUpdated(List<Device> updatedDevices) {
+        for (Thing thing : getThing().getThings()) {
+            ThingHandler handler = thing.getHandler();
+            if (handler instanceof ZWayDeviceHandler) {
+                ((ZWayDeviceHandler) handler).devicesUpdated(updatedDevices);
+            }
+        }
+    }
+
     /********************************
      ****** Z-Way API callback ******
      *******************************/
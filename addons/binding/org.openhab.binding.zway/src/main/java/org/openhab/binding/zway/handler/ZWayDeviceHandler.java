@@ -258,7 +258,7 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
                         // suppressed. Otherwise, the task will only terminate via cancellation or
                         // termination of the executor.
                         try {
-                            refreshChannel(channel);
+                            pollChannel(channel);
                         } catch (Throwable t) {
                             if (t instanceof Exception) {
                                 logger.error("Error occurred when performing polling:{}", t.getMessage());
@@ -303,6 +303,79 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
         scheduler.execute(new DevicePolling());
     }
 
+    /**
+     * Called by the bridge with the devices whose update time changed since the last device list was loaded. Updates
+     * the states of all linked channels of these devices.
+     *
+     * @param updatedDevices devices of the bridge (not only of this thing) which have been updated
+     */
+    protected void devicesUpdated(List<Device> updatedDevices) {
+        if (!getThing().getStatus().equals(ThingStatus.ONLINE)) {
+            return;
+        }
+
+        for (Device device : updatedDevices) {
+            for (Channel channel : getThing().getChannels()) {
+                if (device.getDeviceId().equals(channel.getProperties().get("deviceId"))
+                        && isLinked(channel.getUID().getId())) {
+                    updateChannelState(channel, device);
+                }
+            }
+        }
+    }
+
+    /**
+     * Triggers the update of the channel's device during polling. The new state is passed to the channel when the
+     * bridge notices the update (see {@link #devicesUpdated(List)}).
+     */
+    private void pollChannel(Channel channel) {
+        String deviceId = channel.getProperties().get("deviceId");
+        if (deviceId == null) {
+            // channels for command classes are not part of the device list
+            refreshChannel(channel);
+            return;
+        }
+
+        // Check Z-Way bridge handler
+        ZWayBridgeHandler zwayBridgeHandler = getZWayBridgeHandler();
+        if (zwayBridgeHandler == null || !zwayBridgeHandler.getThing().getStatus().equals(ThingStatus.ONLINE)) {
+            logger.debug("Z-Way bridge handler not found or not ONLINE.");
+            return;
+        }
+
+        Device device = zwayBridgeHandler.getDevice(deviceId);
+        if (device == null) {
+            logger.debug("ZAutomation device not found.");
+            return;
+        }
+        updateDevice(device);
+    }
+
+    private void updateChannelState(Channel channel, Device device) {
+        try {
+            updateState(channel.getUID(), ZWayDeviceStateConverter.toState(device, channel));
+        } catch (IllegalArgumentException iae) {
+            logger.debug(
+                    "IllegalArgumentException ({}) during refresh channel for device: {} (level: {}) with channel: {}",
+                    iae.getMessage(), device.getMetrics().getTitle(), device.getMetrics().getLevel(),
+                    channel.getChannelTypeUID());
+
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
+                    "Channel refresh for device: " + device.getMetrics().getTitle() + " (level: "
+                            + device.getMetrics().getLevel() + ") with channel: " + channel.getChannelTypeUID()
+                            + " failed!");
+        }
+    }
+
+    private void updateDevice(Device device) {
+        // Trigger update function, soon as the value has been updated, openHAB will be notified
+        try {
+            device.update();
+        } catch (Exception e) {
+            logger.debug("{} doesn't support update (triggered during refresh channel)", device.getMetrics().getTitle());
+        }
+    }
+
     private void refreshChannel(Channel channel) {
         // Check Z-Way bridge handler
         ZWayBridgeHandler zwayBridgeHandler = getZWayBridgeHandler();
@@ -314,36 +387,20 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
         // Check device id associated with channel
         String deviceId = channel.getProperties().get("deviceId");
         if (deviceId != null) {
-            // Load and check device from Z-Way server
-            DeviceList deviceList = zwayBridgeHandler.getZWayApi().getDevices();
+            // Load and check device from the device list of the bridge
+            DeviceList deviceList = zwayBridgeHandler.getDeviceList();
             if (deviceList != null) {
                 // 1.) Load only the current value from Z-Way server
-                Device device = deviceList.getDeviceById(deviceId);
+                Device device = zwayBridgeHandler.getDevice(deviceId);
                 if (device == null) {
                     logger.debug("ZAutomation device not found.");
                     return;
                 }
 
-                try {
-                    updateState(channel.getUID(), ZWayDeviceStateConverter.toState(device, channel));
-                } catch (IllegalArgumentException iae) {
-                    logger.debug(
-                            "IllegalArgumentException ({}) during refresh channel for device: {} (level: {}) with channel: {}",
-                            iae.getMessage(), device.getMetrics().getTitle(), device.getMetrics().getLevel(),
-                            channel.getChannelTypeUID());
-
-                    updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
-                            "Channel refresh for device: " + device.getMetrics().getTitle() + " (level: "
-                                    + device.getMetrics().getLevel() + ") with channel: " + channel.getChannelTypeUID()
-                                    + " failed!");
-                }
+                updateChannelState(channel, device);
+
                 // 2.) Trigger update function, soon as the value has been updated, openHAB will be notified
-                try {
-                    device.update();
-                } catch (Exception e) {
-                    logger.debug("{} doesn't support update (triggered during refresh channel)",
-                            device.getMetrics().getTitle());
-                }
+                updateDevice(device);
             } else {
                 logger.warn("Devices not loaded");
             }
@@ -488,9 +545,9 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
         final String deviceId = channel.getProperties().get("deviceId");
 
         if (deviceId != null) {
-            DeviceList deviceList = zwayBridgeHandler.getZWayApi().getDevices();
+            DeviceList deviceList = zwayBridgeHandler.getDeviceList();
             if (deviceList != null) {
-                Device device = deviceList.getDeviceById(deviceId);
+                Device device = zwayBridgeHandler.getDevice(deviceId);
                 if (device == null) {
                     logger.debug("ZAutomation device not found.");
                     return;